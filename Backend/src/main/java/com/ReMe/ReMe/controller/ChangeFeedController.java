@@ -0,0 +1,49 @@
+package com.ReMe.ReMe.controller;
+
+import java.security.Principal;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.ReMe.ReMe.entity.User;
+import com.ReMe.ReMe.service.ChangeFeedService;
+import com.ReMe.ReMe.service.UserService;
+
+@RestController
+@RequestMapping("/api/feed")
+public class ChangeFeedController {
+    
+    @Autowired
+    private ChangeFeedService changeFeedService;
+    
+    @Autowired
+    private UserService userService;
+    
+    /**
+     * Server-sent events for listing changes and the current user's purchases, sales and transactions.
+     * Reconnect with the Last-Event-ID header to receive the events missed in between.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> stream(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            Principal principal) {
+        try {
+            User user = userService.findByUsername(principal.getName());
+            SseEmitter emitter = changeFeedService.subscribe(user.getId(), lastEventId);
+            return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.ReMe.ReMe.controller;
 
+import java.math.BigDecimal;
 import java.security.Principal;
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,15 +16,25 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.ReMe.ReMe.dto.CursorPageDto;
+import com.ReMe.ReMe.dto.MarketplaceFilterDto;
 import com.ReMe.ReMe.dto.MarketplaceNoteDto;
 import com.ReMe.ReMe.dto.MarketplaceNoteResponseDto;
+import com.ReMe.ReMe.dto.MarketplaceSort;
 import com.ReMe.ReMe.dto.NotePurchaseDto;
 import com.ReMe.ReMe.dto.NotePurchaseHistoryDto;
+import com.ReMe.ReMe.dto.SellerSalesStatsDto;
+import com.ReMe.ReMe.dto.TagCountDto;
+import com.ReMe.ReMe.dto.TagFilterDto;
 import com.ReMe.ReMe.service.MarketplaceService;
+import com.ReMe.ReMe.util.ETagUtil;
+import com.ReMe.ReMe.util.Lovelace;
 
 import jakarta.validation.Valid;
 
@@ -47,12 +61,111 @@ public class MarketplaceController {
     }
     
     @GetMapping("/notes")
-    public ResponseEntity<?> getAllActiveNotes(Principal principal) {
+    public ResponseEntity<?> getAllActiveNotes(Principal principal, WebRequest request) {
         try {
+            String eTag = marketplaceService.getActiveNotesETag(principal.getName(), null);
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
             List<MarketplaceNoteResponseDto> notes = marketplaceService.getAllActiveNotes(
                 principal.getName()
             );
-            return ResponseEntity.ok(notes);
+            return ResponseEntity.ok().eTag(eTag).body(notes);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Cursor-paginated active listings with optional price (in ADA), seller and minimum-purchases filters.
+     * Sorts: newest (default), price_asc, price_desc, popular. Pass the returned nextCursor back as
+     * {@code cursor}, with the same sort, to fetch the following page.
+     */
+    @GetMapping("/notes/page")
+    public ResponseEntity<?> getActiveNotePage(
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String sellerAddress,
+            @RequestParam(required = false) Integer minPurchases,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Principal principal,
+            WebRequest request) {
+        try {
+            MarketplaceSort order = MarketplaceSort.parse(sort);
+            MarketplaceFilterDto filter = new MarketplaceFilterDto(
+                minPrice != null ? Lovelace.fromAda(minPrice) : null,
+                maxPrice != null ? Lovelace.fromAda(maxPrice) : null,
+                sellerAddress != null && !sellerAddress.isBlank() ? sellerAddress : null,
+                minPurchases);
+            String eTag = marketplaceService.getActiveNotePageETag(principal.getName(),
+                order, filter.getMinPriceLovelace(), filter.getMaxPriceLovelace(), filter.getSellerWalletAddress(),
+                minPurchases, cursor, limit);
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
+            CursorPageDto<MarketplaceNoteResponseDto> page = marketplaceService.getActiveNotePage(
+                principal.getName(), filter, order, cursor, limit);
+            return ResponseEntity.ok().eTag(eTag).body(page);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Cursor-paginated active listings matching a tag filter: every tag in {@code all}, at least one in
+     * {@code any} and none in {@code none}, each a comma-separated list. Newest listings first.
+     */
+    @GetMapping("/notes/tagged")
+    public ResponseEntity<?> getTaggedNotes(
+            @RequestParam(required = false) List<String> all,
+            @RequestParam(required = false) List<String> any,
+            @RequestParam(required = false) List<String> none,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Principal principal) {
+        try {
+            CursorPageDto<MarketplaceNoteResponseDto> page = marketplaceService.getTaggedNotePage(
+                principal.getName(), new TagFilterDto(all, any, none), cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Tag counts over all active listings, or over the listings matching the same filter as /notes/tagged.
+     */
+    @GetMapping("/tags")
+    public ResponseEntity<?> getTagCounts(
+            @RequestParam(required = false) List<String> all,
+            @RequestParam(required = false) List<String> any,
+            @RequestParam(required = false) List<String> none) {
+        try {
+            List<TagCountDto> counts = marketplaceService.getTagCounts(new TagFilterDto(all, any, none));
+            return ResponseEntity.ok(counts);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @GetMapping("/notes/{id}/tags")
+    public ResponseEntity<?> getListingTags(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(marketplaceService.getListingTags(id));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @PutMapping("/notes/{id}/tags")
+    public ResponseEntity<?> setListingTags(
+            @PathVariable Long id,
+            @RequestBody List<String> tags,
+            Principal principal) {
+        try {
+            return ResponseEntity.ok(marketplaceService.setListingTags(id, tags, principal.getName()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -61,25 +174,36 @@ public class MarketplaceController {
     @GetMapping("/notes/{id}")
     public ResponseEntity<?> getNoteById(
             @PathVariable Long id,
-            Principal principal) {
+            Principal principal,
+            WebRequest request) {
         try {
+            String eTag = marketplaceService.getNoteETag(id, principal.getName());
+            if (eTag != null && request.checkNotModified(eTag)) {
+                // A revalidating client is still viewing the listing
+                marketplaceService.recordView(id);
+                return null;
+            }
             MarketplaceNoteResponseDto note = marketplaceService.getNoteById(
                 id, 
                 principal.getName()
             );
-            return ResponseEntity.ok(note);
+            return ResponseEntity.ok().eTag(eTag).body(note);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
     
     @GetMapping("/notes/my-listings")
-    public ResponseEntity<?> getMyListedNotes(Principal principal) {
+    public ResponseEntity<?> getMyListedNotes(Principal principal, WebRequest request) {
         try {
+            String eTag = marketplaceService.getMyListingsETag(principal.getName());
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
             List<MarketplaceNoteResponseDto> notes = marketplaceService.getMyListedNotes(
                 principal.getName()
             );
-            return ResponseEntity.ok(notes);
+            return ResponseEntity.ok().eTag(eTag).body(notes);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -88,13 +212,18 @@ public class MarketplaceController {
     @GetMapping("/notes/search")
     public ResponseEntity<?> searchNotes(
             @RequestParam String query,
-            Principal principal) {
+            Principal principal,
+            WebRequest request) {
         try {
+            String eTag = marketplaceService.getActiveNotesETag(principal.getName(), query);
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
             List<MarketplaceNoteResponseDto> notes = marketplaceService.searchNotes(
                 query, 
                 principal.getName()
             );
-            return ResponseEntity.ok(notes);
+            return ResponseEntity.ok().eTag(eTag).body(notes);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -103,11 +232,13 @@ public class MarketplaceController {
     @PostMapping("/purchase")
     public ResponseEntity<?> purchaseNote(
             @Valid @RequestBody NotePurchaseDto dto,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             Principal principal) {
         try {
             MarketplaceNoteResponseDto response = marketplaceService.purchaseNote(
                 dto, 
-                principal.getName()
+                principal.getName(),
+                idempotencyKey
             );
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -119,14 +250,23 @@ public class MarketplaceController {
     public ResponseEntity<?> updateMarketplaceNote(
             @PathVariable Long id,
             @Valid @RequestBody MarketplaceNoteDto dto,
-            Principal principal) {
+            Principal principal,
+            WebRequest request) {
         try {
+            // If-Match: reject the write with 412 when the seller edited a stale copy.
+            // Listing tags are weak, so the header is compared weakly rather than by checkNotModified
+            String eTag = marketplaceService.getNoteETag(id, principal.getName());
+            if (!ETagUtil.ifMatches(request.getHeader(HttpHeaders.IF_MATCH), eTag)) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
             MarketplaceNoteResponseDto response = marketplaceService.updateMarketplaceNote(
                 id, 
                 dto, 
                 principal.getName()
             );
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok()
+                .eTag(marketplaceService.getNoteETag(id, principal.getName()))
+                .body(response);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -179,6 +319,29 @@ public class MarketplaceController {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+
+    /**
+     * Revenue and sales-count dashboard for the current seller.
+     * Defaults to the last 30 days when no range is given.
+     */
+    @GetMapping("/sales/stats")
+    public ResponseEntity<?> getMySalesStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Principal principal) {
+        try {
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusDays(29);
+            SellerSalesStatsDto stats = marketplaceService.getMySalesStats(
+                principal.getName(),
+                start,
+                end
+            );
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
     
     /**
      * Secure endpoint to get seller wallet address for purchase.
@@ -1,17 +1,52 @@
 package com.ReMe.ReMe.controller;
 
+import com.ReMe.ReMe.dto.NoteBatchOperationDto;
+import com.ReMe.ReMe.dto.NoteBatchResultDto;
+import com.ReMe.ReMe.dto.CursorPageDto;
 import com.ReMe.ReMe.dto.NoteDto;
+import com.ReMe.ReMe.dto.NoteImportJobDto;
+import com.ReMe.ReMe.dto.NotePatchDto;
+import com.ReMe.ReMe.dto.NoteSummaryDto;
+import com.ReMe.ReMe.dto.NoteSyncDto;
+import com.ReMe.ReMe.dto.NoteVersionDto;
+import com.ReMe.ReMe.dto.TagCountDto;
+import com.ReMe.ReMe.dto.TagFilterDto;
+import com.ReMe.ReMe.entity.NoteImportStatus;
 import com.ReMe.ReMe.entity.User;
+import com.ReMe.ReMe.exception.ContentTooLargeException;
+import com.ReMe.ReMe.exception.ImportAlreadyRunningException;
+import com.ReMe.ReMe.exception.StaleVersionException;
+import com.ReMe.ReMe.service.LargeContentStore;
+import com.ReMe.ReMe.service.NoteExportService;
+import com.ReMe.ReMe.service.NoteHistoryService;
+import com.ReMe.ReMe.service.NoteImportService;
+import com.ReMe.ReMe.service.NoteImporter;
 import com.ReMe.ReMe.service.NoteService;
 import com.ReMe.ReMe.service.UserService;
+import com.ReMe.ReMe.util.NoteExportWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/notes")
@@ -24,28 +59,215 @@ public class NoteController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private NoteHistoryService noteHistoryService;
+    
+    @Autowired
+    private LargeContentStore largeContentStore;
+    
+    @Autowired
+    private NoteExportService noteExportService;
+    
+    @Autowired
+    private NoteImporter noteImporter;
+    
+    @Autowired
+    private NoteImportService noteImportService;
+    
     private User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        // The JWT filter already loaded the user as the principal; avoid a second lookup
+        if (authentication.getPrincipal() instanceof User user) {
+            return user;
+        }
         String username = authentication.getName();
         return userService.findByUsername(username);
     }
     
     @GetMapping
-    public ResponseEntity<List<NoteDto>> getAllNotes() {
+    public ResponseEntity<List<NoteDto>> getAllNotes(WebRequest request) {
         try {
             User currentUser = getCurrentUser();
+            String eTag = noteService.getNotesETag(currentUser);
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
             List<NoteDto> notes = noteService.getAllNotesByUser(currentUser);
-            return ResponseEntity.ok(notes);
+            return ResponseEntity.ok().eTag(eTag).body(notes);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
+    /**
+     * Paged list view: titles, timestamps and a snippet only. Full content comes from GET /api/notes/{id}.
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<?> getNoteSummaries(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer snippetLength,
+            WebRequest request) {
+        try {
+            User currentUser = getCurrentUser();
+            String eTag = noteService.getNotesETag(currentUser, "summary", title, cursor, limit, snippetLength);
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
+            CursorPageDto<NoteSummaryDto> page = noteService.getNoteSummaries(
+                    currentUser, title, cursor, limit, snippetLength);
+            return ResponseEntity.ok().eTag(eTag).body(page);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Paged summaries of the notes matching a tag filter: every tag in {@code all}, at least one in
+     * {@code any} and none in {@code none}. Each parameter takes a comma-separated list.
+     */
+    @GetMapping("/tagged")
+    public ResponseEntity<?> getTaggedNotes(
+            @RequestParam(required = false) List<String> all,
+            @RequestParam(required = false) List<String> any,
+            @RequestParam(required = false) List<String> none,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer snippetLength) {
+        try {
+            User currentUser = getCurrentUser();
+            CursorPageDto<NoteSummaryDto> page = noteService.getTaggedNoteSummaries(
+                    currentUser, new TagFilterDto(all, any, none), cursor, limit, snippetLength);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Tag counts over the user's notes, or over the notes matching the same filter as /tagged.
+     */
+    @GetMapping("/tags")
+    public ResponseEntity<?> getTagCounts(
+            @RequestParam(required = false) List<String> all,
+            @RequestParam(required = false) List<String> any,
+            @RequestParam(required = false) List<String> none) {
+        try {
+            User currentUser = getCurrentUser();
+            List<TagCountDto> counts = noteService.getTagCounts(currentUser, new TagFilterDto(all, any, none));
+            return ResponseEntity.ok(counts);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Delta sync: notes created, updated or deleted since the watermark returned by the previous call.
+     */
+    @GetMapping("/sync")
+    public ResponseEntity<?> syncNotes(@RequestParam(required = false) String since) {
+        try {
+            User currentUser = getCurrentUser();
+            NoteSyncDto changes = noteService.getChangesSince(since, currentUser);
+            return ResponseEntity.ok(changes);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Downloads every note as NDJSON ({@code format=ndjson}, the default) or as a gzipped tar of Markdown files
+     * ({@code format=markdown}), streamed straight from a database cursor.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportNotes(@RequestParam(defaultValue = NoteExportWriter.NDJSON) String format) {
+        if (!format.equals(NoteExportWriter.NDJSON) && !format.equals(NoteExportWriter.MARKDOWN)) {
+            return ResponseEntity.badRequest().build();
+        }
+        // Resolved here: the body is written on another thread, outside the security context
+        User currentUser = getCurrentUser();
+        boolean markdown = format.equals(NoteExportWriter.MARKDOWN);
+        StreamingResponseBody body = out -> noteExportService.export(currentUser, format, out);
+        return ResponseEntity.ok()
+                .contentType(markdown ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"notes." + (markdown ? "tar.gz" : "ndjson") + "\"")
+                .body(body);
+    }
+    
+    /**
+     * Imports notes from an NDJSON upload or a Markdown archive (tar, tar.gz, zip or a single file),
+     * streaming the request body in batches. If the upload fails part-way, sending it again with the
+     * same Import-Key resumes after the last committed batch; progress is at GET /imports/{key}.
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "application/gzip", "application/zip",
+                 "application/x-tar", MediaType.TEXT_MARKDOWN_VALUE, MediaType.TEXT_PLAIN_VALUE,
+                 MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<?> importNotes(@RequestParam(defaultValue = NoteExportWriter.NDJSON) String format,
+                                         @RequestHeader(value = "Import-Key", required = false) String importKey,
+                                         HttpServletRequest request) {
+        if (!format.equals(NoteExportWriter.NDJSON) && !format.equals(NoteExportWriter.MARKDOWN)) {
+            return ResponseEntity.badRequest().body("Unsupported format: " + format);
+        }
+        if (importKey != null && (importKey.isBlank() || importKey.length() > 128)) {
+            return ResponseEntity.badRequest().body("Import-Key must be 1 to 128 characters");
+        }
+        String key = importKey != null ? importKey : UUID.randomUUID().toString();
+        try {
+            User currentUser = getCurrentUser();
+            NoteImportJobDto job = noteImporter.importNotes(currentUser, key, format, request.getInputStream());
+            return NoteImportStatus.FAILED.name().equals(job.getStatus())
+                    ? ResponseEntity.badRequest().body(job)
+                    : ResponseEntity.ok(job);
+        } catch (ImportAlreadyRunningException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @GetMapping("/imports/{key}")
+    public ResponseEntity<NoteImportJobDto> getImport(@PathVariable String key) {
+        try {
+            User currentUser = getCurrentUser();
+            return ResponseEntity.ok(noteImportService.getJob(key, currentUser));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     @GetMapping("/{id}")
-    public ResponseEntity<NoteDto> getNoteById(@PathVariable Long id) {
+    public ResponseEntity<NoteDto> getNoteById(@PathVariable Long id, WebRequest request) {
         try {
             User currentUser = getCurrentUser();
+            // Answer revalidations from the version stamp alone, before the content is loaded
+            String eTag = noteService.getNoteETag(id, currentUser);
+            if (eTag != null && request.checkNotModified(eTag)) {
+                return null;
+            }
             NoteDto note = noteService.getNoteById(id, currentUser);
+            return ResponseEntity.ok().eTag(eTag).body(note);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @GetMapping("/{id}/versions")
+    public ResponseEntity<List<NoteVersionDto>> getNoteVersions(@PathVariable Long id) {
+        try {
+            User currentUser = getCurrentUser();
+            List<NoteVersionDto> versions = noteHistoryService.getVersions(id, currentUser);
+            return ResponseEntity.ok(versions);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @GetMapping("/{id}/versions/{version}")
+    public ResponseEntity<NoteDto> getNoteVersion(@PathVariable Long id, @PathVariable Long version) {
+        try {
+            User currentUser = getCurrentUser();
+            NoteDto note = noteHistoryService.getVersion(id, version, currentUser);
             return ResponseEntity.ok(note);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
@@ -64,13 +286,171 @@ public class NoteController {
     }
     
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateNote(@PathVariable Long id, @Valid @RequestBody NoteDto noteDto) {
+    public ResponseEntity<?> updateNote(@PathVariable Long id, @Valid @RequestBody NoteDto noteDto,
+                                        WebRequest request) {
         try {
             User currentUser = getCurrentUser();
+            // If-Match: reject the write with 412 when the client edited a stale copy
+            String eTag = noteService.getNoteETag(id, currentUser);
+            if (eTag != null && request.checkNotModified(eTag)) {
+                return null;
+            }
             NoteDto updatedNote = noteService.updateNote(id, noteDto, currentUser);
-            return ResponseEntity.ok(updatedNote);
+            return ResponseEntity.ok().eTag(noteService.getNoteETag(id, currentUser)).body(updatedNote);
+        } catch (StaleVersionException | ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Partial update: JSON Merge Patch of title/content, or text edits of the content, against {@code baseVersion}.
+     * Answers 409 when the note has moved on since that version.
+     */
+    @PatchMapping(value = "/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/merge-patch+json"})
+    public ResponseEntity<?> patchNote(@PathVariable Long id, @Valid @RequestBody NotePatchDto patch) {
+        try {
+            User currentUser = getCurrentUser();
+            NoteDto patchedNote = noteService.patchNote(id, patch, currentUser);
+            return ResponseEntity.ok().eTag(noteService.getNoteETag(id, currentUser)).body(patchedNote);
+        } catch (StaleVersionException | ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    /**
+     * Editor autosave: acknowledged immediately, written to the database once the note goes quiet.
+     * Reads see the latest autosave right away.
+     */
+    @PutMapping("/{id}/autosave")
+    public ResponseEntity<?> autosaveNote(@PathVariable Long id, @Valid @RequestBody NoteDto noteDto) {
+        try {
+            User currentUser = getCurrentUser();
+            NoteDto draft = noteService.autosaveNote(id, noteDto, currentUser);
+            return ResponseEntity.accepted().body(draft);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    /**
+     * Replaces the note content with the raw request body, streamed to disk when it is over the large-content
+     * threshold. This is how notes larger than the JSON content limit are written.
+     */
+    @PutMapping(value = "/{id}/content",
+                consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.TEXT_MARKDOWN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<?> uploadContent(@PathVariable Long id, HttpServletRequest request) {
+        LargeContentStore.StoredContent upload = null;
+        try {
+            User currentUser = getCurrentUser();
+            upload = largeContentStore.spool(request.getInputStream());
+            NoteDto note = noteService.replaceContent(id, upload, currentUser);
+            return ResponseEntity.ok().eTag(noteService.getNoteETag(id, currentUser)).body(note);
+        } catch (ContentTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (UncheckedIOException e) {
+            // Spooling or appending to the segment files failed: a storage problem, not a missing note
+            return ResponseEntity.status(HttpStatus.INSUFFICIENT_STORAGE).body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
+        } finally {
+            if (upload != null) {
+                largeContentStore.discard(upload);
+            }
+        }
+    }
+    
+    /**
+     * The note content as UTF-8 text, with single byte-range requests. Large bodies are sent from disk
+     * with sendfile when the connector supports it, and through memory-mapped reads otherwise.
+     */
+    @GetMapping("/{id}/content")
+    public void getContent(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        LargeContentStore.StoredContent content;
+        try {
+            content = noteService.getStoredContent(id, getCurrentUser());
+        } catch (RuntimeException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        
+        // Content is addressed by its hash, so the hash is a strong validator
+        String eTag = "\"" + content.getHash() + "\"";
+        if (new ServletWebRequest(request, response).checkNotModified(eTag)) {
+            return;
+        }
+        
+        long length = content.getByteLength();
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(eTag))) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                // Multiple ranges are answered with the whole body, which RFC 9110 allows
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+        }
+        
+        long count = end - start + 1;
+        response.setContentType("text/plain;charset=UTF-8");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentLengthLong(count);
+        if (request.getMethod().equals("HEAD") || count == 0) {
+            return;
+        }
+        
+        if (content.getText() != null) {
+            response.getOutputStream().write(content.getText().getBytes(StandardCharsets.UTF_8), (int) start, (int) count);
+        } else if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            // Zero-copy: Tomcat sends the file region with sendfile after this method returns
+            Path segment = largeContentStore.segmentPath(content.getSegment());
+            request.setAttribute("org.apache.tomcat.sendfile.filename", segment.toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", content.getOffset() + start);
+            request.setAttribute("org.apache.tomcat.sendfile.end", content.getOffset() + end + 1);
+        } else {
+            largeContentStore.transferTo(content, start, count, response.getOutputStream());
+        }
+    }
+    
+    @GetMapping("/{id}/tags")
+    public ResponseEntity<List<String>> getNoteTags(@PathVariable Long id) {
+        try {
+            User currentUser = getCurrentUser();
+            return ResponseEntity.ok(noteService.getNoteTags(id, currentUser));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    /**
+     * Replaces the note's tags. Tags are trimmed and lower-cased; at most tags.max-per-item are kept.
+     */
+    @PutMapping("/{id}/tags")
+    public ResponseEntity<?> setNoteTags(@PathVariable Long id, @RequestBody List<String> tags) {
+        try {
+            User currentUser = getCurrentUser();
+            return ResponseEntity.ok(noteService.setNoteTags(id, tags, currentUser));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -89,12 +469,27 @@ public class NoteController {
         }
     }
     
+    @PostMapping("/batch")
+    public ResponseEntity<?> applyBatch(@RequestBody List<NoteBatchOperationDto> operations) {
+        try {
+            User currentUser = getCurrentUser();
+            List<NoteBatchResultDto> results = noteService.applyBatch(operations, currentUser);
+            return ResponseEntity.ok(results);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     @GetMapping("/search")
-    public ResponseEntity<List<NoteDto>> searchNotes(@RequestParam String title) {
+    public ResponseEntity<List<NoteDto>> searchNotes(@RequestParam String title, WebRequest request) {
         try {
             User currentUser = getCurrentUser();
+            String eTag = noteService.getNotesETag(currentUser, "search", title);
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
             List<NoteDto> notes = noteService.searchNotesByTitle(title, currentUser);
-            return ResponseEntity.ok(notes);
+            return ResponseEntity.ok().eTag(eTag).body(notes);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
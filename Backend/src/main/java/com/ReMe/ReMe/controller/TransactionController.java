@@ -1,5 +1,6 @@
 package com.ReMe.ReMe.controller;
 
+import java.math.BigDecimal;
 import java.security.Principal;
 import java.util.List;
 
@@ -12,11 +13,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.ReMe.ReMe.dto.CursorPageDto;
+import com.ReMe.ReMe.dto.ImportResultDto;
 import com.ReMe.ReMe.dto.TransactionDto;
+import com.ReMe.ReMe.dto.TransactionFilterDto;
 import com.ReMe.ReMe.dto.TransactionResponseDto;
 import com.ReMe.ReMe.service.TransactionService;
+import com.ReMe.ReMe.util.Lovelace;
 
 import jakarta.validation.Valid;
 
@@ -43,24 +50,86 @@ public class TransactionController {
         }
     }
     
+    /**
+     * Bulk import for wallet sync. Returns per-item outcomes instead of failing the whole request
+     * on an invalid or duplicate entry.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<?> importTransactions(
+            @RequestBody List<TransactionDto> transactions,
+            Principal principal) {
+        try {
+            ImportResultDto result = transactionService.importTransactions(
+                transactions,
+                principal.getName()
+            );
+            return ResponseEntity.ok(result);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     @GetMapping
-    public ResponseEntity<List<TransactionResponseDto>> getUserTransactions(Principal principal) {
+    public ResponseEntity<List<TransactionResponseDto>> getUserTransactions(Principal principal, WebRequest request) {
+        String eTag = transactionService.getTransactionsETag(principal.getName(), null);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         List<TransactionResponseDto> transactions = transactionService.getUserTransactions(
             principal.getName()
         );
-        return ResponseEntity.ok(transactions);
+        return ResponseEntity.ok().eTag(eTag).body(transactions);
+    }
+    
+    /**
+     * Cursor-paginated transaction history with optional network and amount filters.
+     * Pass the returned nextCursor back as {@code cursor} to fetch the following page.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageDto<TransactionResponseDto>> getUserTransactionPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer networkId,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            Principal principal,
+            WebRequest request) {
+        try {
+            String eTag = transactionService.getTransactionsETag(principal.getName(), null,
+                cursor, limit, networkId, minAmount, maxAmount);
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
+            CursorPageDto<TransactionResponseDto> page = transactionService.getTransactionPage(
+                principal.getName(),
+                null,
+                new TransactionFilterDto(networkId,
+                    minAmount != null ? Lovelace.fromAda(minAmount) : null,
+                    maxAmount != null ? Lovelace.fromAda(maxAmount) : null),
+                cursor,
+                limit
+            );
+            return ResponseEntity.ok().eTag(eTag).body(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
     }
     
     @GetMapping("/{txHash}")
     public ResponseEntity<TransactionResponseDto> getTransactionByHash(
             @PathVariable String txHash,
-            Principal principal) {
+            Principal principal,
+            WebRequest request) {
         try {
+            String eTag = transactionService.getTransactionETag(txHash, principal.getName());
+            if (eTag != null && request.checkNotModified(eTag)) {
+                return null;
+            }
             TransactionResponseDto transaction = transactionService.getTransactionByHash(
                 txHash, 
                 principal.getName()
             );
-            return ResponseEntity.ok(transaction);
+            return ResponseEntity.ok().eTag(eTag).body(transaction);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -69,15 +138,45 @@ public class TransactionController {
     @GetMapping("/note/{noteId}")
     public ResponseEntity<List<TransactionResponseDto>> getNoteTransactions(
             @PathVariable Long noteId,
-            Principal principal) {
+            Principal principal,
+            WebRequest request) {
         try {
+            String eTag = transactionService.getTransactionsETag(principal.getName(), noteId);
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
             List<TransactionResponseDto> transactions = transactionService.getNoteTransactions(
                 noteId, 
                 principal.getName()
             );
-            return ResponseEntity.ok(transactions);
+            return ResponseEntity.ok().eTag(eTag).body(transactions);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
+    
+    @GetMapping("/note/{noteId}/page")
+    public ResponseEntity<CursorPageDto<TransactionResponseDto>> getNoteTransactionPage(
+            @PathVariable Long noteId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Principal principal,
+            WebRequest request) {
+        try {
+            String eTag = transactionService.getTransactionsETag(principal.getName(), noteId, cursor, limit);
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
+            CursorPageDto<TransactionResponseDto> page = transactionService.getTransactionPage(
+                principal.getName(),
+                noteId,
+                null,
+                cursor,
+                limit
+            );
+            return ResponseEntity.ok().eTag(eTag).body(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
 }
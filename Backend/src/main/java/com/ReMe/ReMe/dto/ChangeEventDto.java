@@ -0,0 +1,44 @@
+package com.ReMe.ReMe.dto;
+
+import java.time.LocalDateTime;
+
+public class ChangeEventDto {
+    
+    private String type; // LISTING_CREATED, LISTING_UPDATED, LISTING_DEACTIVATED, PURCHASE_COMPLETED, SALE_COMPLETED, TRANSACTION_CREATED, TRANSACTIONS_IMPORTED
+    private Long resourceId; // listing, note or transaction id the event refers to; null for aggregate events
+    private LocalDateTime occurredAt;
+    
+    // Constructors
+    public ChangeEventDto() {}
+    
+    public ChangeEventDto(String type, Long resourceId, LocalDateTime occurredAt) {
+        this.type = type;
+        this.resourceId = resourceId;
+        this.occurredAt = occurredAt;
+    }
+    
+    // Getters and Setters
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public Long getResourceId() {
+        return resourceId;
+    }
+    
+    public void setResourceId(Long resourceId) {
+        this.resourceId = resourceId;
+    }
+    
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+    
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,38 @@
+package com.ReMe.ReMe.dto;
+
+import java.util.List;
+
+public class CursorPageDto<T> {
+    
+    private List<T> items;
+    private String nextCursor; // null when there are no more pages
+    
+    // Constructors
+    public CursorPageDto() {}
+    
+    public CursorPageDto(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+    
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
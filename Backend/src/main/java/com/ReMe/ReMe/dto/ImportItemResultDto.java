@@ -0,0 +1,56 @@
+package com.ReMe.ReMe.dto;
+
+public class ImportItemResultDto {
+    
+    public static final String IMPORTED = "IMPORTED";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String INVALID = "INVALID";
+    
+    private int index;
+    private String key; // txHash for transactions
+    private String status;
+    private String message;
+    
+    // Constructors
+    public ImportItemResultDto() {}
+    
+    public ImportItemResultDto(int index, String key, String status, String message) {
+        this.index = index;
+        this.key = key;
+        this.status = status;
+        this.message = message;
+    }
+    
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+    
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    public void setKey(String key) {
+        this.key = key;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
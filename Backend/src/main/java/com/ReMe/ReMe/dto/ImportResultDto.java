@@ -0,0 +1,58 @@
+package com.ReMe.ReMe.dto;
+
+import java.util.List;
+
+public class ImportResultDto {
+    
+    private int imported;
+    private int duplicates;
+    private int invalid;
+    private List<ImportItemResultDto> results;
+    
+    // Constructors
+    public ImportResultDto() {}
+    
+    public ImportResultDto(List<ImportItemResultDto> results) {
+        this.results = results;
+        for (ImportItemResultDto result : results) {
+            switch (result.getStatus()) {
+                case ImportItemResultDto.IMPORTED -> imported++;
+                case ImportItemResultDto.DUPLICATE -> duplicates++;
+                default -> invalid++;
+            }
+        }
+    }
+    
+    // Getters and Setters
+    public int getImported() {
+        return imported;
+    }
+    
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+    
+    public int getDuplicates() {
+        return duplicates;
+    }
+    
+    public void setDuplicates(int duplicates) {
+        this.duplicates = duplicates;
+    }
+    
+    public int getInvalid() {
+        return invalid;
+    }
+    
+    public void setInvalid(int invalid) {
+        this.invalid = invalid;
+    }
+    
+    public List<ImportItemResultDto> getResults() {
+        return results;
+    }
+    
+    public void setResults(List<ImportItemResultDto> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ReMe.ReMe.dto;
+
+public class MarketplaceFilterDto {
+    
+    private Long minPriceLovelace;
+    private Long maxPriceLovelace;
+    private String sellerWalletAddress;
+    private Integer minPurchases;
+    
+    // Constructors
+    public MarketplaceFilterDto() {}
+    
+    public MarketplaceFilterDto(Long minPriceLovelace, Long maxPriceLovelace, String sellerWalletAddress,
+                                Integer minPurchases) {
+        this.minPriceLovelace = minPriceLovelace;
+        this.maxPriceLovelace = maxPriceLovelace;
+        this.sellerWalletAddress = sellerWalletAddress;
+        this.minPurchases = minPurchases;
+    }
+    
+    // Getters and Setters
+    public Long getMinPriceLovelace() {
+        return minPriceLovelace;
+    }
+    
+    public void setMinPriceLovelace(Long minPriceLovelace) {
+        this.minPriceLovelace = minPriceLovelace;
+    }
+    
+    public Long getMaxPriceLovelace() {
+        return maxPriceLovelace;
+    }
+    
+    public void setMaxPriceLovelace(Long maxPriceLovelace) {
+        this.maxPriceLovelace = maxPriceLovelace;
+    }
+    
+    public String getSellerWalletAddress() {
+        return sellerWalletAddress;
+    }
+    
+    public void setSellerWalletAddress(String sellerWalletAddress) {
+        this.sellerWalletAddress = sellerWalletAddress;
+    }
+    
+    public Integer getMinPurchases() {
+        return minPurchases;
+    }
+    
+    public void setMinPurchases(Integer minPurchases) {
+        this.minPurchases = minPurchases;
+    }
+}
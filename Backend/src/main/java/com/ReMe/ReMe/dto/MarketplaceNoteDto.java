@@ -1,12 +1,13 @@
 package com.ReMe.ReMe.dto;
 
-import java.math.BigDecimal;
-
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 
+import com.ReMe.ReMe.util.Lovelace;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 public class MarketplaceNoteDto {
     
     @NotBlank(message = "Title is required")
@@ -21,8 +22,10 @@ public class MarketplaceNoteDto {
     private String content;
     
     @NotNull(message = "Price is required")
-    @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
-    private BigDecimal priceAda;
+    @Positive(message = "Price must be greater than 0")
+    @JsonProperty("priceAda")
+    @Lovelace.AsAda
+    private Long priceLovelace;
     
     @NotBlank(message = "Seller wallet address is required")
     private String sellerWalletAddress;
@@ -31,11 +34,11 @@ public class MarketplaceNoteDto {
     public MarketplaceNoteDto() {}
     
     public MarketplaceNoteDto(String title, String description, String content, 
-                             BigDecimal priceAda, String sellerWalletAddress) {
+                             Long priceLovelace, String sellerWalletAddress) {
         this.title = title;
         this.description = description;
         this.content = content;
-        this.priceAda = priceAda;
+        this.priceLovelace = priceLovelace;
         this.sellerWalletAddress = sellerWalletAddress;
     }
     
@@ -64,12 +67,12 @@ public class MarketplaceNoteDto {
         this.content = content;
     }
     
-    public BigDecimal getPriceAda() {
-        return priceAda;
+    public Long getPriceLovelace() {
+        return priceLovelace;
     }
     
-    public void setPriceAda(BigDecimal priceAda) {
-        this.priceAda = priceAda;
+    public void setPriceLovelace(Long priceLovelace) {
+        this.priceLovelace = priceLovelace;
     }
     
     public String getSellerWalletAddress() {
@@ -1,8 +1,10 @@
 package com.ReMe.ReMe.dto;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+import com.ReMe.ReMe.util.Lovelace;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 public class MarketplaceNoteResponseDto {
     
     private Long id;
@@ -10,7 +12,9 @@ public class MarketplaceNoteResponseDto {
     private String description;
     private String contentPreview; // First 200 characters
     private String fullContent; // Only included if user has purchased
-    private BigDecimal priceAda;
+    @JsonProperty("priceAda")
+    @Lovelace.AsAda
+    private Long priceLovelace;
     private String sellerWalletAddress;
     private Boolean isActive;
     private Integer viewCount;
@@ -63,12 +67,12 @@ public class MarketplaceNoteResponseDto {
         this.fullContent = fullContent;
     }
     
-    public BigDecimal getPriceAda() {
-        return priceAda;
+    public Long getPriceLovelace() {
+        return priceLovelace;
     }
     
-    public void setPriceAda(BigDecimal priceAda) {
-        this.priceAda = priceAda;
+    public void setPriceLovelace(Long priceLovelace) {
+        this.priceLovelace = priceLovelace;
     }
     
     public String getSellerWalletAddress() {
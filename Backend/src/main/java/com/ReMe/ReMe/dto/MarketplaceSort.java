@@ -0,0 +1,26 @@
+package com.ReMe.ReMe.dto;
+
+/**
+ * Orderings of the paginated marketplace listing. Each is keyed on one column plus the id as a
+ * tie-breaker and has a matching composite index on marketplace_notes.
+ */
+public enum MarketplaceSort {
+    NEWEST,
+    PRICE_ASC,
+    PRICE_DESC,
+    POPULAR;
+    
+    /**
+     * @throws RuntimeException for an unknown sort name
+     */
+    public static MarketplaceSort parse(String value) {
+        if (value == null || value.isBlank()) {
+            return NEWEST;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown sort: " + value);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.ReMe.ReMe.dto;
+
+public class NoteBatchOperationDto {
+    
+    public static final String CREATE = "create";
+    public static final String UPDATE = "update";
+    public static final String DELETE = "delete";
+    
+    private String op; // create, update or delete
+    private Long id; // required for update and delete
+    private String title;
+    private String content;
+    private Long version; // optional for update: rejected with CONFLICT unless still current
+    
+    // Constructors
+    public NoteBatchOperationDto() {}
+    
+    public NoteBatchOperationDto(String op, Long id, String title, String content) {
+        this.op = op;
+        this.id = id;
+        this.title = title;
+        this.content = content;
+    }
+    
+    // Getters and Setters
+    public String getOp() {
+        return op;
+    }
+    
+    public void setOp(String op) {
+        this.op = op;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getContent() {
+        return content;
+    }
+    
+    public void setContent(String content) {
+        this.content = content;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
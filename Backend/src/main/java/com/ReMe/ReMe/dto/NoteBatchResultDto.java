@@ -0,0 +1,76 @@
+package com.ReMe.ReMe.dto;
+
+public class NoteBatchResultDto {
+    
+    public static final String OK = "OK";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String INVALID = "INVALID";
+    public static final String CONFLICT = "CONFLICT";
+    
+    private int index;
+    private String op;
+    private Long id;
+    private String status;
+    private String message;
+    private NoteDto note; // resulting note for create and update
+    
+    // Constructors
+    public NoteBatchResultDto() {}
+    
+    public NoteBatchResultDto(int index, String op, Long id, String status, String message) {
+        this.index = index;
+        this.op = op;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+    
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+    
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    
+    public String getOp() {
+        return op;
+    }
+    
+    public void setOp(String op) {
+        this.op = op;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+    
+    public NoteDto getNote() {
+        return note;
+    }
+    
+    public void setNote(NoteDto note) {
+        this.note = note;
+    }
+}
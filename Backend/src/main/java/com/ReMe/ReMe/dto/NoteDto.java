@@ -20,6 +20,12 @@ public class NoteDto {
     
     private LocalDateTime updatedAt;
     
+    private Long version; // optimistic-locking version; send it back on PUT to reject stale writes
+    
+    private Integer contentLength;
+    
+    private Boolean largeContent; // content is omitted; read it from GET /api/notes/{id}/content
+    
     // Constructors
     public NoteDto() {}
     
@@ -76,4 +82,28 @@ public class NoteDto {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public Integer getContentLength() {
+        return contentLength;
+    }
+    
+    public void setContentLength(Integer contentLength) {
+        this.contentLength = contentLength;
+    }
+    
+    public Boolean getLargeContent() {
+        return largeContent;
+    }
+    
+    public void setLargeContent(Boolean largeContent) {
+        this.largeContent = largeContent;
+    }
 }
@@ -0,0 +1,102 @@
+package com.ReMe.ReMe.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One note as read by the export cursor: metadata plus either the inline body or the disk location of a large one.
+ */
+public class NoteExportRow {
+    
+    private Long id;
+    private String title;
+    private String content; // inline body; null for large bodies and notes without content
+    private Integer segment; // location of a large body, see LargeContentStore
+    private Long segmentOffset;
+    private Long byteLength;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public NoteExportRow() {}
+    
+    public NoteExportRow(Long id, String title, String content, Integer segment, Long segmentOffset,
+                         Long byteLength, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+        this.segment = segment;
+        this.segmentOffset = segmentOffset;
+        this.byteLength = byteLength;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+    
+    public boolean isLarge() {
+        return segment != null;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getContent() {
+        return content;
+    }
+    
+    public void setContent(String content) {
+        this.content = content;
+    }
+    
+    public Integer getSegment() {
+        return segment;
+    }
+    
+    public void setSegment(Integer segment) {
+        this.segment = segment;
+    }
+    
+    public Long getSegmentOffset() {
+        return segmentOffset;
+    }
+    
+    public void setSegmentOffset(Long segmentOffset) {
+        this.segmentOffset = segmentOffset;
+    }
+    
+    public Long getByteLength() {
+        return byteLength;
+    }
+    
+    public void setByteLength(Long byteLength) {
+        this.byteLength = byteLength;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
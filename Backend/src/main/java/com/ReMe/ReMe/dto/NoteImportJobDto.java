@@ -0,0 +1,103 @@
+package com.ReMe.ReMe.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class NoteImportJobDto {
+    
+    private String key; // send it back as Import-Key to resume after a failure
+    private String format;
+    private String status;
+    private long processed; // items committed so far; a resumed upload skips these
+    private long imported;
+    private long invalid;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private List<ImportItemResultDto> errors = new ArrayList<>(); // first notes.import.max-reported-errors invalid items
+    
+    // Constructors
+    public NoteImportJobDto() {}
+    
+    // Getters and Setters
+    public String getKey() {
+        return key;
+    }
+    
+    public void setKey(String key) {
+        this.key = key;
+    }
+    
+    public String getFormat() {
+        return format;
+    }
+    
+    public void setFormat(String format) {
+        this.format = format;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public long getProcessed() {
+        return processed;
+    }
+    
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+    
+    public long getImported() {
+        return imported;
+    }
+    
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+    
+    public long getInvalid() {
+        return invalid;
+    }
+    
+    public void setInvalid(long invalid) {
+        this.invalid = invalid;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public List<ImportItemResultDto> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<ImportItemResultDto> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,60 @@
+package com.ReMe.ReMe.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Partial note update against a known version.
+ * Either a merge patch (title and/or content replace the current values; absent fields are kept)
+ * or a list of text edits applied to the content in order, each against the result of the previous one.
+ */
+public class NotePatchDto {
+    
+    @NotNull(message = "Base version is required")
+    private Long baseVersion;
+    
+    private String title;
+    
+    private String content;
+    
+    @Valid
+    private List<TextEditDto> edits;
+    
+    // Constructors
+    public NotePatchDto() {}
+    
+    // Getters and Setters
+    public Long getBaseVersion() {
+        return baseVersion;
+    }
+    
+    public void setBaseVersion(Long baseVersion) {
+        this.baseVersion = baseVersion;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getContent() {
+        return content;
+    }
+    
+    public void setContent(String content) {
+        this.content = content;
+    }
+    
+    public List<TextEditDto> getEdits() {
+        return edits;
+    }
+    
+    public void setEdits(List<TextEditDto> edits) {
+        this.edits = edits;
+    }
+}
@@ -1,9 +1,11 @@
 package com.ReMe.ReMe.dto;
 
-import java.math.BigDecimal;
-
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import com.ReMe.ReMe.util.Lovelace;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 public class NotePurchaseDto {
     
@@ -17,17 +19,20 @@ public class NotePurchaseDto {
     private String buyerWalletAddress;
     
     @NotNull(message = "Purchase price is required")
-    private BigDecimal purchasePriceAda;
+    @Positive(message = "Purchase price must be greater than 0")
+    @JsonProperty("purchasePriceAda")
+    @Lovelace.AsAda
+    private Long purchasePriceLovelace;
     
     // Constructors
     public NotePurchaseDto() {}
     
     public NotePurchaseDto(Long marketplaceNoteId, String transactionHash, 
-                          String buyerWalletAddress, BigDecimal purchasePriceAda) {
+                          String buyerWalletAddress, Long purchasePriceLovelace) {
         this.marketplaceNoteId = marketplaceNoteId;
         this.transactionHash = transactionHash;
         this.buyerWalletAddress = buyerWalletAddress;
-        this.purchasePriceAda = purchasePriceAda;
+        this.purchasePriceLovelace = purchasePriceLovelace;
     }
     
     // Getters and Setters
@@ -55,11 +60,11 @@ public class NotePurchaseDto {
         this.buyerWalletAddress = buyerWalletAddress;
     }
     
-    public BigDecimal getPurchasePriceAda() {
-        return purchasePriceAda;
+    public Long getPurchasePriceLovelace() {
+        return purchasePriceLovelace;
     }
     
-    public void setPurchasePriceAda(BigDecimal purchasePriceAda) {
-        this.purchasePriceAda = purchasePriceAda;
+    public void setPurchasePriceLovelace(Long purchasePriceLovelace) {
+        this.purchasePriceLovelace = purchasePriceLovelace;
     }
 }
@@ -1,14 +1,18 @@
 package com.ReMe.ReMe.dto;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+import com.ReMe.ReMe.util.Lovelace;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 public class NotePurchaseHistoryDto {
 
     private Long id;
     private Long marketplaceNoteId;
     private String noteTitle;
-    private BigDecimal purchasePriceAda;
+    @JsonProperty("purchasePriceAda")
+    @Lovelace.AsAda
+    private Long purchasePriceLovelace;
     private String transactionHash;
     private String buyerWalletAddress;
     private String sellerWalletAddress;
@@ -38,12 +42,12 @@ public class NotePurchaseHistoryDto {
         this.noteTitle = noteTitle;
     }
 
-    public BigDecimal getPurchasePriceAda() {
-        return purchasePriceAda;
+    public Long getPurchasePriceLovelace() {
+        return purchasePriceLovelace;
     }
 
-    public void setPurchasePriceAda(BigDecimal purchasePriceAda) {
-        this.purchasePriceAda = purchasePriceAda;
+    public void setPurchasePriceLovelace(Long purchasePriceLovelace) {
+        this.purchasePriceLovelace = purchasePriceLovelace;
     }
 
     public String getTransactionHash() {
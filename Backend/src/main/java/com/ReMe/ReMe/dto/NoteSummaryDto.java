@@ -0,0 +1,64 @@
+package com.ReMe.ReMe.dto;
+
+import java.time.LocalDateTime;
+
+public class NoteSummaryDto {
+    
+    private Long id;
+    private String title;
+    private String snippet; // leading characters of the content, cut in SQL
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public NoteSummaryDto() {}
+    
+    public NoteSummaryDto(Long id, String title, String snippet, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.snippet = snippet;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getSnippet() {
+        return snippet;
+    }
+    
+    public void setSnippet(String snippet) {
+        this.snippet = snippet;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,54 @@
+package com.ReMe.ReMe.dto;
+
+import java.util.List;
+
+public class NoteSyncDto {
+    
+    private boolean fullSync; // true when the client must replace its cache instead of merging
+    private List<NoteDto> changed;
+    private List<Long> deletedIds;
+    private String watermark; // pass back as "since" on the next sync
+    
+    // Constructors
+    public NoteSyncDto() {}
+    
+    public NoteSyncDto(boolean fullSync, List<NoteDto> changed, List<Long> deletedIds, String watermark) {
+        this.fullSync = fullSync;
+        this.changed = changed;
+        this.deletedIds = deletedIds;
+        this.watermark = watermark;
+    }
+    
+    // Getters and Setters
+    public boolean isFullSync() {
+        return fullSync;
+    }
+    
+    public void setFullSync(boolean fullSync) {
+        this.fullSync = fullSync;
+    }
+    
+    public List<NoteDto> getChanged() {
+        return changed;
+    }
+    
+    public void setChanged(List<NoteDto> changed) {
+        this.changed = changed;
+    }
+    
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+    
+    public void setDeletedIds(List<Long> deletedIds) {
+        this.deletedIds = deletedIds;
+    }
+    
+    public String getWatermark() {
+        return watermark;
+    }
+    
+    public void setWatermark(String watermark) {
+        this.watermark = watermark;
+    }
+}
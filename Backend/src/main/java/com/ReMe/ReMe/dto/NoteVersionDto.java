@@ -0,0 +1,54 @@
+package com.ReMe.ReMe.dto;
+
+import java.time.LocalDateTime;
+
+public class NoteVersionDto {
+    
+    private Long version;
+    private String title;
+    private Integer contentLength;
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public NoteVersionDto() {}
+    
+    public NoteVersionDto(Long version, String title, Integer contentLength, LocalDateTime createdAt) {
+        this.version = version;
+        this.title = title;
+        this.contentLength = contentLength;
+        this.createdAt = createdAt;
+    }
+    
+    // Getters and Setters
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public Integer getContentLength() {
+        return contentLength;
+    }
+    
+    public void setContentLength(Integer contentLength) {
+        this.contentLength = contentLength;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
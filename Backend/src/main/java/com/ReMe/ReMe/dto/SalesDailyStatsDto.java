@@ -0,0 +1,49 @@
+package com.ReMe.ReMe.dto;
+
+import java.time.LocalDate;
+
+import com.ReMe.ReMe.util.Lovelace;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class SalesDailyStatsDto {
+    
+    private LocalDate day;
+    private Long salesCount;
+    @JsonProperty("revenueAda")
+    @Lovelace.AsAda
+    private Long revenueLovelace;
+    
+    // Constructors
+    public SalesDailyStatsDto() {}
+    
+    public SalesDailyStatsDto(LocalDate day, Long salesCount, Long revenueLovelace) {
+        this.day = day;
+        this.salesCount = salesCount;
+        this.revenueLovelace = revenueLovelace;
+    }
+    
+    // Getters and Setters
+    public LocalDate getDay() {
+        return day;
+    }
+    
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+    
+    public Long getSalesCount() {
+        return salesCount;
+    }
+    
+    public void setSalesCount(Long salesCount) {
+        this.salesCount = salesCount;
+    }
+    
+    public Long getRevenueLovelace() {
+        return revenueLovelace;
+    }
+    
+    public void setRevenueLovelace(Long revenueLovelace) {
+        this.revenueLovelace = revenueLovelace;
+    }
+}
@@ -0,0 +1,58 @@
+package com.ReMe.ReMe.dto;
+
+import com.ReMe.ReMe.util.Lovelace;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+
+public class SalesListingStatsDto {
+    
+    private Long marketplaceNoteId;
+    private String noteTitle;
+    private Long salesCount;
+    @JsonProperty("revenueAda")
+    @Lovelace.AsAda
+    private Long revenueLovelace;
+    
+    // Constructors
+    public SalesListingStatsDto() {}
+    
+    public SalesListingStatsDto(Long marketplaceNoteId, String noteTitle, Long salesCount, Long revenueLovelace) {
+        this.marketplaceNoteId = marketplaceNoteId;
+        this.noteTitle = noteTitle;
+        this.salesCount = salesCount;
+        this.revenueLovelace = revenueLovelace;
+    }
+    
+    // Getters and Setters
+    public Long getMarketplaceNoteId() {
+        return marketplaceNoteId;
+    }
+    
+    public void setMarketplaceNoteId(Long marketplaceNoteId) {
+        this.marketplaceNoteId = marketplaceNoteId;
+    }
+    
+    public String getNoteTitle() {
+        return noteTitle;
+    }
+    
+    public void setNoteTitle(String noteTitle) {
+        this.noteTitle = noteTitle;
+    }
+    
+    public Long getSalesCount() {
+        return salesCount;
+    }
+    
+    public void setSalesCount(Long salesCount) {
+        this.salesCount = salesCount;
+    }
+    
+    public Long getRevenueLovelace() {
+        return revenueLovelace;
+    }
+    
+    public void setRevenueLovelace(Long revenueLovelace) {
+        this.revenueLovelace = revenueLovelace;
+    }
+}
@@ -0,0 +1,71 @@
+package com.ReMe.ReMe.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.ReMe.ReMe.util.Lovelace;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class SellerSalesStatsDto {
+    
+    private LocalDate from;
+    private LocalDate to;
+    private Long totalSales;
+    @JsonProperty("totalRevenueAda")
+    @Lovelace.AsAda
+    private Long totalRevenueLovelace;
+    private List<SalesListingStatsDto> listings;
+    private List<SalesDailyStatsDto> daily;
+    
+    // Constructors
+    public SellerSalesStatsDto() {}
+    
+    // Getters and Setters
+    public LocalDate getFrom() {
+        return from;
+    }
+    
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+    
+    public LocalDate getTo() {
+        return to;
+    }
+    
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+    
+    public Long getTotalSales() {
+        return totalSales;
+    }
+    
+    public void setTotalSales(Long totalSales) {
+        this.totalSales = totalSales;
+    }
+    
+    public Long getTotalRevenueLovelace() {
+        return totalRevenueLovelace;
+    }
+    
+    public void setTotalRevenueLovelace(Long totalRevenueLovelace) {
+        this.totalRevenueLovelace = totalRevenueLovelace;
+    }
+    
+    public List<SalesListingStatsDto> getListings() {
+        return listings;
+    }
+    
+    public void setListings(List<SalesListingStatsDto> listings) {
+        this.listings = listings;
+    }
+    
+    public List<SalesDailyStatsDto> getDaily() {
+        return daily;
+    }
+    
+    public void setDaily(List<SalesDailyStatsDto> daily) {
+        this.daily = daily;
+    }
+}
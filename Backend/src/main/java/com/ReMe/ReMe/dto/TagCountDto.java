@@ -0,0 +1,32 @@
+package com.ReMe.ReMe.dto;
+
+public class TagCountDto {
+    
+    private String tag;
+    private long count;
+    
+    // Constructors
+    public TagCountDto() {}
+    
+    public TagCountDto(String tag, long count) {
+        this.tag = tag;
+        this.count = count;
+    }
+    
+    // Getters and Setters
+    public String getTag() {
+        return tag;
+    }
+    
+    public void setTag(String tag) {
+        this.tag = tag;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,52 @@
+package com.ReMe.ReMe.dto;
+
+import java.util.List;
+
+/**
+ * Tag filter: items carrying every tag in {@code all}, at least one tag in {@code any} (when given),
+ * and none of the tags in {@code none}.
+ */
+public class TagFilterDto {
+    
+    private List<String> all;
+    private List<String> any;
+    private List<String> none;
+    
+    // Constructors
+    public TagFilterDto() {}
+    
+    public TagFilterDto(List<String> all, List<String> any, List<String> none) {
+        this.all = all;
+        this.any = any;
+        this.none = none;
+    }
+    
+    public boolean isEmpty() {
+        return (all == null || all.isEmpty()) && (any == null || any.isEmpty()) && (none == null || none.isEmpty());
+    }
+    
+    // Getters and Setters
+    public List<String> getAll() {
+        return all;
+    }
+    
+    public void setAll(List<String> all) {
+        this.all = all;
+    }
+    
+    public List<String> getAny() {
+        return any;
+    }
+    
+    public void setAny(List<String> any) {
+        this.any = any;
+    }
+    
+    public List<String> getNone() {
+        return none;
+    }
+    
+    public void setNone(List<String> none) {
+        this.none = none;
+    }
+}
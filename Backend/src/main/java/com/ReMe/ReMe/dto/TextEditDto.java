@@ -0,0 +1,53 @@
+package com.ReMe.ReMe.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * One splice of a note's content: remove {@code deleteCount} characters at {@code position}, then insert {@code insert} there.
+ */
+public class TextEditDto {
+    
+    @NotNull(message = "Position is required")
+    @Min(value = 0, message = "Position must not be negative")
+    private Integer position;
+    
+    @Min(value = 0, message = "Delete count must not be negative")
+    private int deleteCount;
+    
+    private String insert;
+    
+    // Constructors
+    public TextEditDto() {}
+    
+    public TextEditDto(Integer position, int deleteCount, String insert) {
+        this.position = position;
+        this.deleteCount = deleteCount;
+        this.insert = insert;
+    }
+    
+    // Getters and Setters
+    public Integer getPosition() {
+        return position;
+    }
+    
+    public void setPosition(Integer position) {
+        this.position = position;
+    }
+    
+    public int getDeleteCount() {
+        return deleteCount;
+    }
+    
+    public void setDeleteCount(int deleteCount) {
+        this.deleteCount = deleteCount;
+    }
+    
+    public String getInsert() {
+        return insert;
+    }
+    
+    public void setInsert(String insert) {
+        this.insert = insert;
+    }
+}
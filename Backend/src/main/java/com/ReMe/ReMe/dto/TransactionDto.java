@@ -1,10 +1,11 @@
 package com.ReMe.ReMe.dto;
 
-import java.math.BigDecimal;
-
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import com.ReMe.ReMe.util.Lovelace;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 public class TransactionDto {
     
@@ -18,8 +19,10 @@ public class TransactionDto {
     private String recipientAddress;
     
     @NotNull(message = "Amount is required")
-    @DecimalMin(value = "0.0", inclusive = false, message = "Amount must be greater than 0")
-    private BigDecimal amountADA;
+    @Positive(message = "Amount must be greater than 0")
+    @JsonProperty("amountADA")
+    @Lovelace.AsAda
+    private Long amountLovelace;
     
     private Long noteId;
     
@@ -31,11 +34,11 @@ public class TransactionDto {
     public TransactionDto() {}
     
     public TransactionDto(String txHash, String senderAddress, String recipientAddress, 
-                         BigDecimal amountADA) {
+                         Long amountLovelace) {
         this.txHash = txHash;
         this.senderAddress = senderAddress;
         this.recipientAddress = recipientAddress;
-        this.amountADA = amountADA;
+        this.amountLovelace = amountLovelace;
     }
     
     // Getters and Setters
@@ -63,12 +66,12 @@ public class TransactionDto {
         this.recipientAddress = recipientAddress;
     }
     
-    public BigDecimal getAmountADA() {
-        return amountADA;
+    public Long getAmountLovelace() {
+        return amountLovelace;
     }
     
-    public void setAmountADA(BigDecimal amountADA) {
-        this.amountADA = amountADA;
+    public void setAmountLovelace(Long amountLovelace) {
+        this.amountLovelace = amountLovelace;
     }
     
     public Long getNoteId() {
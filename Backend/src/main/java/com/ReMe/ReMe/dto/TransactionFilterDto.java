@@ -0,0 +1,42 @@
+package com.ReMe.ReMe.dto;
+
+public class TransactionFilterDto {
+    
+    private Integer networkId;
+    private Long minAmountLovelace;
+    private Long maxAmountLovelace;
+    
+    // Constructors
+    public TransactionFilterDto() {}
+    
+    public TransactionFilterDto(Integer networkId, Long minAmountLovelace, Long maxAmountLovelace) {
+        this.networkId = networkId;
+        this.minAmountLovelace = minAmountLovelace;
+        this.maxAmountLovelace = maxAmountLovelace;
+    }
+    
+    // Getters and Setters
+    public Integer getNetworkId() {
+        return networkId;
+    }
+    
+    public void setNetworkId(Integer networkId) {
+        this.networkId = networkId;
+    }
+    
+    public Long getMinAmountLovelace() {
+        return minAmountLovelace;
+    }
+    
+    public void setMinAmountLovelace(Long minAmountLovelace) {
+        this.minAmountLovelace = minAmountLovelace;
+    }
+    
+    public Long getMaxAmountLovelace() {
+        return maxAmountLovelace;
+    }
+    
+    public void setMaxAmountLovelace(Long maxAmountLovelace) {
+        this.maxAmountLovelace = maxAmountLovelace;
+    }
+}
@@ -1,35 +1,54 @@
 package com.ReMe.ReMe.dto;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+import com.ReMe.ReMe.entity.VerificationStatus;
+import com.ReMe.ReMe.util.Lovelace;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 public class TransactionResponseDto {
     
     private Long id;
     private String txHash;
     private String senderAddress;
     private String recipientAddress;
-    private BigDecimal amountADA;
+    @JsonProperty("amountADA")
+    @Lovelace.AsAda
+    private Long amountLovelace;
     private Long noteId;
     private String noteTitle;
     private Integer networkId;
     private String metadata;
     private LocalDateTime createdAt;
+    private String verificationStatus;
     
     // Constructors
     public TransactionResponseDto() {}
     
     public TransactionResponseDto(Long id, String txHash, String senderAddress, 
-                                 String recipientAddress, BigDecimal amountADA, 
+                                 String recipientAddress, Long amountLovelace, 
                                  LocalDateTime createdAt) {
         this.id = id;
         this.txHash = txHash;
         this.senderAddress = senderAddress;
         this.recipientAddress = recipientAddress;
-        this.amountADA = amountADA;
+        this.amountLovelace = amountLovelace;
         this.createdAt = createdAt;
     }
     
+    // Used by projection queries that join the note title instead of loading the Note entity
+    public TransactionResponseDto(Long id, String txHash, String senderAddress,
+                                 String recipientAddress, Long amountLovelace,
+                                 Integer networkId, String metadata, LocalDateTime createdAt,
+                                 VerificationStatus verificationStatus, Long noteId, String noteTitle) {
+        this(id, txHash, senderAddress, recipientAddress, amountLovelace, createdAt);
+        this.networkId = networkId;
+        this.metadata = metadata;
+        this.verificationStatus = verificationStatus != null ? verificationStatus.name() : null;
+        this.noteId = noteId;
+        this.noteTitle = noteTitle;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -63,12 +82,12 @@ public class TransactionResponseDto {
         this.recipientAddress = recipientAddress;
     }
     
-    public BigDecimal getAmountADA() {
-        return amountADA;
+    public Long getAmountLovelace() {
+        return amountLovelace;
     }
     
-    public void setAmountADA(BigDecimal amountADA) {
-        this.amountADA = amountADA;
+    public void setAmountLovelace(Long amountLovelace) {
+        this.amountLovelace = amountLovelace;
     }
     
     public Long getNoteId() {
@@ -110,4 +129,12 @@ public class TransactionResponseDto {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+    
+    public String getVerificationStatus() {
+        return verificationStatus;
+    }
+    
+    public void setVerificationStatus(String verificationStatus) {
+        this.verificationStatus = verificationStatus;
+    }
 }
@@ -0,0 +1,49 @@
+package com.ReMe.ReMe.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cheap aggregate over the rows behind a response (row count, latest modification and a
+ * query-specific marker such as the highest id). Any write that changes the response changes
+ * the stamp, so it can be turned into an ETag without loading the rows themselves.
+ */
+public class VersionStampDto {
+    
+    private Long count;
+    private LocalDateTime lastModified;
+    private Long marker;
+    
+    // Constructors
+    public VersionStampDto() {}
+    
+    public VersionStampDto(Long count, LocalDateTime lastModified, Long marker) {
+        this.count = count;
+        this.lastModified = lastModified;
+        this.marker = marker;
+    }
+    
+    // Getters and Setters
+    public Long getCount() {
+        return count;
+    }
+    
+    public void setCount(Long count) {
+        this.count = count;
+    }
+    
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+    
+    public void setLastModified(LocalDateTime lastModified) {
+        this.lastModified = lastModified;
+    }
+    
+    public Long getMarker() {
+        return marker;
+    }
+    
+    public void setMarker(Long marker) {
+        this.marker = marker;
+    }
+}
@@ -0,0 +1,119 @@
+package com.ReMe.ReMe.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+
+/**
+ * A note body stored once, keyed by the SHA-256 of its text and shared by every note and listing
+ * with identical content. The reference count is maintained with atomic updates by ContentStoreService;
+ * bodies are never modified, so editing a shared body means pointing the note at a new blob.
+ * This row holds only metadata and an uncompressed preview that summary queries can cut snippets from
+ * in SQL; the compressed text lives in ContentBody and is loaded lazily.
+ * Bodies above the large-content threshold have no ContentBody row and are kept in segment files
+ * on local disk instead (see LargeContentStore).
+ */
+@Entity
+@Immutable
+@BatchSize(size = 50)
+@Table(name = "content_blobs")
+public class ContentBlob {
+    
+    public static final int PREVIEW_LENGTH = 1000;
+    
+    @Id
+    @Column(length = 64)
+    private String hash;
+    
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "hash", insertable = false, updatable = false,
+                foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private ContentBody content;
+    
+    // Location of a large body in LargeContentStore; null for bodies stored in content_blob_bodies
+    private Integer segment;
+    
+    @Column(name = "segment_offset")
+    private Long segmentOffset;
+    
+    @Column(name = "byte_length")
+    private Long byteLength;
+    
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String preview;
+    
+    @Column(name = "content_length", nullable = false)
+    private Integer contentLength;
+    
+    @Column(name = "ref_count", nullable = false)
+    private Long refCount;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // When the last reference was dropped; null while the blob is referenced
+    @Column(name = "released_at")
+    private LocalDateTime releasedAt;
+    
+    // Constructors
+    public ContentBlob() {}
+    
+    // Getters
+    public String getHash() {
+        return hash;
+    }
+    
+    /**
+     * The full text, or null for large bodies, which are read from disk through LargeContentStore.
+     */
+    public String getBody() {
+        return isExternal() ? null : content.getBody();
+    }
+    
+    public boolean isExternal() {
+        return segment != null;
+    }
+    
+    public Integer getSegment() {
+        return segment;
+    }
+    
+    public Long getSegmentOffset() {
+        return segmentOffset;
+    }
+    
+    public Long getByteLength() {
+        return byteLength;
+    }
+    
+    public String getPreview() {
+        return preview;
+    }
+    
+    public Integer getContentLength() {
+        return contentLength;
+    }
+    
+    public Long getRefCount() {
+        return refCount;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getReleasedAt() {
+        return releasedAt;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ReMe.ReMe.entity;
+
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Immutable;
+
+import com.ReMe.ReMe.util.CompressedTextConverter;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * The compressed text of a ContentBlob, kept in its own table so reference counting, previews and
+ * summaries never read body pages. Loaded lazily, only when the full content is needed.
+ */
+@Entity
+@Immutable
+@BatchSize(size = 50)
+@Table(name = "content_blob_bodies")
+public class ContentBody {
+    
+    @Id
+    @Column(length = 64)
+    private String hash;
+    
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(nullable = false)
+    private String body;
+    
+    // Constructors
+    public ContentBody() {}
+    
+    // Getters
+    public String getHash() {
+        return hash;
+    }
+    
+    public String getBody() {
+        return body;
+    }
+}
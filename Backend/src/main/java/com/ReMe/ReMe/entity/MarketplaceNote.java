@@ -1,6 +1,5 @@
 package com.ReMe.ReMe.entity;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 import org.hibernate.annotations.CreationTimestamp;
@@ -12,20 +11,28 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 
 @Entity
-@Table(name = "marketplace_notes")
+@Table(name = "marketplace_notes",
+    indexes = {
+        @Index(name = "idx_marketplace_notes_active_created", columnList = "is_active, created_at, id"),
+        @Index(name = "idx_marketplace_notes_active_price", columnList = "is_active, price_lovelace, id"),
+        @Index(name = "idx_marketplace_notes_active_purchases", columnList = "is_active, purchase_count, id"),
+        @Index(name = "idx_marketplace_notes_seller_address_created", columnList = "seller_wallet_address, created_at, id")
+    })
 public class MarketplaceNote {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "marketplace_notes_id_generator")
+    @SequenceGenerator(name = "marketplace_notes_id_generator", sequenceName = "marketplace_notes_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -37,15 +44,15 @@ public class MarketplaceNote {
     @Size(max = 500, message = "Description must not exceed 500 characters")
     private String description;
     
-    @Column(columnDefinition = "TEXT", nullable = false)
-    @NotBlank(message = "Content is required")
-    @Size(max = 10000, message = "Content must not exceed 10000 characters")
-    private String content;
+    // Shared, deduplicated body; see ContentStoreService
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "content_hash")
+    private ContentBlob body;
     
-    @Column(nullable = false)
-    @NotNull(message = "Price is required")
-    @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
-    private BigDecimal priceAda;
+    // Whole lovelace; see Lovelace
+    @Column(name = "price_lovelace", nullable = false)
+    @Positive(message = "Price must be greater than 0")
+    private long priceLovelace;
     
     @Column(nullable = false, length = 200)
     @NotBlank(message = "Seller wallet address is required")
@@ -75,12 +82,12 @@ public class MarketplaceNote {
     // Constructors
     public MarketplaceNote() {}
     
-    public MarketplaceNote(String title, String description, String content, 
-                          BigDecimal priceAda, String sellerWalletAddress, User seller) {
+    public MarketplaceNote(String title, String description, ContentBlob body, 
+                          long priceLovelace, String sellerWalletAddress, User seller) {
         this.title = title;
         this.description = description;
-        this.content = content;
-        this.priceAda = priceAda;
+        this.body = body;
+        this.priceLovelace = priceLovelace;
         this.sellerWalletAddress = sellerWalletAddress;
         this.seller = seller;
     }
@@ -111,19 +118,23 @@ public class MarketplaceNote {
     }
     
     public String getContent() {
-        return content;
+        return body != null ? body.getBody() : null;
+    }
+    
+    public ContentBlob getBody() {
+        return body;
     }
     
-    public void setContent(String content) {
-        this.content = content;
+    public void setBody(ContentBlob body) {
+        this.body = body;
     }
     
-    public BigDecimal getPriceAda() {
-        return priceAda;
+    public long getPriceLovelace() {
+        return priceLovelace;
     }
     
-    public void setPriceAda(BigDecimal priceAda) {
-        this.priceAda = priceAda;
+    public void setPriceLovelace(long priceLovelace) {
+        this.priceLovelace = priceLovelace;
     }
     
     public String getSellerWalletAddress() {
@@ -9,11 +9,15 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notes")
+@Table(name = "notes", indexes = {
+    @Index(name = "idx_notes_user_updated", columnList = "user_id, updated_at"),
+    @Index(name = "idx_notes_user_created", columnList = "user_id, created_at, id")
+})
 public class Note {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notes_id_generator")
+    @SequenceGenerator(name = "notes_id_generator", sequenceName = "notes_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -21,9 +25,10 @@ public class Note {
     @Size(max = 255, message = "Title must not exceed 255 characters")
     private String title;
     
-    @Column(columnDefinition = "TEXT")
-    @Size(max = 10000, message = "Content must not exceed 10000 characters")
-    private String content;
+    // Shared, deduplicated body; see ContentStoreService
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "content_hash")
+    private ContentBlob body;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -37,12 +42,16 @@ public class Note {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version = 0L;
+    
     // Constructors
     public Note() {}
     
-    public Note(String title, String content, User user) {
+    public Note(String title, ContentBlob body, User user) {
         this.title = title;
-        this.content = content;
+        this.body = body;
         this.user = user;
     }
     
@@ -64,11 +73,15 @@ public class Note {
     }
     
     public String getContent() {
-        return content;
+        return body != null ? body.getBody() : null;
+    }
+    
+    public ContentBlob getBody() {
+        return body;
     }
     
-    public void setContent(String content) {
-        this.content = content;
+    public void setBody(ContentBlob body) {
+        this.body = body;
     }
     
     public User getUser() {
@@ -94,4 +107,12 @@ public class Note {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,86 @@
+package com.ReMe.ReMe.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * An item of a note import that was not imported, with the reason.
+ */
+@Entity
+@Table(name = "note_import_errors", indexes = @Index(name = "idx_note_import_errors_job", columnList = "job_id, item_index"))
+public class NoteImportError {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "note_import_errors_id_generator")
+    @SequenceGenerator(name = "note_import_errors_id_generator", sequenceName = "note_import_errors_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+    
+    @Column(name = "item_index", nullable = false)
+    private Long itemIndex;
+    
+    @Column(name = "item_key", length = 255)
+    private String itemKey;
+    
+    @Column(nullable = false, length = 500)
+    private String message;
+    
+    // Constructors
+    public NoteImportError() {}
+    
+    public NoteImportError(Long jobId, Long itemIndex, String itemKey, String message) {
+        this.jobId = jobId;
+        this.itemIndex = itemIndex;
+        this.itemKey = itemKey;
+        this.message = message;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getJobId() {
+        return jobId;
+    }
+    
+    public void setJobId(Long jobId) {
+        this.jobId = jobId;
+    }
+    
+    public Long getItemIndex() {
+        return itemIndex;
+    }
+    
+    public void setItemIndex(Long itemIndex) {
+        this.itemIndex = itemIndex;
+    }
+    
+    public String getItemKey() {
+        return itemKey;
+    }
+    
+    public void setItemKey(String itemKey) {
+        this.itemKey = itemKey;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
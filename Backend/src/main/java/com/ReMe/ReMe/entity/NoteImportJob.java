@@ -0,0 +1,180 @@
+package com.ReMe.ReMe.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
+
+/**
+ * Progress of a streaming note import, identified by a client-chosen key.
+ * {@code processed} is the checkpoint: items before it are committed (imported or reported invalid),
+ * and it advances in the same transaction as each batch of notes, so a retried upload skips exactly those.
+ */
+@Entity
+@Table(name = "note_import_jobs",
+    uniqueConstraints = @UniqueConstraint(name = "uk_note_import_jobs_user_key", columnNames = {"user_id", "job_key"}))
+public class NoteImportJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "note_import_jobs_id_generator")
+    @SequenceGenerator(name = "note_import_jobs_id_generator", sequenceName = "note_import_jobs_seq", allocationSize = 50)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @Column(name = "job_key", nullable = false, length = 128)
+    private String jobKey;
+    
+    @Column(nullable = false, length = 20)
+    private String format;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private NoteImportStatus status = NoteImportStatus.RUNNING;
+    
+    @Column(nullable = false)
+    private Long processed = 0L;
+    
+    @Column(nullable = false)
+    private Long imported = 0L;
+    
+    @Column(nullable = false)
+    private Long invalid = 0L;
+    
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Version
+    private Long version;
+    
+    // Constructors
+    public NoteImportJob() {}
+    
+    public NoteImportJob(User user, String jobKey, String format) {
+        this.user = user;
+        this.jobKey = jobKey;
+        this.format = format;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public User getUser() {
+        return user;
+    }
+    
+    public void setUser(User user) {
+        this.user = user;
+    }
+    
+    public String getJobKey() {
+        return jobKey;
+    }
+    
+    public void setJobKey(String jobKey) {
+        this.jobKey = jobKey;
+    }
+    
+    public String getFormat() {
+        return format;
+    }
+    
+    public void setFormat(String format) {
+        this.format = format;
+    }
+    
+    public NoteImportStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(NoteImportStatus status) {
+        this.status = status;
+    }
+    
+    public Long getProcessed() {
+        return processed;
+    }
+    
+    public void setProcessed(Long processed) {
+        this.processed = processed;
+    }
+    
+    public Long getImported() {
+        return imported;
+    }
+    
+    public void setImported(Long imported) {
+        this.imported = imported;
+    }
+    
+    public Long getInvalid() {
+        return invalid;
+    }
+    
+    public void setInvalid(Long invalid) {
+        this.invalid = invalid;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,10 @@
+package com.ReMe.ReMe.entity;
+
+/**
+ * Lifecycle of a note import job. A FAILED job resumes from its checkpoint when the upload is sent again.
+ */
+public enum NoteImportStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -1,6 +1,5 @@
 package com.ReMe.ReMe.entity;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 import org.hibernate.annotations.CreationTimestamp;
@@ -13,25 +12,31 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
 
 @Entity
-@Table(name = "note_purchases")
+@Table(name = "note_purchases",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_note_purchase_buyer", columnNames = {"marketplace_note_id", "buyer_wallet_address"}),
+        @UniqueConstraint(name = "uk_note_purchase_tx_hash", columnNames = {"transaction_hash"})
+    })
 public class NotePurchase {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "note_purchases_id_generator")
+    @SequenceGenerator(name = "note_purchases_id_generator", sequenceName = "note_purchases_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "marketplace_note_id", nullable = false)
     private MarketplaceNote marketplaceNote;
     
-    @Column(nullable = false)
-    @NotNull(message = "Purchase price is required")
-    private BigDecimal purchasePriceAda;
+    // Whole lovelace; see Lovelace
+    @Column(name = "purchase_price_lovelace", nullable = false)
+    private long purchasePriceLovelace;
     
     @Column(nullable = false, length = 100)
     @NotBlank(message = "Transaction hash is required")
@@ -52,10 +57,10 @@ public class NotePurchase {
     // Constructors
     public NotePurchase() {}
     
-    public NotePurchase(MarketplaceNote marketplaceNote, BigDecimal purchasePriceAda,
+    public NotePurchase(MarketplaceNote marketplaceNote, long purchasePriceLovelace,
                        String transactionHash, String buyerWalletAddress, String sellerWalletAddress) {
         this.marketplaceNote = marketplaceNote;
-        this.purchasePriceAda = purchasePriceAda;
+        this.purchasePriceLovelace = purchasePriceLovelace;
         this.transactionHash = transactionHash;
         this.buyerWalletAddress = buyerWalletAddress;
         this.sellerWalletAddress = sellerWalletAddress;
@@ -78,12 +83,12 @@ public class NotePurchase {
         this.marketplaceNote = marketplaceNote;
     }
     
-    public BigDecimal getPurchasePriceAda() {
-        return purchasePriceAda;
+    public long getPurchasePriceLovelace() {
+        return purchasePriceLovelace;
     }
     
-    public void setPurchasePriceAda(BigDecimal purchasePriceAda) {
-        this.purchasePriceAda = purchasePriceAda;
+    public void setPurchasePriceLovelace(long purchasePriceLovelace) {
+        this.purchasePriceLovelace = purchasePriceLovelace;
     }
     
     public String getTransactionHash() {
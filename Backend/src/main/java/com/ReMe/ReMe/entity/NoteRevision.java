@@ -0,0 +1,118 @@
+package com.ReMe.ReMe.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * One saved version of a note's content.
+ * Snapshots hold the full content; other revisions hold a TextDelta against the previous version,
+ * so reading a version replays at most one snapshot interval of deltas.
+ */
+@Entity
+@Table(name = "note_revisions",
+    uniqueConstraints = @UniqueConstraint(name = "uk_note_revisions_note_version", columnNames = {"note_id", "version"}))
+public class NoteRevision {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "note_revisions_id_generator")
+    @SequenceGenerator(name = "note_revisions_id_generator", sequenceName = "note_revisions_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "note_id", nullable = false)
+    private Long noteId;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @Column(nullable = false)
+    private Long version;
+    
+    @Column(nullable = false)
+    private boolean snapshot;
+    
+    @Column(nullable = false)
+    private String title;
+    
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+    
+    @Column(name = "content_length", nullable = false)
+    private Integer contentLength;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public NoteRevision() {}
+    
+    public NoteRevision(Long noteId, User user, Long version, boolean snapshot, String title,
+                        String payload, Integer contentLength) {
+        this.noteId = noteId;
+        this.user = user;
+        this.version = version;
+        this.snapshot = snapshot;
+        this.title = title;
+        this.payload = payload;
+        this.contentLength = contentLength;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getNoteId() {
+        return noteId;
+    }
+    
+    public User getUser() {
+        return user;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+    
+    public void setSnapshot(boolean snapshot) {
+        this.snapshot = snapshot;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public String getPayload() {
+        return payload;
+    }
+    
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+    
+    public Integer getContentLength() {
+        return contentLength;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
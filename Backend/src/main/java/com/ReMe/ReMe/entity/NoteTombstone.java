@@ -0,0 +1,80 @@
+package com.ReMe.ReMe.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+/**
+ * Marker left behind when a note is deleted, so delta sync can tell clients to drop their cached copy.
+ * Tombstones older than the sync retention window are purged.
+ */
+@Entity
+@Table(name = "note_tombstones",
+    indexes = @Index(name = "idx_note_tombstones_user_deleted", columnList = "user_id, deleted_at"))
+public class NoteTombstone {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "note_id", nullable = false)
+    private Long noteId;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+    
+    // Constructors
+    public NoteTombstone() {}
+    
+    public NoteTombstone(Long noteId, User user, LocalDateTime deletedAt) {
+        this.noteId = noteId;
+        this.user = user;
+        this.deletedAt = deletedAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getNoteId() {
+        return noteId;
+    }
+    
+    public void setNoteId(Long noteId) {
+        this.noteId = noteId;
+    }
+    
+    public User getUser() {
+        return user;
+    }
+    
+    public void setUser(User user) {
+        this.user = user;
+    }
+    
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+    
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
@@ -0,0 +1,11 @@
+package com.ReMe.ReMe.entity;
+
+/**
+ * Lifecycle of a purchase outbox event.
+ */
+public enum OutboxStatus {
+    PENDING,
+    PROCESSING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,90 @@
+package com.ReMe.ReMe.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Records that a purchase request with a given client key has been accepted.
+ * Written in the same transaction as the purchase, so a visible key always means a committed purchase.
+ */
+@Entity
+@Table(name = "purchase_idempotency_keys",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_purchase_idempotency_user_key",
+        columnNames = {"user_id", "idempotency_key"}))
+public class PurchaseIdempotencyKey {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @Column(name = "idempotency_key", nullable = false, length = 128)
+    private String idempotencyKey;
+    
+    @Column(name = "marketplace_note_id", nullable = false)
+    private Long marketplaceNoteId;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public PurchaseIdempotencyKey() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public User getUser() {
+        return user;
+    }
+    
+    public void setUser(User user) {
+        this.user = user;
+    }
+    
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+    
+    public Long getMarketplaceNoteId() {
+        return marketplaceNoteId;
+    }
+    
+    public void setMarketplaceNoteId(Long marketplaceNoteId) {
+        this.marketplaceNoteId = marketplaceNoteId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,168 @@
+package com.ReMe.ReMe.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+
+/**
+ * Side effects of a committed purchase that are still to be materialized:
+ * the buyer's personal copy, the transaction record, the listing counter and the seller rollup.
+ * Written in the purchase transaction and drained by PurchaseOutboxDispatcher.
+ */
+@Entity
+@Table(name = "purchase_outbox", indexes = {
+    @Index(name = "idx_purchase_outbox_status_due", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_purchase_outbox_buyer", columnList = "buyer_id, id")
+})
+public class PurchaseOutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "note_purchase_id", nullable = false, unique = true)
+    private NotePurchase notePurchase;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "buyer_id", nullable = false)
+    private User buyer;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxStatus status = OutboxStatus.PENDING;
+    
+    @Column(nullable = false)
+    private Integer attempts = 0;
+    
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+    
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
+    
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+    
+    // The buyer's personal copy, once materialized
+    @Column(name = "note_id")
+    private Long noteId;
+    
+    // Constructors
+    public PurchaseOutboxEvent() {}
+    
+    public PurchaseOutboxEvent(NotePurchase notePurchase, User buyer) {
+        this.notePurchase = notePurchase;
+        this.buyer = buyer;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public NotePurchase getNotePurchase() {
+        return notePurchase;
+    }
+    
+    public void setNotePurchase(NotePurchase notePurchase) {
+        this.notePurchase = notePurchase;
+    }
+    
+    public User getBuyer() {
+        return buyer;
+    }
+    
+    public void setBuyer(User buyer) {
+        this.buyer = buyer;
+    }
+    
+    public OutboxStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(OutboxStatus status) {
+        this.status = status;
+    }
+    
+    public Integer getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+    
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+    
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+    
+    public LocalDateTime getLockedAt() {
+        return lockedAt;
+    }
+    
+    public void setLockedAt(LocalDateTime lockedAt) {
+        this.lockedAt = lockedAt;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+    
+    public void setProcessedAt(LocalDateTime processedAt) {
+        this.processedAt = processedAt;
+    }
+    
+    public Long getNoteId() {
+        return noteId;
+    }
+    
+    public void setNoteId(Long noteId) {
+        this.noteId = noteId;
+    }
+}
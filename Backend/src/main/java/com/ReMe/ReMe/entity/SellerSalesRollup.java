@@ -0,0 +1,101 @@
+package com.ReMe.ReMe.entity;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Pre-aggregated sales per seller, listing and day.
+ * Maintained incrementally by the purchase flow so seller dashboards never scan note_purchases.
+ */
+@Entity
+@Table(name = "seller_sales_rollups",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_seller_sales_rollup_bucket",
+        columnNames = {"seller_id", "marketplace_note_id", "sales_day"}),
+    indexes = @Index(name = "idx_seller_sales_rollup_seller_day", columnList = "seller_id, sales_day"))
+public class SellerSalesRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "seller_id", nullable = false)
+    private User seller;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "marketplace_note_id", nullable = false)
+    private MarketplaceNote marketplaceNote;
+    
+    @Column(name = "sales_day", nullable = false)
+    private LocalDate salesDay;
+    
+    @Column(name = "sales_count", nullable = false)
+    private Long salesCount = 0L;
+    
+    @Column(name = "revenue_lovelace", nullable = false)
+    private long revenueLovelace;
+    
+    // Constructors
+    public SellerSalesRollup() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public User getSeller() {
+        return seller;
+    }
+    
+    public void setSeller(User seller) {
+        this.seller = seller;
+    }
+    
+    public MarketplaceNote getMarketplaceNote() {
+        return marketplaceNote;
+    }
+    
+    public void setMarketplaceNote(MarketplaceNote marketplaceNote) {
+        this.marketplaceNote = marketplaceNote;
+    }
+    
+    public LocalDate getSalesDay() {
+        return salesDay;
+    }
+    
+    public void setSalesDay(LocalDate salesDay) {
+        this.salesDay = salesDay;
+    }
+    
+    public Long getSalesCount() {
+        return salesCount;
+    }
+    
+    public void setSalesCount(Long salesCount) {
+        this.salesCount = salesCount;
+    }
+    
+    public long getRevenueLovelace() {
+        return revenueLovelace;
+    }
+    
+    public void setRevenueLovelace(long revenueLovelace) {
+        this.revenueLovelace = revenueLovelace;
+    }
+}
@@ -0,0 +1,76 @@
+package com.ReMe.ReMe.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * One tag on one note or listing. The index key names the tag space: a user's notes, or the marketplace.
+ * This table is the source of truth the in-memory tag index is rebuilt from; see TagIndexService.
+ */
+@Entity
+@Table(name = "tag_assignments",
+    uniqueConstraints = @UniqueConstraint(name = "uk_tag_assignments_target_tag", columnNames = {"index_key", "target_id", "tag"}))
+public class TagAssignment {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tag_assignments_id_generator")
+    @SequenceGenerator(name = "tag_assignments_id_generator", sequenceName = "tag_assignments_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "index_key", nullable = false, length = 64)
+    private String indexKey;
+    
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+    
+    @Column(nullable = false, length = 40)
+    private String tag;
+    
+    // Constructors
+    public TagAssignment() {}
+    
+    public TagAssignment(String indexKey, Long targetId, String tag) {
+        this.indexKey = indexKey;
+        this.targetId = targetId;
+        this.tag = tag;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getIndexKey() {
+        return indexKey;
+    }
+    
+    public void setIndexKey(String indexKey) {
+        this.indexKey = indexKey;
+    }
+    
+    public Long getTargetId() {
+        return targetId;
+    }
+    
+    public void setTargetId(Long targetId) {
+        this.targetId = targetId;
+    }
+    
+    public String getTag() {
+        return tag;
+    }
+    
+    public void setTag(String tag) {
+        this.tag = tag;
+    }
+}
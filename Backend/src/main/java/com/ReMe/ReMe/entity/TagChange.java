@@ -0,0 +1,103 @@
+package com.ReMe.ReMe.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * Log entry for a tag added to or removed from a note or listing, written in the same transaction as
+ * the assignment. Replayed on top of the last index snapshot and purged once a newer snapshot covers it.
+ */
+@Entity
+@Table(name = "tag_changes",
+    indexes = @Index(name = "idx_tag_changes_key_recorded", columnList = "index_key, recorded_at"))
+public class TagChange {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tag_changes_id_generator")
+    @SequenceGenerator(name = "tag_changes_id_generator", sequenceName = "tag_changes_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "index_key", nullable = false, length = 64)
+    private String indexKey;
+    
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+    
+    @Column(nullable = false, length = 40)
+    private String tag;
+    
+    // true when the tag was added, false when it was removed
+    @Column(nullable = false)
+    private boolean added;
+    
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+    
+    // Constructors
+    public TagChange() {}
+    
+    public TagChange(String indexKey, Long targetId, String tag, boolean added, LocalDateTime recordedAt) {
+        this.indexKey = indexKey;
+        this.targetId = targetId;
+        this.tag = tag;
+        this.added = added;
+        this.recordedAt = recordedAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getIndexKey() {
+        return indexKey;
+    }
+    
+    public void setIndexKey(String indexKey) {
+        this.indexKey = indexKey;
+    }
+    
+    public Long getTargetId() {
+        return targetId;
+    }
+    
+    public void setTargetId(Long targetId) {
+        this.targetId = targetId;
+    }
+    
+    public String getTag() {
+        return tag;
+    }
+    
+    public void setTag(String tag) {
+        this.tag = tag;
+    }
+    
+    public boolean isAdded() {
+        return added;
+    }
+    
+    public void setAdded(boolean added) {
+        this.added = added;
+    }
+    
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+    
+    public void setRecordedAt(LocalDateTime recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+}
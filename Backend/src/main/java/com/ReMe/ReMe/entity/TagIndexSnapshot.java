@@ -0,0 +1,74 @@
+package com.ReMe.ReMe.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Serialized tag bitmaps of one index key. Loading applies the tag changes recorded since
+ * {@code replayFrom}, which sits a safety window before the snapshot was taken so changes that
+ * committed while it was being written are not missed.
+ */
+@Entity
+@Table(name = "tag_index_snapshots")
+public class TagIndexSnapshot {
+    
+    @Id
+    @Column(name = "index_key", length = 64)
+    private String indexKey;
+    
+    @Column(nullable = false)
+    private byte[] data;
+    
+    @Column(name = "replay_from", nullable = false)
+    private LocalDateTime replayFrom;
+    
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+    
+    // Constructors
+    public TagIndexSnapshot() {}
+    
+    public TagIndexSnapshot(String indexKey, byte[] data, LocalDateTime replayFrom, LocalDateTime takenAt) {
+        this.indexKey = indexKey;
+        this.data = data;
+        this.replayFrom = replayFrom;
+        this.takenAt = takenAt;
+    }
+    
+    // Getters and Setters
+    public String getIndexKey() {
+        return indexKey;
+    }
+    
+    public void setIndexKey(String indexKey) {
+        this.indexKey = indexKey;
+    }
+    
+    public byte[] getData() {
+        return data;
+    }
+    
+    public void setData(byte[] data) {
+        this.data = data;
+    }
+    
+    public LocalDateTime getReplayFrom() {
+        return replayFrom;
+    }
+    
+    public void setReplayFrom(LocalDateTime replayFrom) {
+        this.replayFrom = replayFrom;
+    }
+    
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+    
+    public void setTakenAt(LocalDateTime takenAt) {
+        this.takenAt = takenAt;
+    }
+}
@@ -1,28 +1,38 @@
 package com.ReMe.ReMe.entity;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 import org.hibernate.annotations.CreationTimestamp;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions",
+    indexes = {
+        @Index(name = "idx_transactions_verification", columnList = "verification_status, created_at"),
+        @Index(name = "idx_transactions_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_transactions_user_network_created", columnList = "user_id, network_id, created_at, id"),
+        @Index(name = "idx_transactions_user_amount", columnList = "user_id, amount_lovelace"),
+        @Index(name = "idx_transactions_note_created", columnList = "note_id, created_at, id")
+    })
 public class Transaction {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_id_generator")
+    @SequenceGenerator(name = "transactions_id_generator", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, unique = true)
@@ -37,9 +47,9 @@ public class Transaction {
     @NotBlank(message = "Recipient address is required")
     private String recipientAddress;
     
-    @Column(nullable = false, precision = 20, scale = 6)
-    @NotNull(message = "Amount is required")
-    private BigDecimal amountADA;
+    // Whole lovelace; see Lovelace
+    @Column(name = "amount_lovelace", nullable = false)
+    private long amountLovelace;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "note_id")
@@ -59,15 +69,23 @@ public class Transaction {
     @Column(columnDefinition = "TEXT")
     private String metadata;
     
+    @Enumerated(EnumType.STRING)
+    @Column(name = "verification_status", nullable = false, length = 20,
+            columnDefinition = "VARCHAR(20) DEFAULT 'PENDING' NOT NULL")
+    private VerificationStatus verificationStatus = VerificationStatus.PENDING;
+    
+    @Column(name = "verified_at")
+    private LocalDateTime verifiedAt;
+    
     // Constructors
     public Transaction() {}
     
     public Transaction(String txHash, String senderAddress, String recipientAddress, 
-                      BigDecimal amountADA, User user) {
+                      long amountLovelace, User user) {
         this.txHash = txHash;
         this.senderAddress = senderAddress;
         this.recipientAddress = recipientAddress;
-        this.amountADA = amountADA;
+        this.amountLovelace = amountLovelace;
         this.user = user;
     }
     
@@ -104,12 +122,12 @@ public class Transaction {
         this.recipientAddress = recipientAddress;
     }
     
-    public BigDecimal getAmountADA() {
-        return amountADA;
+    public long getAmountLovelace() {
+        return amountLovelace;
     }
     
-    public void setAmountADA(BigDecimal amountADA) {
-        this.amountADA = amountADA;
+    public void setAmountLovelace(long amountLovelace) {
+        this.amountLovelace = amountLovelace;
     }
     
     public Note getNote() {
@@ -151,4 +169,20 @@ public class Transaction {
     public void setMetadata(String metadata) {
         this.metadata = metadata;
     }
+    
+    public VerificationStatus getVerificationStatus() {
+        return verificationStatus;
+    }
+    
+    public void setVerificationStatus(VerificationStatus verificationStatus) {
+        this.verificationStatus = verificationStatus;
+    }
+    
+    public LocalDateTime getVerifiedAt() {
+        return verifiedAt;
+    }
+    
+    public void setVerifiedAt(LocalDateTime verifiedAt) {
+        this.verifiedAt = verifiedAt;
+    }
 }
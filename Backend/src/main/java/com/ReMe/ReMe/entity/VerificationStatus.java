@@ -0,0 +1,10 @@
+package com.ReMe.ReMe.entity;
+
+/**
+ * On-chain verification state of a recorded transaction.
+ */
+public enum VerificationStatus {
+    PENDING,
+    CONFIRMED,
+    REJECTED
+}
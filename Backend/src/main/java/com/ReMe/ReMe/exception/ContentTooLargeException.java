@@ -0,0 +1,11 @@
+package com.ReMe.ReMe.exception;
+
+/**
+ * Thrown when an uploaded note body is larger than the configured maximum.
+ */
+public class ContentTooLargeException extends RuntimeException {
+    
+    public ContentTooLargeException(long maxBytes) {
+        super("Note content must not exceed " + maxBytes + " bytes");
+    }
+}
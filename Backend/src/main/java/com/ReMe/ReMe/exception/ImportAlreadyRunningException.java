@@ -0,0 +1,11 @@
+package com.ReMe.ReMe.exception;
+
+/**
+ * Thrown when an import upload uses the key of an import that another upload is still writing.
+ */
+public class ImportAlreadyRunningException extends RuntimeException {
+    
+    public ImportAlreadyRunningException(String key) {
+        super("Import " + key + " is already running");
+    }
+}
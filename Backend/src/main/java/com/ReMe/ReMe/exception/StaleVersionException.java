@@ -0,0 +1,18 @@
+package com.ReMe.ReMe.exception;
+
+/**
+ * Thrown when a write is based on a version of the resource that is no longer current.
+ */
+public class StaleVersionException extends RuntimeException {
+    
+    private final Long currentVersion;
+    
+    public StaleVersionException(String message, Long currentVersion) {
+        super(message);
+        this.currentVersion = currentVersion;
+    }
+    
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,93 @@
+package com.ReMe.ReMe.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC batch writes for inline content blobs, used by bulk imports where acquiring bodies one at a time
+ * would cost up to three round trips per note.
+ */
+@Repository
+public class ContentBlobBatchRepository {
+    
+    private static final String INSERT_BODY_SQL =
+        "INSERT INTO content_blob_bodies (hash, body) VALUES (?, ?) ON CONFLICT (hash) DO NOTHING";
+    
+    private static final String INSERT_BLOB_SQL =
+        "INSERT INTO content_blobs (hash, preview, content_length, ref_count, created_at) VALUES (?, ?, ?, ?, ?) " +
+        "ON CONFLICT (hash) DO UPDATE SET ref_count = content_blobs.ref_count + EXCLUDED.ref_count, released_at = NULL";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    /**
+     * One distinct body and the number of references to add to it.
+     */
+    public static final class BlobRow {
+        private final String hash;
+        private final byte[] encodedBody;
+        private final String preview;
+        private final int contentLength;
+        private final int references;
+        
+        public BlobRow(String hash, byte[] encodedBody, String preview, int contentLength, int references) {
+            this.hash = hash;
+            this.encodedBody = encodedBody;
+            this.preview = preview;
+            this.contentLength = contentLength;
+            this.references = references;
+        }
+        
+        public String getHash() {
+            return hash;
+        }
+    }
+    
+    /**
+     * Stores each blob that does not exist yet and adds its references, in two batched statements.
+     * Rows should be sorted by hash so concurrent imports lock blobs in the same order.
+     */
+    public void insertOrAddReferences(List<BlobRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        // Bodies first: the blob row references its body
+        jdbcTemplate.batchUpdate(INSERT_BODY_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, rows.get(i).hash);
+                ps.setBytes(2, rows.get(i).encodedBody);
+            }
+            
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_BLOB_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                BlobRow row = rows.get(i);
+                ps.setString(1, row.hash);
+                ps.setString(2, row.preview);
+                ps.setInt(3, row.contentLength);
+                ps.setInt(4, row.references);
+                ps.setTimestamp(5, now);
+            }
+            
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+}
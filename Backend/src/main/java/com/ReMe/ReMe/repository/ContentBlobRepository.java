@@ -0,0 +1,91 @@
+package com.ReMe.ReMe.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.ReMe.ReMe.entity.ContentBlob;
+
+@Repository
+public interface ContentBlobRepository extends JpaRepository<ContentBlob, String> {
+    
+    @Modifying
+    @Query(value = "UPDATE content_blobs SET ref_count = ref_count + 1, released_at = NULL WHERE hash = :hash",
+           nativeQuery = true)
+    int addReference(@Param("hash") String hash);
+    
+    // Must run before insertOrAddReference, which references the body row
+    @Modifying
+    @Query(value = "INSERT INTO content_blob_bodies (hash, body) VALUES (:hash, :body) ON CONFLICT (hash) DO NOTHING",
+           nativeQuery = true)
+    int insertBody(@Param("hash") String hash, @Param("body") byte[] body);
+    
+    /**
+     * Stores a new blob with one reference, or adds a reference if another writer stored it first.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO content_blobs (hash, preview, content_length, ref_count, created_at) " +
+                   "VALUES (:hash, :preview, :contentLength, 1, :createdAt) " +
+                   "ON CONFLICT (hash) DO UPDATE SET ref_count = content_blobs.ref_count + 1, released_at = NULL",
+           nativeQuery = true)
+    int insertOrAddReference(@Param("hash") String hash,
+                             @Param("preview") String preview,
+                             @Param("contentLength") int contentLength,
+                             @Param("createdAt") LocalDateTime createdAt);
+    
+    /**
+     * Records a large body stored on disk with one reference, or adds a reference if another writer stored it first.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO content_blobs (hash, preview, content_length, segment, segment_offset, byte_length, " +
+                   "ref_count, created_at) " +
+                   "VALUES (:hash, :preview, :contentLength, :segment, :segmentOffset, :byteLength, 1, :createdAt) " +
+                   "ON CONFLICT (hash) DO UPDATE SET ref_count = content_blobs.ref_count + 1, released_at = NULL",
+           nativeQuery = true)
+    int insertExternalOrAddReference(@Param("hash") String hash,
+                                     @Param("preview") String preview,
+                                     @Param("contentLength") int contentLength,
+                                     @Param("segment") int segment,
+                                     @Param("segmentOffset") long segmentOffset,
+                                     @Param("byteLength") long byteLength,
+                                     @Param("createdAt") LocalDateTime createdAt);
+    
+    /**
+     * Drops one reference, recording when the last one went so the sweep can wait out a grace period.
+     */
+    @Modifying
+    @Query(value = "UPDATE content_blobs SET ref_count = ref_count - 1, " +
+                   "released_at = CASE WHEN ref_count <= 1 THEN :releasedAt ELSE released_at END " +
+                   "WHERE hash = :hash", nativeQuery = true)
+    int removeReference(@Param("hash") String hash, @Param("releasedAt") LocalDateTime releasedAt);
+    
+    // The grace period keeps a blob whose last reference was just dropped available to a writer re-adding it;
+    // rows released before released_at existed fall back to their creation time
+    @Modifying
+    @Query(value = "DELETE FROM content_blobs WHERE ref_count <= 0 AND COALESCE(released_at, created_at) < :before",
+           nativeQuery = true)
+    int deleteUnreferenced(@Param("before") LocalDateTime before);
+    
+    @Modifying
+    @Query(value = "DELETE FROM content_blob_bodies b WHERE NOT EXISTS " +
+                   "(SELECT 1 FROM content_blobs c WHERE c.hash = b.hash)", nativeQuery = true)
+    int deleteOrphanedBodies();
+    
+    /**
+     * Hashes and stored bytes of bodies written in an older format, in hash order after {@code afterHash}.
+     */
+    @Query(value = "SELECT hash, body FROM content_blob_bodies WHERE hash > :afterHash AND get_byte(body, 0) < :format " +
+                   "ORDER BY hash LIMIT :limit", nativeQuery = true)
+    List<Object[]> findOutdated(@Param("afterHash") String afterHash,
+                                @Param("format") int format,
+                                @Param("limit") int limit);
+    
+    @Modifying
+    @Query(value = "UPDATE content_blob_bodies SET body = :body WHERE hash = :hash", nativeQuery = true)
+    int rewriteBody(@Param("hash") String hash, @Param("body") byte[] body);
+}
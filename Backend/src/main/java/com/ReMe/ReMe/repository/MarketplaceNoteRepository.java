@@ -1,17 +1,20 @@
 package com.ReMe.ReMe.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.ReMe.ReMe.dto.VersionStampDto;
 import com.ReMe.ReMe.entity.MarketplaceNote;
 import com.ReMe.ReMe.entity.User;
 
 @Repository
-public interface MarketplaceNoteRepository extends JpaRepository<MarketplaceNote, Long> {
+public interface MarketplaceNoteRepository extends JpaRepository<MarketplaceNote, Long>, MarketplaceNoteRepositoryCustom {
     
     List<MarketplaceNote> findByIsActiveTrueOrderByCreatedAtDesc();
     
@@ -24,4 +27,51 @@ public interface MarketplaceNoteRepository extends JpaRepository<MarketplaceNote
            "LOWER(m.description) LIKE LOWER(CONCAT('%', :query, '%'))) " +
            "ORDER BY m.createdAt DESC")
     List<MarketplaceNote> searchActiveNotes(@Param("query") String query);
+    
+    @Query("SELECT m FROM MarketplaceNote m LEFT JOIN FETCH m.body WHERE m.isActive = true AND m.id IN :ids " +
+           "ORDER BY m.id DESC")
+    List<MarketplaceNote> findActiveByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT m.id FROM MarketplaceNote m WHERE m.isActive = true")
+    List<Long> findActiveIds();
+    
+    @Query("SELECT m.id FROM MarketplaceNote m WHERE m.seller = :seller AND m.isActive = true")
+    List<Long> findActiveIdsBySeller(@Param("seller") User seller);
+    
+    // Purchase counts are bumped with bulk updates that do not touch updatedAt, so they go into the marker.
+    // View counts are left out: every read bumps them, which would change the tag on every request;
+    // a cached listing may show a slightly old view count until something else changes.
+    @Query("SELECT new com.ReMe.ReMe.dto.VersionStampDto(COUNT(m), MAX(m.updatedAt), " +
+           "SUM(m.purchaseCount)) FROM MarketplaceNote m WHERE m.isActive = true")
+    VersionStampDto stampActive();
+    
+    @Query("SELECT new com.ReMe.ReMe.dto.VersionStampDto(COUNT(m), MAX(m.updatedAt), " +
+           "SUM(m.purchaseCount)) FROM MarketplaceNote m WHERE m.seller = :seller")
+    VersionStampDto stampBySeller(@Param("seller") User seller);
+    
+    @Query("SELECT new com.ReMe.ReMe.dto.VersionStampDto(COUNT(m), MAX(m.updatedAt), " +
+           "SUM(m.purchaseCount)) FROM MarketplaceNote m WHERE m.id = :id")
+    VersionStampDto stampById(@Param("id") Long id);
+    
+    /**
+     * Purchase count including purchases the outbox has not applied yet, read in one statement so a
+     * concurrently materialized purchase is counted exactly once.
+     */
+    @Query("SELECT m.purchaseCount + (SELECT COUNT(o) FROM PurchaseOutboxEvent o " +
+           "WHERE o.notePurchase.marketplaceNote.id = m.id AND o.status IN " +
+           "(com.ReMe.ReMe.entity.OutboxStatus.PENDING, com.ReMe.ReMe.entity.OutboxStatus.PROCESSING)) " +
+           "FROM MarketplaceNote m WHERE m.id = :id")
+    long countPurchasesIncludingPending(@Param("id") Long id);
+    
+    @Modifying
+    @Query("UPDATE MarketplaceNote m SET m.purchaseCount = m.purchaseCount + 1 WHERE m.id = :id")
+    int incrementPurchaseCount(@Param("id") Long id);
+    
+    @Modifying
+    @Query("UPDATE MarketplaceNote m SET m.purchaseCount = m.purchaseCount - 1 WHERE m.id = :id AND m.purchaseCount > 0")
+    int decrementPurchaseCount(@Param("id") Long id);
+    
+    @Modifying
+    @Query("UPDATE MarketplaceNote m SET m.viewCount = m.viewCount + 1 WHERE m.id = :id")
+    int incrementViewCount(@Param("id") Long id);
 }
@@ -0,0 +1,26 @@
+package com.ReMe.ReMe.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.ReMe.ReMe.dto.MarketplaceFilterDto;
+import com.ReMe.ReMe.dto.MarketplaceSort;
+import com.ReMe.ReMe.entity.MarketplaceNote;
+
+public interface MarketplaceNoteRepositoryCustom {
+    
+    /**
+     * One page of active listings in the given order, keyed on (sort column, id).
+     * Only the predicates for filters that are set are added, so each query shape can use its index.
+     * 
+     * @param filter Optional price, seller and purchase-count filters, or null
+     * @param excludeSellerId Listings of this seller are left out (the current user's own), or null
+     * @param sort Ordering; the keyset columns follow from it
+     * @param afterValue Sort column value of the last row of the previous page (LocalDateTime, Long or Integer), or null for the first page
+     * @param afterId id of the last row of the previous page, or null for the first page
+     * @param limit Maximum rows to return
+     * @return Listings with their content blob metadata fetched
+     */
+    List<MarketplaceNote> findActivePage(MarketplaceFilterDto filter, UUID excludeSellerId, MarketplaceSort sort,
+                                         Object afterValue, Long afterId, int limit);
+}
@@ -0,0 +1,77 @@
+package com.ReMe.ReMe.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.ReMe.ReMe.dto.MarketplaceFilterDto;
+import com.ReMe.ReMe.dto.MarketplaceSort;
+import com.ReMe.ReMe.entity.MarketplaceNote;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+public class MarketplaceNoteRepositoryImpl implements MarketplaceNoteRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<MarketplaceNote> findActivePage(MarketplaceFilterDto filter, UUID excludeSellerId, MarketplaceSort sort,
+                                                Object afterValue, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder(
+            "SELECT m FROM MarketplaceNote m LEFT JOIN FETCH m.body WHERE m.isActive = true");
+        
+        if (excludeSellerId != null) {
+            jpql.append(" AND m.seller.id <> :excludeSellerId");
+        }
+        if (filter != null && filter.getMinPriceLovelace() != null) {
+            jpql.append(" AND m.priceLovelace >= :minPrice");
+        }
+        if (filter != null && filter.getMaxPriceLovelace() != null) {
+            jpql.append(" AND m.priceLovelace <= :maxPrice");
+        }
+        if (filter != null && filter.getSellerWalletAddress() != null) {
+            jpql.append(" AND m.sellerWalletAddress = :sellerWalletAddress");
+        }
+        if (filter != null && filter.getMinPurchases() != null) {
+            jpql.append(" AND m.purchaseCount >= :minPurchases");
+        }
+        
+        String column = switch (sort) {
+            case NEWEST -> "m.createdAt";
+            case PRICE_ASC, PRICE_DESC -> "m.priceLovelace";
+            case POPULAR -> "m.purchaseCount";
+        };
+        boolean ascending = sort == MarketplaceSort.PRICE_ASC;
+        String after = ascending ? ">" : "<";
+        if (afterValue != null) {
+            jpql.append(" AND (").append(column).append(' ').append(after).append(" :afterValue OR (")
+                .append(column).append(" = :afterValue AND m.id ").append(after).append(" :afterId))");
+        }
+        String direction = ascending ? " ASC" : " DESC";
+        jpql.append(" ORDER BY ").append(column).append(direction).append(", m.id").append(direction);
+        
+        TypedQuery<MarketplaceNote> query = entityManager.createQuery(jpql.toString(), MarketplaceNote.class);
+        if (excludeSellerId != null) {
+            query.setParameter("excludeSellerId", excludeSellerId);
+        }
+        if (filter != null && filter.getMinPriceLovelace() != null) {
+            query.setParameter("minPrice", filter.getMinPriceLovelace());
+        }
+        if (filter != null && filter.getMaxPriceLovelace() != null) {
+            query.setParameter("maxPrice", filter.getMaxPriceLovelace());
+        }
+        if (filter != null && filter.getSellerWalletAddress() != null) {
+            query.setParameter("sellerWalletAddress", filter.getSellerWalletAddress());
+        }
+        if (filter != null && filter.getMinPurchases() != null) {
+            query.setParameter("minPurchases", filter.getMinPurchases());
+        }
+        if (afterValue != null) {
+            query.setParameter("afterValue", afterValue);
+            query.setParameter("afterId", afterId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,17 @@
+package com.ReMe.ReMe.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.ReMe.ReMe.entity.NoteImportError;
+
+@Repository
+public interface NoteImportErrorRepository extends JpaRepository<NoteImportError, Long> {
+    
+    List<NoteImportError> findByJobIdOrderByItemIndexAsc(Long jobId, Pageable pageable);
+    
+    long countByJobId(Long jobId);
+}
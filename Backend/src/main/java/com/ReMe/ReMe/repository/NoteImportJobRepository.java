@@ -0,0 +1,25 @@
+package com.ReMe.ReMe.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.ReMe.ReMe.entity.NoteImportJob;
+import com.ReMe.ReMe.entity.User;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface NoteImportJobRepository extends JpaRepository<NoteImportJob, Long> {
+    
+    Optional<NoteImportJob> findByUserAndJobKey(User user, String jobKey);
+    
+    // Serializes batch commits of the same job, so two uploads with one key cannot both advance the checkpoint
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM NoteImportJob j WHERE j.user = :user AND j.jobKey = :jobKey")
+    Optional<NoteImportJob> findForUpdate(@Param("user") User user, @Param("jobKey") String jobKey);
+}
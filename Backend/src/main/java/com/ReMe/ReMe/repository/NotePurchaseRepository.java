@@ -2,8 +2,12 @@ package com.ReMe.ReMe.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.ReMe.ReMe.entity.MarketplaceNote;
@@ -21,4 +25,16 @@ public interface NotePurchaseRepository extends JpaRepository<NotePurchase, Long
     boolean existsByMarketplaceNoteAndBuyerWalletAddress(MarketplaceNote marketplaceNote, String buyerWalletAddress);
     
     Optional<NotePurchase> findByTransactionHash(String transactionHash);
+    
+    /**
+     * Hashes of purchases whose transaction was rejected on chain and that have not been revoked yet.
+     */
+    @Query("SELECT p.transactionHash FROM NotePurchase p WHERE p.transactionHash IN " +
+           "(SELECT t.txHash FROM Transaction t WHERE t.verificationStatus = com.ReMe.ReMe.entity.VerificationStatus.REJECTED)")
+    List<String> findRejectedTransactionHashes(Pageable pageable);
+    
+    @Query("SELECT DISTINCT p.marketplaceNote.id FROM NotePurchase p WHERE " +
+           "p.transactionHash IN (SELECT t.txHash FROM Transaction t WHERE t.user.id = :userId) OR " +
+           "p.id IN (SELECT o.notePurchase.id FROM PurchaseOutboxEvent o WHERE o.buyer.id = :userId)")
+    List<Long> findPurchasedListingIdsByUserId(@Param("userId") UUID userId);
 }
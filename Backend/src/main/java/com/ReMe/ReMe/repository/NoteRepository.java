@@ -1,12 +1,25 @@
 package com.ReMe.ReMe.repository;
 
+import com.ReMe.ReMe.dto.NoteExportRow;
+import com.ReMe.ReMe.dto.NoteSummaryDto;
+import com.ReMe.ReMe.dto.VersionStampDto;
 import com.ReMe.ReMe.entity.Note;
 import com.ReMe.ReMe.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface NoteRepository extends JpaRepository<Note, Long> {
@@ -18,4 +31,68 @@ public interface NoteRepository extends JpaRepository<Note, Long> {
     Optional<Note> findByIdAndUser(Long id, User user);
     
     void deleteByIdAndUser(Long id, User user);
+    
+    List<Note> findByIdInAndUser(Collection<Long> ids, User user);
+    
+    List<Note> findByUserAndUpdatedAtAfter(User user, LocalDateTime since);
+    
+    @Modifying
+    @Query("DELETE FROM Note n WHERE n.id IN :ids AND n.user = :user")
+    int deleteOwned(@Param("ids") Collection<Long> ids, @Param("user") User user);
+    
+    @Query("SELECT new com.ReMe.ReMe.dto.NoteSummaryDto(n.id, n.title, SUBSTRING(b.preview, 1, :snippetLength), " +
+           "n.createdAt, n.updatedAt) FROM Note n LEFT JOIN n.body b WHERE n.user = :user AND LOWER(n.title) LIKE :titlePattern ESCAPE '\\' " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NoteSummaryDto> findSummaries(@Param("user") User user,
+                                       @Param("titlePattern") String titlePattern,
+                                       @Param("snippetLength") int snippetLength,
+                                       Pageable pageable);
+    
+    @Query("SELECT new com.ReMe.ReMe.dto.NoteSummaryDto(n.id, n.title, SUBSTRING(b.preview, 1, :snippetLength), " +
+           "n.createdAt, n.updatedAt) FROM Note n LEFT JOIN n.body b WHERE n.user = :user AND LOWER(n.title) LIKE :titlePattern ESCAPE '\\' " +
+           "AND (n.createdAt < :beforeCreatedAt OR (n.createdAt = :beforeCreatedAt AND n.id < :beforeId)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NoteSummaryDto> findSummariesBefore(@Param("user") User user,
+                                             @Param("titlePattern") String titlePattern,
+                                             @Param("snippetLength") int snippetLength,
+                                             @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                             @Param("beforeId") Long beforeId,
+                                             Pageable pageable);
+    
+    @Query("SELECT new com.ReMe.ReMe.dto.NoteSummaryDto(n.id, n.title, SUBSTRING(b.preview, 1, :snippetLength), " +
+           "n.createdAt, n.updatedAt) FROM Note n LEFT JOIN n.body b WHERE n.user = :user AND n.id IN :ids " +
+           "ORDER BY n.id DESC")
+    List<NoteSummaryDto> findSummariesByIds(@Param("user") User user,
+                                            @Param("ids") Collection<Long> ids,
+                                            @Param("snippetLength") int snippetLength);
+    
+    @Query("SELECT n.version FROM Note n WHERE n.id = :id AND n.user = :user")
+    Optional<Long> findVersionByIdAndUser(@Param("id") Long id, @Param("user") User user);
+    
+    @Query("SELECT n.id FROM Note n WHERE n.user = :user")
+    List<Long> findIdsByUser(@Param("user") User user);
+    
+    @Query("SELECT new com.ReMe.ReMe.dto.VersionStampDto(COUNT(n), MAX(n.updatedAt), MAX(n.id)) " +
+           "FROM Note n WHERE n.user = :user")
+    VersionStampDto stampByUser(@Param("user") User user);
+    
+    @Query("SELECT new com.ReMe.ReMe.dto.VersionStampDto(COUNT(n), MAX(n.updatedAt), MAX(n.version)) " +
+           "FROM Note n WHERE n.id = :id AND n.user = :user")
+    VersionStampDto stampByIdAndUser(@Param("id") Long id, @Param("user") User user);
+    
+    @Query("SELECT n.id FROM Note n WHERE n.id IN :ids AND n.user = :user")
+    List<Long> findOwnedIds(@Param("ids") Collection<Long> ids, @Param("user") User user);
+    
+    /**
+     * Forward-only cursor over a user's notes for export. Rows are DTOs, so nothing accumulates in the
+     * persistence context; must be consumed inside a transaction for PostgreSQL to fetch in batches.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.ReMe.ReMe.dto.NoteExportRow(n.id, n.title, cb.body, b.segment, b.segmentOffset, " +
+           "b.byteLength, n.createdAt, n.updatedAt) FROM Note n LEFT JOIN n.body b " +
+           "LEFT JOIN ContentBody cb ON cb.hash = b.hash WHERE n.user = :user ORDER BY n.id")
+    Stream<NoteExportRow> streamForExport(@Param("user") User user);
 }
@@ -0,0 +1,49 @@
+package com.ReMe.ReMe.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.ReMe.ReMe.dto.NoteVersionDto;
+import com.ReMe.ReMe.entity.NoteRevision;
+import com.ReMe.ReMe.entity.User;
+
+@Repository
+public interface NoteRevisionRepository extends JpaRepository<NoteRevision, Long> {
+    
+    @Query("SELECT new com.ReMe.ReMe.dto.NoteVersionDto(r.version, r.title, r.contentLength, r.createdAt) " +
+           "FROM NoteRevision r WHERE r.noteId = :noteId AND r.user = :user ORDER BY r.version DESC")
+    List<NoteVersionDto> findVersions(@Param("noteId") Long noteId, @Param("user") User user);
+    
+    @Query("SELECT MAX(r.version) FROM NoteRevision r WHERE r.noteId = :noteId")
+    Long findLatestVersion(@Param("noteId") Long noteId);
+    
+    @Query("SELECT MAX(r.version) FROM NoteRevision r WHERE r.noteId = :noteId AND r.snapshot = true " +
+           "AND r.version <= :version")
+    Long findSnapshotVersionAtOrBefore(@Param("noteId") Long noteId, @Param("version") Long version);
+    
+    @Query("SELECT r FROM NoteRevision r WHERE r.noteId = :noteId AND r.user = :user " +
+           "AND r.version BETWEEN :fromVersion AND :toVersion ORDER BY r.version")
+    List<NoteRevision> findChain(@Param("noteId") Long noteId, @Param("user") User user,
+                                 @Param("fromVersion") Long fromVersion, @Param("toVersion") Long toVersion);
+    
+    List<NoteRevision> findByNoteIdOrderByVersionAsc(Long noteId);
+    
+    @Query("SELECT r.noteId FROM NoteRevision r GROUP BY r.noteId " +
+           "HAVING COUNT(r) > :maxVersions OR (COUNT(r) > 1 AND MIN(r.createdAt) < :cutoff)")
+    List<Long> findNoteIdsToCompact(@Param("maxVersions") long maxVersions, @Param("cutoff") LocalDateTime cutoff);
+    
+    @Modifying
+    @Query("DELETE FROM NoteRevision r WHERE r.noteId = :noteId AND r.version < :version")
+    int deleteBeforeVersion(@Param("noteId") Long noteId, @Param("version") Long version);
+    
+    @Modifying
+    @Query("DELETE FROM NoteRevision r WHERE r.noteId IN :noteIds")
+    int deleteByNoteIds(@Param("noteIds") Collection<Long> noteIds);
+}
@@ -0,0 +1,26 @@
+package com.ReMe.ReMe.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ReMe.ReMe.entity.NoteTombstone;
+import com.ReMe.ReMe.entity.User;
+
+@Repository
+public interface NoteTombstoneRepository extends JpaRepository<NoteTombstone, Long> {
+    
+    @Query("SELECT t.noteId FROM NoteTombstone t WHERE t.user = :user AND t.deletedAt > :since")
+    List<Long> findDeletedNoteIdsSince(@Param("user") User user, @Param("since") LocalDateTime since);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM NoteTombstone t WHERE t.deletedAt < :cutoff")
+    int purgeOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,36 @@
+package com.ReMe.ReMe.repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.ReMe.ReMe.entity.PurchaseIdempotencyKey;
+
+@Repository
+public interface PurchaseIdempotencyKeyRepository extends JpaRepository<PurchaseIdempotencyKey, Long> {
+    
+    /**
+     * Claims a key for the user. Returns 1 if the key was new, 0 if it was already claimed.
+     * A concurrent claim of the same key blocks on the unique index until the first transaction finishes.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO purchase_idempotency_keys (user_id, idempotency_key, marketplace_note_id, created_at) " +
+                   "VALUES (:userId, :idempotencyKey, :marketplaceNoteId, now()) " +
+                   "ON CONFLICT (user_id, idempotency_key) DO NOTHING",
+           nativeQuery = true)
+    int claim(@Param("userId") UUID userId,
+              @Param("idempotencyKey") String idempotencyKey,
+              @Param("marketplaceNoteId") Long marketplaceNoteId);
+    
+    Optional<PurchaseIdempotencyKey> findByUserIdAndIdempotencyKey(UUID userId, String idempotencyKey);
+    
+    @Modifying
+    @Query("DELETE FROM PurchaseIdempotencyKey k WHERE k.user.id = :userId AND k.marketplaceNoteId = :marketplaceNoteId")
+    int deleteByUserIdAndMarketplaceNoteId(@Param("userId") UUID userId,
+                                           @Param("marketplaceNoteId") Long marketplaceNoteId);
+}
@@ -0,0 +1,45 @@
+package com.ReMe.ReMe.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.ReMe.ReMe.entity.PurchaseOutboxEvent;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface PurchaseOutboxEventRepository extends JpaRepository<PurchaseOutboxEvent, Long> {
+    
+    /**
+     * Locks the next due events, at most one per buyer and only the buyer's oldest open event,
+     * so side effects for a buyer are applied in purchase order. Rows locked by another
+     * dispatcher instance are skipped rather than waited on.
+     */
+    @Query(value = "SELECT o.id FROM purchase_outbox o " +
+                   "WHERE ((o.status = 'PENDING' AND o.next_attempt_at <= :now) " +
+                   "    OR (o.status = 'PROCESSING' AND o.locked_at < :staleBefore)) " +
+                   "AND NOT EXISTS (SELECT 1 FROM purchase_outbox e WHERE e.buyer_id = o.buyer_id " +
+                   "    AND e.id < o.id AND e.status IN ('PENDING', 'PROCESSING')) " +
+                   "ORDER BY o.id LIMIT :batchSize FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Long> lockDueEventIds(@Param("now") LocalDateTime now,
+                               @Param("staleBefore") LocalDateTime staleBefore,
+                               @Param("batchSize") int batchSize);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM PurchaseOutboxEvent o WHERE o.notePurchase.id = :notePurchaseId")
+    Optional<PurchaseOutboxEvent> findByNotePurchaseIdForUpdate(@Param("notePurchaseId") Long notePurchaseId);
+    
+    @Modifying
+    @Query("UPDATE PurchaseOutboxEvent o SET o.status = com.ReMe.ReMe.entity.OutboxStatus.PROCESSING, " +
+           "o.lockedAt = :now WHERE o.id IN :ids")
+    int markProcessing(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,65 @@
+package com.ReMe.ReMe.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.ReMe.ReMe.dto.SalesDailyStatsDto;
+import com.ReMe.ReMe.dto.SalesListingStatsDto;
+import com.ReMe.ReMe.entity.SellerSalesRollup;
+
+@Repository
+public interface SellerSalesRollupRepository extends JpaRepository<SellerSalesRollup, Long> {
+    
+    /**
+     * Adds one sale to the (seller, listing, day) bucket, creating it if needed.
+     * A single upsert keeps concurrent purchases of the same listing from losing increments.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO seller_sales_rollups (seller_id, marketplace_note_id, sales_day, sales_count, revenue_lovelace) " +
+                   "VALUES (:sellerId, :marketplaceNoteId, :salesDay, 1, :amountLovelace) " +
+                   "ON CONFLICT (seller_id, marketplace_note_id, sales_day) DO UPDATE SET " +
+                   "sales_count = seller_sales_rollups.sales_count + 1, " +
+                   "revenue_lovelace = seller_sales_rollups.revenue_lovelace + EXCLUDED.revenue_lovelace",
+           nativeQuery = true)
+    void recordSale(@Param("sellerId") UUID sellerId,
+                    @Param("marketplaceNoteId") Long marketplaceNoteId,
+                    @Param("salesDay") LocalDate salesDay,
+                    @Param("amountLovelace") long amountLovelace);
+    
+    /**
+     * Takes one sale back out of its bucket, e.g. when the purchase's transaction was rejected.
+     */
+    @Modifying
+    @Query(value = "UPDATE seller_sales_rollups SET sales_count = sales_count - 1, " +
+                   "revenue_lovelace = revenue_lovelace - :amountLovelace " +
+                   "WHERE seller_id = :sellerId AND marketplace_note_id = :marketplaceNoteId AND sales_day = :salesDay " +
+                   "AND sales_count > 0",
+           nativeQuery = true)
+    int revertSale(@Param("sellerId") UUID sellerId,
+                   @Param("marketplaceNoteId") Long marketplaceNoteId,
+                   @Param("salesDay") LocalDate salesDay,
+                   @Param("amountLovelace") long amountLovelace);
+    
+    @Query("SELECT new com.ReMe.ReMe.dto.SalesListingStatsDto(r.marketplaceNote.id, r.marketplaceNote.title, " +
+           "SUM(r.salesCount), SUM(r.revenueLovelace)) " +
+           "FROM SellerSalesRollup r WHERE r.seller.id = :sellerId AND r.salesDay BETWEEN :from AND :to " +
+           "GROUP BY r.marketplaceNote.id, r.marketplaceNote.title " +
+           "ORDER BY SUM(r.revenueLovelace) DESC")
+    List<SalesListingStatsDto> sumByListing(@Param("sellerId") UUID sellerId,
+                                            @Param("from") LocalDate from,
+                                            @Param("to") LocalDate to);
+    
+    @Query("SELECT new com.ReMe.ReMe.dto.SalesDailyStatsDto(r.salesDay, SUM(r.salesCount), SUM(r.revenueLovelace)) " +
+           "FROM SellerSalesRollup r WHERE r.seller.id = :sellerId AND r.salesDay BETWEEN :from AND :to " +
+           "GROUP BY r.salesDay ORDER BY r.salesDay")
+    List<SalesDailyStatsDto> sumByDay(@Param("sellerId") UUID sellerId,
+                                      @Param("from") LocalDate from,
+                                      @Param("to") LocalDate to);
+}
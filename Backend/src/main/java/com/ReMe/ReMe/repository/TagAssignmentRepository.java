@@ -0,0 +1,32 @@
+package com.ReMe.ReMe.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.ReMe.ReMe.entity.TagAssignment;
+
+@Repository
+public interface TagAssignmentRepository extends JpaRepository<TagAssignment, Long> {
+    
+    List<TagAssignment> findByIndexKeyAndTargetIdOrderByTagAsc(String indexKey, Long targetId);
+    
+    // Transaction-scoped advisory lock that serializes tag writes to one note or listing
+    @Query(value = "SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock(hashtextextended(:lockKey, 0))) l",
+           nativeQuery = true)
+    long lockTarget(@Param("lockKey") String lockKey);
+    
+    List<TagAssignment> findByIndexKeyAndTargetIdIn(String indexKey, Collection<Long> targetIds);
+    
+    // (tag, targetId) pairs for a full index rebuild, without loading entities
+    @Query("SELECT a.tag, a.targetId FROM TagAssignment a WHERE a.indexKey = :indexKey")
+    List<Object[]> findTagRows(@Param("indexKey") String indexKey);
+    
+    // The same pairs for a few targets, to settle changes that reached the index out of order
+    @Query("SELECT a.tag, a.targetId FROM TagAssignment a WHERE a.indexKey = :indexKey AND a.targetId IN :targetIds")
+    List<Object[]> findTagRows(@Param("indexKey") String indexKey, @Param("targetIds") Collection<Long> targetIds);
+}
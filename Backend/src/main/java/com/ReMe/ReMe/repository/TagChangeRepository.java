@@ -0,0 +1,31 @@
+package com.ReMe.ReMe.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ReMe.ReMe.entity.TagChange;
+
+@Repository
+public interface TagChangeRepository extends JpaRepository<TagChange, Long> {
+    
+    @Query("SELECT c FROM TagChange c WHERE c.indexKey = :indexKey AND c.recordedAt >= :from " +
+           "ORDER BY c.recordedAt, c.id")
+    List<TagChange> findToReplay(@Param("indexKey") String indexKey, @Param("from") LocalDateTime from);
+    
+    /**
+     * Deletes changes no load can need any more: older than the cutoff and either covered by their
+     * key's snapshot or, for keys without one, superseded by the rebuild from assignments.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TagChange c WHERE c.recordedAt < :cutoff AND NOT EXISTS " +
+           "(SELECT s.indexKey FROM TagIndexSnapshot s WHERE s.indexKey = c.indexKey AND s.replayFrom <= c.recordedAt)")
+    int purgeReplayed(@Param("cutoff") LocalDateTime cutoff);
+}
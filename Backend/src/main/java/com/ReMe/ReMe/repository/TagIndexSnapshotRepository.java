@@ -0,0 +1,10 @@
+package com.ReMe.ReMe.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.ReMe.ReMe.entity.TagIndexSnapshot;
+
+@Repository
+public interface TagIndexSnapshotRepository extends JpaRepository<TagIndexSnapshot, String> {
+}
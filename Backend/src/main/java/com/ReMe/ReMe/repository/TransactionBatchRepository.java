@@ -0,0 +1,110 @@
+package com.ReMe.ReMe.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.ReMe.ReMe.dto.TransactionDto;
+import com.ReMe.ReMe.entity.Transaction;
+import com.ReMe.ReMe.entity.VerificationStatus;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Multi-row writes for transactions, used where per-entity JPA inserts would cost a round trip per row.
+ * Ids come from Transaction's own Hibernate generator, so they are handed out from the same pooled
+ * blocks of transactions_seq as entity saves instead of spending a whole block per row.
+ */
+@Repository
+public class TransactionBatchRepository {
+    
+    // 11 parameters per row keeps a full chunk well under PostgreSQL's 32767 bind parameter limit
+    private static final int ROWS_PER_STATEMENT = 1000;
+    
+    private static final String INSERT_SQL =
+        "INSERT INTO transactions (id, tx_hash, sender_address, recipient_address, amount_lovelace, note_id, user_id, " +
+        "created_at, network_id, metadata, verification_status) VALUES ";
+    
+    private static final String ROW_SQL = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    /**
+     * Inserts the transactions with multi-row statements, skipping hashes that already exist.
+     * Must run inside a transaction, which supplies the session the ids are generated with.
+     * Each statement returns the hashes it actually inserted, so rows lost to a concurrent insert of
+     * the same hash are told apart from new ones whatever the driver reports as update counts.
+     * 
+     * @param transactions Rows to insert
+     * @param userId Owner of every row
+     * @return Hashes that were inserted; the others already existed
+     */
+    public Set<String> insertIgnoringDuplicates(List<TransactionDto> transactions, UUID userId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator ids = (BeforeExecutionGenerator) session.getFactory().getMappingMetamodel()
+            .getEntityDescriptor(Transaction.class).getGenerator();
+        Set<String> inserted = new HashSet<>();
+        for (int from = 0; from < transactions.size(); from += ROWS_PER_STATEMENT) {
+            List<TransactionDto> chunk = transactions.subList(from, Math.min(from + ROWS_PER_STATEMENT, transactions.size()));
+            String sql = INSERT_SQL + String.join(", ", Collections.nCopies(chunk.size(), ROW_SQL)) +
+                " ON CONFLICT (tx_hash) DO NOTHING RETURNING tx_hash";
+            // The pooled optimizer only goes to the sequence once per allocationSize ids
+            long[] chunkIds = new long[chunk.size()];
+            for (int k = 0; k < chunkIds.length; k++) {
+                chunkIds[k] = (Long) ids.generate(session, null, null, EventType.INSERT);
+            }
+            jdbcTemplate.query(sql, ps -> {
+                int p = 1;
+                for (int k = 0; k < chunk.size(); k++) {
+                    ps.setLong(p++, chunkIds[k]);
+                    p = setRow(ps, p, chunk.get(k), userId, now);
+                }
+            }, rs -> {
+                inserted.add(rs.getString(1));
+            });
+        }
+        return inserted;
+    }
+    
+    private static int setRow(PreparedStatement ps, int p, TransactionDto tx, UUID userId, Timestamp now) throws SQLException {
+        ps.setString(p++, tx.getTxHash());
+        ps.setString(p++, tx.getSenderAddress());
+        ps.setString(p++, tx.getRecipientAddress());
+        ps.setLong(p++, tx.getAmountLovelace());
+        if (tx.getNoteId() != null) {
+            ps.setLong(p++, tx.getNoteId());
+        } else {
+            ps.setNull(p++, Types.BIGINT);
+        }
+        ps.setObject(p++, userId);
+        ps.setTimestamp(p++, now);
+        if (tx.getNetworkId() != null) {
+            ps.setInt(p++, tx.getNetworkId());
+        } else {
+            ps.setNull(p++, Types.INTEGER);
+        }
+        ps.setString(p++, tx.getMetadata());
+        ps.setString(p++, VerificationStatus.PENDING.name());
+        return p;
+    }
+}
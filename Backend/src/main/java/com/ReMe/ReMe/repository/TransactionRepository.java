@@ -1,16 +1,26 @@
 package com.ReMe.ReMe.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.ReMe.ReMe.dto.VersionStampDto;
 import com.ReMe.ReMe.entity.Transaction;
 import com.ReMe.ReMe.entity.User;
+import com.ReMe.ReMe.entity.VerificationStatus;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionRepositoryCustom {
     
     List<Transaction> findByUserOrderByCreatedAtDesc(User user);
     
@@ -19,4 +29,47 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     List<Transaction> findByNoteId(Long noteId);
     
     boolean existsByTxHash(String txHash);
+    
+    @Query("SELECT t.txHash FROM Transaction t WHERE t.txHash IN :txHashes")
+    List<String> findExistingTxHashes(@Param("txHashes") Collection<String> txHashes);
+    
+    // Transactions are only ever inserted or verified, so count, max id and last verification cover every change
+    @Query("SELECT new com.ReMe.ReMe.dto.VersionStampDto(COUNT(t), MAX(t.verifiedAt), MAX(t.id)) " +
+           "FROM Transaction t WHERE t.user.id = :userId")
+    VersionStampDto stampByUserId(@Param("userId") UUID userId);
+    
+    @Query("SELECT new com.ReMe.ReMe.dto.VersionStampDto(COUNT(t), MAX(t.verifiedAt), MAX(t.id)) " +
+           "FROM Transaction t WHERE t.note.id = :noteId AND t.note.user.id = :userId")
+    VersionStampDto stampByNoteId(@Param("noteId") Long noteId, @Param("userId") UUID userId);
+    
+    @Query("SELECT new com.ReMe.ReMe.dto.VersionStampDto(COUNT(t), MAX(t.verifiedAt), MAX(t.id)) " +
+           "FROM Transaction t WHERE t.txHash = :txHash AND t.user.id = :userId")
+    VersionStampDto stampByTxHash(@Param("txHash") String txHash, @Param("userId") UUID userId);
+    
+    @Modifying
+    @Query("UPDATE Transaction t SET t.note = null WHERE t.note.id = :noteId")
+    int detachNote(@Param("noteId") Long noteId);
+    
+    @Query("SELECT t.txHash FROM Transaction t WHERE t.verificationStatus = :status " +
+           "AND t.createdAt < :before ORDER BY t.createdAt")
+    List<String> findTxHashesByVerificationStatusCreatedBefore(@Param("status") VerificationStatus status,
+                                                               @Param("before") LocalDateTime before,
+                                                               Pageable pageable);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE Transaction t SET t.verificationStatus = :status, t.verifiedAt = :verifiedAt " +
+           "WHERE t.txHash IN :txHashes AND t.verificationStatus = com.ReMe.ReMe.entity.VerificationStatus.PENDING")
+    int markVerification(@Param("txHashes") Collection<String> txHashes,
+                         @Param("status") VerificationStatus status,
+                         @Param("verifiedAt") LocalDateTime verifiedAt);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE Transaction t SET t.verificationStatus = com.ReMe.ReMe.entity.VerificationStatus.REJECTED, " +
+           "t.verifiedAt = :verifiedAt WHERE t.txHash IN :txHashes AND t.createdAt < :cutoff " +
+           "AND t.verificationStatus = com.ReMe.ReMe.entity.VerificationStatus.PENDING")
+    int markRejectedIfCreatedBefore(@Param("txHashes") Collection<String> txHashes,
+                                    @Param("cutoff") LocalDateTime cutoff,
+                                    @Param("verifiedAt") LocalDateTime verifiedAt);
 }
@@ -0,0 +1,26 @@
+package com.ReMe.ReMe.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import com.ReMe.ReMe.dto.TransactionFilterDto;
+import com.ReMe.ReMe.dto.TransactionResponseDto;
+
+public interface TransactionRepositoryCustom {
+    
+    /**
+     * One page of a user's transactions, newest first, keyed on (createdAt, id).
+     * Only the predicates for filters that are set are added, so each query shape can use its index.
+     * 
+     * @param userId Owner of the transactions
+     * @param noteId Restrict to transactions linked to this note, or null
+     * @param filter Optional network and amount filters, or null
+     * @param beforeCreatedAt createdAt of the last row of the previous page, or null for the first page
+     * @param beforeId id of the last row of the previous page, or null for the first page
+     * @param limit Maximum rows to return
+     * @return Rows projected straight into DTOs with the note title joined in
+     */
+    List<TransactionResponseDto> findPage(UUID userId, Long noteId, TransactionFilterDto filter,
+                                          LocalDateTime beforeCreatedAt, Long beforeId, int limit);
+}
@@ -0,0 +1,64 @@
+package com.ReMe.ReMe.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import com.ReMe.ReMe.dto.TransactionFilterDto;
+import com.ReMe.ReMe.dto.TransactionResponseDto;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+public class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<TransactionResponseDto> findPage(UUID userId, Long noteId, TransactionFilterDto filter,
+                                                 LocalDateTime beforeCreatedAt, Long beforeId, int limit) {
+        StringBuilder jpql = new StringBuilder(
+            "SELECT new com.ReMe.ReMe.dto.TransactionResponseDto(t.id, t.txHash, t.senderAddress, " +
+            "t.recipientAddress, t.amountLovelace, t.networkId, t.metadata, t.createdAt, t.verificationStatus, " +
+            "n.id, n.title) FROM Transaction t LEFT JOIN t.note n WHERE t.user.id = :userId");
+        
+        if (noteId != null) {
+            jpql.append(" AND n.id = :noteId");
+        }
+        if (filter != null && filter.getNetworkId() != null) {
+            jpql.append(" AND t.networkId = :networkId");
+        }
+        if (filter != null && filter.getMinAmountLovelace() != null) {
+            jpql.append(" AND t.amountLovelace >= :minAmount");
+        }
+        if (filter != null && filter.getMaxAmountLovelace() != null) {
+            jpql.append(" AND t.amountLovelace <= :maxAmount");
+        }
+        if (beforeCreatedAt != null) {
+            jpql.append(" AND (t.createdAt < :beforeCreatedAt OR (t.createdAt = :beforeCreatedAt AND t.id < :beforeId))");
+        }
+        jpql.append(" ORDER BY t.createdAt DESC, t.id DESC");
+        
+        TypedQuery<TransactionResponseDto> query = entityManager.createQuery(jpql.toString(), TransactionResponseDto.class);
+        query.setParameter("userId", userId);
+        if (noteId != null) {
+            query.setParameter("noteId", noteId);
+        }
+        if (filter != null && filter.getNetworkId() != null) {
+            query.setParameter("networkId", filter.getNetworkId());
+        }
+        if (filter != null && filter.getMinAmountLovelace() != null) {
+            query.setParameter("minAmount", filter.getMinAmountLovelace());
+        }
+        if (filter != null && filter.getMaxAmountLovelace() != null) {
+            query.setParameter("maxAmount", filter.getMaxAmountLovelace());
+        }
+        if (beforeCreatedAt != null) {
+            query.setParameter("beforeCreatedAt", beforeCreatedAt);
+            query.setParameter("beforeId", beforeId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,352 @@
+package com.ReMe.ReMe.service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.ReMe.ReMe.dto.ChangeEventDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Server-sent change feed replacing client polling of listings and purchase history.
+ * Listing events go to every subscriber, purchase and transaction events only to the affected user.
+ * 
+ * Each event is serialized once and numbered by a single dispatch thread, which also queues missed
+ * events on reconnect, so a subscriber always sees events in id order without gaps or duplicates.
+ * The dispatch thread only appends to per-subscriber queues; a small sender pool writes them out,
+ * so a slow client holds up at most one sender and its own queue. A subscriber whose queue
+ * overflows is disconnected and catches up through Last-Event-ID when it reconnects.
+ * Recent events are kept in a bounded buffer for Last-Event-ID resumption; a client whose position
+ * has fallen out of the buffer (or predates a restart) gets a "resync" event and should refetch.
+ * New connections start with a "ready" event carrying the current position.
+ */
+@Service
+public class ChangeFeedService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedService.class);
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${feed.max-connections:10000}")
+    private int maxConnections;
+    
+    @Value("${feed.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+    
+    @Value("${feed.replay-buffer-size:2000}")
+    private int replayBufferSize;
+    
+    @Value("${feed.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+    
+    @Value("${feed.sender-threads:8}")
+    private int senderThreads;
+    
+    // Live events a subscriber may have waiting, on top of a full replay
+    @Value("${feed.subscriber-queue-size:256}")
+    private int subscriberQueueSize;
+    
+    // Seeded from the clock so ids keep increasing across restarts and stale positions are detected
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final Deque<FeedEvent> recent = new ArrayDeque<>();
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ExecutorService sender;
+    
+    @PostConstruct
+    public void start() {
+        AtomicInteger threads = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-sender-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Opens a feed connection for the user, replaying buffered events after {@code lastEventId}.
+     * 
+     * @param userId The subscriber's id
+     * @param lastEventId Value of the Last-Event-ID header on reconnect, or null
+     * @return The emitter to return from the controller
+     * @throws IllegalArgumentException if {@code lastEventId} is not an event id
+     */
+    public SseEmitter subscribe(UUID userId, String lastEventId) {
+        Long resumeAfter = parseEventId(lastEventId);
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new RuntimeException("Change feed is at capacity, retry later");
+        }
+        
+        Subscriber subscriber = new Subscriber(new SseEmitter(emitterTimeoutMs));
+        AtomicBoolean accepted = new AtomicBoolean();
+        subscribers.compute(userId, (id, current) -> {
+            Set<Subscriber> userSubscribers = current != null ? current : ConcurrentHashMap.newKeySet();
+            if (userSubscribers.size() < maxConnectionsPerUser) {
+                userSubscribers.add(subscriber);
+                accepted.set(true);
+            }
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+        if (!accepted.get()) {
+            connections.decrementAndGet();
+            throw new RuntimeException("Too many open change feed connections for this user");
+        }
+        
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                connections.decrementAndGet();
+                subscribers.computeIfPresent(userId, (id, current) -> {
+                    current.remove(subscriber);
+                    return current.isEmpty() ? null : current;
+                });
+            }
+        };
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(release);
+        emitter.onTimeout(release);
+        emitter.onError(error -> release.run());
+        
+        // Replay is queued on the dispatch thread; live delivery starts only after it, so nothing is sent twice
+        dispatcher.execute(() -> {
+            // A fresh connection is told the current position so its first reconnect can resume from it
+            if (resumeAfter == null) {
+                enqueue(subscriber, marker("ready"));
+            } else {
+                replay(subscriber, userId, resumeAfter);
+            }
+            subscriber.live = true;
+        });
+        return emitter;
+    }
+    
+    /**
+     * Publishes an event to every subscriber once the surrounding transaction commits.
+     */
+    public void broadcastAfterCommit(String type, Long resourceId) {
+        publishAfterCommit(null, type, resourceId);
+    }
+    
+    /**
+     * Publishes an event to one user's subscribers once the surrounding transaction commits.
+     */
+    public void notifyUserAfterCommit(UUID userId, String type, Long resourceId) {
+        publishAfterCommit(userId, type, resourceId);
+    }
+    
+    private void publishAfterCommit(UUID audience, String type, Long resourceId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(audience, type, resourceId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(audience, type, resourceId);
+            }
+        });
+    }
+    
+    private void publish(UUID audience, String type, Long resourceId) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(new ChangeEventDto(type, resourceId, LocalDateTime.now()));
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not serialize change event {}: {}", type, e.getMessage());
+            return;
+        }
+        dispatcher.execute(() -> {
+            // Ids are assigned on the dispatch thread so buffer order and delivery order match
+            FeedEvent event = new FeedEvent(sequence.incrementAndGet(), audience, type, json);
+            recent.addLast(event);
+            while (recent.size() > replayBufferSize) {
+                recent.removeFirst();
+            }
+            if (audience == null) {
+                subscribers.values().forEach(userSubscribers -> deliver(userSubscribers, event));
+            } else {
+                Set<Subscriber> userSubscribers = subscribers.get(audience);
+                if (userSubscribers != null) {
+                    deliver(userSubscribers, event);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Keeps idle connections open through proxies and detects dead clients.
+     */
+    @Scheduled(fixedDelayString = "${feed.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        dispatcher.execute(() -> subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber ->
+            enqueue(subscriber, SseEmitter.event().comment("heartbeat")))));
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        sender.shutdownNow();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+    
+    private void deliver(Set<Subscriber> userSubscribers, FeedEvent event) {
+        for (Subscriber subscriber : userSubscribers) {
+            if (subscriber.live) {
+                enqueue(subscriber, event.toSse());
+            }
+        }
+    }
+    
+    private void replay(Subscriber subscriber, UUID userId, long resumeAfter) {
+        long oldestRetained = recent.isEmpty() ? sequence.get() + 1 : recent.peekFirst().id;
+        if (resumeAfter + 1 < oldestRetained || resumeAfter > sequence.get()) {
+            enqueue(subscriber, marker("resync"));
+            return;
+        }
+        for (FeedEvent event : recent) {
+            if (event.id > resumeAfter && (event.audience == null || event.audience.equals(userId))) {
+                enqueue(subscriber, event.toSse());
+            }
+        }
+    }
+    
+    private SseEmitter.SseEventBuilder marker(String name) {
+        return SseEmitter.event().id(String.valueOf(sequence.get())).name(name).data("{}", MediaType.APPLICATION_JSON);
+    }
+    
+    /**
+     * Queues an event for one subscriber without blocking, and starts a sender if none is draining its queue.
+     */
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        boolean overflow = false;
+        boolean startSender = false;
+        synchronized (subscriber) {
+            if (subscriber.closed) {
+                return;
+            }
+            if (subscriber.queue.size() >= replayBufferSize + subscriberQueueSize) {
+                overflow = true;
+            } else {
+                subscriber.queue.addLast(event);
+                startSender = !subscriber.draining;
+                subscriber.draining = true;
+            }
+        }
+        if (overflow) {
+            logger.debug("Change feed subscriber fell too far behind, disconnecting");
+            drop(subscriber);
+        } else if (startSender) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+    
+    // Runs on a sender thread; at most one drain per subscriber at a time keeps its events in order
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            SseEmitter.SseEventBuilder event;
+            synchronized (subscriber) {
+                event = subscriber.closed ? null : subscriber.queue.pollFirst();
+                if (event == null) {
+                    subscriber.draining = false;
+                    return;
+                }
+            }
+            try {
+                subscriber.emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                drop(subscriber);
+                return;
+            }
+        }
+    }
+    
+    private void drop(Subscriber subscriber) {
+        synchronized (subscriber) {
+            if (subscriber.closed) {
+                return;
+            }
+            subscriber.closed = true;
+            subscriber.queue.clear();
+        }
+        // Completing waits for a send in progress, so it must not run on the dispatch thread.
+        // Completion runs the release callback registered in subscribe
+        sender.execute(() -> subscriber.emitter.completeWithError(new IOException("Change feed client disconnected")));
+    }
+    
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid Last-Event-ID: " + lastEventId);
+        }
+    }
+    
+    /**
+     * One connection. The queue and flags are guarded by the subscriber's monitor; {@code live} is
+     * only touched by the dispatch thread.
+     */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Deque<SseEmitter.SseEventBuilder> queue = new ArrayDeque<>();
+        private boolean live;
+        private boolean draining; // a sender task owns the queue
+        private boolean closed;
+        
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+    
+    private static final class FeedEvent {
+        private final long id;
+        private final UUID audience; // null for broadcast events
+        private final String type;
+        private final String json;
+        
+        private FeedEvent(long id, UUID audience, String type, String json) {
+            this.id = id;
+            this.audience = audience;
+            this.type = type;
+            this.json = json;
+        }
+        
+        private SseEmitter.SseEventBuilder toSse() {
+            return SseEmitter.event().id(String.valueOf(id)).name(type).data(json, MediaType.APPLICATION_JSON);
+        }
+    }
+}
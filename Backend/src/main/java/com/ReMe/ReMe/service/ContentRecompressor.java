@@ -0,0 +1,41 @@
+package com.ReMe.ReMe.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rewrites content blobs stored in an older format (including the raw bodies left by the 007 migration)
+ * with the current compression, one batch per transaction.
+ */
+@Component
+public class ContentRecompressor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ContentRecompressor.class);
+    
+    @Autowired
+    private ContentStoreService contentStore;
+    
+    @Value("${content.store.recompress-batch-size:200}")
+    private int batchSize;
+    
+    @Scheduled(cron = "${content.store.recompress-cron:0 45 4 * * *}")
+    public void recompress() {
+        String after = "";
+        int batches = 0;
+        try {
+            while ((after = contentStore.recompressBatch(after, batchSize)) != null) {
+                batches++;
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Content recompression stopped after {} batches: {}", batches, e.getMessage());
+            return;
+        }
+        if (batches > 0) {
+            logger.info("Recompressed {} batches of content blobs", batches);
+        }
+    }
+}
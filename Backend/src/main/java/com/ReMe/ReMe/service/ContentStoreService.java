@@ -0,0 +1,194 @@
+package com.ReMe.ReMe.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ReMe.ReMe.entity.ContentBlob;
+import com.ReMe.ReMe.repository.ContentBlobBatchRepository;
+import com.ReMe.ReMe.repository.ContentBlobRepository;
+import com.ReMe.ReMe.util.CompressedTextConverter;
+
+/**
+ * Content-addressable store for note and listing bodies.
+ * Identical bodies are stored once and reference-counted; a purchase shares the listing's blob instead
+ * of copying it, and editing a shared body is copy-on-write: the note moves to a new blob and the old
+ * one loses a reference. Blobs without references are deleted by a periodic sweep.
+ * 
+ * Callers must run inside a transaction, so reference changes commit or roll back with the row that
+ * points at the blob.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class ContentStoreService {
+    
+    @Autowired
+    private ContentBlobRepository contentBlobRepository;
+    
+    @Autowired
+    private ContentBlobBatchRepository contentBlobBatchRepository;
+    
+    @Autowired
+    private LargeContentStore largeContentStore;
+    
+    /**
+     * Takes a reference to the blob holding {@code body}, storing it if it is new.
+     * 
+     * @return The blob, or null for null content
+     */
+    public ContentBlob acquire(String body) {
+        if (body == null) {
+            return null;
+        }
+        String hash = hash(body);
+        // Common case for shared bodies: bump the count without shipping the body to the database
+        if (contentBlobRepository.addReference(hash) == 0) {
+            String preview = body.length() > ContentBlob.PREVIEW_LENGTH ? body.substring(0, ContentBlob.PREVIEW_LENGTH) : body;
+            contentBlobRepository.insertBody(hash, CompressedTextConverter.encode(body));
+            contentBlobRepository.insertOrAddReference(hash, preview, body.length(), LocalDateTime.now());
+        }
+        return contentBlobRepository.getReferenceById(hash);
+    }
+    
+    /**
+     * Takes one reference per element, writing all new blobs and reference counts in two batched statements.
+     * 
+     * @return The blob for each body, in order (null for null content)
+     */
+    public List<ContentBlob> acquireAll(List<String> bodies) {
+        List<String> hashes = new ArrayList<>(bodies.size());
+        Map<String, ContentBlobBatchRepository.BlobRow> rows = new TreeMap<>();
+        Map<String, Integer> references = new TreeMap<>();
+        for (String body : bodies) {
+            String hash = body == null ? null : hash(body);
+            hashes.add(hash);
+            if (hash != null && references.merge(hash, 1, Integer::sum) == 1) {
+                rows.put(hash, null);
+            }
+        }
+        for (int i = 0; i < bodies.size(); i++) {
+            String hash = hashes.get(i);
+            if (hash != null && rows.get(hash) == null) {
+                String body = bodies.get(i);
+                String preview = body.length() > ContentBlob.PREVIEW_LENGTH ? body.substring(0, ContentBlob.PREVIEW_LENGTH) : body;
+                rows.put(hash, new ContentBlobBatchRepository.BlobRow(hash, CompressedTextConverter.encode(body), preview,
+                    body.length(), references.get(hash)));
+            }
+        }
+        contentBlobBatchRepository.insertOrAddReferences(new ArrayList<>(rows.values()));
+        
+        List<ContentBlob> blobs = new ArrayList<>(hashes.size());
+        for (String hash : hashes) {
+            blobs.add(hash == null ? null : contentBlobRepository.getReferenceById(hash));
+        }
+        return blobs;
+    }
+    
+    /**
+     * Takes a reference to the blob holding an uploaded body. Large bodies are appended to disk
+     * only when no blob with the same hash exists yet.
+     */
+    public ContentBlob acquire(LargeContentStore.StoredContent content) {
+        if (content.getText() != null) {
+            return acquire(content.getText());
+        }
+        if (contentBlobRepository.addReference(content.getHash()) == 0) {
+            try {
+                largeContentStore.append(content);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not store note content", e);
+            }
+            contentBlobRepository.insertExternalOrAddReference(content.getHash(), content.getPreview(),
+                (int) content.getContentLength(), content.getSegment(), content.getOffset(), content.getByteLength(),
+                LocalDateTime.now());
+        }
+        return contentBlobRepository.getReferenceById(content.getHash());
+    }
+    
+    /**
+     * Takes another reference to an existing blob, e.g. when a buyer's copy shares the listing body.
+     */
+    public ContentBlob share(ContentBlob blob) {
+        if (blob == null) {
+            return null;
+        }
+        contentBlobRepository.addReference(blob.getHash());
+        return blob;
+    }
+    
+    public void release(ContentBlob blob) {
+        if (blob != null) {
+            contentBlobRepository.removeReference(blob.getHash(), LocalDateTime.now());
+        }
+    }
+    
+    /**
+     * Points an owner at new content: keeps the current blob when the body is unchanged,
+     * otherwise acquires the new body and releases the old one.
+     * 
+     * @return The blob the owner should reference
+     */
+    public ContentBlob replace(ContentBlob current, String body) {
+        if (current != null && body != null && current.getHash().equals(hash(body))) {
+            return current;
+        }
+        ContentBlob replacement = acquire(body);
+        release(current);
+        return replacement;
+    }
+    
+    public ContentBlob replace(ContentBlob current, LargeContentStore.StoredContent content) {
+        if (current != null && current.getHash().equals(content.getHash())) {
+            return current;
+        }
+        ContentBlob replacement = acquire(content);
+        release(current);
+        return replacement;
+    }
+    
+    @Scheduled(cron = "${content.store.sweep-cron:0 15 * * * *}")
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void deleteUnreferenced() {
+        contentBlobRepository.deleteUnreferenced(LocalDateTime.now().minusHours(1));
+        contentBlobRepository.deleteOrphanedBodies();
+    }
+    
+    /**
+     * Rewrites one batch of blobs stored in an older format with the current encoding.
+     * The text itself never changes, so this is safe alongside concurrent readers and writers.
+     * 
+     * @return The last hash processed, to continue from, or null when no outdated blobs remain
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public String recompressBatch(String afterHash, int limit) {
+        List<Object[]> rows = contentBlobRepository.findOutdated(afterHash, CompressedTextConverter.FORMAT, limit);
+        for (Object[] row : rows) {
+            String text = CompressedTextConverter.decode((byte[]) row[1]);
+            contentBlobRepository.rewriteBody((String) row[0], CompressedTextConverter.encode(text));
+        }
+        return rows.isEmpty() ? null : (String) rows.get(rows.size() - 1)[0];
+    }
+    
+    public static String hash(String body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
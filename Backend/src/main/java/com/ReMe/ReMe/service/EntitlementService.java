@@ -0,0 +1,131 @@
+package com.ReMe.ReMe.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ReMe.ReMe.repository.NotePurchaseRepository;
+import com.ReMe.ReMe.util.PurchasedListingSet;
+
+/**
+ * In-memory index of which marketplace listings each user has purchased.
+ * A user's set is loaded with a single query on first use and then kept current by the purchase flow,
+ * so listing responses can report isPurchased without a query per row.
+ * 
+ * Grants and revocations bump a per-user change counter (striped by user id). A load only installs its
+ * result if no change hit the user's stripe while it was querying, so a load that read the database
+ * before a purchase committed can never cache a set that is missing it.
+ */
+@Service
+public class EntitlementService {
+    
+    private static final int CHANGE_STRIPES = 64;
+    
+    @Autowired
+    private NotePurchaseRepository notePurchaseRepository;
+    
+    private final Map<UUID, PurchasedListingSet> cache;
+    private final AtomicLongArray changes = new AtomicLongArray(CHANGE_STRIPES);
+    
+    public EntitlementService(@Value("${entitlements.cache.max-users:10000}") int maxUsers) {
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<UUID, PurchasedListingSet>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, PurchasedListingSet> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+    
+    /**
+     * Gets the listings the user has purchased, loading them from the database on a cache miss.
+     * 
+     * @param userId The user's id
+     * @return The user's purchased listing ids
+     */
+    public PurchasedListingSet forUser(UUID userId) {
+        PurchasedListingSet cached = cache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        
+        long seen = changes.get(stripe(userId));
+        List<Long> listingIds = notePurchaseRepository.findPurchasedListingIdsByUserId(userId);
+        PurchasedListingSet loaded = PurchasedListingSet.of(listingIds);
+        // Checked and installed under the map's lock, which grant and revoke also hold while they bump
+        synchronized (cache) {
+            if (changes.get(stripe(userId)) != seen) {
+                // A grant or revoke may have committed after the query read; serve this result uncached
+                return loaded;
+            }
+            PurchasedListingSet raced = cache.putIfAbsent(userId, loaded);
+            return raced != null ? raced : loaded;
+        }
+    }
+    
+    /**
+     * Records a new purchase once the surrounding transaction commits.
+     * A rolled-back purchase therefore never grants access.
+     * 
+     * @param userId The buyer's id
+     * @param listingId The purchased marketplace note id
+     */
+    public void grantAfterCommit(UUID userId, Long listingId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            grant(userId, listingId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                grant(userId, listingId);
+            }
+        });
+    }
+    
+    /**
+     * Drops a revoked purchase once the surrounding transaction commits.
+     * The user's set is reloaded on next use rather than edited, since PurchasedListingSet only grows.
+     * 
+     * @param userId The buyer's id
+     */
+    public void revokeAfterCommit(UUID userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            revoke(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                revoke(userId);
+            }
+        });
+    }
+    
+    private void grant(UUID userId, Long listingId) {
+        synchronized (cache) {
+            changes.incrementAndGet(stripe(userId));
+            // Only update users already loaded; others pick the purchase up on their first load
+            cache.computeIfPresent(userId, (id, current) -> current.with(listingId));
+        }
+    }
+    
+    private void revoke(UUID userId) {
+        synchronized (cache) {
+            changes.incrementAndGet(stripe(userId));
+            cache.remove(userId);
+        }
+    }
+    
+    private static int stripe(UUID userId) {
+        return Math.floorMod(userId.hashCode(), CHANGE_STRIPES);
+    }
+}
@@ -0,0 +1,348 @@
+package com.ReMe.ReMe.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.ReMe.ReMe.entity.ContentBlob;
+import com.ReMe.ReMe.exception.ContentTooLargeException;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Local-disk storage for note bodies too large to travel through JPA and JSON.
+ * 
+ * Uploads are streamed to a spool file while they are hashed, so memory use does not depend on the body size;
+ * bodies at or under the threshold stay in memory and are stored inline in the content store instead.
+ * Large bodies are appended to segment files that are never rewritten, and read back through memory-mapped
+ * windows of those files. Locations are recorded on the ContentBlob (segment, offset, byte length).
+ * 
+ * Space of bodies whose blobs were deleted is not reclaimed; segments are append-only.
+ */
+@Service
+public class LargeContentStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LargeContentStore.class);
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SPOOL_PREFIX = "upload-";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long MAP_WINDOW = 8L * 1024 * 1024;
+    
+    @Value("${content.large.directory:data/content}")
+    private String directory;
+    
+    @Value("${content.large.threshold-bytes:10000}")
+    private int thresholdBytes;
+    
+    @Value("${content.large.max-bytes:67108864}")
+    private long maxBytes;
+    
+    @Value("${content.large.segment-bytes:268435456}")
+    private long segmentBytes;
+    
+    private Path root;
+    private final Object appendLock = new Object();
+    private int currentSegment;
+    
+    @PostConstruct
+    void init() throws IOException {
+        root = Paths.get(directory).toAbsolutePath();
+        Files.createDirectories(root);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SPOOL_PREFIX)) {
+                    // Left over from uploads interrupted by a restart
+                    Files.deleteIfExists(file);
+                } else if (name.startsWith(SEGMENT_PREFIX)) {
+                    currentSegment = Math.max(currentSegment, Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.indexOf('.'))));
+                }
+            }
+        }
+        logger.info("Large note bodies are stored in {} (current segment {})", root, currentSegment);
+    }
+    
+    /**
+     * Reads an upload to the end, hashing it on the way. Bodies over the threshold are spooled to disk;
+     * the caller must {@link #discard} the result once it has been stored or rejected.
+     * 
+     * @throws ContentTooLargeException if the body is larger than the configured maximum
+     * @throws IOException if the request body could not be read
+     * @throws UncheckedIOException if the spool file could not be written
+     */
+    public StoredContent spool(InputStream in) throws IOException {
+        MessageDigest digest = sha256();
+        ByteArrayOutputStream head = new ByteArrayOutputStream(Math.min(thresholdBytes + 1, BUFFER_SIZE));
+        byte[] buffer = new byte[BUFFER_SIZE];
+        Path spoolFile = null;
+        OutputStream spool = null;
+        long byteLength = 0;
+        long contentLength = 0;
+        boolean reading = true;
+        try {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                reading = false;
+                byteLength += n;
+                if (byteLength > maxBytes) {
+                    throw new ContentTooLargeException(maxBytes);
+                }
+                digest.update(buffer, 0, n);
+                contentLength += utf16Length(buffer, n);
+                if (spool == null && byteLength > thresholdBytes) {
+                    spoolFile = Files.createTempFile(root, SPOOL_PREFIX, ".tmp");
+                    spool = Files.newOutputStream(spoolFile);
+                    head.writeTo(spool);
+                }
+                if (spool != null) {
+                    spool.write(buffer, 0, n);
+                } else {
+                    head.write(buffer, 0, n);
+                }
+                reading = true;
+            }
+            reading = false;
+            if (spool != null) {
+                spool.close();
+                spool = null;
+            }
+        } catch (IOException | RuntimeException e) {
+            if (spool != null) {
+                spool.close();
+            }
+            if (spoolFile != null) {
+                Files.deleteIfExists(spoolFile);
+            }
+            // A failed read is the client's; a failed spool write is a storage error
+            if (e instanceof IOException ioException && !reading) {
+                throw new UncheckedIOException("Could not spool note content", ioException);
+            }
+            throw e;
+        }
+        
+        StoredContent content = new StoredContent();
+        content.hash = HexFormat.of().formatHex(digest.digest());
+        content.byteLength = byteLength;
+        content.contentLength = contentLength;
+        if (spoolFile == null) {
+            content.text = head.toString(StandardCharsets.UTF_8);
+            content.preview = preview(content.text);
+        } else {
+            content.spoolFile = spoolFile;
+            content.preview = preview(spoolFile);
+        }
+        return content;
+    }
+    
+    /**
+     * Appends a spooled body to the current segment and records where it went.
+     */
+    public void append(StoredContent content) throws IOException {
+        synchronized (appendLock) {
+            Path segment = segmentPath(currentSegment);
+            if (Files.exists(segment) && Files.size(segment) >= segmentBytes) {
+                segment = segmentPath(++currentSegment);
+            }
+            try (FileChannel source = FileChannel.open(content.spoolFile, StandardOpenOption.READ);
+                 FileChannel target = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                long offset = target.size();
+                long written = 0;
+                while (written < content.byteLength) {
+                    written += source.transferTo(written, content.byteLength - written, target.position(offset + written));
+                }
+                // The database row pointing here commits after this returns, so the bytes must be durable first
+                target.force(false);
+                content.segment = currentSegment;
+                content.offset = offset;
+            }
+        }
+    }
+    
+    public void discard(StoredContent content) {
+        if (content.spoolFile != null) {
+            try {
+                Files.deleteIfExists(content.spoolFile);
+            } catch (IOException e) {
+                logger.warn("Could not delete spool file {}: {}", content.spoolFile, e.getMessage());
+            }
+        }
+    }
+    
+    public Path segmentPath(int segment) {
+        return root.resolve(String.format("%s%06d.dat", SEGMENT_PREFIX, segment));
+    }
+    
+    /**
+     * Writes part of a stored body to {@code out} through memory-mapped windows of its segment,
+     * so the body is never copied onto the heap as a whole.
+     */
+    public void transferTo(StoredContent content, long start, long count, OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileChannel channel = FileChannel.open(segmentPath(content.segment), StandardOpenOption.READ)) {
+            long position = content.offset + start;
+            long remaining = count;
+            while (remaining > 0) {
+                long window = Math.min(remaining, MAP_WINDOW);
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, window);
+                while (mapped.hasRemaining()) {
+                    target.write(mapped);
+                }
+                position += window;
+                remaining -= window;
+            }
+        }
+    }
+    
+    /**
+     * An input stream over a stored body, read from a memory mapping of its segment.
+     */
+    public InputStream openStream(int segment, long offset, long byteLength) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed; bodies are capped well below 2 GB
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, byteLength);
+            return new InputStream() {
+                @Override
+                public int read() {
+                    return mapped.hasRemaining() ? mapped.get() & 0xFF : -1;
+                }
+                
+                @Override
+                public int read(byte[] bytes, int off, int len) {
+                    if (!mapped.hasRemaining()) {
+                        return len == 0 ? 0 : -1;
+                    }
+                    int n = Math.min(len, mapped.remaining());
+                    mapped.get(bytes, off, n);
+                    return n;
+                }
+            };
+        }
+    }
+    
+    private String preview(Path spoolFile) throws IOException {
+        // Four bytes per char covers the preview length for any UTF-8 text
+        byte[] head = new byte[ContentBlob.PREVIEW_LENGTH * 4];
+        int read;
+        try (InputStream in = Files.newInputStream(spoolFile)) {
+            read = in.readNBytes(head, 0, head.length);
+        }
+        CharBuffer chars = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .decode(ByteBuffer.wrap(head, 0, read));
+        return preview(chars.toString());
+    }
+    
+    private static String preview(String text) {
+        return text.length() > ContentBlob.PREVIEW_LENGTH ? text.substring(0, ContentBlob.PREVIEW_LENGTH) : text;
+    }
+    
+    // Length in Java chars of UTF-8 bytes: one per lead byte, two for 4-byte sequences (surrogate pairs)
+    private static long utf16Length(byte[] bytes, int length) {
+        long chars = 0;
+        for (int i = 0; i < length; i++) {
+            int b = bytes[i] & 0xFF;
+            if ((b & 0xC0) != 0x80) {
+                chars += (b & 0xF8) == 0xF0 ? 2 : 1;
+            }
+        }
+        return chars;
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    /**
+     * A note body as uploaded or as stored: inline text, or a location in a segment file.
+     */
+    public static final class StoredContent {
+        private String hash;
+        private long byteLength;
+        private long contentLength;
+        private String preview;
+        private String text;
+        private Path spoolFile;
+        private Integer segment;
+        private long offset;
+        
+        public static StoredContent inline(String hash, String text) {
+            StoredContent content = new StoredContent();
+            content.hash = hash;
+            content.text = text;
+            content.byteLength = text.getBytes(StandardCharsets.UTF_8).length;
+            content.contentLength = text.length();
+            content.preview = preview(text);
+            return content;
+        }
+        
+        public static StoredContent external(ContentBlob blob) {
+            StoredContent content = new StoredContent();
+            content.hash = blob.getHash();
+            content.byteLength = blob.getByteLength();
+            content.contentLength = blob.getContentLength();
+            content.preview = blob.getPreview();
+            content.segment = blob.getSegment();
+            content.offset = blob.getSegmentOffset();
+            return content;
+        }
+        
+        public String getHash() {
+            return hash;
+        }
+        
+        public long getByteLength() {
+            return byteLength;
+        }
+        
+        public long getContentLength() {
+            return contentLength;
+        }
+        
+        public String getPreview() {
+            return preview;
+        }
+        
+        /**
+         * The body for inline content, null when it is (or will be) stored on disk.
+         */
+        public String getText() {
+            return text;
+        }
+        
+        public Integer getSegment() {
+            return segment;
+        }
+        
+        public long getOffset() {
+            return offset;
+        }
+    }
+}
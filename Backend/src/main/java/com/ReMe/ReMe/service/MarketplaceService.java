@@ -1,29 +1,50 @@
 package com.ReMe.ReMe.service;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.ReMe.ReMe.dto.CursorPageDto;
+import com.ReMe.ReMe.dto.MarketplaceFilterDto;
 import com.ReMe.ReMe.dto.MarketplaceNoteDto;
 import com.ReMe.ReMe.dto.MarketplaceNoteResponseDto;
+import com.ReMe.ReMe.dto.MarketplaceSort;
 import com.ReMe.ReMe.dto.NotePurchaseDto;
 import com.ReMe.ReMe.dto.NotePurchaseHistoryDto;
+import com.ReMe.ReMe.dto.SalesDailyStatsDto;
+import com.ReMe.ReMe.dto.SellerSalesStatsDto;
+import com.ReMe.ReMe.dto.TagCountDto;
+import com.ReMe.ReMe.dto.TagFilterDto;
 import com.ReMe.ReMe.entity.MarketplaceNote;
 import com.ReMe.ReMe.entity.NotePurchase;
+import com.ReMe.ReMe.entity.PurchaseIdempotencyKey;
 import com.ReMe.ReMe.entity.User;
 import com.ReMe.ReMe.repository.MarketplaceNoteRepository;
 import com.ReMe.ReMe.repository.NotePurchaseRepository;
-import com.ReMe.ReMe.repository.NoteRepository;
+import com.ReMe.ReMe.repository.PurchaseIdempotencyKeyRepository;
+import com.ReMe.ReMe.repository.SellerSalesRollupRepository;
 import com.ReMe.ReMe.repository.TransactionRepository;
 import com.ReMe.ReMe.repository.UserRepository;
 import com.ReMe.ReMe.util.AddressMaskingUtil;
+import com.ReMe.ReMe.util.ETagUtil;
+import com.ReMe.ReMe.util.KeysetCursor;
+import com.ReMe.ReMe.util.PurchasedListingSet;
+import com.ReMe.ReMe.util.TagBitmap;
 
 @Service
 public class MarketplaceService {
     
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    
     @Autowired
     private MarketplaceNoteRepository marketplaceNoteRepository;
     
@@ -34,13 +55,28 @@ public class MarketplaceService {
     private UserRepository userRepository;
     
     @Autowired
-    private NoteService noteService;
+    private TransactionRepository transactionRepository;
     
     @Autowired
-    private NoteRepository noteRepository;
+    private SellerSalesRollupRepository sellerSalesRollupRepository;
     
     @Autowired
-    private TransactionRepository transactionRepository;
+    private EntitlementService entitlementService;
+    
+    @Autowired
+    private PurchaseIdempotencyKeyRepository purchaseIdempotencyKeyRepository;
+    
+    @Autowired
+    private PurchaseOutboxService purchaseOutboxService;
+    
+    @Autowired
+    private ChangeFeedService changeFeedService;
+    
+    @Autowired
+    private ContentStoreService contentStore;
+    
+    @Autowired
+    private TagService tagService;
     
     @Transactional
     public MarketplaceNoteResponseDto createMarketplaceNote(MarketplaceNoteDto dto, String username) {
@@ -50,13 +86,14 @@ public class MarketplaceService {
         MarketplaceNote note = new MarketplaceNote();
         note.setTitle(dto.getTitle());
         note.setDescription(dto.getDescription());
-        note.setContent(dto.getContent());
-        note.setPriceAda(dto.getPriceAda());
+        note.setBody(contentStore.acquire(dto.getContent()));
+        note.setPriceLovelace(dto.getPriceLovelace());
         note.setSellerWalletAddress(dto.getSellerWalletAddress());
         note.setSeller(seller);
         
-        MarketplaceNote savedNote = marketplaceNoteRepository.save(note);
-        return convertToResponseDto(savedNote, seller);
+        MarketplaceNote savedNote = marketplaceNoteRepository.saveAndFlush(note);
+        changeFeedService.broadcastAfterCommit("LISTING_CREATED", savedNote.getId());
+        return convertToResponseDto(savedNote, seller, PurchasedListingSet.empty());
     }
     
     @Transactional(readOnly = true)
@@ -65,27 +102,227 @@ public class MarketplaceService {
             .orElseThrow(() -> new RuntimeException("User not found"));
         
         List<MarketplaceNote> notes = marketplaceNoteRepository.findByIsActiveTrueOrderByCreatedAtDesc();
+        PurchasedListingSet purchased = entitlementService.forUser(currentUser.getId());
         
         // Filter out notes owned by the current user
         return notes.stream()
             .filter(note -> !note.getSeller().getId().equals(currentUser.getId()))
-            .map(note -> convertToResponseDto(note, currentUser))
+            .map(note -> convertToResponseDto(note, currentUser, purchased))
             .collect(Collectors.toList());
     }
     
+    /**
+     * One page of other sellers' active listings, filtered and ordered in the database.
+     * The cursor carries the sort it was issued for, so it cannot be replayed against another ordering.
+     * Popularity changes while a client pages, so a listing whose purchase count moves may be
+     * skipped or repeated under the POPULAR sort.
+     * 
+     * @param filter Optional price, seller and purchase-count filters
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param limit Page size, clamped to 1..200 (default 50)
+     */
     @Transactional(readOnly = true)
-    public MarketplaceNoteResponseDto getNoteById(Long id, String username) {
+    public CursorPageDto<MarketplaceNoteResponseDto> getActiveNotePage(String username, MarketplaceFilterDto filter,
+                                                                       MarketplaceSort sort, String cursor,
+                                                                       Integer limit) {
+        User currentUser = userRepository.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        Object afterValue = position != null ? parseSortValue(sort, position.getSortValue()) : null;
+        Long afterId = position != null ? position.getId() : null;
+        
+        // Fetch one extra row to learn whether another page exists
+        List<MarketplaceNote> rows = marketplaceNoteRepository.findActivePage(
+            filter, currentUser.getId(), sort, afterValue, afterId, pageSize + 1);
+        
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            MarketplaceNote last = rows.get(pageSize - 1);
+            nextCursor = new KeysetCursor(sort.name() + ":" + sortValue(sort, last), last.getId()).encode();
+        }
+        
+        PurchasedListingSet purchased = entitlementService.forUser(currentUser.getId());
+        List<MarketplaceNoteResponseDto> items = rows.stream()
+            .map(note -> convertToResponseDto(note, currentUser, purchased))
+            .collect(Collectors.toList());
+        return new CursorPageDto<>(items, nextCursor);
+    }
+    
+    /**
+     * One page of other sellers' active listings matching a tag filter, newest id first.
+     * Matching ids come from the in-memory tag bitmaps; only the page itself is read from the database.
+     * 
+     * @param filter Required, optional and excluded tags
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param limit Page size, clamped to 1..200 (default 50)
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<MarketplaceNoteResponseDto> getTaggedNotePage(String username, TagFilterDto filter,
+                                                                       String cursor, Integer limit) {
         User currentUser = userRepository.findByUsername(username)
             .orElseThrow(() -> new RuntimeException("User not found"));
         
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        
+        TagBitmap matches = tagService.match(TagIndexService.LISTINGS_KEY, filter,
+            () -> TagBitmap.of(marketplaceNoteRepository.findActiveIds()));
+        List<Long> ownListings = marketplaceNoteRepository.findActiveIdsBySeller(currentUser);
+        if (!ownListings.isEmpty()) {
+            matches = matches.andNot(TagBitmap.of(ownListings));
+        }
+        long[] ids = matches.descendingBelow(position != null ? position.getId() : Long.MAX_VALUE, pageSize + 1);
+        
+        String nextCursor = null;
+        int count = Math.min(ids.length, pageSize);
+        if (ids.length > pageSize) {
+            long lastId = ids[pageSize - 1];
+            nextCursor = new KeysetCursor(String.valueOf(lastId), lastId).encode();
+        }
+        if (count == 0) {
+            return new CursorPageDto<>(List.of(), nextCursor);
+        }
+        
+        List<Long> pageIds = Arrays.stream(ids, 0, count).boxed().collect(Collectors.toList());
+        PurchasedListingSet purchased = entitlementService.forUser(currentUser.getId());
+        List<MarketplaceNoteResponseDto> items = marketplaceNoteRepository.findActiveByIdIn(pageIds).stream()
+            .map(note -> convertToResponseDto(note, currentUser, purchased))
+            .collect(Collectors.toList());
+        return new CursorPageDto<>(items, nextCursor);
+    }
+    
+    /**
+     * How many active listings carry each tag, optionally within the listings matching a filter.
+     */
+    public List<TagCountDto> getTagCounts(TagFilterDto filter) {
+        return tagService.count(TagIndexService.LISTINGS_KEY, filter,
+            () -> TagBitmap.of(marketplaceNoteRepository.findActiveIds()));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<String> getListingTags(Long id) {
+        MarketplaceNote note = marketplaceNoteRepository.findById(id)
+            .filter(MarketplaceNote::getIsActive)
+            .orElseThrow(() -> new RuntimeException("Marketplace note not found"));
+        return tagService.getTags(TagIndexService.LISTINGS_KEY, note.getId());
+    }
+    
+    @Transactional
+    public List<String> setListingTags(Long id, List<String> tags, String username) {
+        User user = userRepository.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        
         MarketplaceNote note = marketplaceNoteRepository.findById(id)
+            .filter(MarketplaceNote::getIsActive)
             .orElseThrow(() -> new RuntimeException("Marketplace note not found"));
         
-        // Increment view count
-        note.incrementViewCount();
-        marketplaceNoteRepository.save(note);
+        if (!note.getSeller().getId().equals(user.getId())) {
+            throw new RuntimeException("You can only tag your own notes");
+        }
         
-        return convertToResponseDto(note, currentUser);
+        List<String> stored = tagService.replaceTags(TagIndexService.LISTINGS_KEY, note.getId(), tags);
+        changeFeedService.broadcastAfterCommit("LISTING_UPDATED", note.getId());
+        return stored;
+    }
+    
+    private static String sortValue(MarketplaceSort sort, MarketplaceNote note) {
+        return switch (sort) {
+            case NEWEST -> note.getCreatedAt().toString();
+            case PRICE_ASC, PRICE_DESC -> Long.toString(note.getPriceLovelace());
+            case POPULAR -> note.getPurchaseCount().toString();
+        };
+    }
+    
+    private static Object parseSortValue(MarketplaceSort sort, String value) {
+        String prefix = sort.name() + ":";
+        if (!value.startsWith(prefix)) {
+            throw new RuntimeException("Cursor does not belong to sort " + sort);
+        }
+        String raw = value.substring(prefix.length());
+        try {
+            return switch (sort) {
+                case NEWEST -> LocalDateTime.parse(raw);
+                case PRICE_ASC, PRICE_DESC -> Long.parseLong(raw);
+                case POPULAR -> Integer.parseInt(raw);
+            };
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+    
+    /**
+     * ETag for the active listings as seen by the current user (optionally narrowed by a search query).
+     * Includes a digest of the user's entitlements, since they decide the isPurchased flags in the response.
+     * 
+     * @param username The current user's username
+     * @param query Search query, or null for all active listings
+     * @return A weak ETag, since view counts in the response are not part of it
+     */
+    @Transactional(readOnly = true)
+    public String getActiveNotesETag(String username, String query) {
+        User currentUser = userRepository.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        return ETagUtil.weak(ETagUtil.forCollection(marketplaceNoteRepository.stampActive(),
+            currentUser.getId(), entitlementService.forUser(currentUser.getId()).digest(), query));
+    }
+    
+    /**
+     * ETag for one page of active listings; qualifiers are the filter, sort, cursor and limit parameters.
+     */
+    @Transactional(readOnly = true)
+    public String getActiveNotePageETag(String username, Object... qualifiers) {
+        User currentUser = userRepository.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        return ETagUtil.weak(ETagUtil.forCollection(marketplaceNoteRepository.stampActive(), currentUser.getId(),
+            entitlementService.forUser(currentUser.getId()).digest(), Arrays.toString(qualifiers)));
+    }
+    
+    @Transactional(readOnly = true)
+    public String getMyListingsETag(String username) {
+        User seller = userRepository.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        return ETagUtil.weak(ETagUtil.forCollection(marketplaceNoteRepository.stampBySeller(seller), seller.getId()));
+    }
+    
+    /**
+     * ETag for a single listing as seen by the current user.
+     * 
+     * @return A weak ETag (view counts are not part of it), or null when the listing does not exist
+     */
+    @Transactional(readOnly = true)
+    public String getNoteETag(Long id, String username) {
+        User currentUser = userRepository.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        return ETagUtil.weak(ETagUtil.forResource(marketplaceNoteRepository.stampById(id),
+            currentUser.getId(), entitlementService.forUser(currentUser.getId()).contains(id)));
+    }
+    
+    /**
+     * Counts a view of a listing whose body the client already has (a 304 revalidation).
+     */
+    @Transactional
+    public void recordView(Long id) {
+        marketplaceNoteRepository.incrementViewCount(id);
+    }
+    
+    @Transactional
+    public MarketplaceNoteResponseDto getNoteById(Long id, String username) {
+        User currentUser = userRepository.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        // Bump the view count in place before loading, so the read sees it and no entity update is flushed
+        marketplaceNoteRepository.incrementViewCount(id);
+        MarketplaceNote note = marketplaceNoteRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Marketplace note not found"));
+        
+        return convertToResponseDto(note, currentUser, entitlementService.forUser(currentUser.getId()));
     }
     
     @Transactional(readOnly = true)
@@ -95,7 +332,7 @@ public class MarketplaceService {
         
         List<MarketplaceNote> notes = marketplaceNoteRepository.findBySellerOrderByCreatedAtDesc(seller);
         return notes.stream()
-            .map(note -> convertToResponseDto(note, seller))
+            .map(note -> convertToResponseDto(note, seller, PurchasedListingSet.empty()))
             .collect(Collectors.toList());
     }
     
@@ -105,75 +342,98 @@ public class MarketplaceService {
             .orElseThrow(() -> new RuntimeException("User not found"));
         
         List<MarketplaceNote> notes = marketplaceNoteRepository.searchActiveNotes(query);
+        PurchasedListingSet purchased = entitlementService.forUser(currentUser.getId());
         
         // Filter out notes owned by the current user
         return notes.stream()
             .filter(note -> !note.getSeller().getId().equals(currentUser.getId()))
-            .map(note -> convertToResponseDto(note, currentUser))
+            .map(note -> convertToResponseDto(note, currentUser, purchased))
             .collect(Collectors.toList());
     }
     
     @Transactional
     public MarketplaceNoteResponseDto purchaseNote(NotePurchaseDto dto, String username) {
+        return purchaseNote(dto, username, null);
+    }
+    
+    /**
+     * Purchases a marketplace note.
+     * Duplicate submissions are detected by the idempotency-key claim and the unique constraints on
+     * note_purchases rather than by pre-check queries, so concurrent retries cannot double-purchase.
+     * A retry with an already-committed key replays the original result.
+     * The purchase commits with only the key, the purchase row and an outbox event;
+     * everything else is applied asynchronously by PurchaseOutboxDispatcher.
+     * 
+     * @param dto The purchase request
+     * @param username The buyer's username
+     * @param idempotencyKey Client-supplied request key; defaults to the transaction hash
+     * @return The purchased listing with full content
+     */
+    @Transactional
+    public MarketplaceNoteResponseDto purchaseNote(NotePurchaseDto dto, String username, String idempotencyKey) {
         User buyer = userRepository.findByUsername(username)
             .orElseThrow(() -> new RuntimeException("User not found"));
         
         MarketplaceNote note = marketplaceNoteRepository.findById(dto.getMarketplaceNoteId())
             .orElseThrow(() -> new RuntimeException("Marketplace note not found"));
         
-        // Check if already purchased by this wallet address
-        if (notePurchaseRepository.existsByMarketplaceNoteAndBuyerWalletAddress(note, dto.getBuyerWalletAddress())) {
-            throw new RuntimeException("You have already purchased this note");
-        }
-        
         // Check if user is trying to buy their own note
         if (note.getSeller().getId().equals(buyer.getId())) {
             throw new RuntimeException("You cannot purchase your own note");
         }
         
-        // Check if transaction hash is already used
-        if (notePurchaseRepository.findByTransactionHash(dto.getTransactionHash()).isPresent()) {
-            throw new RuntimeException("Transaction hash already used");
+        String key = (idempotencyKey == null || idempotencyKey.isBlank())
+            ? "tx:" + dto.getTransactionHash()
+            : idempotencyKey;
+        
+        if (purchaseIdempotencyKeyRepository.claim(buyer.getId(), key, note.getId()) == 0) {
+            return replayPurchase(buyer, note, key);
         }
         
         // Create purchase record (without buyer_id, only wallet addresses)
         NotePurchase purchase = new NotePurchase(
             note,
-            dto.getPurchasePriceAda(),
+            dto.getPurchasePriceLovelace(),
             dto.getTransactionHash(),
             dto.getBuyerWalletAddress(),
             note.getSellerWalletAddress()
         );
         
-        notePurchaseRepository.save(purchase);
+        try {
+            // Flush now so a unique-constraint violation surfaces here rather than at commit
+            notePurchaseRepository.saveAndFlush(purchase);
+        } catch (DataIntegrityViolationException e) {
+            throw translatePurchaseConflict(e);
+        }
         
-        // Increment purchase count
-        note.incrementPurchaseCount();
-        marketplaceNoteRepository.save(note);
+        // Copy, transaction record, counter and rollup are materialized by the outbox dispatcher
+        purchaseOutboxService.enqueue(purchase, buyer);
         
-        // Create a personal note copy for the buyer
-        com.ReMe.ReMe.dto.NoteDto personalNote = new com.ReMe.ReMe.dto.NoteDto();
-        personalNote.setTitle(note.getTitle() + " (Purchased)");
-        personalNote.setContent(note.getContent());
-        com.ReMe.ReMe.dto.NoteDto createdNote = noteService.createNote(personalNote, buyer);
-        
-        // Create transaction record
-        com.ReMe.ReMe.entity.Transaction transaction = new com.ReMe.ReMe.entity.Transaction();
-        transaction.setTxHash(dto.getTransactionHash());
-        transaction.setSenderAddress(dto.getBuyerWalletAddress());
-        transaction.setRecipientAddress(note.getSellerWalletAddress());
-        transaction.setAmountADA(dto.getPurchasePriceAda());
-        transaction.setUser(buyer);
-        transaction.setMetadata("Marketplace purchase: " + note.getTitle());
-        
-        // Link transaction to the created note
-        if (createdNote.getId() != null) {
-            noteRepository.findById(createdNote.getId()).ifPresent(transaction::setNote);
-        }
+        entitlementService.grantAfterCommit(buyer.getId(), note.getId());
         
-        transactionRepository.save(transaction);
+        MarketplaceNoteResponseDto response = convertToResponseDto(note, buyer, PurchasedListingSet.empty().with(note.getId()));
+        // The counter itself is bumped later by the outbox; count this purchase and any still queued
+        response.setPurchaseCount((int) marketplaceNoteRepository.countPurchasesIncludingPending(note.getId()));
+        return response;
+    }
+    
+    private MarketplaceNoteResponseDto replayPurchase(User buyer, MarketplaceNote note, String key) {
+        PurchaseIdempotencyKey existing = purchaseIdempotencyKeyRepository
+            .findByUserIdAndIdempotencyKey(buyer.getId(), key)
+            .orElseThrow(() -> new RuntimeException("Purchase is already being processed"));
         
-        return convertToResponseDto(note, buyer);
+        if (!existing.getMarketplaceNoteId().equals(note.getId())) {
+            throw new RuntimeException("Idempotency key was already used for a different note");
+        }
+        return convertToResponseDto(note, buyer, PurchasedListingSet.empty().with(note.getId()));
+    }
+    
+    private RuntimeException translatePurchaseConflict(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        if (message != null && message.contains("uk_note_purchase_tx_hash")) {
+            return new RuntimeException("Transaction hash already used");
+        }
+        return new RuntimeException("You have already purchased this note");
     }
     
     @Transactional
@@ -191,6 +451,8 @@ public class MarketplaceService {
         // Soft delete by setting isActive to false
         note.setIsActive(false);
         marketplaceNoteRepository.save(note);
+        tagService.clearTags(TagIndexService.LISTINGS_KEY, List.of(note.getId()));
+        changeFeedService.broadcastAfterCommit("LISTING_DEACTIVATED", note.getId());
     }
     
     @Transactional
@@ -207,12 +469,13 @@ public class MarketplaceService {
         
         note.setTitle(dto.getTitle());
         note.setDescription(dto.getDescription());
-        note.setContent(dto.getContent());
-        note.setPriceAda(dto.getPriceAda());
+        note.setBody(contentStore.replace(note.getBody(), dto.getContent()));
+        note.setPriceLovelace(dto.getPriceLovelace());
         note.setSellerWalletAddress(dto.getSellerWalletAddress());
         
         MarketplaceNote updatedNote = marketplaceNoteRepository.save(note);
-        return convertToResponseDto(updatedNote, user);
+        changeFeedService.broadcastAfterCommit("LISTING_UPDATED", updatedNote.getId());
+        return convertToResponseDto(updatedNote, user, PurchasedListingSet.empty());
     }
     
     @Transactional(readOnly = true)
@@ -233,7 +496,8 @@ public class MarketplaceService {
             .collect(Collectors.toList());
         
         return purchases.stream()
-            .map(purchase -> convertToResponseDto(purchase.getMarketplaceNote(), buyer))
+            .map(purchase -> convertToResponseDto(purchase.getMarketplaceNote(), buyer,
+                PurchasedListingSet.empty().with(purchase.getMarketplaceNote().getId())))
             .collect(Collectors.toList());
     }
 
@@ -293,6 +557,36 @@ public class MarketplaceService {
             .collect(Collectors.toList());
     }
     
+    /**
+     * Aggregated sales for the current seller over an inclusive date range.
+     * Answered from the daily rollups with two grouped queries, independent of sales volume.
+     * 
+     * @param username The current user's username
+     * @param from First day of the range (inclusive)
+     * @param to Last day of the range (inclusive)
+     * @return Totals plus per-listing and per-day breakdowns
+     */
+    @Transactional(readOnly = true)
+    public SellerSalesStatsDto getMySalesStats(String username, LocalDate from, LocalDate to) {
+        User seller = userRepository.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        if (from.isAfter(to)) {
+            throw new RuntimeException("Start date must not be after end date");
+        }
+        
+        List<SalesDailyStatsDto> daily = sellerSalesRollupRepository.sumByDay(seller.getId(), from, to);
+        
+        SellerSalesStatsDto stats = new SellerSalesStatsDto();
+        stats.setFrom(from);
+        stats.setTo(to);
+        stats.setDaily(daily);
+        stats.setListings(sellerSalesRollupRepository.sumByListing(seller.getId(), from, to));
+        stats.setTotalSales(daily.stream().mapToLong(SalesDailyStatsDto::getSalesCount).sum());
+        stats.setTotalRevenueLovelace(daily.stream().mapToLong(SalesDailyStatsDto::getRevenueLovelace).sum());
+        return stats;
+    }
+    
     /**
      * Gets the seller wallet address for a specific marketplace note.
      * Only returns the address if the note is active and available for purchase.
@@ -328,12 +622,13 @@ public class MarketplaceService {
         return note.getSellerWalletAddress();
     }
     
-    private MarketplaceNoteResponseDto convertToResponseDto(MarketplaceNote note, User currentUser) {
+    private MarketplaceNoteResponseDto convertToResponseDto(MarketplaceNote note, User currentUser,
+                                                            PurchasedListingSet purchased) {
         MarketplaceNoteResponseDto dto = new MarketplaceNoteResponseDto();
         dto.setId(note.getId());
         dto.setTitle(note.getTitle());
         dto.setDescription(note.getDescription());
-        dto.setPriceAda(note.getPriceAda());
+        dto.setPriceLovelace(note.getPriceLovelace());
         
         // Security Note: Seller wallet addresses are kept visible in marketplace listings
         // because they are needed for payment transactions. They function like public payment addresses.
@@ -348,23 +643,20 @@ public class MarketplaceService {
         dto.setCreatedAt(note.getCreatedAt());
         dto.setUpdatedAt(note.getUpdatedAt());
         
-        // Check if user has purchased this note by checking their transactions
-        // This is a simplified check - in production you might want to check by wallet address
-        boolean isPurchased = false;
-        // We can't check this directly anymore without wallet address, so we'll leave it false
-        // The frontend can check if the note is in purchased notes list
+        // Purchases are resolved once per request from the in-memory entitlement index
+        boolean isPurchased = purchased.contains(note.getId());
         dto.setIsPurchased(isPurchased);
         
-        // If purchased or is seller, provide full content, otherwise just preview
+        // If purchased or is seller, provide full content, otherwise just preview.
+        // The preview comes from the blob metadata, so browsing listings never loads bodies.
         if (isPurchased || isSeller) {
             dto.setFullContent(note.getContent());
-            dto.setContentPreview(note.getContent().length() > 200 
-                ? note.getContent().substring(0, 200) + "..." 
-                : note.getContent());
-        } else {
-            dto.setContentPreview(note.getContent().length() > 200 
-                ? note.getContent().substring(0, 200) + "..." 
-                : note.getContent());
+        }
+        if (note.getBody() != null) {
+            String preview = note.getBody().getPreview();
+            dto.setContentPreview(note.getBody().getContentLength() > 200 
+                ? preview.substring(0, 200) + "..." 
+                : preview);
         }
         
         return dto;
@@ -388,7 +680,7 @@ public class MarketplaceService {
             dto.setNoteTitle(marketplaceNote.getTitle());
         }
 
-        dto.setPurchasePriceAda(purchase.getPurchasePriceAda());
+        dto.setPurchasePriceLovelace(purchase.getPurchasePriceLovelace());
         dto.setTransactionHash(purchase.getTransactionHash());
         dto.setPurchasedAt(purchase.getPurchasedAt());
 
@@ -431,7 +723,7 @@ public class MarketplaceService {
             dto.setNoteTitle(marketplaceNote.getTitle());
         }
 
-        dto.setPurchasePriceAda(purchase.getPurchasePriceAda());
+        dto.setPurchasePriceLovelace(purchase.getPurchasePriceLovelace());
         dto.setTransactionHash(purchase.getTransactionHash());
         // Mask all addresses by default
         dto.setBuyerWalletAddress(AddressMaskingUtil.maskAddress(purchase.getBuyerWalletAddress()));
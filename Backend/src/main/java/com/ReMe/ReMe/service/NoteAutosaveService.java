@@ -0,0 +1,336 @@
+package com.ReMe.ReMe.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.ReMe.ReMe.entity.User;
+import com.ReMe.ReMe.repository.NoteRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-back buffer for editor autosaves.
+ * Each autosave replaces the note's pending draft in memory and returns immediately; the latest draft
+ * is written once the note has been quiet for a while, has been pending too long, or the buffer grows
+ * past its memory budget. Remaining drafts are written on shutdown.
+ * A draft whose write fails is retried with exponential backoff; after a few failed attempts it is
+ * dropped and the user's feed gets NOTE_AUTOSAVE_FAILED, so clients stop treating it as saved.
+ * 
+ * NoteService overlays pending drafts on every read, so clients see their latest autosave before it
+ * reaches the database. A regular update or delete of the note discards its pending draft.
+ * 
+ * Every draft carries the version of the note it was started from, which is the version autosave
+ * responses report. Flushing bumps the note's version behind the client's back, so the version each
+ * flush produced is remembered against that base; NoteService accepts the base as current for as long
+ * as nothing but flushes has written the note since.
+ */
+@Service
+public class NoteAutosaveService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(NoteAutosaveService.class);
+    private static final int LOCK_STRIPES = 64;
+    
+    @Autowired
+    private NoteRepository noteRepository;
+    
+    // Lazy: NoteService also depends on this buffer to overlay drafts on reads
+    @Lazy
+    @Autowired
+    private NoteService noteService;
+    
+    @Autowired
+    private ChangeFeedService changeFeedService;
+    
+    @Value("${notes.autosave.quiet-period-ms:3000}")
+    private long quietPeriodMs;
+    
+    @Value("${notes.autosave.max-delay-ms:30000}")
+    private long maxDelayMs;
+    
+    @Value("${notes.autosave.max-buffered-chars:20000000}")
+    private long maxBufferedChars;
+    
+    @Value("${notes.autosave.base-retention-ms:86400000}")
+    private long baseRetentionMs;
+    
+    @Value("${notes.autosave.max-flush-attempts:5}")
+    private int maxFlushAttempts;
+    
+    // Delay before the first retry of a failed write; doubles per attempt up to max-delay-ms
+    @Value("${notes.autosave.retry-backoff-ms:2000}")
+    private long retryBackoffMs;
+    
+    // userId -> noteId -> latest draft; keyed by user so reads only look at their own drafts
+    private final Map<UUID, Map<Long, Draft>> drafts = new ConcurrentHashMap<>();
+    private final AtomicLong bufferedChars = new AtomicLong();
+    private final AtomicLong revisions = new AtomicLong();
+    // noteId -> version written by the latest flush, and the version the flushed drafts were based on
+    private final Map<Long, FlushedDraft> flushed = new ConcurrentHashMap<>();
+    // noteId -> consecutive failed writes of its draft and when the next may be tried
+    private final Map<Long, FailedFlush> failures = new ConcurrentHashMap<>();
+    // Serializes writes of the same note so an older draft can never land after a newer one
+    private final Object[] flushLocks = new Object[LOCK_STRIPES];
+    
+    public NoteAutosaveService() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            flushLocks[i] = new Object();
+        }
+    }
+    
+    /**
+     * Buffers the latest title and content of a note.
+     * Ownership and the base version are read from the database only when the note has no pending draft yet.
+     * 
+     * @return The buffered draft
+     */
+    public Draft autosave(Long noteId, String title, String content, User user) {
+        Map<Long, Draft> userDrafts = drafts.get(user.getId());
+        Draft pending = userDrafts != null ? userDrafts.get(noteId) : null;
+        long baseVersion = pending != null ? pending.baseVersion : baseVersionOf(noteId, user);
+        
+        LocalDateTime now = LocalDateTime.now();
+        Draft[] replaced = new Draft[1];
+        Draft[] stored = new Draft[1];
+        drafts.compute(user.getId(), (id, current) -> {
+            Map<Long, Draft> map = current != null ? current : new ConcurrentHashMap<>();
+            Draft previous = map.get(noteId);
+            Draft draft = new Draft(noteId, title, content, now,
+                    previous != null ? previous.firstBufferedAt : now,
+                    previous != null ? previous.baseVersion : baseVersion, revisions.incrementAndGet());
+            map.put(noteId, draft);
+            replaced[0] = previous;
+            stored[0] = draft;
+            return map;
+        });
+        bufferedChars.addAndGet(stored[0].size() - (replaced[0] != null ? replaced[0].size() : 0));
+        
+        // Over budget: write this note through rather than letting the buffer grow
+        if (bufferedChars.get() > maxBufferedChars) {
+            flush(user.getId(), noteId);
+        }
+        return stored[0];
+    }
+    
+    /**
+     * Pending drafts of one user, keyed by note id.
+     */
+    public Map<Long, Draft> draftsFor(UUID userId) {
+        Map<Long, Draft> userDrafts = drafts.get(userId);
+        return userDrafts != null ? userDrafts : Map.of();
+    }
+    
+    /**
+     * Token that changes whenever the user's pending drafts change, for ETags.
+     */
+    public String draftToken(UUID userId) {
+        Map<Long, Draft> userDrafts = draftsFor(userId);
+        if (userDrafts.isEmpty()) {
+            return "";
+        }
+        long latest = userDrafts.values().stream().mapToLong(Draft::getRevision).max().orElse(0);
+        return userDrafts.size() + ":" + latest;
+    }
+    
+    /**
+     * Whether a client holding {@code baseVersion} is still up to date although the note is now at
+     * {@code currentVersion}, because only flushes of drafts based on that version wrote it since.
+     */
+    public boolean isFlushedFrom(Long noteId, Long baseVersion, Long currentVersion) {
+        FlushedDraft last = flushed.get(noteId);
+        return last != null && baseVersion != null && last.baseVersion == baseVersion && last.version == currentVersion;
+    }
+    
+    /**
+     * Drops a pending draft, because the note is about to be overwritten or deleted.
+     */
+    public void discard(UUID userId, Long noteId) {
+        synchronized (lockFor(noteId)) {
+            flushed.remove(noteId);
+            failures.remove(noteId);
+            Map<Long, Draft> userDrafts = drafts.get(userId);
+            Draft removed = userDrafts != null ? userDrafts.remove(noteId) : null;
+            if (removed != null) {
+                bufferedChars.addAndGet(-removed.size());
+            }
+        }
+    }
+    
+    /**
+     * Writes drafts that have gone quiet or have been pending longer than the maximum delay.
+     */
+    @Scheduled(fixedDelayString = "${notes.autosave.flush-interval-ms:1000}")
+    public void flushDue() {
+        LocalDateTime quietBefore = LocalDateTime.now().minusNanos(quietPeriodMs * 1_000_000);
+        LocalDateTime pendingBefore = LocalDateTime.now().minusNanos(maxDelayMs * 1_000_000);
+        LocalDateTime now = LocalDateTime.now();
+        drafts.forEach((userId, userDrafts) -> userDrafts.values().forEach(draft -> {
+            FailedFlush failure = failures.get(draft.noteId);
+            if (failure != null && failure.retryAt.isAfter(now)) {
+                return;
+            }
+            if (draft.lastSavedAt.isBefore(quietBefore) || draft.firstBufferedAt.isBefore(pendingBefore)) {
+                flush(userId, draft.noteId);
+            }
+        }));
+        // Drop users without pending drafts; compute keeps this atomic with a concurrent autosave
+        drafts.keySet().forEach(userId ->
+                drafts.computeIfPresent(userId, (id, userDrafts) -> userDrafts.isEmpty() ? null : userDrafts));
+        // Clients that stayed away this long re-read the note before saving anyway
+        LocalDateTime flushedBefore = LocalDateTime.now().minusNanos(baseRetentionMs * 1_000_000);
+        flushed.values().removeIf(last -> last.writtenAt.isBefore(flushedBefore));
+    }
+    
+    @PreDestroy
+    public void flushAll() {
+        drafts.forEach((userId, userDrafts) -> userDrafts.keySet().forEach(noteId -> flush(userId, noteId)));
+    }
+    
+    private void flush(UUID userId, Long noteId) {
+        synchronized (lockFor(noteId)) {
+            Map<Long, Draft> userDrafts = drafts.get(userId);
+            Draft draft = userDrafts != null ? userDrafts.get(noteId) : null;
+            if (draft == null) {
+                return;
+            }
+            Long version;
+            try {
+                version = noteService.writeDraft(noteId, userId, draft.title, draft.content);
+            } catch (RuntimeException e) {
+                failed(userId, noteId, userDrafts, e);
+                return;
+            }
+            failures.remove(noteId);
+            if (version != null) {
+                flushed.put(noteId, new FlushedDraft(draft.baseVersion, version, LocalDateTime.now()));
+            }
+            // A newer autosave that arrived during the write stays buffered
+            if (userDrafts.remove(noteId, draft)) {
+                bufferedChars.addAndGet(-draft.size());
+            }
+        }
+    }
+    
+    /**
+     * Schedules a retry of a failed write, or drops the note's draft once it has failed too often.
+     * Called under the note's flush lock.
+     */
+    private void failed(UUID userId, Long noteId, Map<Long, Draft> userDrafts, RuntimeException e) {
+        FailedFlush previous = failures.get(noteId);
+        int attempts = previous != null ? previous.attempts + 1 : 1;
+        if (attempts < maxFlushAttempts) {
+            long delayMs = Math.min(maxDelayMs, retryBackoffMs << Math.min(attempts - 1, 20));
+            failures.put(noteId, new FailedFlush(attempts, LocalDateTime.now().plusNanos(delayMs * 1_000_000)));
+            logger.warn("Could not write autosaved draft of note {} (attempt {} of {}): {}",
+                    noteId, attempts, maxFlushAttempts, e.getMessage());
+            return;
+        }
+        
+        failures.remove(noteId);
+        Draft dropped = userDrafts.remove(noteId);
+        if (dropped != null) {
+            bufferedChars.addAndGet(-dropped.size());
+        }
+        logger.error("Dropped autosaved draft of note {} after {} failed writes: {}", noteId, attempts, e.getMessage());
+        changeFeedService.notifyUserAfterCommit(userId, "NOTE_AUTOSAVE_FAILED", noteId);
+    }
+    
+    /**
+     * The version a new draft is based on: the note's own, unless flushes of earlier drafts wrote
+     * that version, in which case the client still holds the version those drafts were based on.
+     */
+    private long baseVersionOf(Long noteId, User user) {
+        Long version = noteRepository.findVersionByIdAndUser(noteId, user)
+                .orElseThrow(() -> new RuntimeException("Note not found or you don't have permission to update it"));
+        FlushedDraft last = flushed.get(noteId);
+        return last != null && last.version == version ? last.baseVersion : version;
+    }
+    
+    private Object lockFor(Long noteId) {
+        return flushLocks[Math.floorMod(noteId.hashCode(), LOCK_STRIPES)];
+    }
+    
+    /**
+     * Latest autosaved state of a note that has not been written yet.
+     */
+    public static final class Draft {
+        private final Long noteId;
+        private final String title;
+        private final String content;
+        private final LocalDateTime lastSavedAt;
+        private final LocalDateTime firstBufferedAt;
+        private final long baseVersion;
+        private final long revision;
+        
+        private Draft(Long noteId, String title, String content, LocalDateTime lastSavedAt,
+                      LocalDateTime firstBufferedAt, long baseVersion, long revision) {
+            this.noteId = noteId;
+            this.title = title;
+            this.content = content;
+            this.lastSavedAt = lastSavedAt;
+            this.firstBufferedAt = firstBufferedAt;
+            this.baseVersion = baseVersion;
+            this.revision = revision;
+        }
+        
+        public Long getNoteId() {
+            return noteId;
+        }
+        
+        public String getTitle() {
+            return title;
+        }
+        
+        public String getContent() {
+            return content;
+        }
+        
+        public LocalDateTime getLastSavedAt() {
+            return lastSavedAt;
+        }
+        
+        public long getBaseVersion() {
+            return baseVersion;
+        }
+        
+        public long getRevision() {
+            return revision;
+        }
+        
+        private long size() {
+            return (long) title.length() + (content != null ? content.length() : 0);
+        }
+    }
+    
+    private static final class FailedFlush {
+        private final int attempts;
+        private final LocalDateTime retryAt;
+        
+        private FailedFlush(int attempts, LocalDateTime retryAt) {
+            this.attempts = attempts;
+            this.retryAt = retryAt;
+        }
+    }
+    
+    private static final class FlushedDraft {
+        private final long baseVersion;
+        private final long version;
+        private final LocalDateTime writtenAt;
+        
+        private FlushedDraft(long baseVersion, long version, LocalDateTime writtenAt) {
+            this.baseVersion = baseVersion;
+            this.version = version;
+            this.writtenAt = writtenAt;
+        }
+    }
+}
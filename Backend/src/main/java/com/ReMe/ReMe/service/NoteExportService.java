@@ -0,0 +1,77 @@
+package com.ReMe.ReMe.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ReMe.ReMe.dto.NoteExportRow;
+import com.ReMe.ReMe.entity.User;
+import com.ReMe.ReMe.repository.NoteRepository;
+import com.ReMe.ReMe.util.NoteExportWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Streams a user's whole library as NDJSON or as a gzipped tar of Markdown files.
+ * Notes are read through a database cursor and written as they arrive, so memory use is constant
+ * regardless of library size; pending autosaves are included.
+ */
+@Service
+public class NoteExportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(NoteExportService.class);
+    
+    @Autowired
+    private NoteRepository noteRepository;
+    
+    @Autowired
+    private NoteAutosaveService autosaveService;
+    
+    @Autowired
+    private LargeContentStore largeContentStore;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    /**
+     * Writes the export; runs on the response thread and holds a read-only transaction for the cursor until done.
+     * 
+     * @param user The user whose notes are exported
+     * @param format {@link NoteExportWriter#NDJSON} or {@link NoteExportWriter#MARKDOWN}
+     * @param out The response stream
+     */
+    @Transactional(readOnly = true)
+    public void export(User user, String format, OutputStream out) throws IOException {
+        Map<Long, NoteAutosaveService.Draft> drafts = autosaveService.draftsFor(user.getId());
+        try (Stream<NoteExportRow> rows = noteRepository.streamForExport(user)) {
+            Iterator<NoteExportRow> iterator = rows.map(row -> withDraft(row, drafts)).iterator();
+            NoteExportWriter.LargeBodies largeBodies = row ->
+                largeContentStore.openStream(row.getSegment(), row.getSegmentOffset(), row.getByteLength());
+            long count = NoteExportWriter.MARKDOWN.equals(format)
+                ? NoteExportWriter.writeMarkdownTarGz(iterator, out, largeBodies)
+                : NoteExportWriter.writeNdjson(iterator, out, objectMapper.getFactory(), largeBodies);
+            logger.info("Exported {} notes for user {} as {}", count, user.getId(), format);
+        }
+    }
+    
+    private static NoteExportRow withDraft(NoteExportRow row, Map<Long, NoteAutosaveService.Draft> drafts) {
+        NoteAutosaveService.Draft draft = drafts.get(row.getId());
+        if (draft != null) {
+            row.setTitle(draft.getTitle());
+            row.setUpdatedAt(draft.getLastSavedAt());
+            // A draft without content leaves a large body as it is
+            if (draft.getContent() != null || !row.isLarge()) {
+                row.setContent(draft.getContent());
+                row.setSegment(null);
+            }
+        }
+        return row;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ReMe.ReMe.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the note history retention policy once a day, one note per transaction.
+ */
+@Component
+public class NoteHistoryCompactor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(NoteHistoryCompactor.class);
+    
+    @Autowired
+    private NoteHistoryService historyService;
+    
+    @Scheduled(cron = "${notes.history.compaction-cron:0 0 4 * * *}")
+    public void compact() {
+        for (Long noteId : historyService.findNotesToCompact()) {
+            try {
+                historyService.compact(noteId);
+            } catch (RuntimeException e) {
+                logger.warn("Could not compact history of note {}: {}", noteId, e.getMessage());
+            }
+        }
+    }
+}
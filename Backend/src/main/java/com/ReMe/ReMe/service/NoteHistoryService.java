@@ -0,0 +1,175 @@
+package com.ReMe.ReMe.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ReMe.ReMe.dto.NoteDto;
+import com.ReMe.ReMe.dto.NoteVersionDto;
+import com.ReMe.ReMe.entity.Note;
+import com.ReMe.ReMe.entity.NoteRevision;
+import com.ReMe.ReMe.entity.User;
+import com.ReMe.ReMe.repository.NoteRepository;
+import com.ReMe.ReMe.repository.NoteRevisionRepository;
+import com.ReMe.ReMe.util.TextDelta;
+
+/**
+ * Version history of personal notes, stored as periodic full snapshots plus forward deltas.
+ * A new snapshot starts every {@code notes.history.snapshot-interval} versions, when a delta would be
+ * no smaller than half the content, or when the previous version is missing from the history, so
+ * reading any version replays a bounded number of deltas.
+ */
+@Service
+@Transactional
+public class NoteHistoryService {
+    
+    @Autowired
+    private NoteRevisionRepository revisionRepository;
+    
+    @Autowired
+    private NoteRepository noteRepository;
+    
+    @Value("${notes.history.snapshot-interval:20}")
+    private int snapshotInterval;
+    
+    @Value("${notes.history.max-versions:200}")
+    private int maxVersions;
+    
+    @Value("${notes.history.retention-days:90}")
+    private long retentionDays;
+    
+    /**
+     * Records the note's current (flushed) state as a new version.
+     * 
+     * @param note The note after the write, with its new version
+     * @param previousContent The content before the write, or null for a new note
+     */
+    public void record(Note note, String previousContent) {
+        if (note.getBody() != null && note.getBody().isExternal()) {
+            return; // large bodies are stored on disk and not versioned
+        }
+        Long version = note.getVersion();
+        String content = note.getContent() != null ? note.getContent() : "";
+        Long latest = revisionRepository.findLatestVersion(note.getId());
+        if (latest != null && latest >= version) {
+            return; // nothing was written, or this version is already recorded
+        }
+        
+        boolean snapshot = true;
+        String payload = content;
+        if (latest != null && latest == version - 1 && previousContent != null) {
+            Long snapshotVersion = revisionRepository.findSnapshotVersionAtOrBefore(note.getId(), latest);
+            String delta = TextDelta.encode(previousContent, content);
+            if (snapshotVersion != null && version - snapshotVersion < snapshotInterval
+                    && delta.length() < content.length() / 2) {
+                snapshot = false;
+                payload = delta;
+            }
+        }
+        
+        revisionRepository.save(new NoteRevision(note.getId(), note.getUser(), version, snapshot,
+                note.getTitle(), payload, content.length()));
+    }
+    
+    /**
+     * Records the first version of newly created (flushed) notes with inline bodies as snapshots, saved in one batch.
+     * The contents are passed in so the notes' blob proxies are not loaded back from the database.
+     * 
+     * @param contents The content of each note, in the same order
+     */
+    public void recordCreated(List<Note> notes, List<String> contents) {
+        List<NoteRevision> revisions = new ArrayList<>(notes.size());
+        for (int i = 0; i < notes.size(); i++) {
+            Note note = notes.get(i);
+            String content = contents.get(i) != null ? contents.get(i) : "";
+            revisions.add(new NoteRevision(note.getId(), note.getUser(), note.getVersion(), true,
+                    note.getTitle(), content, content.length()));
+        }
+        revisionRepository.saveAll(revisions);
+    }
+    
+    /**
+     * @throws RuntimeException if the user has no such note; a note without recorded versions yields an empty list
+     */
+    @Transactional(readOnly = true)
+    public List<NoteVersionDto> getVersions(Long noteId, User user) {
+        List<NoteVersionDto> versions = revisionRepository.findVersions(noteId, user);
+        if (versions.isEmpty() && noteRepository.findVersionByIdAndUser(noteId, user).isEmpty()) {
+            throw new RuntimeException("Note not found");
+        }
+        return versions;
+    }
+    
+    /**
+     * Rebuilds one version from its snapshot and the deltas after it.
+     */
+    @Transactional(readOnly = true)
+    public NoteDto getVersion(Long noteId, Long version, User user) {
+        Long snapshotVersion = revisionRepository.findSnapshotVersionAtOrBefore(noteId, version);
+        List<NoteRevision> chain = snapshotVersion == null ? List.of()
+                : revisionRepository.findChain(noteId, user, snapshotVersion, version);
+        if (chain.isEmpty() || !chain.get(chain.size() - 1).getVersion().equals(version)) {
+            throw new RuntimeException("Note version not found");
+        }
+        
+        NoteRevision target = chain.get(chain.size() - 1);
+        NoteDto dto = new NoteDto(noteId, target.getTitle(), replay(chain), null, target.getCreatedAt());
+        dto.setVersion(version);
+        return dto;
+    }
+    
+    /**
+     * Applies the retention policy to one note: keeps at most {@code max-versions} versions and drops
+     * versions older than {@code retention-days}, always keeping the latest. The oldest kept version is
+     * rewritten as a snapshot so the remaining chain stays readable.
+     */
+    public void compact(Long noteId) {
+        List<NoteRevision> revisions = revisionRepository.findByNoteIdOrderByVersionAsc(noteId);
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        
+        int firstKept = Math.max(0, revisions.size() - maxVersions);
+        while (firstKept < revisions.size() - 1 && revisions.get(firstKept).getCreatedAt().isBefore(cutoff)) {
+            firstKept++;
+        }
+        if (firstKept == 0) {
+            return;
+        }
+        
+        NoteRevision oldestKept = revisions.get(firstKept);
+        if (!oldestKept.isSnapshot()) {
+            int snapshotIndex = firstKept;
+            while (!revisions.get(snapshotIndex).isSnapshot()) {
+                snapshotIndex--;
+            }
+            oldestKept.setPayload(replay(revisions.subList(snapshotIndex, firstKept + 1)));
+            oldestKept.setSnapshot(true);
+            revisionRepository.flush();
+        }
+        revisionRepository.deleteBeforeVersion(noteId, oldestKept.getVersion());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Long> findNotesToCompact() {
+        return revisionRepository.findNoteIdsToCompact(maxVersions, LocalDateTime.now().minusDays(retentionDays));
+    }
+    
+    public void deleteHistory(Collection<Long> noteIds) {
+        if (!noteIds.isEmpty()) {
+            revisionRepository.deleteByNoteIds(noteIds);
+        }
+    }
+    
+    private static String replay(List<NoteRevision> chain) {
+        String content = chain.get(0).getPayload();
+        for (int i = 1; i < chain.size(); i++) {
+            content = TextDelta.apply(content, chain.get(i).getPayload());
+        }
+        return content;
+    }
+}
@@ -0,0 +1,190 @@
+package com.ReMe.ReMe.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ReMe.ReMe.dto.ImportItemResultDto;
+import com.ReMe.ReMe.dto.NoteDto;
+import com.ReMe.ReMe.dto.NoteImportJobDto;
+import com.ReMe.ReMe.entity.ContentBlob;
+import com.ReMe.ReMe.entity.Note;
+import com.ReMe.ReMe.entity.NoteImportError;
+import com.ReMe.ReMe.entity.NoteImportJob;
+import com.ReMe.ReMe.entity.NoteImportStatus;
+import com.ReMe.ReMe.entity.User;
+import com.ReMe.ReMe.exception.ImportAlreadyRunningException;
+import com.ReMe.ReMe.repository.NoteImportErrorRepository;
+import com.ReMe.ReMe.repository.NoteImportJobRepository;
+import com.ReMe.ReMe.repository.NoteRepository;
+import com.ReMe.ReMe.util.NoteImportReader;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Transactional steps of a streaming note import; NoteImporter reads the upload and drives them.
+ * Each batch commits its notes, its errors and the job checkpoint together, so after a failure
+ * the job shows exactly which items are done.
+ */
+@Service
+@Transactional
+public class NoteImportService {
+    
+    private static final int MAX_MESSAGE_LENGTH = 500;
+    
+    @Autowired
+    private NoteImportJobRepository jobRepository;
+    
+    @Autowired
+    private NoteImportErrorRepository errorRepository;
+    
+    @Autowired
+    private NoteRepository noteRepository;
+    
+    @Autowired
+    private ContentStoreService contentStore;
+    
+    @Autowired
+    private NoteHistoryService historyService;
+    
+    @Autowired
+    private ChangeFeedService changeFeedService;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Value("${notes.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+    
+    /**
+     * Creates the job for a key, or reopens an unfinished one to resume from its checkpoint.
+     * A completed job is returned unchanged, so re-sending a finished upload imports nothing twice.
+     */
+    public NoteImportJobDto start(User user, String key, String format) {
+        NoteImportJob job = jobRepository.findByUserAndJobKey(user, key)
+                .orElseGet(() -> new NoteImportJob(user, key, format));
+        if (!job.getFormat().equals(format)) {
+            throw new IllegalArgumentException("Import " + key + " was started with format " + job.getFormat());
+        }
+        if (job.getStatus() != NoteImportStatus.COMPLETED) {
+            job.setStatus(NoteImportStatus.RUNNING);
+            job.setLastError(null);
+        }
+        return convertToDto(jobRepository.saveAndFlush(job), false);
+    }
+    
+    /**
+     * Validates and stores one batch of items and advances the checkpoint past them.
+     * 
+     * @param startIndex Index of the first item; must equal the job's checkpoint
+     * @throws ImportAlreadyRunningException if another upload with the same key moved the checkpoint
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void writeBatch(String key, long startIndex, List<NoteImportReader.Item> items, User user) {
+        NoteImportJob job = jobRepository.findForUpdate(user, key)
+                .orElseThrow(() -> new RuntimeException("Import not found"));
+        Long jobId = job.getId();
+        if (job.getProcessed() != startIndex || job.getStatus() != NoteImportStatus.RUNNING) {
+            throw new ImportAlreadyRunningException(job.getJobKey());
+        }
+        
+        List<String> titles = new ArrayList<>(items.size());
+        List<String> contents = new ArrayList<>(items.size());
+        List<NoteImportError> errors = new ArrayList<>();
+        for (NoteImportReader.Item item : items) {
+            String error = item.getError() != null ? item.getError() : validate(item.getTitle(), item.getContent());
+            if (error == null) {
+                titles.add(item.getTitle());
+                contents.add(item.getContent());
+            } else {
+                errors.add(new NoteImportError(jobId, item.getIndex(), truncate(item.getKey(), 255),
+                        truncate(error, MAX_MESSAGE_LENGTH)));
+            }
+        }
+        
+        if (!titles.isEmpty()) {
+            List<ContentBlob> bodies = contentStore.acquireAll(contents);
+            List<Note> notes = new ArrayList<>(titles.size());
+            for (int i = 0; i < titles.size(); i++) {
+                notes.add(new Note(titles.get(i), bodies.get(i), user));
+            }
+            noteRepository.saveAll(notes);
+            noteRepository.flush();
+            historyService.recordCreated(notes, contents);
+        }
+        
+        long reported = job.getInvalid();
+        if (reported < maxReportedErrors && !errors.isEmpty()) {
+            errorRepository.saveAll(errors.subList(0, (int) Math.min(errors.size(), maxReportedErrors - reported)));
+        }
+        job.setProcessed(startIndex + items.size());
+        job.setImported(job.getImported() + titles.size());
+        job.setInvalid(job.getInvalid() + errors.size());
+        changeFeedService.notifyUserAfterCommit(user.getId(), "NOTES_IMPORTED", jobId);
+    }
+    
+    public NoteImportJobDto complete(String key, User user) {
+        NoteImportJob job = jobRepository.findByUserAndJobKey(user, key)
+                .orElseThrow(() -> new RuntimeException("Import not found"));
+        job.setStatus(NoteImportStatus.COMPLETED);
+        return convertToDto(jobRepository.saveAndFlush(job), true);
+    }
+    
+    /**
+     * Marks the job failed at its last checkpoint; sending the same upload with the same key resumes it.
+     */
+    public NoteImportJobDto fail(String key, String message, User user) {
+        NoteImportJob job = jobRepository.findByUserAndJobKey(user, key)
+                .orElseThrow(() -> new RuntimeException("Import not found"));
+        if (job.getStatus() == NoteImportStatus.RUNNING) {
+            job.setStatus(NoteImportStatus.FAILED);
+            job.setLastError(truncate(message, MAX_MESSAGE_LENGTH));
+        }
+        return convertToDto(jobRepository.saveAndFlush(job), true);
+    }
+    
+    @Transactional(readOnly = true)
+    public NoteImportJobDto getJob(String key, User user) {
+        NoteImportJob job = jobRepository.findByUserAndJobKey(user, key)
+                .orElseThrow(() -> new RuntimeException("Import not found"));
+        return convertToDto(job, true);
+    }
+    
+    private String validate(String title, String content) {
+        Set<ConstraintViolation<NoteDto>> violations = validator.validate(new NoteDto(title, content));
+        return violations.isEmpty() ? null : violations.iterator().next().getMessage();
+    }
+    
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+    
+    private NoteImportJobDto convertToDto(NoteImportJob job, boolean withErrors) {
+        NoteImportJobDto dto = new NoteImportJobDto();
+        dto.setKey(job.getJobKey());
+        dto.setFormat(job.getFormat());
+        dto.setStatus(job.getStatus().name());
+        dto.setProcessed(job.getProcessed());
+        dto.setImported(job.getImported());
+        dto.setInvalid(job.getInvalid());
+        dto.setLastError(job.getLastError());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setUpdatedAt(job.getUpdatedAt());
+        if (withErrors && job.getInvalid() > 0) {
+            dto.setErrors(errorRepository.findByJobIdOrderByItemIndexAsc(job.getId(), PageRequest.of(0, maxReportedErrors))
+                    .stream()
+                    .map(error -> new ImportItemResultDto(error.getItemIndex().intValue(), error.getItemKey(),
+                            ImportItemResultDto.INVALID, error.getMessage()))
+                    .toList());
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,96 @@
+package com.ReMe.ReMe.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import com.ReMe.ReMe.dto.NoteImportJobDto;
+import com.ReMe.ReMe.entity.NoteImportStatus;
+import com.ReMe.ReMe.entity.User;
+import com.ReMe.ReMe.exception.ImportAlreadyRunningException;
+import com.ReMe.ReMe.util.NoteImportReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Streams an upload into notes in batches of {@code notes.import.batch-size}, one transaction per batch.
+ * Memory is bounded by one batch regardless of upload size. When a job is resumed, items below
+ * its checkpoint are read and skipped without being written again.
+ */
+@Component
+public class NoteImporter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(NoteImporter.class);
+    
+    @Autowired
+    private NoteImportService importService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${notes.import.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${notes.import.max-item-bytes:65536}")
+    private int maxItemBytes;
+    
+    /**
+     * Runs or resumes the import with the given key; the upload is read on the calling thread.
+     * Malformed uploads and write failures end the job as FAILED at its last checkpoint instead of throwing.
+     * 
+     * @param format {@link com.ReMe.ReMe.util.NoteExportWriter#NDJSON} or {@link com.ReMe.ReMe.util.NoteExportWriter#MARKDOWN}
+     * @throws IllegalArgumentException if the key belongs to an import in another format
+     * @throws ImportAlreadyRunningException if another upload with the same key is running
+     */
+    public NoteImportJobDto importNotes(User user, String key, String format, InputStream upload) {
+        NoteImportJobDto job;
+        try {
+            job = importService.start(user, key, format);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent first upload with the same key created the job
+            throw new ImportAlreadyRunningException(key);
+        }
+        if (NoteImportStatus.COMPLETED.name().equals(job.getStatus())) {
+            return importService.getJob(key, user);
+        }
+        
+        long checkpoint = job.getProcessed();
+        long next = checkpoint;
+        List<NoteImportReader.Item> batch = new ArrayList<>(batchSize);
+        try (NoteImportReader reader = NoteImportReader.open(upload, format, maxItemBytes, objectMapper.getFactory())) {
+            NoteImportReader.Item item;
+            while ((item = reader.next()) != null) {
+                if (item.getIndex() < checkpoint) {
+                    continue; // committed by an earlier attempt
+                }
+                batch.add(item);
+                if (batch.size() == batchSize) {
+                    importService.writeBatch(key, next, batch, user);
+                    next += batch.size();
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                importService.writeBatch(key, next, batch, user);
+                next += batch.size();
+            }
+        } catch (ImportAlreadyRunningException e) {
+            throw e; // another upload owns the job; leave its status alone
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Import {} of user {} stopped after {} items: {}", key, user.getId(), next, e.getMessage());
+            return importService.fail(key, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName(), user);
+        }
+        
+        NoteImportJobDto completed = importService.complete(key, user);
+        logger.info("Import {} of user {} finished: {} imported, {} invalid", key, user.getId(),
+                completed.getImported(), completed.getInvalid());
+        return completed;
+    }
+}
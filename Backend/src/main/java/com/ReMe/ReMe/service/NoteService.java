@@ -1,78 +1,676 @@
 package com.ReMe.ReMe.service;
 
+import com.ReMe.ReMe.dto.NoteBatchOperationDto;
+import com.ReMe.ReMe.dto.NoteBatchResultDto;
+import com.ReMe.ReMe.dto.CursorPageDto;
 import com.ReMe.ReMe.dto.NoteDto;
+import com.ReMe.ReMe.dto.NotePatchDto;
+import com.ReMe.ReMe.dto.NoteSummaryDto;
+import com.ReMe.ReMe.dto.NoteSyncDto;
+import com.ReMe.ReMe.dto.TagCountDto;
+import com.ReMe.ReMe.dto.TagFilterDto;
+import com.ReMe.ReMe.dto.TextEditDto;
+import com.ReMe.ReMe.entity.ContentBlob;
 import com.ReMe.ReMe.entity.Note;
+import com.ReMe.ReMe.entity.NoteTombstone;
 import com.ReMe.ReMe.entity.User;
+import com.ReMe.ReMe.exception.StaleVersionException;
 import com.ReMe.ReMe.repository.NoteRepository;
+import com.ReMe.ReMe.repository.NoteTombstoneRepository;
+import com.ReMe.ReMe.util.ETagUtil;
+import com.ReMe.ReMe.util.KeysetCursor;
+import com.ReMe.ReMe.util.TagBitmap;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class NoteService {
     
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    // Snippets are cut from the stored preview, so they cannot be longer than it
+    private static final int MAX_SNIPPET_LENGTH = ContentBlob.PREVIEW_LENGTH;
+    private static final int MAX_TITLE_LENGTH = 255;
+    
     @Autowired
     private NoteRepository noteRepository;
     
+    @Autowired
+    private NoteTombstoneRepository noteTombstoneRepository;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private NoteAutosaveService autosaveService;
+    
+    @Autowired
+    private NoteHistoryService historyService;
+    
+    @Autowired
+    private ContentStoreService contentStore;
+    
+    @Autowired
+    private TagService tagService;
+    
+    @Autowired
+    private ChangeFeedService changeFeedService;
+    
+    @Value("${notes.summary.snippet-length:120}")
+    private int defaultSnippetLength;
+    
+    @Value("${notes.sync.safety-window-ms:5000}")
+    private long syncSafetyWindowMs;
+    
+    @Value("${notes.sync.tombstone-retention-days:30}")
+    private long tombstoneRetentionDays;
+    
+    @Value("${notes.batch.max-operations:500}")
+    private int maxBatchOperations;
+    
     public List<NoteDto> getAllNotesByUser(User user) {
         List<Note> notes = noteRepository.findByUserOrderByCreatedAtDesc(user);
+        Map<Long, NoteAutosaveService.Draft> drafts = autosaveService.draftsFor(user.getId());
         return notes.stream()
-                .map(this::convertToDto)
+                .map(note -> withDraft(convertToDto(note), drafts))
                 .collect(Collectors.toList());
     }
     
+    /**
+     * One page of note summaries (title, timestamps and a short snippet), newest first.
+     * The snippet is cut in SQL, so full note bodies never leave the database for list views.
+     * 
+     * @param user The current user
+     * @param title Optional case-insensitive title filter
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param limit Requested page size (capped)
+     * @param snippetLength Requested snippet length in characters (capped), or null for the default
+     * @return The page and the cursor for the next one
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<NoteSummaryDto> getNoteSummaries(User user, String title, String cursor,
+                                                          Integer limit, Integer snippetLength) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        int snippet = snippetLength == null ? defaultSnippetLength : Math.max(0, Math.min(snippetLength, MAX_SNIPPET_LENGTH));
+        String titlePattern = title == null || title.isBlank() ? "%" : "%" + escapeLike(title.toLowerCase()) + "%";
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        List<NoteSummaryDto> rows = position == null
+                ? noteRepository.findSummaries(user, titlePattern, snippet, page)
+                : noteRepository.findSummariesBefore(user, titlePattern, snippet,
+                        LocalDateTime.parse(position.getSortValue()), position.getId(), page);
+        
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            NoteSummaryDto last = rows.get(pageSize - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt().toString(), last.getId()).encode();
+        }
+        
+        applyDrafts(rows, user, snippet);
+        return new CursorPageDto<>(rows, nextCursor);
+    }
+    
+    /**
+     * One page of summaries of the notes matching a tag filter, newest id first.
+     * Matching ids come from the in-memory tag bitmaps; only the page itself is read from the database.
+     * 
+     * @param filter Required, optional and excluded tags
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @return The page and the cursor for the next one
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<NoteSummaryDto> getTaggedNoteSummaries(User user, TagFilterDto filter, String cursor,
+                                                                Integer limit, Integer snippetLength) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        int snippet = snippetLength == null ? defaultSnippetLength : Math.max(0, Math.min(snippetLength, MAX_SNIPPET_LENGTH));
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        
+        TagBitmap matches = tagService.match(TagIndexService.notesKey(user.getId()), filter,
+                () -> TagBitmap.of(noteRepository.findIdsByUser(user)));
+        long[] ids = matches.descendingBelow(position != null ? position.getId() : Long.MAX_VALUE, pageSize + 1);
+        
+        String nextCursor = null;
+        int count = Math.min(ids.length, pageSize);
+        if (ids.length > pageSize) {
+            long lastId = ids[pageSize - 1];
+            nextCursor = new KeysetCursor(String.valueOf(lastId), lastId).encode();
+        }
+        if (count == 0) {
+            return new CursorPageDto<>(List.of(), nextCursor);
+        }
+        
+        List<Long> pageIds = Arrays.stream(ids, 0, count).boxed().collect(Collectors.toList());
+        List<NoteSummaryDto> rows = noteRepository.findSummariesByIds(user, pageIds, snippet);
+        applyDrafts(rows, user, snippet);
+        return new CursorPageDto<>(rows, nextCursor);
+    }
+    
+    /**
+     * How many of the user's notes carry each tag, optionally within the notes matching a filter.
+     */
+    public List<TagCountDto> getTagCounts(User user, TagFilterDto filter) {
+        return tagService.count(TagIndexService.notesKey(user.getId()), filter,
+                () -> TagBitmap.of(noteRepository.findIdsByUser(user)));
+    }
+    
+    public List<String> getNoteTags(Long id, User user) {
+        requireOwned(id, user);
+        return tagService.getTags(TagIndexService.notesKey(user.getId()), id);
+    }
+    
+    public List<String> setNoteTags(Long id, List<String> tags, User user) {
+        requireOwned(id, user);
+        return tagService.replaceTags(TagIndexService.notesKey(user.getId()), id, tags);
+    }
+    
+    private void requireOwned(Long id, User user) {
+        if (noteRepository.findOwnedIds(List.of(id), user).isEmpty()) {
+            throw new RuntimeException("Note not found");
+        }
+    }
+    
+    private void applyDrafts(List<NoteSummaryDto> rows, User user, int snippet) {
+        Map<Long, NoteAutosaveService.Draft> drafts = autosaveService.draftsFor(user.getId());
+        for (NoteSummaryDto row : rows) {
+            NoteAutosaveService.Draft draft = drafts.get(row.getId());
+            if (draft != null) {
+                String draftContent = draft.getContent() != null ? draft.getContent() : "";
+                row.setTitle(draft.getTitle());
+                row.setSnippet(draftContent.substring(0, Math.min(snippet, draftContent.length())));
+                row.setUpdatedAt(draft.getLastSavedAt());
+            }
+        }
+    }
+    
+    /**
+     * ETag for a listing of the user's notes, from an aggregate over the notes table.
+     * 
+     * @param user The current user
+     * @param qualifiers Request parameters that shape the listing (filters, cursor, page size)
+     * @return A strong ETag
+     */
+    @Transactional(readOnly = true)
+    public String getNotesETag(User user, Object... qualifiers) {
+        return ETagUtil.forCollection(noteRepository.stampByUser(user),
+                autosaveService.draftToken(user.getId()), Arrays.asList(qualifiers));
+    }
+    
+    /**
+     * ETag for a single note, without loading its content.
+     * 
+     * @return A strong ETag, or null when the note does not exist or belongs to another user
+     */
+    @Transactional(readOnly = true)
+    public String getNoteETag(Long id, User user) {
+        NoteAutosaveService.Draft draft = autosaveService.draftsFor(user.getId()).get(id);
+        return ETagUtil.forResource(noteRepository.stampByIdAndUser(id, user),
+                draft != null ? draft.getRevision() : null);
+    }
+    
     public NoteDto getNoteById(Long id, User user) {
         Note note = noteRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new RuntimeException("Note not found or you don't have permission to access it"));
-        return convertToDto(note);
+        return withDraft(convertToDto(note), autosaveService.draftsFor(user.getId()));
+    }
+    
+    /**
+     * Buffers an editor autosave; the latest draft is written after a quiet period (see NoteAutosaveService).
+     * 
+     * @return The note as it will be persisted, with the version to send as the base of the next save
+     */
+    public NoteDto autosaveNote(Long id, NoteDto noteDto, User user) {
+        NoteAutosaveService.Draft draft = autosaveService.autosave(id, noteDto.getTitle(), noteDto.getContent(), user);
+        NoteDto dto = new NoteDto(id, draft.getTitle(), draft.getContent(), null, draft.getLastSavedAt());
+        dto.setVersion(draft.getBaseVersion());
+        return dto;
     }
     
     public NoteDto createNote(NoteDto noteDto, User user) {
         Note note = new Note();
         note.setTitle(noteDto.getTitle());
-        note.setContent(noteDto.getContent());
+        note.setBody(contentStore.acquire(noteDto.getContent()));
         note.setUser(user);
         
-        Note savedNote = noteRepository.save(note);
+        Note savedNote = noteRepository.saveAndFlush(note);
+        historyService.record(savedNote, null);
         return convertToDto(savedNote);
     }
     
+    /**
+     * Creates a note that shares an existing body instead of storing its own, e.g. the buyer's copy of a
+     * purchased listing. The body is only copied once either side edits it. Since the user did not
+     * create the note from a client, their other sessions are told about it through the change feed.
+     * 
+     * @param title The note title, cut to the title limit
+     * @param body The body to share, or null for an empty note
+     * @param user The owner of the new note
+     * @return The saved note
+     */
+    public Note createSharedCopy(String title, ContentBlob body, User user) {
+        String cut = title.length() > MAX_TITLE_LENGTH ? title.substring(0, MAX_TITLE_LENGTH) : title;
+        Note savedNote = noteRepository.saveAndFlush(new Note(cut, contentStore.share(body), user));
+        historyService.record(savedNote, null);
+        changeFeedService.notifyUserAfterCommit(user.getId(), "NOTE_CREATED", savedNote.getId());
+        return savedNote;
+    }
+    
     public NoteDto updateNote(Long id, NoteDto noteDto, User user) {
         Note existingNote = noteRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new RuntimeException("Note not found or you don't have permission to update it"));
         
+        if (noteDto.getVersion() != null && !isCurrent(existingNote, noteDto.getVersion())) {
+            throw new StaleVersionException("Note has changed since version " + noteDto.getVersion(), existingNote.getVersion());
+        }
+        
+        // An explicit save supersedes any pending autosave
+        autosaveService.discard(user.getId(), id);
+        String previousContent = existingNote.getContent();
         existingNote.setTitle(noteDto.getTitle());
-        existingNote.setContent(noteDto.getContent());
+        existingNote.setBody(replaceBody(existingNote, noteDto.getContent()));
         
-        Note updatedNote = noteRepository.save(existingNote);
+        Note updatedNote = noteRepository.saveAndFlush(existingNote);
+        historyService.record(updatedNote, previousContent);
         return convertToDto(updatedNote);
     }
     
+    /**
+     * Partial update against a known version: a merge patch of title/content, or text edits of the content.
+     * The base version must be current, and the write itself is guarded by the note's version column,
+     * so concurrent edits fail with a conflict instead of overwriting each other.
+     * 
+     * @param id The note id
+     * @param patch The patch and the version it was made against
+     * @param user The current user
+     * @return The updated note with its new version
+     */
+    public NoteDto patchNote(Long id, NotePatchDto patch, User user) {
+        Note note = noteRepository.findByIdAndUser(id, user)
+                .orElseThrow(() -> new RuntimeException("Note not found or you don't have permission to update it"));
+        
+        if (!isCurrent(note, patch.getBaseVersion())) {
+            throw new StaleVersionException("Note has changed since version " + patch.getBaseVersion(), note.getVersion());
+        }
+        if (patch.getContent() != null && patch.getEdits() != null) {
+            throw new IllegalArgumentException("Send either content or edits, not both");
+        }
+        if (patch.getEdits() != null && note.getBody() != null && note.getBody().isExternal()) {
+            throw new IllegalArgumentException("Large note content can only be replaced through /content");
+        }
+        
+        // A pending autosave is what the client is looking at, so patch that rather than the stored text
+        NoteAutosaveService.Draft draft = autosaveService.draftsFor(user.getId()).get(id);
+        String title = patch.getTitle() != null ? patch.getTitle() : (draft != null ? draft.getTitle() : note.getTitle());
+        String content = draft != null ? draft.getContent() : note.getContent();
+        if (patch.getContent() != null) {
+            content = patch.getContent();
+        } else if (patch.getEdits() != null) {
+            content = applyEdits(content, patch.getEdits());
+        }
+        
+        String error = validate(title, content);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        
+        autosaveService.discard(user.getId(), id);
+        String previousContent = note.getContent();
+        note.setTitle(title);
+        note.setBody(replaceBody(note, content));
+        Note patchedNote = noteRepository.saveAndFlush(note);
+        historyService.record(patchedNote, previousContent);
+        return convertToDto(patchedNote);
+    }
+    
+    /**
+     * Writes a buffered autosave draft; called by NoteAutosaveService when the draft is flushed.
+     * 
+     * @return The version written, or null when the note no longer exists
+     */
+    public Long writeDraft(Long noteId, UUID userId, String title, String content) {
+        Note note = noteRepository.findById(noteId).orElse(null);
+        if (note == null || !note.getUser().getId().equals(userId)) {
+            return null;
+        }
+        String previousContent = note.getContent();
+        note.setTitle(title);
+        note.setBody(replaceBody(note, content));
+        Note savedNote = noteRepository.saveAndFlush(note);
+        historyService.record(savedNote, previousContent);
+        return savedNote.getVersion();
+    }
+    
+    /**
+     * Whether a save based on {@code baseVersion} may overwrite the note: the version is the note's own,
+     * or the one the client's autosaves started from and only their flushes have written since.
+     */
+    private boolean isCurrent(Note note, Long baseVersion) {
+        return note.getVersion().equals(baseVersion)
+                || autosaveService.isFlushedFrom(note.getId(), baseVersion, note.getVersion());
+    }
+    
+    /**
+     * Replaces a note's content with an upload from PUT /api/notes/{id}/content.
+     * Bodies over the large-content threshold are kept on disk; JSON reads then carry only the length.
+     * 
+     * @param id The note id
+     * @param content The spooled upload
+     * @param user The current user
+     * @return The updated note
+     */
+    public NoteDto replaceContent(Long id, LargeContentStore.StoredContent content, User user) {
+        Note note = noteRepository.findByIdAndUser(id, user)
+                .orElseThrow(() -> new RuntimeException("Note not found or you don't have permission to update it"));
+        
+        autosaveService.discard(user.getId(), id);
+        String previousContent = note.getContent();
+        note.setBody(contentStore.replace(note.getBody(), content));
+        Note savedNote = noteRepository.saveAndFlush(note);
+        historyService.record(savedNote, previousContent);
+        return convertToDto(savedNote);
+    }
+    
+    /**
+     * The stored content of a note for GET /api/notes/{id}/content, including a pending autosave.
+     */
+    @Transactional(readOnly = true)
+    public LargeContentStore.StoredContent getStoredContent(Long id, User user) {
+        Note note = noteRepository.findByIdAndUser(id, user)
+                .orElseThrow(() -> new RuntimeException("Note not found"));
+        
+        NoteAutosaveService.Draft draft = autosaveService.draftsFor(user.getId()).get(id);
+        if (draft != null && draft.getContent() != null) {
+            return LargeContentStore.StoredContent.inline(ContentStoreService.hash(draft.getContent()), draft.getContent());
+        }
+        ContentBlob body = note.getBody();
+        if (body == null) {
+            return LargeContentStore.StoredContent.inline(ContentStoreService.hash(""), "");
+        }
+        return body.isExternal()
+                ? LargeContentStore.StoredContent.external(body)
+                : LargeContentStore.StoredContent.inline(body.getHash(), body.getBody());
+    }
+    
+    // Large bodies are only replaced through the content upload; JSON writes without content leave them as they are
+    private ContentBlob replaceBody(Note note, String content) {
+        if (content == null && note.getBody() != null && note.getBody().isExternal()) {
+            return note.getBody();
+        }
+        return contentStore.replace(note.getBody(), content);
+    }
+    
+    // Matches the title filter literally; the queries declare backslash as the LIKE escape character
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
+    private static String applyEdits(String content, List<TextEditDto> edits) {
+        StringBuilder text = new StringBuilder(content != null ? content : "");
+        for (int i = 0; i < edits.size(); i++) {
+            TextEditDto edit = edits.get(i);
+            int start = edit.getPosition();
+            int end = start + edit.getDeleteCount();
+            if (start > text.length() || end > text.length()) {
+                throw new IllegalArgumentException("Edit " + i + " is outside the note content");
+            }
+            text.replace(start, end, edit.getInsert() != null ? edit.getInsert() : "");
+        }
+        return text.toString();
+    }
+    
     public void deleteNote(Long id, User user) {
         Note note = noteRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new RuntimeException("Note not found or you don't have permission to delete it"));
         
+        autosaveService.discard(user.getId(), note.getId());
         noteRepository.delete(note);
+        contentStore.release(note.getBody());
+        historyService.deleteHistory(List.of(note.getId()));
+        tagService.clearTags(TagIndexService.notesKey(user.getId()), List.of(note.getId()));
+        recordTombstones(List.of(note.getId()), user);
+    }
+    
+    /**
+     * Changes to the user's notes since a previous sync.
+     * Without a watermark, or with one older than the tombstone retention window, every note is
+     * returned and the client must replace its cache. The returned watermark is set slightly in the
+     * past so writes committing around the sync are sent again on the next call rather than missed.
+     * 
+     * @param since Watermark from the previous sync, or null
+     * @param user The current user
+     * @return Changed notes, deleted note ids and the next watermark
+     */
+    @Transactional(readOnly = true)
+    public NoteSyncDto getChangesSince(String since, User user) {
+        LocalDateTime now = LocalDateTime.now();
+        String watermark = now.minusNanos(syncSafetyWindowMs * 1_000_000).toString();
+        
+        LocalDateTime sinceTime = null;
+        if (since != null && !since.isBlank()) {
+            try {
+                sinceTime = LocalDateTime.parse(since);
+            } catch (DateTimeParseException e) {
+                throw new RuntimeException("Invalid sync watermark");
+            }
+        }
+        
+        if (sinceTime == null || sinceTime.isBefore(now.minusDays(tombstoneRetentionDays))) {
+            return new NoteSyncDto(true, getAllNotesByUser(user), List.of(), watermark);
+        }
+        
+        Map<Long, NoteAutosaveService.Draft> drafts = autosaveService.draftsFor(user.getId());
+        List<NoteDto> changed = noteRepository.findByUserAndUpdatedAtAfter(user, sinceTime).stream()
+                .map(note -> withDraft(convertToDto(note), drafts))
+                .collect(Collectors.toCollection(ArrayList::new));
+        
+        // Notes changed only by a still-buffered autosave are not yet newer in the database
+        LocalDateTime after = sinceTime;
+        Set<Long> returned = changed.stream().map(NoteDto::getId).collect(Collectors.toSet());
+        Set<Long> draftOnly = drafts.values().stream()
+                .filter(draft -> draft.getLastSavedAt().isAfter(after) && !returned.contains(draft.getNoteId()))
+                .map(NoteAutosaveService.Draft::getNoteId)
+                .collect(Collectors.toSet());
+        if (!draftOnly.isEmpty()) {
+            noteRepository.findByIdInAndUser(draftOnly, user).stream()
+                    .map(note -> withDraft(convertToDto(note), drafts))
+                    .forEach(changed::add);
+        }
+        List<Long> deletedIds = noteTombstoneRepository.findDeletedNoteIdsSince(user, sinceTime);
+        return new NoteSyncDto(false, changed, deletedIds, watermark);
+    }
+    
+    @Scheduled(cron = "${notes.sync.tombstone-purge-cron:0 30 3 * * *}")
+    public void purgeExpiredTombstones() {
+        noteTombstoneRepository.purgeOlderThan(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+    }
+    
+    private void recordTombstones(Collection<Long> noteIds, User user) {
+        LocalDateTime deletedAt = LocalDateTime.now();
+        noteTombstoneRepository.saveAll(noteIds.stream()
+                .map(noteId -> new NoteTombstone(noteId, user, deletedAt))
+                .collect(Collectors.toList()));
     }
     
     public List<NoteDto> searchNotesByTitle(String title, User user) {
         List<Note> notes = noteRepository.findByUserAndTitleContainingIgnoreCaseOrderByCreatedAtDesc(user, title);
+        Map<Long, NoteAutosaveService.Draft> drafts = autosaveService.draftsFor(user.getId());
         return notes.stream()
-                .map(this::convertToDto)
+                .map(note -> withDraft(convertToDto(note), drafts))
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Applies a list of create/update/delete operations for one user in a single transaction.
+     * Ownership of every referenced note is checked with one {@code id IN (...) AND user_id = ?} query,
+     * creates are inserted as a JDBC batch and deletes run as one statement.
+     * Operations are applied in order; a failing operation is reported and skipped, the rest still apply.
+     * An update that carries a version is only applied while that version is current, as with PUT.
+     * 
+     * @param operations The operations, in client order
+     * @param user The current user
+     * @return One result per operation
+     */
+    public List<NoteBatchResultDto> applyBatch(List<NoteBatchOperationDto> operations, User user) {
+        if (operations.size() > maxBatchOperations) {
+            throw new RuntimeException("Batch is limited to " + maxBatchOperations + " operations");
+        }
+        
+        Set<Long> referencedIds = operations.stream()
+                .filter(op -> !NoteBatchOperationDto.CREATE.equals(op.getOp()) && op.getId() != null)
+                .map(NoteBatchOperationDto::getId)
+                .collect(Collectors.toSet());
+        Map<Long, Note> owned = referencedIds.isEmpty()
+                ? new LinkedHashMap<>()
+                : noteRepository.findByIdInAndUser(referencedIds, user).stream()
+                        .collect(Collectors.toMap(Note::getId, Function.identity()));
+        
+        List<NoteBatchResultDto> results = new ArrayList<>();
+        Map<Integer, Note> written = new LinkedHashMap<>();
+        Map<Long, String> previousContents = new HashMap<>();
+        List<Note> created = new ArrayList<>();
+        Set<Long> deletedIds = new HashSet<>();
+        List<ContentBlob> releasedBodies = new ArrayList<>();
+        
+        for (int i = 0; i < operations.size(); i++) {
+            NoteBatchOperationDto op = operations.get(i);
+            String kind = op.getOp() == null ? "" : op.getOp().toLowerCase();
+            NoteBatchResultDto result = new NoteBatchResultDto(i, kind, op.getId(), NoteBatchResultDto.OK, null);
+            results.add(result);
+            
+            if (!kind.equals(NoteBatchOperationDto.DELETE)) {
+                String error = validate(op);
+                if (error != null) {
+                    result.setStatus(NoteBatchResultDto.INVALID);
+                    result.setMessage(error);
+                    continue;
+                }
+            }
+            
+            switch (kind) {
+                case NoteBatchOperationDto.CREATE -> {
+                    Note note = new Note(op.getTitle(), contentStore.acquire(op.getContent()), user);
+                    created.add(note);
+                    written.put(i, note);
+                }
+                case NoteBatchOperationDto.UPDATE -> {
+                    Note note = op.getId() == null ? null : owned.get(op.getId());
+                    if (note == null) {
+                        result.setStatus(NoteBatchResultDto.NOT_FOUND);
+                        result.setMessage("Note not found or you don't have permission to update it");
+                    } else if (op.getVersion() != null && !isCurrent(note, op.getVersion())) {
+                        result.setStatus(NoteBatchResultDto.CONFLICT);
+                        result.setMessage("Note has changed since version " + op.getVersion());
+                        result.setNote(convertToDto(note));
+                    } else {
+                        // Only operations that apply supersede a pending autosave
+                        autosaveService.discard(user.getId(), note.getId());
+                        previousContents.putIfAbsent(note.getId(), note.getContent());
+                        note.setTitle(op.getTitle());
+                        note.setBody(replaceBody(note, op.getContent()));
+                        written.put(i, note);
+                    }
+                }
+                case NoteBatchOperationDto.DELETE -> {
+                    Note note = op.getId() == null ? null : owned.remove(op.getId());
+                    if (note == null) {
+                        result.setStatus(NoteBatchResultDto.NOT_FOUND);
+                        result.setMessage("Note not found or you don't have permission to delete it");
+                    } else {
+                        autosaveService.discard(user.getId(), note.getId());
+                        deletedIds.add(note.getId());
+                        releasedBodies.add(note.getBody());
+                    }
+                }
+                default -> {
+                    result.setStatus(NoteBatchResultDto.INVALID);
+                    result.setMessage("Unknown operation: " + op.getOp());
+                }
+            }
+        }
+        
+        noteRepository.saveAll(created);
+        noteRepository.flush();
+        if (!deletedIds.isEmpty()) {
+            noteRepository.deleteOwned(deletedIds, user);
+            releasedBodies.forEach(contentStore::release);
+            historyService.deleteHistory(deletedIds);
+            tagService.clearTags(TagIndexService.notesKey(user.getId()), deletedIds);
+            recordTombstones(deletedIds, user);
+        }
+        
+        written.values().stream()
+                .filter(note -> !deletedIds.contains(note.getId()))
+                .distinct()
+                .forEach(note -> historyService.record(note, previousContents.get(note.getId())));
+        
+        written.forEach((index, note) -> {
+            if (!deletedIds.contains(note.getId())) {
+                NoteBatchResultDto result = results.get(index);
+                result.setId(note.getId());
+                result.setNote(convertToDto(note));
+            }
+        });
+        return results;
+    }
+    
+    private String validate(NoteBatchOperationDto op) {
+        return validate(op.getTitle(), op.getContent());
+    }
+    
+    private String validate(String title, String content) {
+        Set<ConstraintViolation<NoteDto>> violations = validator.validate(new NoteDto(title, content));
+        return violations.isEmpty() ? null : violations.iterator().next().getMessage();
+    }
+    
+    private NoteDto withDraft(NoteDto dto, Map<Long, NoteAutosaveService.Draft> drafts) {
+        NoteAutosaveService.Draft draft = drafts.get(dto.getId());
+        if (draft != null) {
+            dto.setTitle(draft.getTitle());
+            if (draft.getContent() != null || !Boolean.TRUE.equals(dto.getLargeContent())) {
+                dto.setContent(draft.getContent());
+                dto.setContentLength(draft.getContent() != null ? draft.getContent().length() : 0);
+                dto.setLargeContent(false);
+            }
+            dto.setUpdatedAt(draft.getLastSavedAt());
+        }
+        return dto;
+    }
+    
     private NoteDto convertToDto(Note note) {
-        return new NoteDto(
+        NoteDto dto = new NoteDto(
                 note.getId(),
                 note.getTitle(),
                 note.getContent(),
                 note.getCreatedAt(),
                 note.getUpdatedAt()
         );
+        dto.setVersion(note.getVersion());
+        ContentBlob body = note.getBody();
+        dto.setContentLength(body != null ? body.getContentLength() : 0);
+        dto.setLargeContent(body != null && body.isExternal());
+        return dto;
     }
 }
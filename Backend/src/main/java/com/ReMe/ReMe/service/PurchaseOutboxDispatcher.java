@@ -0,0 +1,42 @@
+package com.ReMe.ReMe.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains the purchase outbox in batches on a fixed delay.
+ * Safe to run on several instances: claimed rows are locked with SKIP LOCKED.
+ */
+@Component
+public class PurchaseOutboxDispatcher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PurchaseOutboxDispatcher.class);
+    
+    @Autowired
+    private PurchaseOutboxService outboxService;
+    
+    @Value("${outbox.dispatch.batch-size:100}")
+    private int batchSize;
+    
+    @Scheduled(fixedDelayString = "${outbox.dispatch.interval-ms:500}")
+    public void dispatch() {
+        List<Long> eventIds;
+        do {
+            eventIds = outboxService.claimBatch(batchSize);
+            for (Long eventId : eventIds) {
+                try {
+                    outboxService.materialize(eventId);
+                } catch (RuntimeException e) {
+                    logger.warn("Purchase outbox event {} failed: {}", eventId, e.getMessage());
+                    outboxService.recordFailure(eventId, e.getMessage());
+                }
+            }
+        } while (eventIds.size() == batchSize);
+    }
+}
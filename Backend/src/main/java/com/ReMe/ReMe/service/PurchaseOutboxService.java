@@ -0,0 +1,151 @@
+package com.ReMe.ReMe.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ReMe.ReMe.entity.MarketplaceNote;
+import com.ReMe.ReMe.entity.Note;
+import com.ReMe.ReMe.entity.NotePurchase;
+import com.ReMe.ReMe.entity.OutboxStatus;
+import com.ReMe.ReMe.entity.PurchaseOutboxEvent;
+import com.ReMe.ReMe.entity.Transaction;
+import com.ReMe.ReMe.entity.User;
+import com.ReMe.ReMe.repository.MarketplaceNoteRepository;
+import com.ReMe.ReMe.repository.PurchaseOutboxEventRepository;
+import com.ReMe.ReMe.repository.SellerSalesRollupRepository;
+import com.ReMe.ReMe.repository.TransactionRepository;
+
+/**
+ * Transactional steps of the purchase outbox: enqueueing, claiming and materializing events.
+ * Each public method runs in its own transaction so one failing event never rolls back another.
+ */
+@Service
+public class PurchaseOutboxService {
+    
+    private static final long STALE_LOCK_MINUTES = 5;
+    
+    @Autowired
+    private PurchaseOutboxEventRepository outboxRepository;
+    
+    @Autowired
+    private MarketplaceNoteRepository marketplaceNoteRepository;
+    
+    @Autowired
+    private SellerSalesRollupRepository sellerSalesRollupRepository;
+    
+    @Autowired
+    private NoteService noteService;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private TransactionVerificationService verificationService;
+    
+    @Autowired
+    private ChangeFeedService changeFeedService;
+    
+    @Value("${outbox.dispatch.max-attempts:10}")
+    private int maxAttempts;
+    
+    /**
+     * Enqueues the side effects of a purchase. Must be called inside the purchase transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(NotePurchase purchase, User buyer) {
+        outboxRepository.save(new PurchaseOutboxEvent(purchase, buyer));
+    }
+    
+    /**
+     * Claims up to {@code batchSize} due events for this dispatcher.
+     * 
+     * @return Ids of the claimed events, oldest first
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<Long> claimBatch(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = outboxRepository.lockDueEventIds(now, now.minusMinutes(STALE_LOCK_MINUTES), batchSize);
+        if (!ids.isEmpty()) {
+            outboxRepository.markProcessing(ids, now);
+        }
+        return ids;
+    }
+    
+    /**
+     * Applies every side effect of one purchase and marks the event done, atomically.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void materialize(Long eventId) {
+        PurchaseOutboxEvent event = outboxRepository.findById(eventId)
+            .orElseThrow(() -> new RuntimeException("Outbox event not found"));
+        if (event.getStatus() == OutboxStatus.DONE) {
+            return;
+        }
+        
+        NotePurchase purchase = event.getNotePurchase();
+        MarketplaceNote listing = purchase.getMarketplaceNote();
+        User buyer = event.getBuyer();
+        
+        marketplaceNoteRepository.incrementPurchaseCount(listing.getId());
+        
+        sellerSalesRollupRepository.recordSale(
+            listing.getSeller().getId(),
+            listing.getId(),
+            purchase.getPurchasedAt().toLocalDate(),
+            purchase.getPurchasePriceLovelace()
+        );
+        
+        // The buyer's copy shares the listing body; it is only copied if either side edits it
+        Note personalCopy = noteService.createSharedCopy(listing.getTitle() + " (Purchased)", listing.getBody(), buyer);
+        
+        // The wallet may already have synced this transaction; keep that record as-is
+        if (!transactionRepository.existsByTxHash(purchase.getTransactionHash())) {
+            Transaction transaction = new Transaction(
+                purchase.getTransactionHash(),
+                purchase.getBuyerWalletAddress(),
+                purchase.getSellerWalletAddress(),
+                purchase.getPurchasePriceLovelace(),
+                buyer
+            );
+            transaction.setMetadata("Marketplace purchase: " + listing.getTitle());
+            transaction.setNote(personalCopy);
+            transactionRepository.save(transaction);
+            verificationService.submitAfterCommit(transaction.getTxHash());
+        }
+        
+        event.setNoteId(personalCopy.getId());
+        event.setStatus(OutboxStatus.DONE);
+        event.setProcessedAt(LocalDateTime.now());
+        event.setLastError(null);
+        
+        // Purchase count changed for everyone; the purchase and sale are private to the two parties
+        changeFeedService.broadcastAfterCommit("LISTING_UPDATED", listing.getId());
+        changeFeedService.notifyUserAfterCommit(buyer.getId(), "PURCHASE_COMPLETED", listing.getId());
+        changeFeedService.notifyUserAfterCommit(listing.getSeller().getId(), "SALE_COMPLETED", listing.getId());
+    }
+    
+    /**
+     * Schedules a retry with exponential backoff, or parks the event as FAILED once attempts run out.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recordFailure(Long eventId, String error) {
+        outboxRepository.findById(eventId).ifPresent(event -> {
+            int attempts = event.getAttempts() + 1;
+            event.setAttempts(attempts);
+            event.setLastError(error);
+            event.setLockedAt(null);
+            if (attempts >= maxAttempts) {
+                event.setStatus(OutboxStatus.FAILED);
+            } else {
+                event.setStatus(OutboxStatus.PENDING);
+                event.setNextAttemptAt(LocalDateTime.now().plusSeconds(1L << Math.min(attempts, 10)));
+            }
+        });
+    }
+}
@@ -0,0 +1,116 @@
+package com.ReMe.ReMe.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ReMe.ReMe.entity.MarketplaceNote;
+import com.ReMe.ReMe.entity.NotePurchase;
+import com.ReMe.ReMe.entity.OutboxStatus;
+import com.ReMe.ReMe.entity.PurchaseOutboxEvent;
+import com.ReMe.ReMe.entity.Transaction;
+import com.ReMe.ReMe.entity.User;
+import com.ReMe.ReMe.repository.MarketplaceNoteRepository;
+import com.ReMe.ReMe.repository.NotePurchaseRepository;
+import com.ReMe.ReMe.repository.NoteRepository;
+import com.ReMe.ReMe.repository.PurchaseIdempotencyKeyRepository;
+import com.ReMe.ReMe.repository.PurchaseOutboxEventRepository;
+import com.ReMe.ReMe.repository.SellerSalesRollupRepository;
+import com.ReMe.ReMe.repository.TransactionRepository;
+
+/**
+ * Undoes purchases whose transaction was rejected on chain: the purchase row, its idempotency key,
+ * the buyer's copy and entitlement, and, if the outbox already applied them, the listing counter and
+ * the seller rollup. The transaction record itself stays, marked REJECTED.
+ */
+@Service
+public class PurchaseRevocationService {
+    
+    @Autowired
+    private NotePurchaseRepository notePurchaseRepository;
+    
+    @Autowired
+    private PurchaseOutboxEventRepository outboxRepository;
+    
+    @Autowired
+    private PurchaseIdempotencyKeyRepository purchaseIdempotencyKeyRepository;
+    
+    @Autowired
+    private MarketplaceNoteRepository marketplaceNoteRepository;
+    
+    @Autowired
+    private SellerSalesRollupRepository sellerSalesRollupRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private NoteRepository noteRepository;
+    
+    @Autowired
+    private NoteService noteService;
+    
+    @Autowired
+    private EntitlementService entitlementService;
+    
+    @Autowired
+    private ChangeFeedService changeFeedService;
+    
+    /**
+     * Revokes the purchase paid with a rejected transaction, if there is one.
+     * The outbox event is locked first, so a concurrent materialize either finishes before or fails after.
+     *
+     * @param txHash The rejected transaction hash
+     * @return false when no purchase uses the hash
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean revoke(String txHash) {
+        NotePurchase purchase = notePurchaseRepository.findByTransactionHash(txHash).orElse(null);
+        if (purchase == null) {
+            return false;
+        }
+        MarketplaceNote listing = purchase.getMarketplaceNote();
+        PurchaseOutboxEvent event = outboxRepository.findByNotePurchaseIdForUpdate(purchase.getId()).orElse(null);
+        Transaction transaction = transactionRepository.findByTxHash(txHash).orElse(null);
+        
+        // Purchases from before the outbox have no event; their transaction row names the buyer and copy
+        User buyer = event != null ? event.getBuyer() : (transaction != null ? transaction.getUser() : null);
+        boolean applied = event == null || event.getStatus() == OutboxStatus.DONE;
+        Long copyId = event != null && event.getNoteId() != null
+            ? event.getNoteId()
+            : (applied && transaction != null && transaction.getNote() != null ? transaction.getNote().getId() : null);
+        
+        if (applied) {
+            marketplaceNoteRepository.decrementPurchaseCount(listing.getId());
+            sellerSalesRollupRepository.revertSale(
+                listing.getSeller().getId(),
+                listing.getId(),
+                purchase.getPurchasedAt().toLocalDate(),
+                purchase.getPurchasePriceLovelace()
+            );
+        }
+        // The buyer may have deleted the copy already
+        if (copyId != null && buyer != null && !noteRepository.findOwnedIds(List.of(copyId), buyer).isEmpty()) {
+            transactionRepository.detachNote(copyId);
+            noteService.deleteNote(copyId, buyer);
+        }
+        
+        if (event != null) {
+            outboxRepository.delete(event);
+        }
+        notePurchaseRepository.delete(purchase);
+        if (buyer != null) {
+            purchaseIdempotencyKeyRepository.deleteByUserIdAndMarketplaceNoteId(buyer.getId(), listing.getId());
+            entitlementService.revokeAfterCommit(buyer.getId());
+            changeFeedService.notifyUserAfterCommit(buyer.getId(), "PURCHASE_REVOKED", listing.getId());
+        }
+        changeFeedService.notifyUserAfterCommit(listing.getSeller().getId(), "SALE_REVOKED", listing.getId());
+        if (applied) {
+            changeFeedService.broadcastAfterCommit("LISTING_UPDATED", listing.getId());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,344 @@
+package com.ReMe.ReMe.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ReMe.ReMe.dto.TagCountDto;
+import com.ReMe.ReMe.entity.TagChange;
+import com.ReMe.ReMe.entity.TagIndexSnapshot;
+import com.ReMe.ReMe.repository.TagAssignmentRepository;
+import com.ReMe.ReMe.repository.TagChangeRepository;
+import com.ReMe.ReMe.repository.TagIndexSnapshotRepository;
+import com.ReMe.ReMe.util.TagBitmap;
+
+/**
+ * In-memory tag index: one compressed bitmap of ids per tag, for each user's notes and for the
+ * marketplace, so multi-tag filters and tag counts are bitmap operations instead of joins.
+ *
+ * An index key is loaded on first use from its latest snapshot plus the tag changes recorded since,
+ * or rebuilt from the assignments when it has none, and is then kept current by TagService as tag
+ * writes commit. Changed keys are snapshotted periodically and the change log they cover is purged.
+ * Note keys are evicted least-recently-used; the marketplace key stays loaded.
+ */
+@Service
+public class TagIndexService {
+    
+    public static final String LISTINGS_KEY = "listings";
+    
+    private static final Logger logger = LoggerFactory.getLogger(TagIndexService.class);
+    private static final int SNAPSHOT_FORMAT = 1;
+    
+    @Autowired
+    private TagAssignmentRepository assignmentRepository;
+    
+    @Autowired
+    private TagChangeRepository changeRepository;
+    
+    @Autowired
+    private TagIndexSnapshotRepository snapshotRepository;
+    
+    @Value("${tags.index.safety-window-ms:5000}")
+    private long safetyWindowMs;
+    
+    private final Partition listings = new Partition();
+    private final Map<String, Partition> partitions;
+    
+    public TagIndexService(@Value("${tags.index.max-users:10000}") int maxUsers) {
+        this.partitions = Collections.synchronizedMap(new LinkedHashMap<String, Partition>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Partition> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+    
+    public static String notesKey(UUID userId) {
+        return "notes:" + userId;
+    }
+    
+    /**
+     * Ids matching a tag filter. Tags must already be normalized.
+     *
+     * @param all Tags every match must carry, or empty
+     * @param any Tags of which a match must carry at least one, or empty
+     * @param none Tags no match may carry, or empty
+     * @param universe Every candidate id, only used when neither {@code all} nor {@code any} is given
+     * @return A bitmap owned by the caller
+     */
+    public TagBitmap match(String indexKey, List<String> all, List<String> any, List<String> none,
+                           Supplier<TagBitmap> universe) {
+        Partition partition = loaded(indexKey);
+        TagBitmap result = null;
+        TagBitmap excluded = null;
+        synchronized (partition) {
+            if (!all.isEmpty()) {
+                List<TagBitmap> required = new ArrayList<>();
+                for (String tag : all) {
+                    TagBitmap bitmap = partition.bitmaps.get(tag);
+                    if (bitmap == null) {
+                        return new TagBitmap();
+                    }
+                    required.add(bitmap);
+                }
+                // Smallest first, so every intermediate result is at most that size
+                required.sort(Comparator.comparingLong(TagBitmap::cardinality));
+                result = required.size() == 1 ? required.get(0).copy() : required.get(0).and(required.get(1));
+                for (int i = 2; i < required.size() && !result.isEmpty(); i++) {
+                    result = result.and(required.get(i));
+                }
+            }
+            if (!any.isEmpty()) {
+                TagBitmap union = union(partition, any);
+                result = result == null ? union : result.and(union);
+            }
+            if (!none.isEmpty()) {
+                excluded = union(partition, none);
+            }
+        }
+        if (result == null) {
+            result = universe.get();
+        }
+        return excluded == null || excluded.isEmpty() ? result : result.andNot(excluded);
+    }
+    
+    /**
+     * Number of ids carrying each tag, most used first.
+     *
+     * @param within Only count these ids, or null to count everything
+     */
+    public List<TagCountDto> count(String indexKey, TagBitmap within) {
+        Partition partition = loaded(indexKey);
+        List<TagCountDto> counts = new ArrayList<>();
+        synchronized (partition) {
+            partition.bitmaps.forEach((tag, bitmap) -> {
+                long count = within == null ? bitmap.cardinality() : bitmap.andCardinality(within);
+                if (count > 0) {
+                    counts.add(new TagCountDto(tag, count));
+                }
+            });
+        }
+        counts.sort(Comparator.comparingLong(TagCountDto::getCount).reversed().thenComparing(TagCountDto::getTag));
+        return counts;
+    }
+    
+    /**
+     * Applies logged tag changes to the index once the surrounding transaction commits.
+     * A key that is not loaded is left alone; its first load reads the changes from the database.
+     * Hooks of concurrent transactions can run in a different order than they committed, so each
+     * changed tag is set from the committed assignments rather than from the change itself.
+     */
+    public void applyAfterCommit(String indexKey, List<TagChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(indexKey, changes);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(indexKey, changes);
+            }
+        });
+    }
+    
+    /**
+     * Snapshots every key changed since its last snapshot, then purges the change log entries that
+     * no load can need any more.
+     */
+    @Scheduled(fixedDelayString = "${tags.index.checkpoint-interval-ms:60000}")
+    public void checkpoint() {
+        Map<String, Partition> candidates = new LinkedHashMap<>();
+        candidates.put(LISTINGS_KEY, listings);
+        synchronized (partitions) {
+            candidates.putAll(partitions);
+        }
+        
+        for (Map.Entry<String, Partition> entry : candidates.entrySet()) {
+            Partition partition = entry.getValue();
+            byte[] data;
+            long revision;
+            LocalDateTime takenAt;
+            synchronized (partition) {
+                if (!partition.loaded || partition.revision == partition.snapshotRevision) {
+                    continue;
+                }
+                takenAt = LocalDateTime.now();
+                revision = partition.revision;
+                data = partition.encode();
+            }
+            try {
+                // Changes commit and reach memory slightly after they are recorded; replaying from a
+                // safety window before the snapshot picks up any that were still in flight
+                LocalDateTime replayFrom = takenAt.minusNanos(safetyWindowMs * 1_000_000);
+                snapshotRepository.save(new TagIndexSnapshot(entry.getKey(), data, replayFrom, takenAt));
+                synchronized (partition) {
+                    partition.snapshotRevision = revision;
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not snapshot tag index {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        
+        try {
+            changeRepository.purgeReplayed(LocalDateTime.now().minusNanos(safetyWindowMs * 1_000_000));
+        } catch (RuntimeException e) {
+            logger.warn("Could not purge replayed tag changes: {}", e.getMessage());
+        }
+    }
+    
+    private void apply(String indexKey, List<TagChange> changes) {
+        Partition partition = LISTINGS_KEY.equals(indexKey) ? listings : partitions.get(indexKey);
+        if (partition == null) {
+            return;
+        }
+        Set<Long> targetIds = changes.stream().map(TagChange::getTargetId).collect(Collectors.toSet());
+        // Loads hold the lock until they finish, so a change is either read by the load or applied after it;
+        // reading under the lock also keeps an older read from overwriting a newer one
+        synchronized (partition) {
+            if (!partition.loaded) {
+                return;
+            }
+            try {
+                Set<String> assigned = new HashSet<>();
+                for (Object[] row : assignmentRepository.findTagRows(indexKey, targetIds)) {
+                    assigned.add(row[1] + ":" + row[0]);
+                }
+                for (TagChange change : changes) {
+                    partition.set(change.getTag(), change.getTargetId(),
+                            assigned.contains(change.getTargetId() + ":" + change.getTag()));
+                }
+            } catch (RuntimeException e) {
+                // Reload on next use rather than serve an index that missed a change
+                logger.warn("Could not apply tag changes to {}, reloading: {}", indexKey, e.getMessage());
+                partition.bitmaps.clear();
+                partition.loaded = false;
+            }
+        }
+    }
+    
+    private Partition loaded(String indexKey) {
+        Partition partition = LISTINGS_KEY.equals(indexKey)
+                ? listings
+                : partitions.computeIfAbsent(indexKey, key -> new Partition());
+        synchronized (partition) {
+            if (!partition.loaded) {
+                load(indexKey, partition);
+            }
+        }
+        return partition;
+    }
+    
+    private void load(String indexKey, Partition partition) {
+        try {
+            Optional<TagIndexSnapshot> snapshot = snapshotRepository.findById(indexKey);
+            if (snapshot.isPresent()) {
+                partition.restore(snapshot.get().getData());
+                changeRepository.findToReplay(indexKey, snapshot.get().getReplayFrom()).forEach(partition::apply);
+            } else {
+                for (Object[] row : assignmentRepository.findTagRows(indexKey)) {
+                    partition.bitmaps.computeIfAbsent((String) row[0], tag -> new TagBitmap()).add((Long) row[1]);
+                }
+                if (!partition.bitmaps.isEmpty()) {
+                    partition.revision++;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            partition.bitmaps.clear();
+            throw new RuntimeException("Could not load tag index " + indexKey, e);
+        }
+        partition.loaded = true;
+    }
+    
+    private static TagBitmap union(Partition partition, List<String> tags) {
+        TagBitmap union = new TagBitmap();
+        for (String tag : tags) {
+            TagBitmap bitmap = partition.bitmaps.get(tag);
+            if (bitmap != null) {
+                union = union.or(bitmap);
+            }
+        }
+        return union;
+    }
+    
+    /**
+     * The bitmaps of one index key. Guarded by its own monitor.
+     */
+    private static final class Partition {
+        private final Map<String, TagBitmap> bitmaps = new HashMap<>();
+        private boolean loaded;
+        private long revision; // bumped by every applied change
+        private long snapshotRevision; // revision last written to a snapshot
+        
+        private void apply(TagChange change) {
+            set(change.getTag(), change.getTargetId(), change.isAdded());
+        }
+        
+        private void set(String tag, long id, boolean present) {
+            if (present) {
+                bitmaps.computeIfAbsent(tag, key -> new TagBitmap()).add(id);
+            } else {
+                TagBitmap bitmap = bitmaps.get(tag);
+                if (bitmap != null && bitmap.remove(id) && bitmap.isEmpty()) {
+                    bitmaps.remove(tag);
+                }
+            }
+            revision++;
+        }
+        
+        private byte[] encode() {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeInt(SNAPSHOT_FORMAT);
+                out.writeInt(bitmaps.size());
+                for (Map.Entry<String, TagBitmap> entry : bitmaps.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    entry.getValue().writeTo(out);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not encode tag index", e);
+            }
+            return bytes.toByteArray();
+        }
+        
+        private void restore(byte[] data) throws IOException {
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+                if (in.readInt() != SNAPSHOT_FORMAT) {
+                    throw new IOException("Unknown tag index snapshot format");
+                }
+                int tags = in.readInt();
+                for (int i = 0; i < tags; i++) {
+                    String tag = in.readUTF();
+                    bitmaps.put(tag, TagBitmap.readFrom(in));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.ReMe.ReMe.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ReMe.ReMe.dto.TagCountDto;
+import com.ReMe.ReMe.dto.TagFilterDto;
+import com.ReMe.ReMe.entity.TagAssignment;
+import com.ReMe.ReMe.entity.TagChange;
+import com.ReMe.ReMe.repository.TagAssignmentRepository;
+import com.ReMe.ReMe.repository.TagChangeRepository;
+import com.ReMe.ReMe.util.TagBitmap;
+
+/**
+ * Tags on notes and marketplace listings. Assignments and a change log are written in the caller's
+ * transaction; filters and counts are answered by the in-memory bitmaps in TagIndexService.
+ * Callers check ownership of the tagged item before writing.
+ */
+@Service
+public class TagService {
+    
+    private static final int MAX_TAG_LENGTH = 40;
+    private static final Pattern TAG_PATTERN = Pattern.compile("[\\p{L}\\p{N}][\\p{L}\\p{N} ._-]*");
+    
+    @Autowired
+    private TagAssignmentRepository assignmentRepository;
+    
+    @Autowired
+    private TagChangeRepository changeRepository;
+    
+    @Autowired
+    private TagIndexService tagIndex;
+    
+    @Value("${tags.max-per-item:20}")
+    private int maxTagsPerItem;
+    
+    /**
+     * Replaces the tags of one note or listing.
+     *
+     * @param indexKey The tag space, see TagIndexService
+     * @param targetId The note or listing id
+     * @param tags The new tags; normalized to trimmed lower case
+     * @return The stored tags, sorted
+     */
+    @Transactional
+    public List<String> replaceTags(String indexKey, Long targetId, Collection<String> tags) {
+        Set<String> wanted = normalize(tags);
+        if (wanted.size() > maxTagsPerItem) {
+            throw new RuntimeException("At most " + maxTagsPerItem + " tags are allowed");
+        }
+        
+        // Concurrent replacements of the same item would otherwise both insert a newly added tag
+        lock(indexKey, targetId);
+        List<TagAssignment> current = assignmentRepository.findByIndexKeyAndTargetIdOrderByTagAsc(indexKey, targetId);
+        Set<String> existing = current.stream().map(TagAssignment::getTag).collect(Collectors.toSet());
+        List<TagAssignment> removed = current.stream()
+                .filter(assignment -> !wanted.contains(assignment.getTag()))
+                .collect(Collectors.toList());
+        List<TagAssignment> added = wanted.stream()
+                .filter(tag -> !existing.contains(tag))
+                .map(tag -> new TagAssignment(indexKey, targetId, tag))
+                .collect(Collectors.toList());
+        
+        assignmentRepository.deleteAll(removed);
+        assignmentRepository.saveAll(added);
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<TagChange> changes = new ArrayList<>();
+        removed.forEach(assignment -> changes.add(new TagChange(indexKey, targetId, assignment.getTag(), false, now)));
+        added.forEach(assignment -> changes.add(new TagChange(indexKey, targetId, assignment.getTag(), true, now)));
+        record(indexKey, changes);
+        return new ArrayList<>(wanted);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<String> getTags(String indexKey, Long targetId) {
+        return assignmentRepository.findByIndexKeyAndTargetIdOrderByTagAsc(indexKey, targetId).stream()
+                .map(TagAssignment::getTag)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Removes every tag from the given notes or listings, e.g. when they are deleted.
+     */
+    @Transactional
+    public void clearTags(String indexKey, Collection<Long> targetIds) {
+        if (targetIds.isEmpty()) {
+            return;
+        }
+        // In id order, so two callers locking overlapping sets cannot deadlock
+        new TreeSet<>(targetIds).forEach(targetId -> lock(indexKey, targetId));
+        List<TagAssignment> current = assignmentRepository.findByIndexKeyAndTargetIdIn(indexKey, targetIds);
+        if (current.isEmpty()) {
+            return;
+        }
+        assignmentRepository.deleteAll(current);
+        
+        LocalDateTime now = LocalDateTime.now();
+        record(indexKey, current.stream()
+                .map(assignment -> new TagChange(indexKey, assignment.getTargetId(), assignment.getTag(), false, now))
+                .collect(Collectors.toList()));
+    }
+    
+    /**
+     * Ids matching a tag filter.
+     *
+     * @param universe Every candidate id, loaded only for filters made of excluded tags alone
+     */
+    public TagBitmap match(String indexKey, TagFilterDto filter, Supplier<TagBitmap> universe) {
+        return tagIndex.match(indexKey, normalizeList(filter.getAll()), normalizeList(filter.getAny()),
+                normalizeList(filter.getNone()), universe);
+    }
+    
+    /**
+     * Tag counts over every tagged item, or over the items matching the filter when one is given.
+     */
+    public List<TagCountDto> count(String indexKey, TagFilterDto filter, Supplier<TagBitmap> universe) {
+        return tagIndex.count(indexKey, filter.isEmpty() ? null : match(indexKey, filter, universe));
+    }
+    
+    private void lock(String indexKey, Long targetId) {
+        assignmentRepository.lockTarget(indexKey + ":" + targetId);
+    }
+    
+    private void record(String indexKey, List<TagChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        changeRepository.saveAll(changes);
+        tagIndex.applyAfterCommit(indexKey, changes);
+    }
+    
+    private static List<String> normalizeList(Collection<String> tags) {
+        return new ArrayList<>(normalize(tags));
+    }
+    
+    private static Set<String> normalize(Collection<String> tags) {
+        Set<String> normalized = new TreeSet<>();
+        if (tags == null) {
+            return normalized;
+        }
+        for (String tag : tags) {
+            String value = tag == null ? "" : tag.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+            if (value.isEmpty()) {
+                continue;
+            }
+            if (value.length() > MAX_TAG_LENGTH || !TAG_PATTERN.matcher(value).matches()) {
+                throw new RuntimeException("Invalid tag: " + tag);
+            }
+            normalized.add(value);
+        }
+        return normalized;
+    }
+}
@@ -1,25 +1,44 @@
 package com.ReMe.ReMe.service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.ReMe.ReMe.dto.CursorPageDto;
+import com.ReMe.ReMe.dto.ImportItemResultDto;
+import com.ReMe.ReMe.dto.ImportResultDto;
 import com.ReMe.ReMe.dto.TransactionDto;
+import com.ReMe.ReMe.dto.TransactionFilterDto;
 import com.ReMe.ReMe.dto.TransactionResponseDto;
 import com.ReMe.ReMe.entity.Note;
 import com.ReMe.ReMe.entity.Transaction;
 import com.ReMe.ReMe.entity.User;
 import com.ReMe.ReMe.repository.NoteRepository;
+import com.ReMe.ReMe.repository.TransactionBatchRepository;
 import com.ReMe.ReMe.repository.TransactionRepository;
 import com.ReMe.ReMe.repository.UserRepository;
 import com.ReMe.ReMe.util.AddressMaskingUtil;
+import com.ReMe.ReMe.util.ETagUtil;
+import com.ReMe.ReMe.util.KeysetCursor;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 @Service
 public class TransactionService {
     
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+    
     @Autowired
     private TransactionRepository transactionRepository;
     
@@ -29,6 +48,21 @@ public class TransactionService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private TransactionVerificationService verificationService;
+    
+    @Autowired
+    private TransactionBatchRepository transactionBatchRepository;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private ChangeFeedService changeFeedService;
+    
+    @Value("${transactions.import.max-items:5000}")
+    private int maxImportItems;
+    
     @Transactional
     public TransactionResponseDto createTransaction(TransactionDto transactionDto, String username) {
         // Check if transaction already exists
@@ -43,7 +77,7 @@ public class TransactionService {
         transaction.setTxHash(transactionDto.getTxHash());
         transaction.setSenderAddress(transactionDto.getSenderAddress());
         transaction.setRecipientAddress(transactionDto.getRecipientAddress());
-        transaction.setAmountADA(transactionDto.getAmountADA());
+        transaction.setAmountLovelace(transactionDto.getAmountLovelace());
         transaction.setUser(user);
         transaction.setNetworkId(transactionDto.getNetworkId());
         transaction.setMetadata(transactionDto.getMetadata());
@@ -61,10 +95,141 @@ public class TransactionService {
             transaction.setNote(note);
         }
         
-        Transaction savedTransaction = transactionRepository.save(transaction);
+        Transaction savedTransaction = transactionRepository.saveAndFlush(transaction);
+        
+        // The hash is client-supplied; it stays PENDING until the chain confirms it
+        verificationService.submitAfterCommit(savedTransaction.getTxHash());
+        changeFeedService.notifyUserAfterCommit(user.getId(), "TRANSACTION_CREATED", savedTransaction.getId());
+        
         return mapToResponseDto(savedTransaction, user);
     }
     
+    /**
+     * Imports many wallet transactions in one call.
+     * Existing hashes are found with one set-based query per chunk, note ownership with another,
+     * and new rows are written with multi-row INSERT ... ON CONFLICT DO NOTHING RETURNING tx_hash, so
+     * concurrent imports of the same hash are reported as duplicates rather than failing the batch.
+     * 
+     * @param transactions The transactions to import, in client order
+     * @param username The current user's username
+     * @return Per-item outcome plus totals
+     */
+    @Transactional
+    public ImportResultDto importTransactions(List<TransactionDto> transactions, String username) {
+        if (transactions.size() > maxImportItems) {
+            throw new RuntimeException("Import is limited to " + maxImportItems + " transactions per request");
+        }
+        
+        User user = userRepository.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        ImportItemResultDto[] results = new ImportItemResultDto[transactions.size()];
+        Set<String> seenHashes = new HashSet<>();
+        Set<Long> noteIds = new HashSet<>();
+        List<Integer> candidates = new ArrayList<>();
+        
+        for (int i = 0; i < transactions.size(); i++) {
+            TransactionDto tx = transactions.get(i);
+            Set<ConstraintViolation<TransactionDto>> violations = validator.validate(tx);
+            if (!violations.isEmpty()) {
+                results[i] = new ImportItemResultDto(i, tx.getTxHash(), ImportItemResultDto.INVALID,
+                    violations.iterator().next().getMessage());
+            } else if (!seenHashes.add(tx.getTxHash())) {
+                results[i] = new ImportItemResultDto(i, tx.getTxHash(), ImportItemResultDto.DUPLICATE,
+                    "Duplicate transaction hash in request");
+            } else {
+                candidates.add(i);
+                if (tx.getNoteId() != null) {
+                    noteIds.add(tx.getNoteId());
+                }
+            }
+        }
+        
+        Set<String> existingHashes = new HashSet<>();
+        for (List<String> chunk : chunk(new ArrayList<>(seenHashes))) {
+            existingHashes.addAll(transactionRepository.findExistingTxHashes(chunk));
+        }
+        Set<Long> ownedNoteIds = new HashSet<>();
+        for (List<Long> chunk : chunk(new ArrayList<>(noteIds))) {
+            ownedNoteIds.addAll(noteRepository.findOwnedIds(chunk, user));
+        }
+        
+        List<Integer> toInsert = new ArrayList<>();
+        for (Integer i : candidates) {
+            TransactionDto tx = transactions.get(i);
+            if (existingHashes.contains(tx.getTxHash())) {
+                results[i] = new ImportItemResultDto(i, tx.getTxHash(), ImportItemResultDto.DUPLICATE,
+                    "Transaction with this hash already exists");
+            } else if (tx.getNoteId() != null && !ownedNoteIds.contains(tx.getNoteId())) {
+                results[i] = new ImportItemResultDto(i, tx.getTxHash(), ImportItemResultDto.INVALID,
+                    "Note not found or does not belong to user");
+            } else {
+                toInsert.add(i);
+            }
+        }
+        
+        List<TransactionDto> rows = toInsert.stream().map(transactions::get).collect(Collectors.toList());
+        Set<String> inserted = rows.isEmpty() ? Set.of() : transactionBatchRepository.insertIgnoringDuplicates(rows, user.getId());
+        
+        for (int i : toInsert) {
+            String txHash = transactions.get(i).getTxHash();
+            if (!inserted.contains(txHash)) {
+                // Lost a race with a concurrent insert of the same hash
+                results[i] = new ImportItemResultDto(i, txHash, ImportItemResultDto.DUPLICATE,
+                    "Transaction with this hash already exists");
+            } else {
+                results[i] = new ImportItemResultDto(i, txHash, ImportItemResultDto.IMPORTED, null);
+                verificationService.submitAfterCommit(txHash);
+            }
+        }
+        
+        ImportResultDto result = new ImportResultDto(List.of(results));
+        if (result.getImported() > 0) {
+            // One event per import rather than one per row
+            changeFeedService.notifyUserAfterCommit(user.getId(), "TRANSACTIONS_IMPORTED", null);
+        }
+        return result;
+    }
+    
+    private static <T> List<List<T>> chunk(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += LOOKUP_CHUNK_SIZE) {
+            chunks.add(values.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, values.size())));
+        }
+        return chunks;
+    }
+    
+    /**
+     * ETag for a listing of the user's transactions (all of them, or one note's).
+     * 
+     * @param username The current user's username
+     * @param noteId Restrict to transactions of this note, or null for all
+     * @param qualifiers Request parameters that shape the listing (filters, cursor, page size)
+     * @return A strong ETag
+     */
+    @Transactional(readOnly = true)
+    public String getTransactionsETag(String username, Long noteId, Object... qualifiers) {
+        User user = userRepository.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        return ETagUtil.forCollection(noteId == null
+            ? transactionRepository.stampByUserId(user.getId())
+            : transactionRepository.stampByNoteId(noteId, user.getId()), qualifiers);
+    }
+    
+    /**
+     * ETag for a single transaction of the user.
+     * 
+     * @return A strong ETag, or null when the transaction does not exist or belongs to another user
+     */
+    @Transactional(readOnly = true)
+    public String getTransactionETag(String txHash, String username) {
+        User user = userRepository.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        return ETagUtil.forResource(transactionRepository.stampByTxHash(txHash, user.getId()));
+    }
+    
     @Transactional(readOnly = true)
     public List<TransactionResponseDto> getUserTransactions(String username) {
         User user = userRepository.findByUsername(username)
@@ -111,6 +276,48 @@ public class TransactionService {
             .collect(Collectors.toList());
     }
     
+    /**
+     * One page of the user's transactions, newest first.
+     * Uses keyset pagination on (createdAt, id) and a projection that joins the note title,
+     * so neither deep pages nor note lookups get more expensive as history grows.
+     * 
+     * @param username The current user's username
+     * @param noteId Restrict to transactions of this note, or null for all
+     * @param filter Optional network and amount filters
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param limit Requested page size (capped)
+     * @return The page and the cursor for the next one
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<TransactionResponseDto> getTransactionPage(String username, Long noteId,
+                                                                   TransactionFilterDto filter,
+                                                                   String cursor, Integer limit) {
+        User user = userRepository.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        LocalDateTime beforeCreatedAt = position != null ? LocalDateTime.parse(position.getSortValue()) : null;
+        Long beforeId = position != null ? position.getId() : null;
+        
+        // Fetch one extra row to learn whether another page exists
+        List<TransactionResponseDto> rows = transactionRepository.findPage(
+            user.getId(), noteId, filter, beforeCreatedAt, beforeId, pageSize + 1);
+        
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            TransactionResponseDto last = rows.get(pageSize - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt().toString(), last.getId()).encode();
+        }
+        
+        rows.forEach(dto -> {
+            dto.setSenderAddress(AddressMaskingUtil.maskAddress(dto.getSenderAddress()));
+            dto.setRecipientAddress(AddressMaskingUtil.maskAddress(dto.getRecipientAddress()));
+        });
+        return new CursorPageDto<>(rows, nextCursor);
+    }
+    
     private TransactionResponseDto mapToResponseDto(Transaction transaction, User currentUser) {
         TransactionResponseDto dto = new TransactionResponseDto();
         dto.setId(transaction.getId());
@@ -134,10 +341,13 @@ public class TransactionService {
             dto.setRecipientAddress(AddressMaskingUtil.maskAddress(recipientAddress));
         }
         
-        dto.setAmountADA(transaction.getAmountADA());
+        dto.setAmountLovelace(transaction.getAmountLovelace());
         dto.setNetworkId(transaction.getNetworkId());
         dto.setMetadata(transaction.getMetadata());
         dto.setCreatedAt(transaction.getCreatedAt());
+        dto.setVerificationStatus(transaction.getVerificationStatus() != null
+            ? transaction.getVerificationStatus().name()
+            : null);
         
         if (transaction.getNote() != null) {
             dto.setNoteId(transaction.getNote().getId());
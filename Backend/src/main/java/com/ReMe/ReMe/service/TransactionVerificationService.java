@@ -0,0 +1,197 @@
+package com.ReMe.ReMe.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ReMe.ReMe.entity.VerificationStatus;
+import com.ReMe.ReMe.repository.NotePurchaseRepository;
+import com.ReMe.ReMe.repository.TransactionRepository;
+import com.ReMe.ReMe.service.chain.ChainClient;
+import com.ReMe.ReMe.service.chain.ChainTxStatus;
+
+/**
+ * Verifies recorded transaction hashes against the chain in the background.
+ * New hashes are queued after their transaction commits and checked in batches, so the number of
+ * indexer calls grows with batches rather than with purchases. Confirmed hashes are cached for a TTL,
+ * and a periodic sweep re-queues anything still PENDING in the database (e.g. after a restart).
+ * Purchases paid with a hash that ends up REJECTED are revoked by PurchaseRevocationService.
+ */
+@Service
+public class TransactionVerificationService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TransactionVerificationService.class);
+    
+    @Autowired
+    private ChainClient chainClient;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private NotePurchaseRepository notePurchaseRepository;
+    
+    @Autowired
+    private PurchaseRevocationService revocationService;
+    
+    @Value("${chain.verification.batch-size:200}")
+    private int batchSize;
+    
+    @Value("${chain.verification.queue-capacity:50000}")
+    private int queueCapacity;
+    
+    @Value("${chain.verification.cache-ttl-minutes:60}")
+    private long cacheTtlMinutes;
+    
+    @Value("${chain.verification.reject-after-hours:24}")
+    private long rejectAfterHours;
+    
+    private final ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<>();
+    
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    
+    private final Map<String, Long> confirmedUntil = new ConcurrentHashMap<>();
+    
+    /**
+     * Queues a hash for verification once the surrounding transaction commits.
+     * 
+     * @param txHash The transaction hash to verify
+     */
+    public void submitAfterCommit(String txHash) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(txHash);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(txHash);
+            }
+        });
+    }
+    
+    /**
+     * Queues a hash for verification. When the queue is full the hash is left for the database sweep.
+     */
+    public void submit(String txHash) {
+        if (queued.size() >= queueCapacity) {
+            return;
+        }
+        if (queued.add(txHash)) {
+            queue.offer(txHash);
+        }
+    }
+    
+    /**
+     * Whether the hash was confirmed on chain recently, without touching the indexer.
+     */
+    public boolean isKnownConfirmed(String txHash) {
+        Long until = confirmedUntil.get(txHash);
+        return until != null && until > System.currentTimeMillis();
+    }
+    
+    @Scheduled(fixedDelayString = "${chain.verification.interval-ms:1000}")
+    public void verifyQueued() {
+        int limit = Math.min(batchSize, chainClient.maxBatchSize());
+        List<String> batch = new ArrayList<>(limit);
+        String txHash;
+        while ((txHash = queue.poll()) != null) {
+            queued.remove(txHash);
+            batch.add(txHash);
+            if (batch.size() == limit) {
+                verifyBatch(batch);
+                batch = new ArrayList<>(limit);
+            }
+        }
+        if (!batch.isEmpty()) {
+            verifyBatch(batch);
+        }
+        evictExpired();
+    }
+    
+    @Scheduled(fixedDelayString = "${chain.verification.sweep-interval-ms:60000}")
+    public void sweepPending() {
+        List<String> pending = transactionRepository.findTxHashesByVerificationStatusCreatedBefore(
+            VerificationStatus.PENDING,
+            LocalDateTime.now().minusSeconds(30),
+            PageRequest.of(0, queueCapacity)
+        );
+        pending.forEach(this::submit);
+        // Also catches revocations that failed or were interrupted after the hash was rejected
+        revokeRejected();
+    }
+    
+    private void verifyBatch(List<String> batch) {
+        List<String> confirmed = new ArrayList<>();
+        List<String> toLookup = new ArrayList<>();
+        for (String txHash : batch) {
+            if (isKnownConfirmed(txHash)) {
+                confirmed.add(txHash);
+            } else {
+                toLookup.add(txHash);
+            }
+        }
+        
+        List<String> unknown = new ArrayList<>();
+        if (!toLookup.isEmpty()) {
+            Map<String, ChainTxStatus> statuses;
+            try {
+                statuses = chainClient.lookup(toLookup);
+            } catch (RuntimeException e) {
+                // Leave the hashes PENDING; the sweep will retry them
+                logger.warn("Chain lookup of {} hashes failed: {}", toLookup.size(), e.getMessage());
+                statuses = Map.of();
+                toLookup.clear();
+            }
+            long expiresAt = System.currentTimeMillis() + cacheTtlMinutes * 60_000;
+            for (String txHash : toLookup) {
+                ChainTxStatus status = statuses.getOrDefault(txHash, ChainTxStatus.NOT_FOUND);
+                if (status == ChainTxStatus.CONFIRMED) {
+                    confirmed.add(txHash);
+                    confirmedUntil.put(txHash, expiresAt);
+                } else if (status == ChainTxStatus.NOT_FOUND) {
+                    unknown.add(txHash);
+                }
+                // IN_MEMPOOL stays PENDING and is picked up again by the sweep
+            }
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        if (!confirmed.isEmpty()) {
+            transactionRepository.markVerification(confirmed, VerificationStatus.CONFIRMED, now);
+        }
+        if (!unknown.isEmpty()
+                && transactionRepository.markRejectedIfCreatedBefore(unknown, now.minusHours(rejectAfterHours), now) > 0) {
+            revokeRejected();
+        }
+    }
+    
+    private void revokeRejected() {
+        for (String txHash : notePurchaseRepository.findRejectedTransactionHashes(PageRequest.of(0, batchSize))) {
+            try {
+                revocationService.revoke(txHash);
+            } catch (RuntimeException e) {
+                logger.warn("Could not revoke purchase paid with rejected transaction {}: {}", txHash, e.getMessage());
+            }
+        }
+    }
+    
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        confirmedUntil.values().removeIf(until -> until <= now);
+    }
+}
@@ -0,0 +1,24 @@
+package com.ReMe.ReMe.service.chain;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Read access to a Cardano indexer.
+ * Implementations must answer a whole batch of hashes with one upstream call.
+ */
+public interface ChainClient {
+    
+    /**
+     * Looks up the status of many transactions at once.
+     * 
+     * @param txHashes Transaction hashes, at most {@link #maxBatchSize()}
+     * @return Status per hash; hashes missing from the map are treated as NOT_FOUND
+     */
+    Map<String, ChainTxStatus> lookup(Collection<String> txHashes);
+    
+    /**
+     * Largest batch the indexer accepts in a single call.
+     */
+    int maxBatchSize();
+}
@@ -0,0 +1,13 @@
+package com.ReMe.ReMe.service.chain;
+
+/**
+ * What the chain indexer reports for a transaction hash.
+ */
+public enum ChainTxStatus {
+    /** Included in a block. */
+    CONFIRMED,
+    /** Seen in the mempool but not yet in a block. */
+    IN_MEMPOOL,
+    /** Unknown to the indexer. */
+    NOT_FOUND
+}
@@ -0,0 +1,49 @@
+package com.ReMe.ReMe.service.chain;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process stand-in for a Cardano indexer, used for tests and local runs.
+ * Any well-formed transaction hash (64 hex characters) is reported as confirmed; anything else is unknown.
+ * An optional per-call delay simulates the indexer round trip.
+ */
+@Component
+@ConditionalOnProperty(name = "chain.client", havingValue = "stub", matchIfMissing = true)
+public class StubChainClient implements ChainClient {
+    
+    private static final Pattern TX_HASH = Pattern.compile("^[0-9a-fA-F]{64}$");
+    
+    @Value("${chain.stub.latency-ms:0}")
+    private long latencyMs;
+    
+    @Override
+    public Map<String, ChainTxStatus> lookup(Collection<String> txHashes) {
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        Map<String, ChainTxStatus> result = new HashMap<>();
+        for (String txHash : txHashes) {
+            if (TX_HASH.matcher(txHash).matches()) {
+                result.put(txHash, ChainTxStatus.CONFIRMED);
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public int maxBatchSize() {
+        return 500;
+    }
+}
@@ -0,0 +1,117 @@
+package com.ReMe.ReMe.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores text as UTF-8 behind a small header, deflated when that pays off.
+ * 
+ * Layout: one format byte, one codec byte, the uncompressed byte length as a big-endian int, then the payload.
+ * Bodies under {@value #MIN_COMPRESSED_BYTES} bytes are stored raw, mid-sized ones use the fastest
+ * deflate level and large ones the default level; the result is kept raw if deflate does not make it smaller.
+ * Format 0 is raw text written by the 007 migration and is rewritten to the current format by
+ * ContentRecompressor; bump {@link #FORMAT} when the encoding policy changes so existing rows are redone.
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+    
+    public static final byte FORMAT = 1;
+    public static final byte RAW = 0;
+    public static final byte DEFLATE = 1;
+    public static final int HEADER_LENGTH = 6;
+    public static final int MIN_COMPRESSED_BYTES = 512;
+    public static final int FAST_LEVEL_MAX_BYTES = 8 * 1024;
+    
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        return text == null ? null : encode(text);
+    }
+    
+    @Override
+    public String convertToEntityAttribute(byte[] data) {
+        return data == null ? null : decode(data);
+    }
+    
+    public static byte[] encode(String text) {
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        if (raw.length >= MIN_COMPRESSED_BYTES) {
+            byte[] deflated = deflate(raw, raw.length <= FAST_LEVEL_MAX_BYTES ? Deflater.BEST_SPEED : Deflater.DEFAULT_COMPRESSION);
+            if (deflated.length < raw.length) {
+                return withHeader(DEFLATE, raw.length, deflated);
+            }
+        }
+        return withHeader(RAW, raw.length, raw);
+    }
+    
+    public static String decode(byte[] data) {
+        if (data.length < HEADER_LENGTH || data[0] > FORMAT) {
+            throw new IllegalArgumentException("Unsupported compressed text format");
+        }
+        ByteBuffer header = ByteBuffer.wrap(data, 0, HEADER_LENGTH);
+        header.get();
+        byte codec = header.get();
+        int length = header.getInt();
+        if (codec == RAW) {
+            return new String(data, HEADER_LENGTH, data.length - HEADER_LENGTH, StandardCharsets.UTF_8);
+        }
+        if (codec != DEFLATE) {
+            throw new IllegalArgumentException("Unsupported compression codec " + codec);
+        }
+        
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, HEADER_LENGTH, data.length - HEADER_LENGTH);
+            byte[] raw = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != length) {
+                throw new IllegalArgumentException("Compressed text is truncated");
+            }
+            return new String(raw, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Compressed text is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+    
+    private static byte[] deflate(byte[] raw, int level) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+            byte[] buffer = new byte[Math.min(raw.length, 8192)];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+                // No point continuing once it is as large as the input
+                if (out.size() >= raw.length) {
+                    return raw;
+                }
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+    
+    private static byte[] withHeader(byte codec, int length, byte[] payload) {
+        return ByteBuffer.allocate(HEADER_LENGTH + payload.length)
+                .put(FORMAT).put(codec).putInt(length).put(payload)
+                .array();
+    }
+}
@@ -0,0 +1,72 @@
+package com.ReMe.ReMe.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import org.springframework.http.ETag;
+import org.springframework.util.DigestUtils;
+
+import com.ReMe.ReMe.dto.VersionStampDto;
+
+/**
+ * Builds ETags from version stamps, so conditional requests can be answered
+ * before the full query runs or the payload is serialized. Tags are strong unless the
+ * representation carries fields the stamp leaves out, in which case callers mark them {@link #weak}.
+ */
+public final class ETagUtil {
+    
+    private ETagUtil() {}
+    
+    /**
+     * ETag for a single resource, or null when the stamp matched no row.
+     */
+    public static String forResource(VersionStampDto stamp, Object... qualifiers) {
+        if (stamp == null || stamp.getCount() == null || stamp.getCount() == 0) {
+            return null;
+        }
+        return forCollection(stamp, qualifiers);
+    }
+    
+    /**
+     * ETag for a collection. Qualifiers are the request parameters and per-user state that
+     * shape the response in addition to the rows themselves.
+     */
+    public static String forCollection(VersionStampDto stamp, Object... qualifiers) {
+        StringBuilder source = new StringBuilder()
+            .append(stamp.getCount()).append('|')
+            .append(stamp.getLastModified()).append('|')
+            .append(stamp.getMarker());
+        for (Object qualifier : qualifiers) {
+            source.append('|').append(Objects.toString(qualifier, ""));
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+    
+    /**
+     * Marks a tag weak: the representation is equivalent, not byte-identical, whenever the tag matches.
+     */
+    public static String weak(String eTag) {
+        return eTag == null ? null : "W/" + eTag;
+    }
+    
+    /**
+     * Evaluates an If-Match header with weak comparison, for resources that only have weak tags.
+     * Spring's own check compares If-Match strongly, so it rejects every weak tag.
+     * 
+     * @param ifMatch The If-Match header, or null when the request has none
+     * @param eTag The resource's current tag
+     * @return Whether the write may proceed
+     */
+    public static boolean ifMatches(String ifMatch, String eTag) {
+        if (ifMatch == null || eTag == null) {
+            return true;
+        }
+        ETag current = ETag.create(eTag);
+        for (ETag requested : ETag.parse(ifMatch)) {
+            if (requested.isWildcard() || requested.compare(current, false)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,54 @@
+package com.ReMe.ReMe.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in a keyset-paginated listing: the sort key of the last row returned plus its id
+ * as a tie-breaker. Clients receive it Base64-encoded and send it back unchanged.
+ */
+public final class KeysetCursor {
+    
+    private static final String SEPARATOR = "|";
+    
+    private final String sortValue;
+    private final Long id;
+    
+    public KeysetCursor(String sortValue, Long id) {
+        this.sortValue = sortValue;
+        this.id = id;
+    }
+    
+    public String getSortValue() {
+        return sortValue;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String encode() {
+        String raw = sortValue + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decodes a cursor produced by {@link #encode()}.
+     * 
+     * @param token The encoded cursor, may be null or blank for the first page
+     * @return The cursor, or null for the first page
+     * @throws RuntimeException if the token is malformed
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(raw.substring(0, split), Long.parseLong(raw.substring(split + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+}
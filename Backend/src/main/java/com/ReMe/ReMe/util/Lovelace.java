@@ -0,0 +1,175 @@
+package com.ReMe.ReMe.util;
+
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * ADA amounts as whole lovelace (1 ADA = 1,000,000 lovelace), the unit the ledger itself uses.
+ * Amounts are stored and compared as longs; the JSON API keeps exchanging decimal ADA through
+ * {@link AsAda}, which converts without going through BigDecimal.
+ */
+public final class Lovelace {
+    
+    public static final long PER_ADA = 1_000_000L;
+    
+    private static final int DECIMALS = 6;
+    
+    private Lovelace() {}
+    
+    /**
+     * Parses a decimal ADA amount such as {@code "12"}, {@code "0.5"} or {@code "-1.000001"}.
+     * 
+     * @throws NumberFormatException if the text is not a number, has more than six decimals or overflows
+     */
+    public static long parseAda(String text) {
+        if (text == null || text.isEmpty()) {
+            throw new NumberFormatException("Empty ADA amount");
+        }
+        if (text.indexOf('e') >= 0 || text.indexOf('E') >= 0) {
+            // Exponent notation is rare enough to take the slow path
+            try {
+                return fromAda(new BigDecimal(text));
+            } catch (ArithmeticException e) {
+                throw new NumberFormatException("Invalid ADA amount: " + text);
+            }
+        }
+        int i = 0;
+        boolean negative = text.charAt(0) == '-';
+        if (negative || text.charAt(0) == '+') {
+            i++;
+        }
+        long whole = 0;
+        long fraction = 0;
+        int decimals = 0;
+        boolean digits = false;
+        boolean point = false;
+        for (; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '.' && !point) {
+                point = true;
+            } else if (c >= '0' && c <= '9') {
+                digits = true;
+                if (!point) {
+                    // Bounded so whole * PER_ADA below cannot overflow either
+                    if (whole > (Long.MAX_VALUE / PER_ADA - (c - '0')) / 10) {
+                        throw new NumberFormatException("ADA amount out of range: " + text);
+                    }
+                    whole = whole * 10 + (c - '0');
+                } else if (++decimals <= DECIMALS) {
+                    fraction = fraction * 10 + (c - '0');
+                } else if (c != '0') {
+                    throw new NumberFormatException("ADA amounts have at most six decimals: " + text);
+                }
+            } else {
+                throw new NumberFormatException("Invalid ADA amount: " + text);
+            }
+        }
+        if (!digits) {
+            throw new NumberFormatException("Invalid ADA amount: " + text);
+        }
+        for (; decimals < DECIMALS; decimals++) {
+            fraction *= 10;
+        }
+        // Negative amounts are built downwards, so Long.MIN_VALUE lovelace parses too
+        long lovelace = whole * PER_ADA;
+        try {
+            return negative ? Math.subtractExact(-lovelace, fraction) : Math.addExact(lovelace, fraction);
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("ADA amount out of range: " + text);
+        }
+    }
+    
+    /**
+     * @throws ArithmeticException if the amount has more than six decimals or overflows
+     */
+    public static long fromAda(BigDecimal ada) {
+        return ada.movePointRight(DECIMALS).longValueExact();
+    }
+    
+    /**
+     * Formats lovelace as decimal ADA without trailing zeros, e.g. 1500000 as {@code "1.5"}.
+     */
+    public static String formatAda(long lovelace) {
+        long whole = lovelace / PER_ADA;
+        long fraction = Math.abs(lovelace % PER_ADA);
+        String sign = lovelace < 0 && whole == 0 ? "-" : "";
+        if (fraction == 0) {
+            return sign + whole;
+        }
+        StringBuilder text = new StringBuilder(24).append(sign).append(whole).append('.');
+        String digits = Long.toString(fraction);
+        for (int pad = DECIMALS - digits.length(); pad > 0; pad--) {
+            text.append('0');
+        }
+        int end = digits.length();
+        while (digits.charAt(end - 1) == '0') {
+            end--;
+        }
+        return text.append(digits, 0, end).toString();
+    }
+    
+    /**
+     * Marks a lovelace field that is exchanged in JSON as decimal ADA.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.FIELD, ElementType.METHOD})
+    @JacksonAnnotationsInside
+    @JsonSerialize(using = AdaSerializer.class)
+    @JsonDeserialize(using = AdaDeserializer.class)
+    public @interface AsAda {}
+    
+    /**
+     * Writes a lovelace field as a JSON number in ADA.
+     */
+    public static class AdaSerializer extends StdSerializer<Long> {
+        
+        public AdaSerializer() {
+            super(Long.class);
+        }
+        
+        @Override
+        public void serialize(Long lovelace, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(formatAda(lovelace));
+        }
+    }
+    
+    /**
+     * Reads a JSON number (or numeric string) in ADA into a lovelace field.
+     */
+    public static class AdaDeserializer extends StdDeserializer<Long> {
+        
+        public AdaDeserializer() {
+            super(Long.class);
+        }
+        
+        @Override
+        public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                    && token != JsonToken.VALUE_STRING) {
+                return (Long) ctxt.handleUnexpectedToken(Long.class, p);
+            }
+            String text = p.getText().trim();
+            try {
+                return parseAda(text);
+            } catch (NumberFormatException e) {
+                return (Long) ctxt.handleWeirdStringValue(Long.class, text, e.getMessage());
+            }
+        }
+    }
+}
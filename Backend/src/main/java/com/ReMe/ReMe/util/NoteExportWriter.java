@@ -0,0 +1,175 @@
+package com.ReMe.ReMe.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+import com.ReMe.ReMe.dto.NoteExportRow;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes notes to an export stream one row at a time, so memory use does not depend on the number of notes
+ * or on the size of large bodies, which are copied from their input streams.
+ * 
+ * NDJSON: one {@code {"id","title","content","createdAt","updatedAt"}} object per line.
+ * Markdown: a gzipped tar with one {@code <id>-<title>.md} file per note, with the title and timestamps in front matter.
+ */
+public final class NoteExportWriter {
+    
+    public static final String NDJSON = "ndjson";
+    public static final String MARKDOWN = "markdown";
+    
+    private static final int MAX_SLUG_LENGTH = 60;
+    private static final int TAR_BLOCK = 512;
+    
+    /**
+     * Opens the body of a large note, which is not held in the row.
+     */
+    @FunctionalInterface
+    public interface LargeBodies {
+        InputStream open(NoteExportRow row) throws IOException;
+    }
+    
+    private NoteExportWriter() {}
+    
+    public static long writeNdjson(Iterator<NoteExportRow> rows, OutputStream out, JsonFactory jsonFactory,
+                                   LargeBodies largeBodies) throws IOException {
+        long count = 0;
+        try (JsonGenerator json = jsonFactory.createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines are separated by the newline below; the default separator would indent every line after the first
+            json.setRootValueSeparator(null);
+            while (rows.hasNext()) {
+                NoteExportRow row = rows.next();
+                json.writeStartObject();
+                json.writeNumberField("id", row.getId());
+                json.writeStringField("title", row.getTitle());
+                json.writeFieldName("content");
+                if (row.isLarge()) {
+                    try (Reader reader = new InputStreamReader(largeBodies.open(row), StandardCharsets.UTF_8)) {
+                        json.writeString(reader, -1);
+                    }
+                } else {
+                    json.writeString(row.getContent() != null ? row.getContent() : "");
+                }
+                json.writeStringField("createdAt", String.valueOf(row.getCreatedAt()));
+                json.writeStringField("updatedAt", String.valueOf(row.getUpdatedAt()));
+                json.writeEndObject();
+                json.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Writes a gzipped tar of Markdown files. Tar rather than zip: a zip ends with a central directory
+     * listing every entry, which has to be held until the end and grows with the number of notes.
+     */
+    public static long writeMarkdownTarGz(Iterator<NoteExportRow> rows, OutputStream out,
+                                          LargeBodies largeBodies) throws IOException {
+        long count = 0;
+        GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+        while (rows.hasNext()) {
+            NoteExportRow row = rows.next();
+            byte[] header = frontMatter(row).getBytes(StandardCharsets.UTF_8);
+            byte[] content = row.isLarge() || row.getContent() == null
+                ? new byte[0]
+                : row.getContent().getBytes(StandardCharsets.UTF_8);
+            long size = header.length + (row.isLarge() ? row.getByteLength() : content.length);
+            LocalDateTime modified = row.getUpdatedAt() != null ? row.getUpdatedAt() : row.getCreatedAt();
+            
+            gzip.write(tarHeader(row.getId() + "-" + slug(row.getTitle()) + ".md", size,
+                modified != null ? modified.toEpochSecond(ZoneOffset.UTC) : 0));
+            gzip.write(header);
+            if (row.isLarge()) {
+                try (InputStream body = largeBodies.open(row)) {
+                    body.transferTo(gzip);
+                }
+            } else {
+                gzip.write(content);
+            }
+            gzip.write(new byte[(int) ((TAR_BLOCK - size % TAR_BLOCK) % TAR_BLOCK)]);
+            count++;
+        }
+        // End-of-archive marker; finish() completes the gzip stream without closing the response
+        gzip.write(new byte[2 * TAR_BLOCK]);
+        gzip.finish();
+        return count;
+    }
+    
+    // POSIX ustar header for a regular file
+    private static byte[] tarHeader(String name, long size, long modifiedSeconds) {
+        byte[] header = new byte[TAR_BLOCK];
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(nameBytes, 0, header, 0, Math.min(nameBytes.length, 100));
+        octal(header, 100, 8, 0644);
+        octal(header, 108, 8, 0);
+        octal(header, 116, 8, 0);
+        octal(header, 124, 12, size);
+        octal(header, 136, 12, modifiedSeconds);
+        Arrays.fill(header, 148, 156, (byte) ' ');
+        header[156] = '0';
+        System.arraycopy(("ustar\0" + "00").getBytes(StandardCharsets.US_ASCII), 0, header, 257, 8);
+        
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xFF;
+        }
+        octal(header, 148, 7, checksum);
+        return header;
+    }
+    
+    // Zero-padded octal digits followed by a NUL, filling the field
+    private static void octal(byte[] header, int offset, int length, long value) {
+        String digits = Long.toOctalString(value);
+        int width = length - 1;
+        for (int i = 0; i < width; i++) {
+            int index = digits.length() - width + i;
+            header[offset + i] = (byte) (index < 0 ? '0' : digits.charAt(index));
+        }
+        header[offset + width] = 0;
+    }
+    
+    public static String frontMatter(NoteExportRow row) {
+        return "---\n" +
+               "title: " + quote(row.getTitle()) + "\n" +
+               "created: " + row.getCreatedAt() + "\n" +
+               "updated: " + row.getUpdatedAt() + "\n" +
+               "---\n\n";
+    }
+    
+    // A double-quoted scalar, readable as both YAML and JSON
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+    
+    private static String slug(String title) {
+        String slug = title.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("^-+|-+$", "");
+        if (slug.length() > MAX_SLUG_LENGTH) {
+            slug = slug.substring(0, MAX_SLUG_LENGTH);
+        }
+        return slug.isEmpty() ? "note" : slug;
+    }
+}
@@ -0,0 +1,407 @@
+package com.ReMe.ReMe.util;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+
+/**
+ * Reads notes from an import upload one at a time, holding at most one item in memory.
+ * 
+ * NDJSON: one {@code {"title","content"}} object per line, other fields ignored (the export format).
+ * Each line is parsed on its own, so a malformed or oversized line is reported and the next one is read.
+ * Markdown: a tar (optionally gzipped, as exported) or zip of {@code .md} files, or a single Markdown file.
+ * The title comes from front matter, else from a leading {@code # heading}, else from the file name.
+ * 
+ * Items are numbered in upload order, so re-reading the same upload yields the same indices;
+ * imports resume by skipping items below their checkpoint. Items that cannot be read (e.g. oversized
+ * files) are returned with an error instead of failing the whole upload.
+ */
+public final class NoteImportReader implements Closeable {
+    
+    private static final int TAR_BLOCK = 512;
+    private static final byte[] OVERSIZED_LINE = new byte[0];
+    
+    /**
+     * One note from the upload, or the reason it could not be read.
+     */
+    public static final class Item {
+        private final long index;
+        private final String key;
+        private final String title;
+        private final String content;
+        private final String error;
+        
+        Item(long index, String key, String title, String content, String error) {
+            this.index = index;
+            this.key = key;
+            this.title = title;
+            this.content = content;
+            this.error = error;
+        }
+        
+        public long getIndex() {
+            return index;
+        }
+        
+        /**
+         * File name for archives, title for NDJSON; identifies the item in error reports.
+         */
+        public String getKey() {
+            return key;
+        }
+        
+        public String getTitle() {
+            return title;
+        }
+        
+        public String getContent() {
+            return content;
+        }
+        
+        public String getError() {
+            return error;
+        }
+    }
+    
+    private enum Kind { NDJSON, TAR, ZIP, SINGLE }
+    
+    private final InputStream in;
+    private final int maxItemBytes;
+    private final Kind kind;
+    private JsonFactory json;
+    private long maxLineBytes;
+    private ZipInputStream zip;
+    private boolean singleRead;
+    private long nextIndex;
+    
+    private NoteImportReader(InputStream in, Kind kind, int maxItemBytes, JsonFactory jsonFactory) throws IOException {
+        this.in = in;
+        this.kind = kind;
+        this.maxItemBytes = maxItemBytes;
+        if (kind == Kind.NDJSON) {
+            json = jsonFactory.rebuild()
+                .streamReadConstraints(StreamReadConstraints.builder().maxStringLength(maxItemBytes).build())
+                .build();
+            // A string of maxItemBytes characters escapes to at most six bytes each, plus the other fields
+            maxLineBytes = Math.min((long) maxItemBytes * 6 + 64 * 1024, Integer.MAX_VALUE - 8);
+        } else if (kind == Kind.ZIP) {
+            zip = new ZipInputStream(in, StandardCharsets.UTF_8);
+        }
+    }
+    
+    /**
+     * @param format {@link NoteExportWriter#NDJSON} or {@link NoteExportWriter#MARKDOWN}; archives are detected from their content
+     * @param maxItemBytes Larger Markdown files, and NDJSON titles or contents of more characters, are
+     *                     reported as invalid without being read into memory
+     */
+    public static NoteImportReader open(InputStream upload, String format, int maxItemBytes,
+                                        JsonFactory jsonFactory) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(upload, 64 * 1024);
+        if (NoteExportWriter.NDJSON.equals(format)) {
+            return new NoteImportReader(in, Kind.NDJSON, maxItemBytes, jsonFactory);
+        }
+        
+        byte[] magic = peek(in, 2);
+        if (magic.length == 2 && (magic[0] & 0xFF) == 0x1F && (magic[1] & 0xFF) == 0x8B) {
+            in = new BufferedInputStream(new GZIPInputStream(in, 64 * 1024), 64 * 1024);
+            magic = peek(in, 2);
+        }
+        if (magic.length == 2 && magic[0] == 'P' && magic[1] == 'K') {
+            return new NoteImportReader(in, Kind.ZIP, maxItemBytes, jsonFactory);
+        }
+        byte[] header = peek(in, TAR_BLOCK);
+        boolean tar = header.length == TAR_BLOCK
+            && new String(header, 257, 5, StandardCharsets.US_ASCII).equals("ustar");
+        return new NoteImportReader(in, tar ? Kind.TAR : Kind.SINGLE, maxItemBytes, jsonFactory);
+    }
+    
+    /**
+     * @return The next note, or null at the end of the upload
+     * @throws IOException if the upload is malformed or the connection fails; the import stops at its last checkpoint
+     */
+    public Item next() throws IOException {
+        return switch (kind) {
+            case NDJSON -> nextJson();
+            case TAR -> nextTarEntry();
+            case ZIP -> nextZipEntry();
+            case SINGLE -> nextSingle();
+        };
+    }
+    
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+    
+    private Item nextJson() throws IOException {
+        byte[] line;
+        do {
+            line = readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line != OVERSIZED_LINE && isBlank(line));
+        long index = nextIndex++;
+        String key = "line " + (index + 1);
+        if (line == OVERSIZED_LINE) {
+            return new Item(index, key, null, null, "Line is longer than " + maxLineBytes + " bytes");
+        }
+        
+        try (JsonParser parser = json.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return new Item(index, key, null, null, "Expected a JSON object");
+            }
+            String title = null;
+            String content = null;
+            String error = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ((field.equals("title") || field.equals("content")) && value != JsonToken.VALUE_NULL) {
+                    if (value != JsonToken.VALUE_STRING) {
+                        error = "Field " + field + " must be a string";
+                    } else if (field.equals("title")) {
+                        title = parser.getText();
+                    } else {
+                        content = parser.getText();
+                    }
+                }
+                parser.skipChildren();
+            }
+            if (parser.nextToken() != null) {
+                return new Item(index, key, null, null, "Expected one JSON object per line");
+            }
+            return new Item(index, title != null ? title : key, title, content, error);
+        } catch (StreamConstraintsException e) {
+            return new Item(index, key, null, null, "Field is longer than " + maxItemBytes + " characters");
+        } catch (JsonProcessingException e) {
+            return new Item(index, key, null, null, "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+    
+    // Reads up to the next newline, or skips the line and returns OVERSIZED_LINE when it is over the limit
+    private byte[] readLine() throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            if (line.size() >= maxLineBytes) {
+                while ((b = in.read()) != -1 && b != '\n') {
+                    // skip the rest of the line
+                }
+                return OVERSIZED_LINE;
+            }
+            line.write(b);
+        }
+        return b == -1 && line.size() == 0 ? null : line.toByteArray();
+    }
+    
+    private static boolean isBlank(byte[] line) {
+        for (byte b : line) {
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private Item nextTarEntry() throws IOException {
+        String longName = null;
+        while (true) {
+            byte[] header = in.readNBytes(TAR_BLOCK);
+            if (header.length < TAR_BLOCK || isZero(header)) {
+                return null;
+            }
+            long size = parseOctal(header, 124, 12);
+            char type = (char) header[156];
+            String name = longName != null ? longName : tarName(header);
+            longName = null;
+            long padded = (size + TAR_BLOCK - 1) / TAR_BLOCK * TAR_BLOCK;
+            
+            if (type == 'L') {
+                // GNU long file name for the next entry
+                byte[] data = readOrSkip(size, padded);
+                longName = data == null ? null : trimNul(new String(data, StandardCharsets.UTF_8));
+                continue;
+            }
+            boolean regularFile = type == '0' || type == 0;
+            if (!regularFile || !isMarkdown(name)) {
+                skipFully(padded);
+                continue;
+            }
+            
+            long index = nextIndex++;
+            byte[] data = readOrSkip(size, padded);
+            return data == null
+                ? new Item(index, name, null, null, "File is larger than " + maxItemBytes + " bytes")
+                : parseMarkdown(index, name, new String(data, StandardCharsets.UTF_8));
+        }
+    }
+    
+    private Item nextZipEntry() throws IOException {
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            if (entry.isDirectory() || !isMarkdown(entry.getName())) {
+                continue;
+            }
+            long index = nextIndex++;
+            byte[] data = zip.readNBytes(maxItemBytes + 1);
+            if (data.length > maxItemBytes) {
+                return new Item(index, entry.getName(), null, null, "File is larger than " + maxItemBytes + " bytes");
+            }
+            return parseMarkdown(index, entry.getName(), new String(data, StandardCharsets.UTF_8));
+        }
+        return null;
+    }
+    
+    private Item nextSingle() throws IOException {
+        if (singleRead) {
+            return null;
+        }
+        singleRead = true;
+        byte[] data = in.readNBytes(maxItemBytes + 1);
+        if (data.length > maxItemBytes) {
+            return new Item(nextIndex++, "upload", null, null, "File is larger than " + maxItemBytes + " bytes");
+        }
+        return parseMarkdown(nextIndex++, "upload.md", new String(data, StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Splits a Markdown file into title and content, accepting the front matter written by NoteExportWriter.
+     */
+    static Item parseMarkdown(long index, String name, String text) {
+        text = text.replace("\r\n", "\n");
+        if (text.startsWith("﻿")) {
+            text = text.substring(1);
+        }
+        String title = null;
+        if (text.startsWith("---\n")) {
+            int end = text.indexOf("\n---\n", 3);
+            if (end >= 0) {
+                for (String line : text.substring(4, end).split("\n")) {
+                    if (line.startsWith("title:")) {
+                        title = unquote(line.substring(6).trim());
+                    }
+                }
+                text = text.substring(end + 5);
+                if (text.startsWith("\n")) {
+                    text = text.substring(1);
+                }
+            }
+        }
+        if (title == null && text.startsWith("# ")) {
+            int end = text.indexOf('\n');
+            title = (end < 0 ? text.substring(2) : text.substring(2, end)).trim();
+            text = end < 0 ? "" : text.substring(end + 1).replaceFirst("^\n", "");
+        }
+        if (title == null) {
+            String base = name.substring(name.lastIndexOf('/') + 1);
+            title = base.substring(0, base.lastIndexOf('.'));
+        }
+        return new Item(index, name, title, text, null);
+    }
+    
+    private static String unquote(String value) {
+        if (value.length() < 2 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+            return value;
+        }
+        StringBuilder unquoted = new StringBuilder(value.length());
+        for (int i = 1; i < value.length() - 1; i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length() - 1) {
+                char escaped = value.charAt(++i);
+                unquoted.append(switch (escaped) {
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    case 't' -> '\t';
+                    default -> escaped;
+                });
+            } else {
+                unquoted.append(c);
+            }
+        }
+        return unquoted.toString();
+    }
+    
+    private static boolean isMarkdown(String name) {
+        String lower = name.toLowerCase();
+        String base = lower.substring(lower.lastIndexOf('/') + 1);
+        return !base.startsWith(".") && (lower.endsWith(".md") || lower.endsWith(".markdown") || lower.endsWith(".txt"));
+    }
+    
+    // Reads an entry's data, or skips it and returns null when it is over the item limit
+    private byte[] readOrSkip(long size, long padded) throws IOException {
+        if (size > maxItemBytes) {
+            skipFully(padded);
+            return null;
+        }
+        byte[] data = in.readNBytes((int) size);
+        if (data.length < size) {
+            throw new IOException("Archive is truncated");
+        }
+        skipFully(padded - size);
+        return data;
+    }
+    
+    private void skipFully(long count) throws IOException {
+        in.skipNBytes(count);
+    }
+    
+    private static String tarName(byte[] header) {
+        String name = trimNul(new String(header, 0, 100, StandardCharsets.UTF_8));
+        String prefix = trimNul(new String(header, 345, 155, StandardCharsets.UTF_8));
+        return prefix.isEmpty() ? name : prefix + "/" + name;
+    }
+    
+    private static long parseOctal(byte[] header, int offset, int length) throws IOException {
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            byte b = header[i];
+            if (b == 0 || b == ' ') {
+                if (value > 0) {
+                    break;
+                }
+                continue;
+            }
+            if (b < '0' || b > '7') {
+                throw new IOException("Malformed tar header");
+            }
+            value = value * 8 + (b - '0');
+        }
+        return value;
+    }
+    
+    private static String trimNul(String value) {
+        int end = value.indexOf('\0');
+        return end < 0 ? value : value.substring(0, end);
+    }
+    
+    private static boolean isZero(byte[] block) {
+        for (byte b : block) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static byte[] peek(BufferedInputStream in, int length) throws IOException {
+        in.mark(length);
+        byte[] bytes = in.readNBytes(length);
+        in.reset();
+        return bytes.length == length ? bytes : Arrays.copyOf(bytes, bytes.length);
+    }
+}
@@ -0,0 +1,81 @@
+package com.ReMe.ReMe.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.springframework.util.DigestUtils;
+
+/**
+ * Immutable, compact set of marketplace listing ids a user is entitled to.
+ * Ids are kept in a sorted primitive array so membership is a binary search with no boxing,
+ * and adding an id produces a new instance so readers never need to lock.
+ */
+public final class PurchasedListingSet {
+    
+    private static final PurchasedListingSet EMPTY = new PurchasedListingSet(new long[0]);
+    
+    private final long[] ids;
+    private String digest; // computed on first use; racing threads compute the same value
+    
+    private PurchasedListingSet(long[] ids) {
+        this.ids = ids;
+    }
+    
+    public static PurchasedListingSet empty() {
+        return EMPTY;
+    }
+    
+    /**
+     * Builds a set from arbitrary (possibly duplicated, unordered) ids.
+     * 
+     * @param listingIds The purchased listing ids
+     * @return A sorted, de-duplicated set
+     */
+    public static PurchasedListingSet of(Collection<Long> listingIds) {
+        if (listingIds == null || listingIds.isEmpty()) {
+            return EMPTY;
+        }
+        long[] sorted = listingIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        return new PurchasedListingSet(sorted);
+    }
+    
+    public boolean contains(Long listingId) {
+        return listingId != null && Arrays.binarySearch(ids, listingId) >= 0;
+    }
+    
+    /**
+     * Returns a set that also contains the given id, or this set if it is already present.
+     */
+    public PurchasedListingSet with(long listingId) {
+        int pos = Arrays.binarySearch(ids, listingId);
+        if (pos >= 0) {
+            return this;
+        }
+        int insertAt = -pos - 1;
+        long[] grown = new long[ids.length + 1];
+        System.arraycopy(ids, 0, grown, 0, insertAt);
+        grown[insertAt] = listingId;
+        System.arraycopy(ids, insertAt, grown, insertAt + 1, ids.length - insertAt);
+        return new PurchasedListingSet(grown);
+    }
+    
+    public int size() {
+        return ids.length;
+    }
+    
+    /**
+     * Hex digest of the ids, for validators that must change whenever the set does.
+     * Unlike the size, it differs when one purchase is revoked and another granted.
+     */
+    public String digest() {
+        String result = digest;
+        if (result == null) {
+            ByteBuffer bytes = ByteBuffer.allocate(ids.length * Long.BYTES);
+            bytes.asLongBuffer().put(ids);
+            result = DigestUtils.md5DigestAsHex(bytes.array());
+            digest = result;
+        }
+        return result;
+    }
+}
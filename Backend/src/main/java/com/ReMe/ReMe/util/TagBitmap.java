@@ -0,0 +1,630 @@
+package com.ReMe.ReMe.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Compressed set of non-negative ids in the style of a Roaring bitmap.
+ * Ids are split into a 48-bit key and a 16-bit value; each key owns a container holding its values
+ * either as a sorted array (sparse, up to 4096 values) or as a 65536-bit bitmap (dense), so set
+ * operations run container by container over whichever representation is cheaper.
+ *
+ * Not thread-safe: {@link #and}, {@link #or} and {@link #andNot} return new bitmaps, but
+ * {@link #add} and {@link #remove} mutate in place and callers must synchronize.
+ */
+public final class TagBitmap {
+    
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    private static final byte ARRAY_TYPE = 0;
+    private static final byte BITMAP_TYPE = 1;
+    
+    private long[] keys;
+    private Container[] containers;
+    private int size;
+    
+    public TagBitmap() {
+        this(4);
+    }
+    
+    private TagBitmap(int capacity) {
+        this.keys = new long[capacity];
+        this.containers = new Container[capacity];
+    }
+    
+    public static TagBitmap of(Collection<Long> ids) {
+        TagBitmap bitmap = new TagBitmap();
+        ids.stream().mapToLong(Long::longValue).sorted().forEach(bitmap::add);
+        return bitmap;
+    }
+    
+    /**
+     * @return true if the id was not present before
+     */
+    public boolean add(long id) {
+        long key = keyOf(id);
+        int pos = find(key);
+        if (pos < 0) {
+            pos = -pos - 1;
+            insert(pos, key, new ArrayContainer());
+        }
+        int before = containers[pos].cardinality();
+        containers[pos] = containers[pos].add(lowOf(id));
+        return containers[pos].cardinality() > before;
+    }
+    
+    /**
+     * @return true if the id was present
+     */
+    public boolean remove(long id) {
+        int pos = find(keyOf(id));
+        if (pos < 0) {
+            return false;
+        }
+        int before = containers[pos].cardinality();
+        containers[pos] = containers[pos].remove(lowOf(id));
+        if (containers[pos].cardinality() == 0) {
+            delete(pos);
+            return true;
+        }
+        return containers[pos].cardinality() < before;
+    }
+    
+    public boolean contains(long id) {
+        if (id < 0) {
+            return false;
+        }
+        int pos = find(id >>> 16);
+        return pos >= 0 && containers[pos].contains((char) id);
+    }
+    
+    public long cardinality() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += containers[i].cardinality();
+        }
+        return total;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public TagBitmap and(TagBitmap other) {
+        TagBitmap result = new TagBitmap(Math.max(1, Math.min(size, other.size)));
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container c = containers[i].and(other.containers[j]);
+                if (c.cardinality() > 0) {
+                    result.append(keys[i], c);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+    
+    public TagBitmap or(TagBitmap other) {
+        TagBitmap result = new TagBitmap(Math.max(1, size + other.size));
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j >= other.size || (i < size && keys[i] < other.keys[j])) {
+                result.append(keys[i], containers[i].copy());
+                i++;
+            } else if (i >= size || keys[i] > other.keys[j]) {
+                result.append(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.append(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+    
+    public TagBitmap andNot(TagBitmap other) {
+        TagBitmap result = new TagBitmap(Math.max(1, size));
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            Container c = j < other.size && other.keys[j] == keys[i]
+                    ? containers[i].andNot(other.containers[j])
+                    : containers[i].copy();
+            if (c.cardinality() > 0) {
+                result.append(keys[i], c);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Size of the intersection, without materializing it.
+     */
+    public long andCardinality(TagBitmap other) {
+        long total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                total += containers[i].andCardinality(other.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * The largest ids below {@code upperBound}, in descending order.
+     *
+     * @param upperBound Exclusive upper bound, e.g. the last id of the previous page
+     * @param limit Maximum number of ids to return
+     */
+    public long[] descendingBelow(long upperBound, int limit) {
+        if (upperBound <= 0 || limit <= 0 || size == 0) {
+            return new long[0];
+        }
+        long[] out = new long[(int) Math.min(limit, cardinality())];
+        int n = 0;
+        long last = upperBound - 1;
+        int pos = find(last >>> 16);
+        int from = lowOf(last);
+        if (pos < 0) {
+            pos = -pos - 2;
+            from = 0xFFFF;
+        }
+        for (; pos >= 0 && n < out.length; pos--, from = 0xFFFF) {
+            Container c = containers[pos];
+            long high = keys[pos] << 16;
+            for (int v = c.previousValue(from); v >= 0 && n < out.length; v = v == 0 ? -1 : c.previousValue(v - 1)) {
+                out[n++] = high | v;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+    
+    public TagBitmap copy() {
+        TagBitmap result = new TagBitmap(Math.max(1, size));
+        for (int i = 0; i < size; i++) {
+            result.append(keys[i], containers[i].copy());
+        }
+        return result;
+    }
+    
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeLong(keys[i]);
+            containers[i].writeTo(out);
+        }
+    }
+    
+    public static TagBitmap readFrom(DataInput in) throws IOException {
+        int count = in.readInt();
+        TagBitmap bitmap = new TagBitmap(Math.max(1, count));
+        for (int i = 0; i < count; i++) {
+            long key = in.readLong();
+            byte type = in.readByte();
+            bitmap.append(key, type == BITMAP_TYPE ? BitmapContainer.readFrom(in) : ArrayContainer.readFrom(in));
+        }
+        return bitmap;
+    }
+    
+    private static long keyOf(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Bitmap ids must not be negative");
+        }
+        return id >>> 16;
+    }
+    
+    private static char lowOf(long id) {
+        return (char) id;
+    }
+    
+    private int find(long key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+    
+    private void append(long key, Container container) {
+        insert(size, key, container);
+    }
+    
+    private void insert(int pos, long key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, pos, keys, pos + 1, size - pos);
+        System.arraycopy(containers, pos, containers, pos + 1, size - pos);
+        keys[pos] = key;
+        containers[pos] = container;
+        size++;
+    }
+    
+    private void delete(int pos) {
+        System.arraycopy(keys, pos + 1, keys, pos, size - pos - 1);
+        System.arraycopy(containers, pos + 1, containers, pos, size - pos - 1);
+        containers[--size] = null;
+    }
+    
+    /**
+     * The values sharing one 48-bit key. Mutators return the container to keep, which may be a
+     * converted copy when the cardinality crosses {@link #ARRAY_MAX}.
+     */
+    private abstract static class Container {
+        
+        abstract int cardinality();
+        
+        abstract boolean contains(char value);
+        
+        abstract Container add(char value);
+        
+        abstract Container remove(char value);
+        
+        abstract Container and(Container other);
+        
+        abstract Container or(Container other);
+        
+        abstract Container andNot(Container other);
+        
+        abstract int andCardinality(Container other);
+        
+        /** Largest value not above {@code from}, or -1. */
+        abstract int previousValue(int from);
+        
+        abstract Container copy();
+        
+        abstract void writeTo(DataOutput out) throws IOException;
+    }
+    
+    private static final class ArrayContainer extends Container {
+        
+        private char[] values;
+        private int cardinality;
+        
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+        
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+        
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+        
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+        
+        @Override
+        Container add(char value) {
+            int pos = Arrays.binarySearch(values, 0, cardinality, value);
+            if (pos >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            pos = -pos - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.max(4, Math.min(ARRAY_MAX, cardinality * 2)));
+            }
+            System.arraycopy(values, pos, values, pos + 1, cardinality - pos);
+            values[pos] = value;
+            cardinality++;
+            return this;
+        }
+        
+        @Override
+        Container remove(char value) {
+            int pos = Arrays.binarySearch(values, 0, cardinality, value);
+            if (pos >= 0) {
+                System.arraycopy(values, pos + 1, values, pos, cardinality - pos - 1);
+                cardinality--;
+            }
+            return this;
+        }
+        
+        @Override
+        Container and(Container other) {
+            char[] out = new char[Math.min(cardinality, other.cardinality())];
+            int n = 0;
+            if (other instanceof ArrayContainer) {
+                ArrayContainer that = (ArrayContainer) other;
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < that.cardinality) {
+                    if (values[i] < that.values[j]) {
+                        i++;
+                    } else if (values[i] > that.values[j]) {
+                        j++;
+                    } else {
+                        out[n++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        out[n++] = values[i];
+                    }
+                }
+            }
+            return new ArrayContainer(out, n);
+        }
+        
+        @Override
+        Container or(Container other) {
+            if (!(other instanceof ArrayContainer)) {
+                return other.or(this);
+            }
+            ArrayContainer that = (ArrayContainer) other;
+            if (cardinality + that.cardinality > ARRAY_MAX) {
+                return toBitmap().or(that);
+            }
+            char[] out = new char[cardinality + that.cardinality];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < that.cardinality) {
+                if (j >= that.cardinality || (i < cardinality && values[i] < that.values[j])) {
+                    out[n++] = values[i++];
+                } else if (i >= cardinality || values[i] > that.values[j]) {
+                    out[n++] = that.values[j++];
+                } else {
+                    out[n++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            return new ArrayContainer(out, n);
+        }
+        
+        @Override
+        Container andNot(Container other) {
+            char[] out = new char[cardinality];
+            int n = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (!other.contains(values[i])) {
+                    out[n++] = values[i];
+                }
+            }
+            return new ArrayContainer(out, n);
+        }
+        
+        @Override
+        int andCardinality(Container other) {
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i])) {
+                    count++;
+                }
+            }
+            return count;
+        }
+        
+        @Override
+        int previousValue(int from) {
+            int pos = Arrays.binarySearch(values, 0, cardinality, (char) from);
+            if (pos >= 0) {
+                return values[pos];
+            }
+            int below = -pos - 2;
+            return below >= 0 ? values[below] : -1;
+        }
+        
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(1, cardinality)), cardinality);
+        }
+        
+        @Override
+        void writeTo(DataOutput out) throws IOException {
+            out.writeByte(ARRAY_TYPE);
+            out.writeShort(cardinality);
+            for (int i = 0; i < cardinality; i++) {
+                out.writeChar(values[i]);
+            }
+        }
+        
+        static ArrayContainer readFrom(DataInput in) throws IOException {
+            int cardinality = in.readUnsignedShort();
+            char[] values = new char[Math.max(1, cardinality)];
+            for (int i = 0; i < cardinality; i++) {
+                values[i] = in.readChar();
+            }
+            return new ArrayContainer(values, cardinality);
+        }
+        
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer(new long[BITMAP_WORDS], 0);
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+    
+    private static final class BitmapContainer extends Container {
+        
+        private final long[] words;
+        private int cardinality;
+        
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+        
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+        
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+        
+        @Override
+        Container add(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) == 0) {
+                words[value >>> 6] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+        
+        @Override
+        Container remove(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) != 0) {
+                words[value >>> 6] &= ~bit;
+                cardinality--;
+            }
+            return cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+        
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] that = ((BitmapContainer) other).words;
+            long[] out = new long[BITMAP_WORDS];
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                out[i] = words[i] & that[i];
+            }
+            return fromWords(out);
+        }
+        
+        @Override
+        Container or(Container other) {
+            long[] out = words.clone();
+            if (other instanceof ArrayContainer) {
+                ArrayContainer that = (ArrayContainer) other;
+                for (int i = 0; i < that.cardinality; i++) {
+                    out[that.values[i] >>> 6] |= 1L << that.values[i];
+                }
+            } else {
+                long[] that = ((BitmapContainer) other).words;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    out[i] |= that[i];
+                }
+            }
+            return fromWords(out);
+        }
+        
+        @Override
+        Container andNot(Container other) {
+            long[] out = words.clone();
+            if (other instanceof ArrayContainer) {
+                ArrayContainer that = (ArrayContainer) other;
+                for (int i = 0; i < that.cardinality; i++) {
+                    out[that.values[i] >>> 6] &= ~(1L << that.values[i]);
+                }
+            } else {
+                long[] that = ((BitmapContainer) other).words;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    out[i] &= ~that[i];
+                }
+            }
+            return fromWords(out);
+        }
+        
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.andCardinality(this);
+            }
+            long[] that = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                count += Long.bitCount(words[i] & that[i]);
+            }
+            return count;
+        }
+        
+        @Override
+        int previousValue(int from) {
+            int w = from >>> 6;
+            long word = words[w] & (-1L >>> (63 - (from & 63)));
+            while (true) {
+                if (word != 0) {
+                    return w * 64 + 63 - Long.numberOfLeadingZeros(word);
+                }
+                if (--w < 0) {
+                    return -1;
+                }
+                word = words[w];
+            }
+        }
+        
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+        
+        @Override
+        void writeTo(DataOutput out) throws IOException {
+            out.writeByte(BITMAP_TYPE);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        }
+        
+        static Container readFrom(DataInput in) throws IOException {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                words[i] = in.readLong();
+            }
+            return fromWords(words);
+        }
+        
+        private static Container fromWords(long[] words) {
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            BitmapContainer bitmap = new BitmapContainer(words, cardinality);
+            return cardinality <= ARRAY_MAX ? bitmap.toArray() : bitmap;
+        }
+        
+        private ArrayContainer toArray() {
+            char[] values = new char[Math.max(1, cardinality)];
+            int n = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    values[n++] = (char) (w * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, n);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.ReMe.ReMe.util;
+
+/**
+ * Compact forward diff between two versions of a text, stored as a single splice
+ * {@code position,deleteCount,inserted} around the longest common prefix and suffix.
+ * Typical edits touch one region of a note, so the delta is a few bytes instead of the whole body.
+ */
+public final class TextDelta {
+    
+    private static final char SEPARATOR = ',';
+    
+    private TextDelta() {}
+    
+    public static String encode(String from, String to) {
+        String source = from != null ? from : "";
+        String target = to != null ? to : "";
+        int shorter = Math.min(source.length(), target.length());
+        
+        int prefix = 0;
+        while (prefix < shorter && source.charAt(prefix) == target.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < shorter - prefix
+                && source.charAt(source.length() - 1 - suffix) == target.charAt(target.length() - 1 - suffix)) {
+            suffix++;
+        }
+        
+        return prefix + String.valueOf(SEPARATOR)
+                + (source.length() - prefix - suffix) + SEPARATOR
+                + target.substring(prefix, target.length() - suffix);
+    }
+    
+    public static String apply(String base, String delta) {
+        int first = delta.indexOf(SEPARATOR);
+        int second = delta.indexOf(SEPARATOR, first + 1);
+        int position = Integer.parseInt(delta.substring(0, first));
+        int deleteCount = Integer.parseInt(delta.substring(first + 1, second));
+        return new StringBuilder(base != null ? base : "")
+                .replace(position, position + deleteCount, delta.substring(second + 1))
+                .toString();
+    }
+}
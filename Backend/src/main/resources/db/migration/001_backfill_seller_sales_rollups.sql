@@ -0,0 +1,14 @@
+-- Backfills seller_sales_rollups from existing note_purchases.
+-- The table itself is created by Hibernate (ddl-auto=update); run this once after the first deploy.
+-- New purchases are rolled up incrementally by the purchase outbox (PurchaseOutboxService), so only
+-- purchases without an outbox event are backfilled, and they are added to any bucket the outbox has
+-- already started for the same day rather than skipped.
+INSERT INTO seller_sales_rollups (seller_id, marketplace_note_id, sales_day, sales_count, revenue_ada)
+SELECT m.seller_id, p.marketplace_note_id, CAST(p.purchased_at AS DATE), COUNT(*), SUM(p.purchase_price_ada)
+FROM note_purchases p
+JOIN marketplace_notes m ON m.id = p.marketplace_note_id
+WHERE NOT EXISTS (SELECT 1 FROM purchase_outbox o WHERE o.note_purchase_id = p.id)
+GROUP BY m.seller_id, p.marketplace_note_id, CAST(p.purchased_at AS DATE)
+ON CONFLICT (seller_id, marketplace_note_id, sales_day) DO UPDATE SET
+    sales_count = seller_sales_rollups.sales_count + EXCLUDED.sales_count,
+    revenue_ada = seller_sales_rollups.revenue_ada + EXCLUDED.revenue_ada;
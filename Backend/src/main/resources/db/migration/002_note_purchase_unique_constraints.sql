@@ -0,0 +1,23 @@
+-- Unique constraints that back duplicate detection in MarketplaceService.purchaseNote.
+-- Hibernate (ddl-auto=update) adds them on startup, but that fails if historical duplicates exist.
+-- Run this first to keep the earliest purchase of each duplicate group.
+-- The removed rows are moved to note_purchases_duplicates in the same statement, so they can be
+-- reviewed or refunded.
+CREATE TABLE IF NOT EXISTS note_purchases_duplicates (LIKE note_purchases INCLUDING DEFAULTS);
+ALTER TABLE note_purchases_duplicates ADD COLUMN IF NOT EXISTS archived_at TIMESTAMP NOT NULL DEFAULT now();
+
+WITH removed AS (
+    DELETE FROM note_purchases p
+    USING note_purchases d
+    WHERE p.id > d.id
+      AND (p.transaction_hash = d.transaction_hash
+           OR (p.marketplace_note_id = d.marketplace_note_id AND p.buyer_wallet_address = d.buyer_wallet_address))
+    RETURNING p.*
+)
+INSERT INTO note_purchases_duplicates
+SELECT * FROM removed;
+
+ALTER TABLE note_purchases
+    ADD CONSTRAINT uk_note_purchase_buyer UNIQUE (marketplace_note_id, buyer_wallet_address);
+ALTER TABLE note_purchases
+    ADD CONSTRAINT uk_note_purchase_tx_hash UNIQUE (transaction_hash);
@@ -0,0 +1,26 @@
+-- Moves notes, marketplace_notes, note_purchases and transactions from IDENTITY ids to pooled sequences.
+-- Run BEFORE starting the version that maps these entities with @SequenceGenerator(allocationSize = 50);
+-- otherwise Hibernate (ddl-auto=update) creates the sequences starting at 1 and collides with existing ids.
+-- The increment must match allocationSize.
+
+CREATE SEQUENCE IF NOT EXISTS notes_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS marketplace_notes_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS note_purchases_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS transactions_seq INCREMENT BY 50;
+
+SELECT setval('notes_seq', COALESCE((SELECT MAX(id) FROM notes), 0) + 50, false);
+SELECT setval('marketplace_notes_seq', COALESCE((SELECT MAX(id) FROM marketplace_notes), 0) + 50, false);
+SELECT setval('note_purchases_seq', COALESCE((SELECT MAX(id) FROM note_purchases), 0) + 50, false);
+SELECT setval('transactions_seq', COALESCE((SELECT MAX(id) FROM transactions), 0) + 50, false);
+
+-- Drop the identity generators so nothing can hand out ids outside the pooled ranges,
+-- and let plain INSERTs without an id draw from the new sequences.
+ALTER TABLE notes ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE marketplace_notes ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE note_purchases ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE transactions ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE notes ALTER COLUMN id SET DEFAULT nextval('notes_seq');
+ALTER TABLE marketplace_notes ALTER COLUMN id SET DEFAULT nextval('marketplace_notes_seq');
+ALTER TABLE note_purchases ALTER COLUMN id SET DEFAULT nextval('note_purchases_seq');
+ALTER TABLE transactions ALTER COLUMN id SET DEFAULT nextval('transactions_seq');
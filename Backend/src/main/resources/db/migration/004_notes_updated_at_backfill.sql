@@ -0,0 +1,3 @@
+-- Delta sync (GET /api/notes/sync) selects on notes.updated_at; rows written before
+-- @UpdateTimestamp was populated would otherwise never be sent as changes.
+UPDATE notes SET updated_at = created_at WHERE updated_at IS NULL;
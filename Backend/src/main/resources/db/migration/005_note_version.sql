@@ -0,0 +1,5 @@
+-- Optimistic locking for notes (PATCH /api/notes/{id} and versioned PUT).
+-- ddl-auto adds the column with a default; this covers databases where it was added as nullable.
+ALTER TABLE notes ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0;
+UPDATE notes SET version = 0 WHERE version IS NULL;
+ALTER TABLE notes ALTER COLUMN version SET NOT NULL;
@@ -0,0 +1,34 @@
+-- Deduplicated note and listing bodies (ContentStoreService).
+-- Run before starting the new version: ddl-auto adds content_hash but would leave the old
+-- content columns in place, and marketplace_notes.content is NOT NULL.
+CREATE TABLE IF NOT EXISTS content_blobs (
+    hash           VARCHAR(64) PRIMARY KEY,
+    body           TEXT        NOT NULL,
+    content_length INTEGER     NOT NULL,
+    ref_count      BIGINT      NOT NULL,
+    created_at     TIMESTAMP   NOT NULL
+);
+
+ALTER TABLE notes ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64) REFERENCES content_blobs (hash);
+ALTER TABLE marketplace_notes ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64) REFERENCES content_blobs (hash);
+
+INSERT INTO content_blobs (hash, body, content_length, ref_count, created_at)
+SELECT encode(sha256(convert_to(body, 'UTF8')), 'hex'), body, length(body), COUNT(*), now()
+FROM (
+    SELECT content AS body FROM notes WHERE content IS NOT NULL
+    UNION ALL
+    SELECT content AS body FROM marketplace_notes WHERE content IS NOT NULL
+) bodies
+GROUP BY body
+ON CONFLICT (hash) DO NOTHING;
+
+UPDATE notes SET content_hash = encode(sha256(convert_to(content, 'UTF8')), 'hex')
+WHERE content IS NOT NULL AND content_hash IS NULL;
+UPDATE marketplace_notes SET content_hash = encode(sha256(convert_to(content, 'UTF8')), 'hex')
+WHERE content IS NOT NULL AND content_hash IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_notes_content_hash ON notes (content_hash);
+CREATE INDEX IF NOT EXISTS idx_marketplace_notes_content_hash ON marketplace_notes (content_hash);
+
+ALTER TABLE notes DROP COLUMN IF EXISTS content;
+ALTER TABLE marketplace_notes DROP COLUMN IF EXISTS content;
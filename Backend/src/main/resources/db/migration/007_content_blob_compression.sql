@@ -0,0 +1,9 @@
+-- Compressed content blobs (CompressedTextConverter) with an uncompressed preview for summary snippets.
+-- Existing bodies are wrapped in a format-0 raw header here; ContentRecompressor compresses them afterwards.
+ALTER TABLE content_blobs ADD COLUMN IF NOT EXISTS preview TEXT;
+UPDATE content_blobs SET preview = left(body, 1000) WHERE preview IS NULL;
+ALTER TABLE content_blobs ALTER COLUMN preview SET NOT NULL;
+
+-- Header: format byte 0, codec byte 0 (raw), then the UTF-8 byte length as a big-endian int
+ALTER TABLE content_blobs ALTER COLUMN body TYPE BYTEA
+    USING decode('0000', 'hex') || int4send(octet_length(convert_to(body, 'UTF8'))) || convert_to(body, 'UTF8');
@@ -0,0 +1,20 @@
+-- Move compressed bodies out of content_blobs so reference counting, previews and summary
+-- queries only touch narrow metadata rows (ContentBody, loaded lazily).
+CREATE TABLE IF NOT EXISTS content_blob_bodies (
+    hash VARCHAR(64) PRIMARY KEY,
+    body BYTEA       NOT NULL
+);
+
+INSERT INTO content_blob_bodies (hash, body)
+SELECT hash, body FROM content_blobs
+ON CONFLICT (hash) DO NOTHING;
+
+ALTER TABLE content_blobs DROP COLUMN IF EXISTS body;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk_content_blobs_body') THEN
+        ALTER TABLE content_blobs ADD CONSTRAINT fk_content_blobs_body
+            FOREIGN KEY (hash) REFERENCES content_blob_bodies (hash);
+    END IF;
+END $$;
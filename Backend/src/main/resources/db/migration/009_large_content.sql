@@ -0,0 +1,18 @@
+-- Large note bodies kept on local disk (LargeContentStore): their blobs have no content_blob_bodies row,
+-- so the foreign key added by 008 (or by ddl-auto) is dropped.
+ALTER TABLE content_blobs ADD COLUMN IF NOT EXISTS segment INTEGER;
+ALTER TABLE content_blobs ADD COLUMN IF NOT EXISTS segment_offset BIGINT;
+ALTER TABLE content_blobs ADD COLUMN IF NOT EXISTS byte_length BIGINT;
+
+DO $$
+DECLARE
+    fk RECORD;
+BEGIN
+    FOR fk IN SELECT conname FROM pg_constraint
+              WHERE conrelid = 'content_blobs'::regclass
+                AND confrelid = 'content_blob_bodies'::regclass
+                AND contype = 'f'
+    LOOP
+        EXECUTE format('ALTER TABLE content_blobs DROP CONSTRAINT %I', fk.conname);
+    END LOOP;
+END $$;
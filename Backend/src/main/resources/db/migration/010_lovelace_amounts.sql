@@ -0,0 +1,27 @@
+-- Prices, amounts and revenue as whole lovelace (1 ADA = 1,000,000 lovelace) in BIGINT columns.
+-- Run before starting the new version: ddl-auto would add the new NOT NULL columns without values
+-- and leave the old NOT NULL decimal columns in place with nothing writing them.
+DO $$
+DECLARE
+    col RECORD;
+BEGIN
+    FOR col IN SELECT * FROM (VALUES
+            ('marketplace_notes', 'price_ada', 'price_lovelace'),
+            ('note_purchases', 'purchase_price_ada', 'purchase_price_lovelace'),
+            ('transactions', 'amountada', 'amount_lovelace'),
+            ('seller_sales_rollups', 'revenue_ada', 'revenue_lovelace')
+        ) AS c (table_name, old_column, new_column)
+    LOOP
+        EXECUTE format('ALTER TABLE %I ADD COLUMN IF NOT EXISTS %I BIGINT', col.table_name, col.new_column);
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_name = col.table_name AND column_name = col.old_column) THEN
+            EXECUTE format('UPDATE %I SET %I = ROUND(%I * 1000000) WHERE %I IS NULL',
+                           col.table_name, col.new_column, col.old_column, col.new_column);
+            EXECUTE format('ALTER TABLE %I DROP COLUMN %I', col.table_name, col.old_column);
+        END IF;
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN %I SET NOT NULL', col.table_name, col.new_column);
+    END LOOP;
+END $$;
+
+-- Dropping amountada removed the old amount index
+CREATE INDEX IF NOT EXISTS idx_transactions_user_amount ON transactions (user_id, amount_lovelace);
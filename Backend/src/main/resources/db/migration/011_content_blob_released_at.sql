@@ -0,0 +1,4 @@
+-- When a content blob lost its last reference; the unreferenced sweep waits a grace period from this
+-- instead of from created_at. Blobs already unreferenced start their grace period now.
+ALTER TABLE content_blobs ADD COLUMN IF NOT EXISTS released_at TIMESTAMP;
+UPDATE content_blobs SET released_at = now() WHERE ref_count <= 0 AND released_at IS NULL;
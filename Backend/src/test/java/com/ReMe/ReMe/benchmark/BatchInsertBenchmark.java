@@ -0,0 +1,131 @@
+package com.ReMe.ReMe.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ReMe.ReMe.dto.TransactionDto;
+import com.ReMe.ReMe.entity.Note;
+import com.ReMe.ReMe.entity.User;
+import com.ReMe.ReMe.repository.NoteRepository;
+import com.ReMe.ReMe.repository.UserRepository;
+import com.ReMe.ReMe.service.TransactionService;
+import com.ReMe.ReMe.util.Lovelace;
+
+/**
+ * Insert throughput of IDENTITY versus pooled SEQUENCE ids, measured on scratch tables with plain JDBC:
+ * IDENTITY needs each row's key back before the next insert, the way Hibernate has to insert such
+ * entities one statement at a time, while pooled sequence ids are fetched once per 50 rows and the rows
+ * go out as JDBC batches. Also times note inserts through Hibernate (flush per row against saveAll
+ * batching, both on the pooled sequence) and the bulk transaction import.
+ * Needs a real PostgreSQL database (the configured datasource) and is skipped unless run with
+ * {@code mvn test -Dtest=BatchInsertBenchmark -Dbenchmark=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BatchInsertBenchmark {
+    
+    private static final int ROWS = 5000;
+    private static final int ALLOCATION_SIZE = 50;
+    
+    @Autowired
+    private NoteRepository noteRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void identityVersusSequence() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        String identityTable = "bench_identity_" + run;
+        String sequenceTable = "bench_sequence_" + run;
+        String sequence = sequenceTable + "_seq";
+        jdbcTemplate.execute("CREATE TABLE " + identityTable +
+            " (id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, title varchar(255) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE " + sequenceTable + " (id bigint PRIMARY KEY, title varchar(255) NOT NULL)");
+        jdbcTemplate.execute("CREATE SEQUENCE " + sequence + " INCREMENT BY " + ALLOCATION_SIZE);
+        try {
+            long identity = time(() -> transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < ROWS; i++) {
+                    jdbcTemplate.queryForObject("INSERT INTO " + identityTable + " (title) VALUES (?) RETURNING id",
+                        Long.class, "Row " + i);
+                }
+            }));
+            
+            long pooled = time(() -> transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < ROWS; from += ALLOCATION_SIZE) {
+                    // Pooled optimizer: one sequence call hands out the block (hi - 49 .. hi)
+                    long hi = jdbcTemplate.queryForObject("SELECT nextval('" + sequence + "')", Long.class);
+                    List<Object[]> rows = new ArrayList<>(ALLOCATION_SIZE);
+                    for (int k = 0; k < ALLOCATION_SIZE && from + k < ROWS; k++) {
+                        rows.add(new Object[] {hi - ALLOCATION_SIZE + 1 + k, "Row " + (from + k)});
+                    }
+                    jdbcTemplate.batchUpdate("INSERT INTO " + sequenceTable + " (id, title) VALUES (?, ?)", rows);
+                }
+            }));
+            
+            System.out.printf("IDENTITY, row by row:       %d rows in %d ms (%.0f rows/s)%n",
+                ROWS, identity, ROWS * 1000.0 / identity);
+            System.out.printf("SEQUENCE pooled, batched:   %d rows in %d ms (%.0f rows/s), %.1fx faster%n",
+                ROWS, pooled, ROWS * 1000.0 / pooled, (double) identity / pooled);
+        } finally {
+            jdbcTemplate.execute("DROP TABLE " + identityTable);
+            jdbcTemplate.execute("DROP TABLE " + sequenceTable);
+            jdbcTemplate.execute("DROP SEQUENCE " + sequence);
+        }
+    }
+    
+    @Test
+    void noteCreationAndImport() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        User user = userRepository.save(new User("bench_" + run, "bench_" + run + "@bench.local", "benchmark"));
+        
+        // Bodies are stored separately in content_blobs; this measures the note rows only
+        long perRow = time(() -> transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                noteRepository.saveAndFlush(new Note("Row " + i, null, user));
+            }
+        }));
+        
+        long batched = time(() -> transactionTemplate.executeWithoutResult(status -> {
+            List<Note> notes = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                notes.add(new Note("Batch " + i, null, user));
+            }
+            noteRepository.saveAll(notes);
+        }));
+        
+        List<TransactionDto> transactions = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            transactions.add(new TransactionDto("bench_" + run + "_" + i, "addr_sender", "addr_recipient", Lovelace.PER_ADA));
+        }
+        long imported = time(() -> transactionService.importTransactions(transactions, user.getUsername()));
+        
+        System.out.printf("notes, flush per row:  %d rows in %d ms (%.0f rows/s)%n", ROWS, perRow, ROWS * 1000.0 / perRow);
+        System.out.printf("notes, batched:        %d rows in %d ms (%.0f rows/s), %.1fx faster%n",
+            ROWS, batched, ROWS * 1000.0 / batched, (double) perRow / batched);
+        System.out.printf("transaction import:    %d rows in %d ms (%.0f rows/s)%n", ROWS, imported, ROWS * 1000.0 / imported);
+    }
+    
+    private static long time(Runnable work) {
+        long start = System.nanoTime();
+        work.run();
+        return Math.max(1, (System.nanoTime() - start) / 1_000_000);
+    }
+}
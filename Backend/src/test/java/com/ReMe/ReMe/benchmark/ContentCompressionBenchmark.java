@@ -0,0 +1,171 @@
+package com.ReMe.ReMe.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ReMe.ReMe.util.CompressedTextConverter;
+
+/**
+ * CPU cost of compressing note bodies on the write path and inflating them on the read path,
+ * against the bytes that no longer have to be stored, written to WAL and read from disk.
+ * The database comparison writes the same bodies to two scratch tables shaped like content_blob_bodies,
+ * one in the raw format the 007 migration left and one compressed, so PostgreSQL's own TOAST
+ * compression of the raw rows is part of the baseline. Results are published as test report entries.
+ * Needs a real PostgreSQL database (the configured datasource) and is skipped unless run with
+ * {@code mvn test -Dtest=ContentCompressionBenchmark -Dbenchmark=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ContentCompressionBenchmark {
+    
+    private static final int[] NOTE_LENGTHS = {200, 1_000, 4_000, 10_000};
+    private static final int NOTES = 500;
+    private static final int ROUNDS = 20;
+    private static final String[] WORDS = {
+        "the", "note", "meeting", "project", "deadline", "review", "and", "to", "of", "with",
+        "cardano", "wallet", "transaction", "listing", "buyer", "seller", "- [ ]", "##", "TODO", "follow",
+        "up", "draft", "summary", "chapter", "lecture", "exam", "question", "answer", "because", "however"
+    };
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void compressionCostVersusBytesSaved(TestReporter reporter) {
+        Random random = new Random(42);
+        for (int length : NOTE_LENGTHS) {
+            String[] notes = new String[NOTES];
+            byte[][] stored = new byte[NOTES][];
+            long rawBytes = 0;
+            long storedBytes = 0;
+            for (int i = 0; i < NOTES; i++) {
+                notes[i] = noteText(random, length);
+                stored[i] = CompressedTextConverter.encode(notes[i]);
+                rawBytes += notes[i].getBytes(StandardCharsets.UTF_8).length;
+                storedBytes += stored[i].length;
+            }
+            
+            long start = System.nanoTime();
+            for (int r = 0; r < ROUNDS; r++) {
+                for (int i = 0; i < NOTES; i++) {
+                    stored[i] = CompressedTextConverter.encode(notes[i]);
+                }
+            }
+            double microsPerWrite = (System.nanoTime() - start) / 1_000.0 / (ROUNDS * NOTES);
+            
+            start = System.nanoTime();
+            for (int r = 0; r < ROUNDS; r++) {
+                for (int i = 0; i < NOTES; i++) {
+                    assertEquals(notes[i], CompressedTextConverter.decode(stored[i]));
+                }
+            }
+            double microsPerRead = (System.nanoTime() - start) / 1_000.0 / (ROUNDS * NOTES);
+            
+            // Raw storage plus the header is the worst case; longer notes must actually shrink
+            assertTrue(storedBytes <= rawBytes + (long) NOTES * CompressedTextConverter.HEADER_LENGTH);
+            if (length >= CompressedTextConverter.MIN_COMPRESSED_BYTES) {
+                assertTrue(storedBytes < rawBytes, length + "-char notes did not shrink");
+            }
+            reporter.publishEntry("memory " + length, String.format(
+                "%,d -> %,d bytes stored (%.1fx smaller, %,d bytes saved per note); write +%.1f us, read +%.1f us per note",
+                rawBytes, storedBytes, (double) rawBytes / storedBytes, (rawBytes - storedBytes) / NOTES,
+                microsPerWrite, microsPerRead));
+        }
+    }
+    
+    @Test
+    void storedSizeAndTimingInDatabase(TestReporter reporter) {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        String rawTable = "bench_bodies_raw_" + run;
+        String compressedTable = "bench_bodies_deflate_" + run;
+        jdbcTemplate.execute("CREATE TABLE " + rawTable + " (hash varchar(64) PRIMARY KEY, body bytea NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE " + compressedTable + " (hash varchar(64) PRIMARY KEY, body bytea NOT NULL)");
+        try {
+            Random random = new Random(42);
+            for (int length : NOTE_LENGTHS) {
+                List<String> notes = new ArrayList<>(NOTES);
+                for (int i = 0; i < NOTES; i++) {
+                    notes.add(noteText(random, length));
+                }
+                jdbcTemplate.execute("TRUNCATE " + rawTable + ", " + compressedTable);
+                
+                long rawWrite = time(() -> insert(rawTable, notes, ContentCompressionBenchmark::formatZero));
+                long compressedWrite = time(() -> insert(compressedTable, notes, CompressedTextConverter::encode));
+                jdbcTemplate.execute("VACUUM ANALYZE " + rawTable);
+                jdbcTemplate.execute("VACUUM ANALYZE " + compressedTable);
+                long rawSize = relationSize(rawTable);
+                long compressedSize = relationSize(compressedTable);
+                
+                long rawRead = time(() -> readAll(rawTable, notes));
+                long compressedRead = time(() -> readAll(compressedTable, notes));
+                
+                reporter.publishEntry("database " + length, String.format(
+                    "raw %,d bytes on disk, write %d ms, read %d ms; compressed %,d bytes on disk (%.1fx smaller), " +
+                    "write %d ms, read %d ms",
+                    rawSize, rawWrite, rawRead, compressedSize, (double) rawSize / compressedSize,
+                    compressedWrite, compressedRead));
+            }
+        } finally {
+            jdbcTemplate.execute("DROP TABLE " + rawTable);
+            jdbcTemplate.execute("DROP TABLE " + compressedTable);
+        }
+    }
+    
+    private void insert(String table, List<String> notes, Function<String, byte[]> encoding) {
+        List<Object[]> rows = new ArrayList<>(notes.size());
+        for (int i = 0; i < notes.size(); i++) {
+            rows.add(new Object[] {String.valueOf(i), encoding.apply(notes.get(i))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO " + table + " (hash, body) VALUES (?, ?)", rows);
+    }
+    
+    private void readAll(String table, List<String> notes) {
+        List<byte[]> bodies = jdbcTemplate.queryForList("SELECT body FROM " + table + " ORDER BY hash::int", byte[].class);
+        assertEquals(notes.size(), bodies.size());
+        for (int i = 0; i < bodies.size(); i++) {
+            assertEquals(notes.get(i), CompressedTextConverter.decode(bodies.get(i)));
+        }
+    }
+    
+    private long relationSize(String table) {
+        return jdbcTemplate.queryForObject("SELECT pg_total_relation_size(?::regclass)", Long.class, table);
+    }
+    
+    // The raw layout the 007 migration wrote: format 0, codec raw, UTF-8 length, UTF-8 bytes
+    private static byte[] formatZero(String text) {
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(CompressedTextConverter.HEADER_LENGTH + raw.length)
+                .put((byte) 0).put(CompressedTextConverter.RAW).putInt(raw.length).put(raw)
+                .array();
+    }
+    
+    private static String noteText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+            text.append(random.nextInt(12) == 0 ? '\n' : ' ');
+        }
+        return text.substring(0, length);
+    }
+    
+    private static long time(Runnable work) {
+        long start = System.nanoTime();
+        work.run();
+        return Math.max(1, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,130 @@
+package com.ReMe.ReMe.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.ReMe.ReMe.dto.NoteExportRow;
+import com.ReMe.ReMe.util.NoteExportWriter;
+import com.fasterxml.jackson.core.JsonFactory;
+
+/**
+ * Exports a synthetic account of {@value #NOTES} notes (every {@value #LARGE_EVERY}th one a
+ * {@value #LARGE_BYTES}-byte large body) in both formats, in a separate JVM limited to {@value #HEAP} of heap.
+ * The export only fits if memory use is independent of the number of notes. Runs without the database;
+ * skipped unless run with {@code mvn test -Dtest=NoteExportBenchmark -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class NoteExportBenchmark {
+    
+    private static final int NOTES = 1_000_000;
+    private static final int CONTENT_LENGTH = 1_000;
+    private static final int LARGE_EVERY = 100_000;
+    private static final int LARGE_BYTES = 8 * 1024 * 1024;
+    private static final String HEAP = "-Xmx48m";
+    
+    @Test
+    void millionNoteExportUnderFixedHeap() throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, HEAP, "-cp", System.getProperty("java.class.path"),
+                NoteExportBenchmark.class.getName())
+                .redirectErrorStream(true)
+                .start();
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            output.lines().forEach(System.out::println);
+        }
+        assertEquals(0, process.waitFor(), "export ran out of memory or failed");
+    }
+    
+    public static void main(String[] args) throws IOException {
+        for (String format : new String[] {NoteExportWriter.NDJSON, NoteExportWriter.MARKDOWN}) {
+            CountingOutputStream out = new CountingOutputStream();
+            long start = System.nanoTime();
+            long count = NoteExportWriter.NDJSON.equals(format)
+                ? NoteExportWriter.writeNdjson(rows(), out, new JsonFactory(), NoteExportBenchmark::largeBody)
+                : NoteExportWriter.writeMarkdownTarGz(rows(), out, NoteExportBenchmark::largeBody);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            Runtime runtime = Runtime.getRuntime();
+            System.out.printf("%s: %,d notes, %,d bytes in %.1f s (%.0f notes/s), heap limit %d MB, in use %d MB%n",
+                format, count, out.count, seconds, count / seconds, runtime.maxMemory() >> 20,
+                (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+            if (count != NOTES) {
+                throw new IllegalStateException("Exported " + count + " of " + NOTES + " notes");
+            }
+        }
+    }
+    
+    // Generated lazily, as the database cursor would deliver them
+    private static Iterator<NoteExportRow> rows() {
+        char[] content = new char[CONTENT_LENGTH];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = i % 9 == 8 ? ' ' : (char) ('a' + i % 26);
+        }
+        String body = new String(content);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        return new Iterator<>() {
+            private long id = 0;
+            
+            @Override
+            public boolean hasNext() {
+                return id < NOTES;
+            }
+            
+            @Override
+            public NoteExportRow next() {
+                id++;
+                boolean large = id % LARGE_EVERY == 0;
+                return new NoteExportRow(id, "Synthetic note " + id, large ? null : body, large ? 0 : null,
+                    large ? 0L : null, large ? (long) LARGE_BYTES : null, createdAt, createdAt.plusSeconds(id));
+            }
+        };
+    }
+    
+    private static InputStream largeBody(NoteExportRow row) {
+        return new InputStream() {
+            private long remaining = row.getByteLength();
+            
+            @Override
+            public int read() {
+                return remaining-- > 0 ? 'x' : -1;
+            }
+            
+            @Override
+            public int read(byte[] bytes, int off, int len) {
+                if (remaining <= 0) {
+                    return -1;
+                }
+                int n = (int) Math.min(len, remaining);
+                Arrays.fill(bytes, off, off + n, (byte) 'x');
+                remaining -= n;
+                return n;
+            }
+        };
+    }
+    
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+        
+        @Override
+        public void write(int b) {
+            count++;
+        }
+        
+        @Override
+        public void write(byte[] bytes, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.ReMe.ReMe.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.ReMe.ReMe.util.TextDelta;
+
+/**
+ * Storage growth and reconstruction cost of note history: a full copy per save versus
+ * snapshots every {@value #SNAPSHOT_INTERVAL} versions plus forward deltas, as NoteHistoryService stores it.
+ * Runs in memory, without the database; skipped unless run with
+ * {@code mvn test -Dtest=NoteHistoryBenchmark -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class NoteHistoryBenchmark {
+    
+    private static final int NOTE_LENGTH = 10_000;
+    private static final int SAVES = 2_000;
+    private static final int SNAPSHOT_INTERVAL = 20;
+    private static final int READS = 10_000;
+    
+    @Test
+    void snapshotsPlusDeltasVersusFullCopies() {
+        Random random = new Random(42);
+        List<String> versions = new ArrayList<>(SAVES + 1);
+        versions.add(randomText(random, NOTE_LENGTH));
+        for (int i = 0; i < SAVES; i++) {
+            versions.add(edit(random, versions.get(i)));
+        }
+        
+        List<String> payloads = new ArrayList<>(versions.size());
+        List<Integer> snapshotOf = new ArrayList<>(versions.size());
+        long fullCopyChars = 0;
+        long storedChars = 0;
+        int lastSnapshot = 0;
+        for (int v = 0; v < versions.size(); v++) {
+            String content = versions.get(v);
+            fullCopyChars += content.length();
+            String delta = v == 0 ? null : TextDelta.encode(versions.get(v - 1), content);
+            if (delta == null || v - lastSnapshot >= SNAPSHOT_INTERVAL || delta.length() >= content.length() / 2) {
+                payloads.add(content);
+                lastSnapshot = v;
+            } else {
+                payloads.add(delta);
+            }
+            snapshotOf.add(lastSnapshot);
+            storedChars += payloads.get(v).length();
+        }
+        
+        long start = System.nanoTime();
+        for (int i = 0; i < READS; i++) {
+            int v = random.nextInt(versions.size());
+            String content = payloads.get(snapshotOf.get(v));
+            for (int d = snapshotOf.get(v) + 1; d <= v; d++) {
+                content = TextDelta.apply(content, payloads.get(d));
+            }
+            assertEquals(versions.get(v).length(), content.length());
+        }
+        double microsPerRead = (System.nanoTime() - start) / 1_000.0 / READS;
+        
+        System.out.printf("History of %d saves on a %d-char note: full copies %d chars, snapshots+deltas %d chars (%.1fx smaller)%n",
+            SAVES, NOTE_LENGTH, fullCopyChars, storedChars, (double) fullCopyChars / storedChars);
+        System.out.printf("Reconstruction: %.1f us per version (at most %d deltas replayed)%n",
+            microsPerRead, SNAPSHOT_INTERVAL - 1);
+    }
+    
+    private static String edit(Random random, String text) {
+        // Typical editor save: a short insertion or deletion somewhere in the body
+        int position = random.nextInt(text.length());
+        StringBuilder edited = new StringBuilder(text);
+        if (random.nextBoolean() && text.length() > NOTE_LENGTH / 2) {
+            edited.delete(position, Math.min(text.length(), position + 1 + random.nextInt(30)));
+        } else {
+            edited.insert(position, randomText(random, 1 + random.nextInt(40)));
+        }
+        return edited.toString();
+    }
+    
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(i % 7 == 6 ? ' ' : (char) ('a' + random.nextInt(26)));
+        }
+        return text.toString();
+    }
+}
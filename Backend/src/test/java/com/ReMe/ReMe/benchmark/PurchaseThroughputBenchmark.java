@@ -0,0 +1,121 @@
+package com.ReMe.ReMe.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ReMe.ReMe.dto.NotePurchaseDto;
+import com.ReMe.ReMe.entity.MarketplaceNote;
+import com.ReMe.ReMe.entity.User;
+import com.ReMe.ReMe.repository.MarketplaceNoteRepository;
+import com.ReMe.ReMe.repository.NotePurchaseRepository;
+import com.ReMe.ReMe.repository.UserRepository;
+import com.ReMe.ReMe.service.ContentStoreService;
+import com.ReMe.ReMe.service.MarketplaceService;
+import com.ReMe.ReMe.util.Lovelace;
+
+/**
+ * Purchase throughput while every purchase is submitted several times concurrently.
+ * Needs a real PostgreSQL database (the configured datasource) and is skipped unless run with
+ * {@code mvn test -Dtest=PurchaseThroughputBenchmark -Dbenchmark=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PurchaseThroughputBenchmark {
+    
+    private static final int BUYERS = 200;
+    private static final int DUPLICATES_PER_PURCHASE = 5;
+    private static final int THREADS = 32;
+    
+    @Autowired
+    private MarketplaceService marketplaceService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private MarketplaceNoteRepository marketplaceNoteRepository;
+    
+    @Autowired
+    private NotePurchaseRepository notePurchaseRepository;
+    
+    @Autowired
+    private ContentStoreService contentStore;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Test
+    void concurrentDuplicateSubmissions() throws Exception {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        User seller = userRepository.save(new User("seller_" + run, "seller_" + run + "@bench.local", "benchmark"));
+        MarketplaceNote listing = transactionTemplate.execute(status -> marketplaceNoteRepository.save(new MarketplaceNote(
+            "Benchmark listing " + run, "Benchmark", contentStore.acquire("Benchmark content"),
+            5 * Lovelace.PER_ADA, "addr_seller_" + run, seller)));
+        
+        List<String> buyers = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            String name = "buyer_" + run + "_" + i;
+            userRepository.save(new User(name, name + "@bench.local", "benchmark"));
+            buyers.add(name);
+        }
+        
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        
+        long start = System.nanoTime();
+        for (int i = 0; i < BUYERS; i++) {
+            String buyer = buyers.get(i);
+            NotePurchaseDto dto = new NotePurchaseDto(
+                listing.getId(), "tx_" + run + "_" + i, "addr_" + buyer, 5 * Lovelace.PER_ADA);
+            for (int d = 0; d < DUPLICATES_PER_PURCHASE; d++) {
+                futures.add(pool.submit(() -> {
+                    try {
+                        marketplaceService.purchaseNote(dto, buyer, "key_" + buyer);
+                        succeeded.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        rejected.incrementAndGet();
+                    }
+                }));
+            }
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        
+        int submissions = BUYERS * DUPLICATES_PER_PURCHASE;
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("purchase benchmark: %d submissions (%d unique) in %.2fs -> %.1f req/s, %d ok, %d rejected%n",
+            submissions, BUYERS, seconds, submissions / seconds, succeeded.get(), rejected.get());
+        
+        long purchases = notePurchaseRepository.findBySellerWalletAddressOrderByPurchasedAtDesc("addr_seller_" + run).size();
+        assertEquals(BUYERS, purchases);
+        
+        // The counter is applied by the outbox dispatcher, so give it time to drain
+        long deadline = System.currentTimeMillis() + 30_000;
+        int purchaseCount;
+        do {
+            Thread.sleep(200);
+            purchaseCount = marketplaceNoteRepository.findById(listing.getId()).orElseThrow().getPurchaseCount();
+        } while (purchaseCount < BUYERS && System.currentTimeMillis() < deadline);
+        assertEquals(BUYERS, purchaseCount);
+    }
+}
@@ -0,0 +1,91 @@
+package com.ReMe.ReMe.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.ReMe.ReMe.util.TagBitmap;
+
+/**
+ * Multi-tag filters (AND/OR/NOT) and per-tag counts over compressed tag bitmaps, against the same
+ * work on hash sets of ids, and the snapshot size of the bitmaps against a plain array of ids.
+ * Runs in memory, without the database; skipped unless run with
+ * {@code mvn test -Dtest=TagBitmapBenchmark -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TagBitmapBenchmark {
+    
+    private static final int ITEMS = 200_000;
+    private static final int TAGS = 60;
+    private static final int ROUNDS = 50;
+    
+    @Test
+    void filtersAndCounts() throws IOException {
+        // Tag popularity falls off like real tagging: a few tags on many items, a long tail on few
+        Random random = new Random(42);
+        List<TagBitmap> bitmaps = new ArrayList<>();
+        List<Set<Long>> sets = new ArrayList<>();
+        long assignments = 0;
+        for (int t = 0; t < TAGS; t++) {
+            bitmaps.add(new TagBitmap());
+            sets.add(new HashSet<>());
+        }
+        for (long id = 1; id <= ITEMS; id++) {
+            for (int t = 0; t < TAGS; t++) {
+                if (random.nextDouble() < 0.4 / (t + 1)) {
+                    bitmaps.get(t).add(id);
+                    sets.get(t).add(id);
+                    assignments++;
+                }
+            }
+        }
+        
+        long start = System.nanoTime();
+        long bitmapMatches = 0;
+        for (int r = 0; r < ROUNDS; r++) {
+            TagBitmap any = bitmaps.get(2).or(bitmaps.get(3)).or(bitmaps.get(4));
+            TagBitmap result = bitmaps.get(0).and(bitmaps.get(1)).and(any).andNot(bitmaps.get(5));
+            bitmapMatches = result.cardinality();
+            for (TagBitmap bitmap : bitmaps) {
+                bitmap.andCardinality(result);
+            }
+        }
+        double bitmapMicros = (System.nanoTime() - start) / 1_000.0 / ROUNDS;
+        
+        start = System.nanoTime();
+        long setMatches = 0;
+        for (int r = 0; r < ROUNDS; r++) {
+            Set<Long> result = new HashSet<>(sets.get(0));
+            result.retainAll(sets.get(1));
+            result.removeIf(id -> !sets.get(2).contains(id) && !sets.get(3).contains(id) && !sets.get(4).contains(id));
+            result.removeAll(sets.get(5));
+            setMatches = result.size();
+            for (Set<Long> set : sets) {
+                result.stream().filter(set::contains).count();
+            }
+        }
+        double setMicros = (System.nanoTime() - start) / 1_000.0 / ROUNDS;
+        assertEquals(setMatches, bitmapMatches);
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (TagBitmap bitmap : bitmaps) {
+            bitmap.writeTo(out);
+        }
+        
+        System.out.printf("%,d items, %d tags, %,d assignments, %,d matches: filter + counts %.0f us with bitmaps, " +
+            "%.0f us with hash sets (%.1fx); snapshot %,d bytes vs %,d as long ids%n",
+            ITEMS, TAGS, assignments, bitmapMatches, bitmapMicros, setMicros, setMicros / bitmapMicros,
+            bytes.size(), assignments * Long.BYTES);
+    }
+}
@@ -0,0 +1,172 @@
+package com.ReMe.ReMe.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ReMe.ReMe.dto.NoteDto;
+import com.ReMe.ReMe.dto.NotePatchDto;
+import com.ReMe.ReMe.entity.ContentBlob;
+import com.ReMe.ReMe.entity.Note;
+import com.ReMe.ReMe.entity.User;
+import com.ReMe.ReMe.exception.StaleVersionException;
+import com.ReMe.ReMe.repository.NoteRepository;
+
+import jakarta.validation.Validation;
+
+/**
+ * Autosave flushes against the optimistic version check of explicit saves, with the repository
+ * mocked so every write bumps the version like Hibernate's @Version does.
+ */
+class NoteAutosaveServiceTest {
+    
+    private static final long NOTE_ID = 7L;
+    
+    private final NoteRepository noteRepository = mock(NoteRepository.class);
+    private final ContentStoreService contentStore = mock(ContentStoreService.class);
+    private final ChangeFeedService changeFeedService = mock(ChangeFeedService.class);
+    private final NoteService noteService = new NoteService();
+    private final NoteAutosaveService autosaveService = new NoteAutosaveService();
+    private final Note note = new Note();
+    private final User user = new User("alice", "alice@example.com", "secret");
+    
+    @BeforeEach
+    void setUp() {
+        user.setId(UUID.randomUUID());
+        note.setId(NOTE_ID);
+        note.setUser(user);
+        note.setTitle("Title");
+        note.setVersion(5L);
+        
+        when(noteRepository.findById(NOTE_ID)).thenReturn(Optional.of(note));
+        when(noteRepository.findByIdAndUser(NOTE_ID, user)).thenReturn(Optional.of(note));
+        when(noteRepository.findVersionByIdAndUser(NOTE_ID, user)).thenAnswer(call -> Optional.of(note.getVersion()));
+        when(noteRepository.saveAndFlush(any(Note.class))).thenAnswer(call -> {
+            Note saved = call.getArgument(0);
+            saved.setVersion(saved.getVersion() + 1);
+            return saved;
+        });
+        when(contentStore.replace(any(), anyString())).thenAnswer(call -> body(call.getArgument(1)));
+        
+        ReflectionTestUtils.setField(noteService, "noteRepository", noteRepository);
+        ReflectionTestUtils.setField(noteService, "autosaveService", autosaveService);
+        ReflectionTestUtils.setField(noteService, "historyService", mock(NoteHistoryService.class));
+        ReflectionTestUtils.setField(noteService, "contentStore", contentStore);
+        ReflectionTestUtils.setField(noteService, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(autosaveService, "noteRepository", noteRepository);
+        ReflectionTestUtils.setField(autosaveService, "noteService", noteService);
+        ReflectionTestUtils.setField(autosaveService, "maxBufferedChars", Long.MAX_VALUE);
+        ReflectionTestUtils.setField(autosaveService, "baseRetentionMs", 60_000L);
+        ReflectionTestUtils.setField(autosaveService, "changeFeedService", changeFeedService);
+        ReflectionTestUtils.setField(autosaveService, "maxFlushAttempts", 3);
+        ReflectionTestUtils.setField(autosaveService, "maxDelayMs", 600_000L);
+    }
+    
+    @Test
+    void patchWithAutosaveVersionAfterFlush() {
+        NoteDto saved = noteService.autosaveNote(NOTE_ID, new NoteDto("Title", "draft one"), user);
+        assertEquals(5L, saved.getVersion());
+        
+        autosaveService.flushAll();
+        assertEquals(6L, note.getVersion());
+        
+        NoteDto patched = noteService.patchNote(NOTE_ID, patch(saved.getVersion(), "final"), user);
+        assertEquals("final", patched.getContent());
+        assertEquals(7L, patched.getVersion());
+    }
+    
+    @Test
+    void autosaveAfterFlushKeepsTheClientsBase() {
+        noteService.autosaveNote(NOTE_ID, new NoteDto("Title", "draft one"), user);
+        autosaveService.flushAll();
+        NoteDto saved = noteService.autosaveNote(NOTE_ID, new NoteDto("Title", "draft two"), user);
+        assertEquals(5L, saved.getVersion());
+        autosaveService.flushAll();
+        assertEquals(7L, note.getVersion());
+        
+        NoteDto updated = noteService.updateNote(NOTE_ID, versioned(new NoteDto("Title", "final"), saved.getVersion()), user);
+        assertEquals(8L, updated.getVersion());
+    }
+    
+    @Test
+    void patchFromBeforeAnotherWriteIsStale() {
+        NoteDto saved = noteService.autosaveNote(NOTE_ID, new NoteDto("Title", "draft one"), user);
+        autosaveService.flushAll();
+        // Another client saves on top of the flushed draft
+        noteService.patchNote(NOTE_ID, patch(6L, "other device"), user);
+        
+        StaleVersionException e = assertThrows(StaleVersionException.class,
+                () -> noteService.patchNote(NOTE_ID, patch(saved.getVersion(), "final"), user));
+        assertEquals(7L, e.getCurrentVersion());
+    }
+    
+    @Test
+    void patchWithOlderBaseIsStale() {
+        noteService.autosaveNote(NOTE_ID, new NoteDto("Title", "draft one"), user);
+        autosaveService.flushAll();
+        
+        assertThrows(StaleVersionException.class, () -> noteService.patchNote(NOTE_ID, patch(4L, "final"), user));
+    }
+    
+    @Test
+    void dropsDraftAfterRepeatedWriteFailures() {
+        noteService.autosaveNote(NOTE_ID, new NoteDto("Title", "draft one"), user);
+        when(noteRepository.saveAndFlush(any(Note.class))).thenThrow(new RuntimeException("disk full"));
+        
+        autosaveService.flushAll();
+        autosaveService.flushAll();
+        assertEquals("draft one", autosaveService.draftsFor(user.getId()).get(NOTE_ID).getContent());
+        verify(changeFeedService, never()).notifyUserAfterCommit(any(), anyString(), any());
+        
+        autosaveService.flushAll();
+        assertTrue(autosaveService.draftsFor(user.getId()).isEmpty());
+        verify(changeFeedService).notifyUserAfterCommit(user.getId(), "NOTE_AUTOSAVE_FAILED", NOTE_ID);
+    }
+    
+    @Test
+    void backsOffBeforeRetryingAFailedWrite() {
+        ReflectionTestUtils.setField(autosaveService, "retryBackoffMs", 60_000L);
+        noteService.autosaveNote(NOTE_ID, new NoteDto("Title", "draft one"), user);
+        when(noteRepository.saveAndFlush(any(Note.class))).thenThrow(new RuntimeException("disk full"));
+        
+        autosaveService.flushDue();
+        autosaveService.flushDue();
+        autosaveService.flushDue();
+        verify(noteRepository, times(1)).saveAndFlush(any(Note.class));
+        assertEquals("draft one", autosaveService.draftsFor(user.getId()).get(NOTE_ID).getContent());
+    }
+    
+    private static NotePatchDto patch(Long baseVersion, String content) {
+        NotePatchDto patch = new NotePatchDto();
+        patch.setBaseVersion(baseVersion);
+        patch.setContent(content);
+        return patch;
+    }
+    
+    private static NoteDto versioned(NoteDto dto, Long version) {
+        dto.setVersion(version);
+        return dto;
+    }
+    
+    private static ContentBlob body(String text) {
+        ContentBlob blob = mock(ContentBlob.class);
+        when(blob.getBody()).thenReturn(text);
+        when(blob.getHash()).thenReturn(ContentStoreService.hash(text));
+        when(blob.getContentLength()).thenReturn(text.length());
+        return blob;
+    }
+}
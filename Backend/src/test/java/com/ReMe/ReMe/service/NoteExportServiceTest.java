@@ -0,0 +1,153 @@
+package com.ReMe.ReMe.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ReMe.ReMe.dto.NoteExportRow;
+import com.ReMe.ReMe.entity.User;
+import com.ReMe.ReMe.repository.NoteRepository;
+import com.ReMe.ReMe.util.NoteExportWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Exports a synthetic account of {@value #NOTES} notes through NoteExportService in a separate JVM limited
+ * to {@value #HEAP} of heap, with the database cursor stubbed by a lazily generated stream. Every
+ * {@value #LARGE_EVERY}th note has a {@value #LARGE_BYTES}-byte large body. The export only completes if
+ * memory use does not grow with the number of notes; the NDJSON output must have one line per note.
+ */
+class NoteExportServiceTest {
+    
+    private static final int NOTES = 1_000_000;
+    private static final int CONTENT_LENGTH = 200;
+    private static final int LARGE_EVERY = 100_000;
+    private static final int LARGE_BYTES = 4 * 1024 * 1024;
+    private static final String HEAP = "-Xmx64m";
+    private static final Pattern RESULT = Pattern.compile("exported (\\d+) notes in (\\d+) lines");
+    
+    @Test
+    void millionNoteExportUnderFixedHeap() throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, HEAP, "-cp", System.getProperty("java.class.path"),
+                NoteExportServiceTest.class.getName())
+                .redirectErrorStream(true)
+                .start();
+        List<String> output;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            output = reader.lines().collect(Collectors.toList());
+        }
+        assertEquals(0, process.waitFor(), () -> "export failed:\n" + String.join("\n", output));
+        
+        Matcher result = output.stream().map(RESULT::matcher).filter(Matcher::find).findFirst()
+                .orElseThrow(() -> new AssertionError("no result line in:\n" + String.join("\n", output)));
+        assertEquals(NOTES, Long.parseLong(result.group(1)));
+        assertEquals(NOTES, Long.parseLong(result.group(2)));
+    }
+    
+    // Runs in the forked JVM
+    public static void main(String[] args) throws IOException {
+        User user = new User("export", "export@example.com", "secret");
+        user.setId(UUID.randomUUID());
+        NoteRepository noteRepository = mock(NoteRepository.class);
+        when(noteRepository.streamForExport(user)).thenAnswer(call -> rows());
+        LargeContentStore largeContentStore = mock(LargeContentStore.class);
+        when(largeContentStore.openStream(anyInt(), anyLong(), anyLong()))
+                .thenAnswer(call -> largeBody(call.getArgument(2)));
+        
+        NoteExportService exportService = new NoteExportService();
+        ReflectionTestUtils.setField(exportService, "noteRepository", noteRepository);
+        ReflectionTestUtils.setField(exportService, "autosaveService", new NoteAutosaveService());
+        ReflectionTestUtils.setField(exportService, "largeContentStore", largeContentStore);
+        ReflectionTestUtils.setField(exportService, "objectMapper", new ObjectMapper());
+        
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        exportService.export(user, NoteExportWriter.NDJSON, out);
+        System.out.println("exported " + out.notes + " notes in " + out.lines + " lines");
+    }
+    
+    // Generated lazily, as the database cursor would deliver them
+    private static Stream<NoteExportRow> rows() {
+        char[] content = new char[CONTENT_LENGTH];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = i % 9 == 8 ? ' ' : (char) ('a' + i % 26);
+        }
+        String body = new String(content);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        return LongStream.rangeClosed(1, NOTES).mapToObj(id -> {
+            boolean large = id % LARGE_EVERY == 0;
+            return new NoteExportRow(id, "Synthetic note " + id, large ? null : body, large ? 0 : null,
+                    large ? 0L : null, large ? (long) LARGE_BYTES : null, createdAt, createdAt.plusSeconds(id));
+        });
+    }
+    
+    private static InputStream largeBody(long byteLength) {
+        return new InputStream() {
+            private long remaining = byteLength;
+            
+            @Override
+            public int read() {
+                return remaining-- > 0 ? 'x' : -1;
+            }
+            
+            @Override
+            public int read(byte[] bytes, int off, int len) {
+                if (remaining <= 0) {
+                    return -1;
+                }
+                int n = (int) Math.min(len, remaining);
+                Arrays.fill(bytes, off, off + n, (byte) 'x');
+                remaining -= n;
+                return n;
+            }
+        };
+    }
+    
+    /**
+     * Counts lines and the notes they hold (lines starting with a JSON object) without keeping any output.
+     */
+    private static final class LineCountingOutputStream extends OutputStream {
+        private long lines;
+        private long notes;
+        private boolean lineStart = true;
+        
+        @Override
+        public void write(int b) {
+            if (lineStart && b == '{') {
+                notes++;
+            }
+            lineStart = b == '\n';
+            if (lineStart) {
+                lines++;
+            }
+        }
+        
+        @Override
+        public void write(byte[] bytes, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(bytes[i]);
+            }
+        }
+    }
+}
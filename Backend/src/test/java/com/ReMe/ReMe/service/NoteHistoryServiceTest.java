@@ -0,0 +1,134 @@
+package com.ReMe.ReMe.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ReMe.ReMe.entity.Note;
+import com.ReMe.ReMe.entity.NoteRevision;
+import com.ReMe.ReMe.entity.User;
+import com.ReMe.ReMe.repository.NoteRepository;
+import com.ReMe.ReMe.repository.NoteRevisionRepository;
+
+/**
+ * Snapshot cadence and replay of NoteHistoryService, with the revision table kept in a list.
+ */
+class NoteHistoryServiceTest {
+    
+    private static final long NOTE_ID = 1L;
+    private static final int SNAPSHOT_INTERVAL = 5;
+    
+    private final List<NoteRevision> revisions = new ArrayList<>();
+    private final NoteRepository noteRepository = mock(NoteRepository.class);
+    private final User user = new User("history", "history@example.com", "secret");
+    private NoteHistoryService historyService;
+    
+    @BeforeEach
+    void setUp() {
+        user.setId(UUID.randomUUID());
+        NoteRevisionRepository revisionRepository = mock(NoteRevisionRepository.class);
+        when(revisionRepository.save(any(NoteRevision.class))).thenAnswer(call -> {
+            revisions.add(call.getArgument(0));
+            return call.getArgument(0);
+        });
+        when(revisionRepository.findLatestVersion(NOTE_ID)).thenAnswer(call -> revisions.stream()
+                .map(NoteRevision::getVersion).max(Long::compare).orElse(null));
+        when(revisionRepository.findSnapshotVersionAtOrBefore(eq(NOTE_ID), anyLong())).thenAnswer(call -> revisions.stream()
+                .filter(r -> r.isSnapshot() && r.getVersion() <= (Long) call.getArgument(1))
+                .map(NoteRevision::getVersion).max(Long::compare).orElse(null));
+        when(revisionRepository.findChain(eq(NOTE_ID), eq(user), anyLong(), anyLong())).thenAnswer(call -> revisions.stream()
+                .filter(r -> r.getVersion() >= (Long) call.getArgument(2) && r.getVersion() <= (Long) call.getArgument(3))
+                .toList());
+        
+        historyService = new NoteHistoryService();
+        ReflectionTestUtils.setField(historyService, "revisionRepository", revisionRepository);
+        ReflectionTestUtils.setField(historyService, "noteRepository", noteRepository);
+        ReflectionTestUtils.setField(historyService, "snapshotInterval", SNAPSHOT_INTERVAL);
+    }
+    
+    @Test
+    void startsASnapshotEveryIntervalVersions() {
+        String content = longText();
+        historyService.record(note(1, content), null);
+        for (long version = 2; version <= 12; version++) {
+            String previous = content;
+            content = content + " edit " + version;
+            historyService.record(note(version, content), previous);
+        }
+        
+        for (NoteRevision revision : revisions) {
+            assertEquals((revision.getVersion() - 1) % SNAPSHOT_INTERVAL == 0, revision.isSnapshot(),
+                    "version " + revision.getVersion());
+        }
+    }
+    
+    @Test
+    void snapshotsLargeEditsAndGaps() {
+        historyService.record(note(1, longText()), null);
+        historyService.record(note(2, "completely different"), longText());
+        historyService.record(note(3, "completely different, edited"), "completely different");
+        // Version 4 never reached the history
+        historyService.record(note(5, longText()), "whatever 4 was");
+        
+        assertTrue(revisions.get(1).isSnapshot(), "delta not smaller than half the content");
+        assertFalse(revisions.get(2).isSnapshot());
+        assertTrue(revisions.get(3).isSnapshot(), "previous version missing");
+    }
+    
+    @Test
+    void replaysEveryVersion() {
+        List<String> contents = new ArrayList<>();
+        String content = longText();
+        contents.add(content);
+        historyService.record(note(1, content), null);
+        for (long version = 2; version <= 12; version++) {
+            String previous = content;
+            content = version % 3 == 0 ? "prefix " + previous : previous.substring(0, previous.length() - 3) + version;
+            contents.add(content);
+            historyService.record(note(version, content), previous);
+        }
+        
+        for (int i = 0; i < contents.size(); i++) {
+            assertEquals(contents.get(i), historyService.getVersion(NOTE_ID, (long) i + 1, user).getContent());
+        }
+        assertThrows(RuntimeException.class, () -> historyService.getVersion(NOTE_ID, 13L, user));
+    }
+    
+    @Test
+    void listsVersionsOnlyForExistingNotes() {
+        when(noteRepository.findVersionByIdAndUser(NOTE_ID, user)).thenReturn(Optional.of(3L));
+        when(noteRepository.findVersionByIdAndUser(2L, user)).thenReturn(Optional.empty());
+        
+        assertTrue(historyService.getVersions(NOTE_ID, user).isEmpty());
+        assertThrows(RuntimeException.class, () -> historyService.getVersions(2L, user));
+    }
+    
+    private Note note(long version, String content) {
+        Note note = mock(Note.class);
+        when(note.getId()).thenReturn(NOTE_ID);
+        when(note.getUser()).thenReturn(user);
+        when(note.getTitle()).thenReturn("History");
+        when(note.getVersion()).thenReturn(version);
+        when(note.getContent()).thenReturn(content);
+        return note;
+    }
+    
+    private static String longText() {
+        return "The quick brown fox jumps over the lazy dog. ".repeat(10);
+    }
+}
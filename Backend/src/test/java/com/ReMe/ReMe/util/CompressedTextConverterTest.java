@@ -0,0 +1,130 @@
+package com.ReMe.ReMe.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+import org.junit.jupiter.api.Test;
+
+class CompressedTextConverterTest {
+    
+    @Test
+    void writesFormatCodecAndLengthHeader() {
+        String text = "Grüße, ノート";
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        byte[] data = CompressedTextConverter.encode(text);
+        
+        ByteBuffer header = ByteBuffer.wrap(data);
+        assertEquals(CompressedTextConverter.FORMAT, header.get());
+        assertEquals(CompressedTextConverter.RAW, header.get());
+        assertEquals(raw.length, header.getInt());
+        assertArrayEquals(raw, Arrays.copyOfRange(data, CompressedTextConverter.HEADER_LENGTH, data.length));
+        assertEquals(text, CompressedTextConverter.decode(data));
+    }
+    
+    @Test
+    void storesShortTextRaw() {
+        String text = "a".repeat(CompressedTextConverter.MIN_COMPRESSED_BYTES - 1);
+        byte[] data = CompressedTextConverter.encode(text);
+        
+        assertEquals(CompressedTextConverter.RAW, data[1]);
+        assertEquals(CompressedTextConverter.HEADER_LENGTH + text.length(), data.length);
+        assertEquals(text, CompressedTextConverter.decode(data));
+    }
+    
+    @Test
+    void deflatesWithTheFastLevelUpToTheThreshold() {
+        for (int length : new int[] {CompressedTextConverter.MIN_COMPRESSED_BYTES, CompressedTextConverter.FAST_LEVEL_MAX_BYTES}) {
+            String text = repetitiveText(length);
+            byte[] data = CompressedTextConverter.encode(text);
+            
+            assertEquals(CompressedTextConverter.DEFLATE, data[1], "length " + length);
+            assertEquals(length, ByteBuffer.wrap(data, 2, 4).getInt());
+            assertArrayEquals(deflate(text, Deflater.BEST_SPEED), payload(data), "length " + length);
+            assertEquals(text, CompressedTextConverter.decode(data));
+        }
+    }
+    
+    @Test
+    void deflatesWithTheDefaultLevelAboveTheThreshold() {
+        String text = repetitiveText(CompressedTextConverter.FAST_LEVEL_MAX_BYTES + 1);
+        byte[] data = CompressedTextConverter.encode(text);
+        
+        assertEquals(CompressedTextConverter.DEFLATE, data[1]);
+        assertArrayEquals(deflate(text, Deflater.DEFAULT_COMPRESSION), payload(data));
+        assertEquals(text, CompressedTextConverter.decode(data));
+    }
+    
+    @Test
+    void readsFormatZeroRowsFromTheMigration() {
+        // 007: decode('0000', 'hex') || int4send(octet_length(convert_to(body, 'UTF8'))) || convert_to(body, 'UTF8')
+        for (String text : new String[] {"", "plain", "Ünïcödé\nlines", repetitiveText(20_000)}) {
+            byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+            byte[] migrated = ByteBuffer.allocate(6 + raw.length)
+                    .put((byte) 0).put((byte) 0).putInt(raw.length).put(raw)
+                    .array();
+            
+            assertEquals(text, CompressedTextConverter.decode(migrated));
+            // Rewritten in the current format by the recompressor
+            assertEquals(CompressedTextConverter.FORMAT, CompressedTextConverter.encode(text)[0]);
+        }
+    }
+    
+    @Test
+    void rejectsUnknownAndDamagedData() {
+        byte[] deflated = CompressedTextConverter.encode(repetitiveText(5000));
+        
+        assertThrows(IllegalArgumentException.class, () -> CompressedTextConverter.decode(new byte[] {1, 0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> CompressedTextConverter.decode(new byte[] {2, 0, 0, 0, 0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> CompressedTextConverter.decode(new byte[] {1, 7, 0, 0, 0, 0}));
+        assertThrows(IllegalArgumentException.class,
+                () -> CompressedTextConverter.decode(Arrays.copyOf(deflated, deflated.length / 2)));
+        byte[] corrupt = deflated.clone();
+        Arrays.fill(corrupt, CompressedTextConverter.HEADER_LENGTH, corrupt.length, (byte) 0xFF);
+        assertThrows(IllegalArgumentException.class, () -> CompressedTextConverter.decode(corrupt));
+    }
+    
+    @Test
+    void passesNullThroughTheConverter() {
+        CompressedTextConverter converter = new CompressedTextConverter();
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+        assertTrue(converter.convertToDatabaseColumn("x").length > CompressedTextConverter.HEADER_LENGTH);
+    }
+    
+    private static String repetitiveText(int length) {
+        StringBuilder text = new StringBuilder(length + 32);
+        while (text.length() < length) {
+            text.append("- [ ] follow up on the review notes\n");
+        }
+        return text.substring(0, length);
+    }
+    
+    private static byte[] payload(byte[] data) {
+        return Arrays.copyOfRange(data, CompressedTextConverter.HEADER_LENGTH, data.length);
+    }
+    
+    private static byte[] deflate(String text, int level) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(text.getBytes(StandardCharsets.UTF_8));
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.ReMe.ReMe.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class KeysetCursorTest {
+    
+    @Test
+    void roundTripsSortValueAndId() {
+        String[] sortValues = {"2024-05-01T12:30:15.123456", "NEWEST:2024-05-01T12:30", "PRICE_ASC:1500000", "", "a|b|c", "ノート"};
+        for (String sortValue : sortValues) {
+            KeysetCursor decoded = KeysetCursor.decode(new KeysetCursor(sortValue, 42L).encode());
+            assertEquals(sortValue, decoded.getSortValue());
+            assertEquals(42L, decoded.getId());
+        }
+        KeysetCursor extreme = KeysetCursor.decode(new KeysetCursor("x", Long.MAX_VALUE).encode());
+        assertEquals(Long.MAX_VALUE, extreme.getId());
+    }
+    
+    @Test
+    void encodesUrlSafeWithoutPadding() {
+        String token = new KeysetCursor("a?b>c~", 1L).encode();
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+    }
+    
+    @Test
+    void treatsMissingTokenAsFirstPage() {
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(""));
+        assertNull(KeysetCursor.decode("   "));
+    }
+    
+    @Test
+    void rejectsGarbageTokens() {
+        for (String token : new String[] {"!!!", "not a cursor", "a", "%%%%", "abc=def", "\u0000"}) {
+            assertThrows(RuntimeException.class, () -> KeysetCursor.decode(token), token);
+        }
+    }
+    
+    @Test
+    void rejectsTamperedTokens() {
+        String[] payloads = {"no separator", "2024-05-01T12:30|", "2024-05-01T12:30|abc", "2024-05-01T12:30|1.5",
+            "2024-05-01T12:30|99999999999999999999", "2024-05-01T12:30|null", "|"};
+        for (String payload : payloads) {
+            String token = encodeRaw(payload);
+            assertThrows(RuntimeException.class, () -> KeysetCursor.decode(token), payload);
+        }
+        
+        // Cutting or extending a valid token breaks either the Base64 or the id
+        String valid = new KeysetCursor("2024-05-01T12:30", 7L).encode();
+        String truncated = valid.substring(0, valid.length() - 2);
+        assertThrows(RuntimeException.class, () -> KeysetCursor.decode(truncated));
+        assertThrows(RuntimeException.class, () -> KeysetCursor.decode(valid + "*"));
+    }
+    
+    @Test
+    void decodesHandWrittenCursorsWithTheSameFormat() {
+        // Not signed: a well-formed cursor decodes, and the listing query bounds what it can reach
+        KeysetCursor cursor = KeysetCursor.decode(encodeRaw("2024-05-01T12:30|-5"));
+        assertEquals("2024-05-01T12:30", cursor.getSortValue());
+        assertEquals(-5L, cursor.getId());
+    }
+    
+    private static String encodeRaw(String payload) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+}
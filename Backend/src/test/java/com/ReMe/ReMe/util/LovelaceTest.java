@@ -0,0 +1,125 @@
+package com.ReMe.ReMe.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class LovelaceTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    @Test
+    void parsesPlainAmounts() {
+        assertEquals(12_000_000L, Lovelace.parseAda("12"));
+        assertEquals(500_000L, Lovelace.parseAda("0.5"));
+        assertEquals(500_000L, Lovelace.parseAda(".5"));
+        assertEquals(1_000_000L, Lovelace.parseAda("1."));
+        assertEquals(1_000_000L, Lovelace.parseAda("+1"));
+        assertEquals(1L, Lovelace.parseAda("0.000001"));
+        assertEquals(0L, Lovelace.parseAda("-0"));
+    }
+    
+    @Test
+    void parsesNegativeAmounts() {
+        assertEquals(-1_000_001L, Lovelace.parseAda("-1.000001"));
+        assertEquals(-500_000L, Lovelace.parseAda("-0.5"));
+        assertEquals(-1L, Lovelace.parseAda("-0.000001"));
+    }
+    
+    @Test
+    void acceptsTrailingZerosButNoSeventhDecimal() {
+        // Amounts are exact lovelace; nothing is rounded
+        assertEquals(1_123_456L, Lovelace.parseAda("1.1234560"));
+        assertEquals(1_123_456L, Lovelace.parseAda("1.123456000000"));
+        assertThrows(NumberFormatException.class, () -> Lovelace.parseAda("1.1234565"));
+        assertThrows(NumberFormatException.class, () -> Lovelace.parseAda("0.0000001"));
+        assertThrows(NumberFormatException.class, () -> Lovelace.parseAda("-0.0000009"));
+    }
+    
+    @Test
+    void parsesExponentNotation() {
+        assertEquals(1_500_000L, Lovelace.parseAda("1.5e0"));
+        assertEquals(1_500_000_000L, Lovelace.parseAda("1.5E3"));
+        assertEquals(1L, Lovelace.parseAda("1e-6"));
+        assertEquals(-20_000L, Lovelace.parseAda("-2E-2"));
+        assertThrows(NumberFormatException.class, () -> Lovelace.parseAda("1e-7"));
+        assertThrows(NumberFormatException.class, () -> Lovelace.parseAda("1e13"));
+        assertThrows(NumberFormatException.class, () -> Lovelace.parseAda("1e2147483647"));
+        assertThrows(NumberFormatException.class, () -> Lovelace.parseAda("1e99999999999"));
+        assertThrows(NumberFormatException.class, () -> Lovelace.parseAda("e5"));
+    }
+    
+    @Test
+    void rejectsOverflowAsNumberFormatException() {
+        assertEquals(Long.MAX_VALUE, Lovelace.parseAda("9223372036854.775807"));
+        assertEquals(Long.MIN_VALUE, Lovelace.parseAda("-9223372036854.775808"));
+        assertThrows(NumberFormatException.class, () -> Lovelace.parseAda("9223372036854.775808"));
+        assertThrows(NumberFormatException.class, () -> Lovelace.parseAda("-9223372036854.775809"));
+        assertThrows(NumberFormatException.class, () -> Lovelace.parseAda("9223372036855"));
+        assertThrows(NumberFormatException.class, () -> Lovelace.parseAda("92233720368547758070"));
+        assertThrows(NumberFormatException.class, () -> Lovelace.parseAda("99999999999999999999999999"));
+    }
+    
+    @Test
+    void rejectsMalformedText() {
+        for (String text : new String[] {null, "", "-", "+", ".", "-.", "1.2.3", "1,5", " 1", "1 ", "0x10", "--1", "1-"}) {
+            assertThrows(NumberFormatException.class, () -> Lovelace.parseAda(text), String.valueOf(text));
+        }
+    }
+    
+    @Test
+    void formatsWithoutTrailingZeros() {
+        assertEquals("0", Lovelace.formatAda(0));
+        assertEquals("12", Lovelace.formatAda(12_000_000L));
+        assertEquals("1.5", Lovelace.formatAda(1_500_000L));
+        assertEquals("0.000001", Lovelace.formatAda(1));
+        assertEquals("-0.5", Lovelace.formatAda(-500_000L));
+        assertEquals("-1.000001", Lovelace.formatAda(-1_000_001L));
+        assertEquals("9223372036854.775807", Lovelace.formatAda(Long.MAX_VALUE));
+        assertEquals("-9223372036854.775808", Lovelace.formatAda(Long.MIN_VALUE));
+    }
+    
+    @Test
+    void formatAndParseRoundTrip() {
+        Random random = new Random(11);
+        for (int i = 0; i < 10_000; i++) {
+            long lovelace = switch (i % 3) {
+                case 0 -> random.nextLong();
+                case 1 -> random.nextInt(2_000_000) - 1_000_000;
+                default -> (random.nextInt(2000) - 1000) * Lovelace.PER_ADA;
+            };
+            String ada = Lovelace.formatAda(lovelace);
+            assertEquals(lovelace, Lovelace.parseAda(ada), ada);
+            assertEquals(0, new BigDecimal(lovelace).movePointLeft(6).compareTo(new BigDecimal(ada)), ada);
+        }
+    }
+    
+    @Test
+    void exchangesAdaInJson() throws Exception {
+        assertEquals("{\"price\":1.5}", objectMapper.writeValueAsString(new Priced(1_500_000L)));
+        assertEquals(1_500_000L, objectMapper.readValue("{\"price\":1.5}", Priced.class).price);
+        assertEquals(2_000_000L, objectMapper.readValue("{\"price\":\"2\"}", Priced.class).price);
+        assertEquals(20_000L, objectMapper.readValue("{\"price\":2e-2}", Priced.class).price);
+        assertThrows(JsonMappingException.class, () -> objectMapper.readValue("{\"price\":0.0000001}", Priced.class));
+        assertThrows(JsonMappingException.class, () -> objectMapper.readValue("{\"price\":1e30}", Priced.class));
+        assertThrows(JsonMappingException.class, () -> objectMapper.readValue("{\"price\":true}", Priced.class));
+    }
+    
+    static class Priced {
+        @Lovelace.AsAda
+        public Long price;
+        
+        Priced() {}
+        
+        Priced(Long price) {
+            this.price = price;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.ReMe.ReMe.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks TagBitmap against a TreeSet of the same ids under random operations. Ids are drawn from a few
+ * 16-bit blocks, some sparse and some dense, so containers convert between the array and bitmap forms.
+ */
+class TagBitmapTest {
+    
+    private static final int ARRAY_MAX = 4096;
+    private static final long[] BLOCKS = {0, 1, 7, 1L << 40};
+    private static final int SEEDS = 20;
+    
+    @Test
+    void randomAddsAndRemovesMatchTreeSet() {
+        for (int seed = 0; seed < SEEDS; seed++) {
+            Random random = new Random(seed);
+            TagBitmap bitmap = new TagBitmap();
+            NavigableSet<Long> expected = new TreeSet<>();
+            // Grow past the array limit, then shrink back under it
+            for (int phase = 0; phase < 2; phase++) {
+                for (int i = 0; i < 40_000; i++) {
+                    long id = randomId(random, 0.9);
+                    boolean add = phase == 0 ? random.nextInt(4) != 0 : random.nextInt(4) == 0;
+                    if (add) {
+                        assertEquals(expected.add(id), bitmap.add(id), "add " + id);
+                    } else {
+                        assertEquals(expected.remove(id), bitmap.remove(id), "remove " + id);
+                    }
+                }
+                assertSameIds(expected, bitmap);
+            }
+        }
+    }
+    
+    @Test
+    void convertsBetweenArrayAndBitmapAt4096() throws IOException {
+        TagBitmap bitmap = new TagBitmap();
+        for (int value = 0; value < ARRAY_MAX; value++) {
+            bitmap.add(value * 16L);
+        }
+        // Header, key, type byte, then a short count and 4096 chars for an array or 1024 longs for a bitmap
+        assertEquals(4 + 8 + 1 + 2 + ARRAY_MAX * 2, serialize(bitmap).length);
+        
+        assertTrue(bitmap.add(1));
+        assertEquals(4 + 8 + 1 + 1024 * 8, serialize(bitmap).length);
+        assertEquals(ARRAY_MAX + 1, bitmap.cardinality());
+        assertTrue(bitmap.contains(1));
+        assertTrue(bitmap.contains(16 * (ARRAY_MAX - 1)));
+        assertFalse(bitmap.contains(2));
+        
+        assertTrue(bitmap.remove(1));
+        assertEquals(4 + 8 + 1 + 2 + ARRAY_MAX * 2, serialize(bitmap).length);
+        assertEquals(ARRAY_MAX, bitmap.cardinality());
+        assertFalse(bitmap.contains(1));
+        
+        // A dense result of a set operation that falls under the limit is stored as an array
+        TagBitmap dense = new TagBitmap();
+        for (int value = 0; value < 3 * ARRAY_MAX; value++) {
+            dense.add(value);
+        }
+        TagBitmap half = dense.andNot(rangeOf(ARRAY_MAX, 3 * ARRAY_MAX));
+        assertEquals(ARRAY_MAX, half.cardinality());
+        assertEquals(4 + 8 + 1 + 2 + ARRAY_MAX * 2, serialize(half).length);
+    }
+    
+    @Test
+    void descendingBelowMatchesTreeSet() {
+        for (int seed = 0; seed < SEEDS; seed++) {
+            Random random = new Random(seed);
+            NavigableSet<Long> expected = randomSet(random);
+            TagBitmap bitmap = TagBitmap.of(expected);
+            
+            long[] bounds = {0, 1, 65536, 65537, 7 * 65536, 8 * 65536, (1L << 40) * 65536, Long.MAX_VALUE,
+                randomId(random, 0.5), randomId(random, 0.5) + 1};
+            for (long bound : bounds) {
+                for (int limit : new int[] {0, 1, 10, 5000, Integer.MAX_VALUE}) {
+                    long[] want = expected.headSet(bound, false).descendingSet().stream()
+                            .limit(limit)
+                            .mapToLong(Long::longValue)
+                            .toArray();
+                    assertArrayEquals(want, bitmap.descendingBelow(bound, limit), "below " + bound + " limit " + limit);
+                }
+            }
+        }
+    }
+    
+    @Test
+    void setOperationsMatchTreeSet() {
+        for (int seed = 0; seed < SEEDS; seed++) {
+            Random random = new Random(seed);
+            NavigableSet<Long> left = randomSet(random);
+            NavigableSet<Long> right = randomSet(random);
+            TagBitmap a = TagBitmap.of(left);
+            TagBitmap b = TagBitmap.of(right);
+            
+            NavigableSet<Long> and = new TreeSet<>(left);
+            and.retainAll(right);
+            NavigableSet<Long> or = new TreeSet<>(left);
+            or.addAll(right);
+            NavigableSet<Long> andNot = new TreeSet<>(left);
+            andNot.removeAll(right);
+            
+            assertSameIds(and, a.and(b));
+            assertSameIds(or, a.or(b));
+            assertSameIds(andNot, a.andNot(b));
+            assertSameIds(new TreeSet<>(), a.andNot(a));
+            assertSameIds(left, a.andNot(new TagBitmap()));
+            assertEquals(and.size(), a.andCardinality(b));
+            // The operands are left unchanged
+            assertSameIds(left, a);
+            assertSameIds(right, b);
+        }
+    }
+    
+    @Test
+    void writeToReadFromRoundTrip() throws IOException {
+        for (int seed = 0; seed < SEEDS; seed++) {
+            NavigableSet<Long> expected = randomSet(new Random(seed));
+            TagBitmap bitmap = TagBitmap.of(expected);
+            byte[] bytes = serialize(bitmap);
+            
+            TagBitmap restored = TagBitmap.readFrom(new DataInputStream(new ByteArrayInputStream(bytes)));
+            assertSameIds(expected, restored);
+            assertArrayEquals(bytes, serialize(restored));
+        }
+        assertSameIds(new TreeSet<>(), TagBitmap.readFrom(
+                new DataInputStream(new ByteArrayInputStream(serialize(new TagBitmap())))));
+    }
+    
+    // Per block: sparse or dense enough to hold a bitmap container
+    private static NavigableSet<Long> randomSet(Random random) {
+        NavigableSet<Long> ids = new TreeSet<>();
+        for (long block : BLOCKS) {
+            int count = random.nextBoolean() ? random.nextInt(200) : ARRAY_MAX + random.nextInt(20_000);
+            for (int i = 0; i < count; i++) {
+                ids.add(block * 65536 + random.nextInt(65536));
+            }
+        }
+        return ids;
+    }
+    
+    // Mostly from a narrow range, so the first blocks fill up past the array limit
+    private static long randomId(Random random, double narrow) {
+        long block = BLOCKS[random.nextInt(BLOCKS.length)];
+        return block * 65536 + (random.nextDouble() < narrow ? random.nextInt(6000) : random.nextInt(65536));
+    }
+    
+    private static TagBitmap rangeOf(long from, long to) {
+        TagBitmap bitmap = new TagBitmap();
+        for (long id = from; id < to; id++) {
+            bitmap.add(id);
+        }
+        return bitmap;
+    }
+    
+    private static void assertSameIds(NavigableSet<Long> expected, TagBitmap bitmap) {
+        assertEquals(expected.size(), bitmap.cardinality());
+        assertEquals(expected.isEmpty(), bitmap.isEmpty());
+        long[] want = expected.descendingSet().stream().mapToLong(Long::longValue).toArray();
+        assertArrayEquals(want, bitmap.descendingBelow(Long.MAX_VALUE, Integer.MAX_VALUE));
+        for (long id : expected) {
+            assertTrue(bitmap.contains(id), "contains " + id);
+        }
+    }
+    
+    private static byte[] serialize(TagBitmap bitmap) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bitmap.writeTo(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,73 @@
+package com.ReMe.ReMe.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TextDeltaTest {
+    
+    @Test
+    void roundTripsEdgeCases() {
+        String[][] pairs = {
+            {"", ""},
+            {"", "new text"},
+            {"old text", ""},
+            {"same", "same"},
+            {"hello", "hello world"},      // append: prefix only
+            {"world", "hello world"},      // prepend: suffix only
+            {"hello world", "hello"},
+            {"hello world", "world"},
+            {"abcdef", "abXYef"},          // replace in the middle
+            {"aaaa", "aaaaaa"},            // repeated characters, prefix and suffix overlap
+            {"abc", "xyz"},                // nothing in common
+            {"a,b,c", "a,,b,,c"},          // separators in the inserted text
+            {"line 1\nline 2\n", "line 1\nline 1.5\nline 2\n"},
+        };
+        for (String[] pair : pairs) {
+            assertRoundTrip(pair[0], pair[1]);
+        }
+    }
+    
+    @Test
+    void encodesNullAsEmpty() {
+        assertEquals("0,0,text", TextDelta.encode(null, "text"));
+        assertEquals("0,4,", TextDelta.encode("text", null));
+        assertEquals("text", TextDelta.apply(null, "0,0,text"));
+    }
+    
+    @Test
+    void keepsTheDeltaToTheChangedRegion() {
+        assertEquals("5,0, world", TextDelta.encode("hello", "hello world"));
+        assertEquals("0,0,hello ", TextDelta.encode("world", "hello world"));
+        assertEquals("2,2,XY", TextDelta.encode("abcdef", "abXYef"));
+        assertEquals("4,0,", TextDelta.encode("same", "same"));
+    }
+    
+    @Test
+    void roundTripsRandomEdits() {
+        Random random = new Random(7);
+        for (int i = 0; i < 2_000; i++) {
+            String from = randomText(random, random.nextInt(40));
+            StringBuilder to = new StringBuilder(from);
+            int start = random.nextInt(from.length() + 1);
+            int end = start + random.nextInt(from.length() - start + 1);
+            to.replace(start, end, randomText(random, random.nextInt(10)));
+            assertRoundTrip(from, to.toString());
+        }
+    }
+    
+    private static void assertRoundTrip(String from, String to) {
+        assertEquals(to, TextDelta.apply(from, TextDelta.encode(from, to)), () -> from + " -> " + to);
+    }
+    
+    // A small alphabet, so prefixes and suffixes often match by chance
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append("ab,\n".charAt(random.nextInt(4)));
+        }
+        return text.toString();
+    }
+}